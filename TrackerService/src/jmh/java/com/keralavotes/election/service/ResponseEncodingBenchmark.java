@@ -0,0 +1,149 @@
+package com.keralavotes.election.service;
+
+import com.keralavotes.election.dto.AssemblyAnalysisResponseDto;
+import com.keralavotes.election.dto.ElectionType;
+import com.keralavotes.election.dto.details.AllianceVoteDetailDto;
+import com.keralavotes.election.dto.details.LocalbodyDetailYearDataDto;
+import com.keralavotes.election.dto.details.WardDetailRowDto;
+import com.keralavotes.election.model.AnalysisView;
+import com.keralavotes.election.model.VoteRollup;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoding cost and size of an analysis response as JSON or CBOR, with and without gzip.
+ * The DTO is built once; only serialization (and compression) is measured. Encoded sizes
+ * are printed at setup.
+ *
+ * {@code scope=state} is the 22k-ward state response of
+ * {@link StateAnalysisSerializationBenchmark}; {@code scope=localbody} is the
+ * {@code /localbody/{id}/details} body for 3 years of a 45-ward localbody.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx1g")
+public class ResponseEncodingBenchmark {
+
+    private static final class Discard extends OutputStream {
+        long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+
+    @Param({"state", "localbody"})
+    String scope;
+
+    @Param({"json", "cbor"})
+    String format;
+
+    @Param({"identity", "gzip"})
+    String encoding;
+
+    private ObjectMapper mapper;
+    private Object body;
+
+    @Setup
+    public void setUp() throws IOException {
+        body = scope.equals("state") ? stateResponse() : localbodyDetails();
+        mapper = format.equals("cbor") ? CBORMapper.builder().build() : JsonMapper.builder().build();
+
+        System.out.printf("%n%s %s %s: %,d bytes%n", scope, format, encoding, encode());
+    }
+
+    private static AssemblyAnalysisResponseDto stateResponse() {
+        VoteRollup rollup = VoteRollup.build(StateAnalysisSerializationBenchmark.YEAR,
+                StateAnalysisSerializationBenchmark.alliances(),
+                StateAnalysisSerializationBenchmark.syntheticRows().stream());
+        VoteRollupService rollups = new VoteRollupService(null, null, null, null, null) {
+            @Override
+            public VoteRollup rollup(int year, List<String> includeTypes) {
+                return rollup;
+            }
+        };
+        AssemblyAnalysisResponseDto dto = new AssemblyAnalysisService(rollups, null, null, null, null, null, null, null)
+                .analyzeState(StateAnalysisSerializationBenchmark.YEAR, null, AnalysisView.ALL);
+        // the ward list is a lazy view; encode a stable copy every time
+        dto.setWards(List.copyOf(dto.getWards()));
+        return dto;
+    }
+
+    private static Map<Integer, LocalbodyDetailYearDataDto> localbodyDetails() {
+        String[] alliances = {"LDF", "UDF", "NDA", "OTH"};
+        Map<Integer, LocalbodyDetailYearDataDto> years = new LinkedHashMap<>();
+        for (int year : new int[]{2015, 2020, 2025}) {
+            List<WardDetailRowDto> wards = new ArrayList<>();
+            for (int w = 1; w <= 45; w++) {
+                long[] votes = {400 + 37L * ((w * 7 + year) % 19), 380 + 41L * ((w * 3 + year) % 17),
+                        90 + 13L * ((w + year) % 23), 20 + (w % 11)};
+                long total = 0;
+                for (long v : votes) {
+                    total += v;
+                }
+                List<AllianceVoteDetailDto> rows = new ArrayList<>();
+                for (int a = 0; a < alliances.length; a++) {
+                    rows.add(new AllianceVoteDetailDto(alliances[a], votes[a], 100.0 * votes[a] / total));
+                }
+                wards.add(WardDetailRowDto.builder()
+                        .wardNum(w)
+                        .wardName("Ward " + w + " Kottayam")
+                        .alliances(rows)
+                        .total(total)
+                        .winner(votes[0] >= votes[1] ? "LDF" : "UDF")
+                        .margin(Math.abs(votes[0] - votes[1]))
+                        .build());
+            }
+            years.put(year, LocalbodyDetailYearDataDto.builder()
+                    .year(year)
+                    .type(ElectionType.LOCALBODY)
+                    .wards(wards)
+                    .booths(List.of())
+                    .build());
+        }
+        return years;
+    }
+
+    @Benchmark
+    public long encode() throws IOException {
+        Discard out = new Discard();
+        if (encoding.equals("gzip")) {
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out, 8192)) {
+                mapper.writeValue(gzip, body);
+            }
+        } else {
+            mapper.writeValue(out, body);
+        }
+        return out.bytes;
+    }
+}
@@ -0,0 +1,105 @@
+package com.keralavotes.election.service;
+
+import com.keralavotes.election.dto.ElectionType;
+import com.keralavotes.election.dto.details.SeatProjectionJob;
+import com.keralavotes.election.model.ScenarioUnitRow;
+import com.keralavotes.election.model.SeatProjectionRequest;
+import com.keralavotes.election.model.VoteMatrix;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Monte Carlo seat projection over a synthetic localbody year shaped like Kerala 2025
+ * (~22k wards, ~1,150 localbodies, 140 ACs, 14 districts, NDA absent in a third of wards).
+ * {@code parallelism = 0} uses every core, as the service does by default.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SeatProjectionBenchmark {
+
+    static final int WARDS = 22_000;
+
+    private record Row(Long unitId, Long localbodyId, Integer acCode, Integer districtCode,
+                       String alliance, Long votes) implements ScenarioUnitRow {
+        public Long getUnitId() { return unitId; }
+        public Long getLocalbodyId() { return localbodyId; }
+        public String getLocalbodyName() { return "LB " + localbodyId; }
+        public Integer getAcCode() { return acCode; }
+        public String getAcName() { return "AC " + acCode; }
+        public Integer getDistrictCode() { return districtCode; }
+        public String getAlliance() { return alliance; }
+        public Long getVotes() { return votes; }
+    }
+
+    @Param({"1", "0"})
+    int parallelism;
+
+    @Param({"1000"})
+    int iterations;
+
+    private SeatProjectionService service;
+    private SeatProjectionRequest request;
+
+    @Setup
+    public void setUp() {
+        VoteMatrix matrix = VoteMatrix.build(2025, ElectionType.LOCALBODY, syntheticWards().stream());
+        VoteMatrixService matrices = new VoteMatrixService(null, null, null, null) {
+            @Override
+            public VoteMatrix matrix(int year) {
+                return matrix;
+            }
+        };
+        service = new SeatProjectionService(matrices, null, parallelism);
+
+        request = new SeatProjectionRequest();
+        request.setYear(2025);
+        request.setIterations(iterations);
+        request.setSeed(42L);
+    }
+
+    @TearDown
+    public void tearDown() {
+        service.shutdown();
+    }
+
+    @Benchmark
+    public SeatProjectionJob.Result project() {
+        return service.project(request);
+    }
+
+    static List<ScenarioUnitRow> syntheticWards() {
+        SplittableRandom rnd = new SplittableRandom(7);
+        List<ScenarioUnitRow> rows = new ArrayList<>(WARDS * 4);
+        for (long w = 0; w < WARDS; w++) {
+            long lb = w / 19;
+            int ac = (int) (lb % 140) + 1;
+            int district = (ac - 1) / 10 + 1;
+            rows.add(new Row(w, lb, ac, district, "LDF", 300L + rnd.nextInt(500)));
+            rows.add(new Row(w, lb, ac, district, "UDF", 300L + rnd.nextInt(500)));
+            if (w % 3 != 0) {
+                rows.add(new Row(w, lb, ac, district, "NDA", 50L + rnd.nextInt(400)));
+            }
+            rows.add(new Row(w, lb, ac, district, "OTH", (long) rnd.nextInt(120)));
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,137 @@
+package com.keralavotes.election.service;
+
+import com.keralavotes.election.dto.AssemblyAnalysisResponseDto;
+import com.keralavotes.election.model.AnalysisView;
+import com.keralavotes.election.model.PartyAllianceMappingRow;
+import com.keralavotes.election.model.PartyAllianceRow;
+import com.keralavotes.election.model.PartyAllianceSnapshot;
+import com.keralavotes.election.model.VoteRollup;
+import com.keralavotes.election.model.VoteRow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * State analysis response for a synthetic 22k-ward year, built from a prepared rollup and
+ * written as gzip JSON the way ResponseCacheService stores it.
+ *
+ * {@code lazy} is the shipped path: ward rows are built while Jackson writes them.
+ * {@code eager} materializes every WardRow first, as the response did before. Run with
+ * {@code -prof gc} to compare allocation; the output is identical in both modes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx1g")
+public class StateAnalysisSerializationBenchmark {
+
+    static final int WARDS = 22_000;
+    static final int YEAR = 2025;
+
+    private record Row(Long wardId, Integer wardNum, Long localbodyId, Integer acCode, Integer districtCode,
+                       Long partyId, Integer votes) implements VoteRow {
+        public Long getWardId() { return wardId; }
+        public Integer getWardNum() { return wardNum; }
+        public String getWardName() { return "Ward " + wardNum; }
+        public Long getLocalbodyId() { return localbodyId; }
+        public String getLocalbodyName() { return "Localbody " + localbodyId; }
+        public String getLocalbodyType() { return "grama_panchayath"; }
+        public Integer getDistrictCode() { return districtCode; }
+        public Integer getAcCode() { return acCode; }
+        public String getAcName() { return "AC " + acCode; }
+        public Integer getAcDistrictCode() { return districtCode; }
+        public Long getPartyId() { return partyId; }
+        public Integer getVotes() { return votes; }
+    }
+
+    private record Party(Long partyId, String allianceName) implements PartyAllianceRow {
+        public Long getPartyId() { return partyId; }
+        public String getAllianceName() { return allianceName; }
+    }
+
+    private static final class Discard extends OutputStream {
+        long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+
+    @Param({"lazy", "eager"})
+    String wards;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+    private AssemblyAnalysisService service;
+
+    @Setup
+    public void setUp() {
+        VoteRollup rollup = VoteRollup.build(YEAR, alliances(), syntheticRows().stream());
+        VoteRollupService rollups = new VoteRollupService(null, null, null, null, null) {
+            @Override
+            public VoteRollup rollup(int year, List<String> includeTypes) {
+                return rollup;
+            }
+        };
+        service = new AssemblyAnalysisService(rollups, null, null, null, null, null, null, null);
+    }
+
+    @Benchmark
+    public long stateGzipJson() throws IOException {
+        AssemblyAnalysisResponseDto dto = service.analyzeState(YEAR, null, AnalysisView.ALL);
+        if (wards.equals("eager")) {
+            dto.setWards(new ArrayList<>(dto.getWards()));
+        }
+        Discard out = new Discard();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out, 8192)) {
+            objectMapper.writeValue(gzip, dto);
+        }
+        return out.bytes;
+    }
+
+    static PartyAllianceSnapshot alliances() {
+        List<PartyAllianceRow> parties = List.of(
+                new Party(1L, "LDF"), new Party(2L, "UDF"), new Party(3L, "NDA"), new Party(4L, null));
+        return PartyAllianceSnapshot.build(1, parties, List.<PartyAllianceMappingRow>of());
+    }
+
+    static List<VoteRow> syntheticRows() {
+        SplittableRandom rnd = new SplittableRandom(11);
+        List<VoteRow> rows = new ArrayList<>(WARDS * 4);
+        for (long w = 0; w < WARDS; w++) {
+            long lb = w / 19;
+            int wardNum = (int) (w % 19) + 1;
+            int ac = (int) (lb % 140) + 1;
+            int district = (ac - 1) / 10 + 1;
+            for (long party = 1; party <= 4; party++) {
+                rows.add(new Row(w, wardNum, lb, ac, district, party, 50 + rnd.nextInt(700)));
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,43 @@
+package com.keralavotes.election.config;
+
+import com.keralavotes.election.service.DataVersionService;
+import com.keralavotes.election.service.ResponseCacheService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Catch-all for admin writes that do not publish an ElectionDataChangedEvent
+ * (booth / ward / localbody mapping edits etc.): a successful mutating admin call
+ * bumps the global data version unless a scoped bump already happened, and drops
+ * the cached responses that just went stale. 202 Accepted means the write has only been
+ * queued; ImportJobService bumps when such a job finishes.
+ */
+@Component
+@RequiredArgsConstructor
+public class AdminWriteVersionInterceptor implements HandlerInterceptor {
+
+    private final DataVersionService dataVersionService;
+    private final ResponseCacheService responseCacheService;
+
+    @Override
+    public void afterCompletion(HttpServletRequest request,
+                                HttpServletResponse response,
+                                Object handler,
+                                Exception ex) {
+        if (HttpMethod.GET.matches(request.getMethod()) || HttpMethod.OPTIONS.matches(request.getMethod())) {
+            return;
+        }
+        if (ex != null || response.getStatus() >= 400 || response.getStatus() == HttpStatus.ACCEPTED.value()) {
+            return;
+        }
+        if (request.getAttribute(DataVersionService.BUMPED_ATTRIBUTE) == null) {
+            dataVersionService.bumpAll();
+            responseCacheService.evictStale();
+        }
+    }
+}
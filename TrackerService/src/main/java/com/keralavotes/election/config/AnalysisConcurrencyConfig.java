@@ -0,0 +1,44 @@
+package com.keralavotes.election.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Slf4j
+@Configuration
+public class AnalysisConcurrencyConfig {
+
+    /**
+     * One virtual thread per per-year task; the real limit is the {@link DbBulkhead}.
+     */
+    @Bean(destroyMethod = "close")
+    public ExecutorService analysisExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    /**
+     * Permits default to pool size - 1 - import.workers so one connection is always left for
+     * writes and non-analysis requests besides the ones running imports hold.
+     * Override with analysis.db-permits.
+     */
+    @Bean
+    public DbBulkhead dbBulkhead(DataSource dataSource,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${analysis.db-permits:0}") int configuredPermits,
+                                 @Value("${import.workers:1}") int importWorkers) {
+        int permits = configuredPermits;
+        if (permits <= 0) {
+            int poolSize = dataSource instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 5;
+            permits = Math.max(1, poolSize - 1 - Math.max(1, importWorkers));
+        }
+        log.info("AnalysisConcurrencyConfig::dbBulkhead -> {} DB permits for parallel analysis", permits);
+        return new DbBulkhead(permits, meterRegistry);
+    }
+}
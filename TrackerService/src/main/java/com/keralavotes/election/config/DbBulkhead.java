@@ -0,0 +1,45 @@
+package com.keralavotes.election.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Caps how many analysis tasks may hold a JDBC connection at the same time.
+ *
+ * Virtual threads are cheap, connections are not (prod Hikari pool is 5), so every
+ * parallel DB read goes through {@link #call(Supplier)}.
+ */
+public class DbBulkhead {
+
+    private final Semaphore permits;
+
+    @Getter
+    private final int maxPermits;
+
+    public DbBulkhead(int maxPermits, MeterRegistry meterRegistry) {
+        this.maxPermits = maxPermits;
+        this.permits = new Semaphore(maxPermits, true);
+
+        Gauge.builder("analysis.db.bulkhead.available", permits, Semaphore::availablePermits)
+                .description("Free DB permits for parallel analysis tasks")
+                .register(meterRegistry);
+    }
+
+    public <T> T call(Supplier<T> work) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a DB permit", e);
+        }
+        try {
+            return work.get();
+        } finally {
+            permits.release();
+        }
+    }
+}
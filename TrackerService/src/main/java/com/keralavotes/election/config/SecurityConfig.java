@@ -32,6 +32,8 @@ public class SecurityConfig {
         http.authorizeHttpRequests(auth -> auth
                 .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                 .requestMatchers("/v1/public/**").permitAll()
+                // error dispatches keep their status (e.g. 400) instead of becoming 403
+                .requestMatchers("/error").permitAll()
                 .requestMatchers("/v1/admin/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
         );
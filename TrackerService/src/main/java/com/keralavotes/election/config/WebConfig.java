@@ -0,0 +1,21 @@
+package com.keralavotes.election.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final AdminWriteVersionInterceptor adminWriteVersionInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(adminWriteVersionInterceptor)
+                .addPathPatterns("/v1/admin/**")
+                // projections only read data
+                .excludePathPatterns("/v1/admin/projections/**");
+    }
+}
@@ -6,12 +6,14 @@ import com.keralavotes.election.entity.Alliance;
 import com.keralavotes.election.entity.LoksabhaConstituency;
 import com.keralavotes.election.entity.Party;
 import com.keralavotes.election.entity.PartyAllianceMapping;
+import com.keralavotes.election.event.ElectionDataChangedEvent;
 import com.keralavotes.election.repository.AllianceRepository;
 import com.keralavotes.election.repository.LoksabhaConstituencyRepository;
 import com.keralavotes.election.repository.PartyAllianceMappingRepository;
 import com.keralavotes.election.repository.PartyRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -20,6 +22,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/v1/admin")
@@ -30,6 +33,7 @@ public class AdminController {
     private final PartyRepository partyRepo;
     private final AllianceRepository allianceRepo;
     private final PartyAllianceMappingRepository mappingRepo;
+    private final ApplicationEventPublisher eventPublisher;
 
     @PostMapping("/ls")
     public ResponseEntity<String> addLsMapping(@RequestBody Map<String, Object> body) {
@@ -103,6 +107,7 @@ public class AdminController {
         mapping.setElectionType(electionType);
 
         mappingRepo.save(mapping);
+        eventPublisher.publishEvent(ElectionDataChangedEvent.allianceMapping(Set.of(req.getElectionYear())));
     }
 
 }
@@ -4,13 +4,19 @@ import com.keralavotes.election.dto.LocalbodyAllianceVotesDto;
 import com.keralavotes.election.model.LocalbodyAnalysisResponse;
 import com.keralavotes.election.dto.LocalbodyPartyVotesDto;
 import com.keralavotes.election.dto.details.LocalbodyDetailYearDataDto;
+import com.keralavotes.election.model.ColumnarTable;
 import com.keralavotes.election.repository.BoothVotesRepository;
 import com.keralavotes.election.service.AnalysisDetailService;
+import com.keralavotes.election.service.DataVersionService;
+import com.keralavotes.election.service.DataVersionService.Scope;
 import com.keralavotes.election.service.LocalbodyElectionAnalysisService;
 import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.Arrays;
 import java.util.List;
@@ -26,6 +32,7 @@ public class AnalyticsController {
     private final EntityManager em;
     private final LocalbodyElectionAnalysisService analysisService;
     private final AnalysisDetailService detailService;
+    private final DataVersionService dataVersionService;
 
     /* =====================================================
             UI EXPECTED ENDPOINTS — FIXED
@@ -39,8 +46,13 @@ public class AnalyticsController {
     @GetMapping("/localbody/party")
     public List<LocalbodyPartyVotesDto> partyVotesForLocalbody(
             @RequestParam("localbodyId") Long localbodyId,
-            @RequestParam(defaultValue = "2024") int year
+            @RequestParam(defaultValue = "2024") int year,
+            WebRequest webRequest
     ) {
+        if (webRequest.checkNotModified(dataVersionService.etag(
+                Scope.LOCALBODY, localbodyId, List.of(year), "party"))) {
+            return null;
+        }
         return boothVotesRepo.sumVotesByPartyForLocalbody(localbodyId, year);
     }
 
@@ -53,8 +65,13 @@ public class AnalyticsController {
     @GetMapping("/localbody/alliance")
     public List<LocalbodyAllianceVotesDto> allianceVotesForLocalbody(
             @RequestParam("localbodyId") Long localbodyId,
-            @RequestParam(defaultValue = "2024") int year
+            @RequestParam(defaultValue = "2024") int year,
+            WebRequest webRequest
     ) {
+        if (webRequest.checkNotModified(dataVersionService.etag(
+                Scope.LOCALBODY, localbodyId, List.of(year), "alliance"))) {
+            return null;
+        }
         return boothVotesRepo.sumVotesByAllianceForLocalbody(localbodyId, year);
     }
 
@@ -63,11 +80,23 @@ public class AnalyticsController {
             EXISTING DETAILED RESULT ENDPOINTS
        ===================================================== */
 
+    /*
+     * The three result tables below also come as a ColumnarTable when the client sends
+     * Accept: application/vnd.keralavotes.columnar+json; both encodings vary on Accept.
+     */
+
     @GetMapping("/localbody/{localbodyId}/ls/{year}")
-    public List<Object[]> getLocalbodyResults(
+    public ResponseEntity<?> getLocalbodyResults(
             @PathVariable Long localbodyId,
-            @PathVariable Integer year
+            @PathVariable Integer year,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            WebRequest webRequest
     ) {
+        boolean columnar = ColumnarTable.isAccepted(accept);
+        if (webRequest.checkNotModified(dataVersionService.etag(
+                Scope.LOCALBODY, localbodyId, List.of(year), "ls", columnar))) {
+            return null;
+        }
         String jpql = """
             SELECT c.name, p.shortName, a.name, SUM(bv.votes)
             FROM BoothVotes bv
@@ -80,17 +109,26 @@ public class AnalyticsController {
             ORDER BY SUM(bv.votes) DESC
             """;
 
-        return em.createQuery(jpql, Object[].class)
+        List<Object[]> rows = em.createQuery(jpql, Object[].class)
                 .setParameter("lbId", localbodyId)
                 .setParameter("year", year)
                 .getResultList();
+        return columnar ? columnarResponse(candidateVotesTable(rows)) : jsonResponse(rows);
     }
 
     @GetMapping("/assembly/{acId}/{year}")
-    public List<Object[]> getAssemblyResults(
+    public ResponseEntity<?> getAssemblyResults(
             @PathVariable Long acId,
-            @PathVariable Integer year
+            @PathVariable Integer year,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            WebRequest webRequest
     ) {
+        boolean columnar = ColumnarTable.isAccepted(accept);
+        // acId is the row id, not ac_code -> version on the whole state for that year
+        if (webRequest.checkNotModified(dataVersionService.etag(
+                Scope.STATE, null, List.of(year), "assembly", acId, columnar))) {
+            return null;
+        }
         String jpql = """
             SELECT c.name, p.shortName, a.name, SUM(bv.votes)
             FROM BoothVotes bv
@@ -103,16 +141,24 @@ public class AnalyticsController {
             ORDER BY SUM(bv.votes) DESC
             """;
 
-        return em.createQuery(jpql, Object[].class)
+        List<Object[]> rows = em.createQuery(jpql, Object[].class)
                 .setParameter("acId", acId)
                 .setParameter("year", year)
                 .getResultList();
+        return columnar ? columnarResponse(candidateVotesTable(rows)) : jsonResponse(rows);
     }
 
     @GetMapping("/localbody/{id}/booths")
-    public List<Object[]> getBoothLevelVotes(
+    public ResponseEntity<?> getBoothLevelVotes(
             @PathVariable("id") Long localbodyId,
-            @RequestParam(defaultValue = "2024") int year) {
+            @RequestParam(defaultValue = "2024") int year,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            WebRequest webRequest) {
+        boolean columnar = ColumnarTable.isAccepted(accept);
+        if (webRequest.checkNotModified(dataVersionService.etag(
+                Scope.LOCALBODY, localbodyId, List.of(year), "booths", columnar))) {
+            return null;
+        }
 
         String jpql = """
         SELECT 
@@ -133,10 +179,57 @@ public class AnalyticsController {
         ORDER BY ps.psNumber ASC
         """;
 
-        return em.createQuery(jpql, Object[].class)
+        List<Object[]> rows = em.createQuery(jpql, Object[].class)
                 .setParameter("lbId", localbodyId)
                 .setParameter("year", year)
                 .getResultList();
+        if (!columnar) {
+            return jsonResponse(rows);
+        }
+
+        ColumnarTable table = new ColumnarTable("booth-alliance-votes");
+        ColumnarTable.LongColumn psId = table.longColumn("psId");
+        ColumnarTable.IntColumn psNumber = table.intColumn("psNumber");
+        ColumnarTable.DictColumn psSuffix = table.dictColumn("psSuffix");
+        ColumnarTable.DictColumn psName = table.dictColumn("psName");
+        ColumnarTable.DictColumn alliance = table.dictColumn("alliance");
+        ColumnarTable.IntColumn votes = table.intColumn("votes");
+        for (Object[] r : rows) {
+            psId.add((Long) r[0]);
+            psNumber.add((Number) r[1]);
+            psSuffix.add((String) r[2]);
+            psName.add((String) r[3]);
+            alliance.add((String) r[4]);
+            votes.add((Number) r[5]);
+        }
+        return columnarResponse(table);
+    }
+
+    // rows of (candidate name, party short name, alliance name, votes)
+    private static ColumnarTable candidateVotesTable(List<Object[]> rows) {
+        ColumnarTable table = new ColumnarTable("candidate-votes");
+        ColumnarTable.DictColumn candidate = table.dictColumn("candidate");
+        ColumnarTable.DictColumn party = table.dictColumn("party");
+        ColumnarTable.DictColumn alliance = table.dictColumn("alliance");
+        ColumnarTable.IntColumn votes = table.intColumn("votes");
+        for (Object[] r : rows) {
+            candidate.add((String) r[0]);
+            party.add((String) r[1]);
+            alliance.add((String) r[2]);
+            votes.add((Number) r[3]);
+        }
+        return table;
+    }
+
+    private static ResponseEntity<List<Object[]>> jsonResponse(List<Object[]> rows) {
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(rows);
+    }
+
+    private static ResponseEntity<ColumnarTable> columnarResponse(ColumnarTable table) {
+        return ResponseEntity.ok()
+                .varyBy(HttpHeaders.ACCEPT)
+                .contentType(ColumnarTable.MEDIA_TYPE)
+                .body(table);
     }
 
     /**
@@ -145,7 +238,8 @@ public class AnalyticsController {
      */
     @GetMapping("/localbody/{id}")
     public LocalbodyAnalysisResponse analyzeLocalbody(@PathVariable("id") Long localbodyId,
-                                                      @RequestParam(value = "years", required = false) String years) {
+                                                      @RequestParam(value = "years", required = false) String years,
+                                                      WebRequest webRequest) {
         log.info("AnalyticsController::analyzeLocalbody -> Unified Localbody Analysis: id={} years={}", localbodyId, years);
         List<Integer> yearList;
 
@@ -158,13 +252,18 @@ public class AnalyticsController {
         } else {
             yearList = List.of(2015, 2020, 2025); // default years
         }
+        if (webRequest.checkNotModified(dataVersionService.etag(
+                Scope.LOCALBODY, localbodyId, yearList, "summary"))) {
+            return null;
+        }
         log.info("AnalyticsController::analyzeLocalbody -> Analyzing Localbody ID: {} for years: {}", localbodyId, yearList);
         return analysisService.analyzeLocalbody(localbodyId, yearList);
     }
 
     @GetMapping("/localbody/{lbId}/details")
     public Map<Integer, LocalbodyDetailYearDataDto> getDetailedResults(@PathVariable Long lbId,
-                                                                       @RequestParam("years") String yearsList) {
+                                                                       @RequestParam("years") String yearsList,
+                                                                       WebRequest webRequest) {
         log.info("AnalyticsController::getDetailedResults -> " +
                 "Fetching detailed results for Localbody ID: {} for years: {}", lbId, yearsList);
         List<Integer> years =
@@ -172,6 +271,10 @@ public class AnalyticsController {
                         .map(Integer::parseInt)
                         .toList();
 
+        if (webRequest.checkNotModified(dataVersionService.etag(
+                Scope.LOCALBODY, lbId, years, "details"))) {
+            return null;
+        }
         return analysisService.analyzeLocalbodyDetails(lbId, years);
     }
 }
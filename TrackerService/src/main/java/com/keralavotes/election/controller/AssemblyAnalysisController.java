@@ -1,16 +1,21 @@
 package com.keralavotes.election.controller;
 
 import com.keralavotes.election.dto.AssemblyAnalysisResponseDto;
-import com.keralavotes.election.dto.AssemblyOverviewResponseDto;
 import com.keralavotes.election.entity.AssemblyConstituency;
+import com.keralavotes.election.model.AnalysisView;
 import com.keralavotes.election.model.AssemblyHistoricResultsResponse;
 import com.keralavotes.election.repository.AssemblyConstituencyRepository;
 import com.keralavotes.election.service.AssemblyAnalysisService;
 import com.keralavotes.election.service.AssemblyOverviewService;
+import com.keralavotes.election.service.DataVersionService;
+import com.keralavotes.election.service.DataVersionService.Scope;
+import com.keralavotes.election.service.ResponseCacheService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.Arrays;
@@ -24,6 +29,8 @@ public class AssemblyAnalysisController {
 
     private final AssemblyAnalysisService assemblyAnalysisService;
     private final AssemblyOverviewService assemblyOverviewService;
+    private final DataVersionService dataVersionService;
+    private final ResponseCacheService responseCacheService;
 
     /**
      * Analyze assembly by acCode for the included localbdy types of the assembly.
@@ -32,57 +39,120 @@ public class AssemblyAnalysisController {
     @GetMapping("/analysis/assembly-by-id")
     public AssemblyAnalysisResponseDto analyzeByAcCode(@RequestParam Integer acCode,
                                                        @RequestParam Integer year,
-                                                       @RequestParam(required = false) String includeTypes) {
+                                                       @RequestParam(required = false) String includeTypes,
+                                                       WebRequest webRequest) {
         log.info("analyzeByAcCode called with acCode={}, year={}, includeTypes={}", acCode, year, includeTypes);
         List<String> types = parseTypes(includeTypes);
+        if (webRequest.checkNotModified(dataVersionService.etag(
+                Scope.AC, acCode, List.of(year), "assembly", types))) {
+            return null;
+        }
         return assemblyAnalysisService.analyzeByAcCode(acCode, year, types);
     }
 
     @GetMapping("/analysis/assembly-overview")
-    public AssemblyOverviewResponseDto assemblyOverview(
+    public ResponseEntity<byte[]> assemblyOverview(
             @RequestParam int year,
             @RequestParam(required = false) Integer districtCode,
-            @RequestParam(required = false) String includeTypes
+            @RequestParam(required = false) String includeTypes,
+            WebRequest webRequest
     ) {
         List<String> types = parseTypes(includeTypes);
-
-        if (districtCode != null) {
-            return assemblyOverviewService.overviewByDistrict(
-                    districtCode, year, types
-            );
+        Scope scope = districtCode != null ? Scope.DISTRICT : Scope.STATE;
+        if (webRequest.checkNotModified(dataVersionService.etag(
+                scope, districtCode, List.of(year), "overview", types))) {
+            return null;
         }
-        return assemblyOverviewService.overviewState(year, types);
+
+        return responseCacheService.respond("overview", scope, districtCode, List.of(year), types,
+                () -> districtCode != null
+                        ? assemblyOverviewService.overviewByDistrict(districtCode, year, types)
+                        : assemblyOverviewService.overviewState(year, types),
+                webRequest);
     }
 
+    /**
+     * fields - optional subset of overall,localbodies,wards (default: all); parts left out are not built.
+     * Ward rows can be paged in (localbodyId, wardNum) order with limit, and afterLocalbodyId +
+     * afterWardNum taken from the previous page's nextAfterLocalbodyId / nextAfterWardNum.
+     * Example:
+     *   GET /api/v1/public/analysis/state?year=2020&fields=overall,localbodies
+     *   GET /api/v1/public/analysis/state?year=2020&fields=wards&limit=1000&afterLocalbodyId=412&afterWardNum=17
+     */
     @GetMapping("/analysis/state")
-    public AssemblyAnalysisResponseDto analyzeState(
+    public ResponseEntity<byte[]> analyzeState(
             @RequestParam int year,
-            @RequestParam(required = false) String includeTypes
+            @RequestParam(required = false) String includeTypes,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) Long afterLocalbodyId,
+            @RequestParam(required = false) Integer afterWardNum,
+            @RequestParam(required = false) Integer limit,
+            WebRequest webRequest
     ) {
         List<String> types = parseTypes(includeTypes);
-        return assemblyAnalysisService.analyzeState(year, types);
+        AnalysisView view = AnalysisView.parse(fields, afterLocalbodyId, afterWardNum, limit);
+        if (webRequest.checkNotModified(dataVersionService.etag(
+                Scope.STATE, null, List.of(year), "state", view.cacheParams(types)))) {
+            return null;
+        }
+        return responseCacheService.respond("state", Scope.STATE, null, List.of(year), view.cacheParams(types),
+                () -> assemblyAnalysisService.analyzeState(year, types, view), webRequest);
     }
 
+    /**
+     * Same fields / paging parameters as /analysis/state.
+     */
     @GetMapping("/analysis/district")
-    public AssemblyAnalysisResponseDto analyzeDistrict(
+    public ResponseEntity<byte[]> analyzeDistrict(
             @RequestParam Integer districtCode,
             @RequestParam Integer year,
-            @RequestParam(required = false) String includeTypes
+            @RequestParam(required = false) String includeTypes,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) Long afterLocalbodyId,
+            @RequestParam(required = false) Integer afterWardNum,
+            @RequestParam(required = false) Integer limit,
+            WebRequest webRequest
     ) {
         List<String> types = parseTypes(includeTypes);
-        return assemblyAnalysisService.analyzeByDistrict(districtCode, year, types);
+        AnalysisView view = AnalysisView.parse(fields, afterLocalbodyId, afterWardNum, limit);
+        if (webRequest.checkNotModified(dataVersionService.etag(
+                Scope.DISTRICT, districtCode, List.of(year), "district", view.cacheParams(types)))) {
+            return null;
+        }
+        return responseCacheService.respond("district", Scope.DISTRICT, districtCode, List.of(year),
+                view.cacheParams(types),
+                () -> assemblyAnalysisService.analyzeByDistrict(districtCode, year, types, view), webRequest);
     }
 
     @GetMapping("/analysis/historic/assembly")
     public AssemblyHistoricResultsResponse assemblyHistoricAnalysis(
             @RequestParam int acCode,
             @RequestParam String years,
-            @RequestParam(required = false) String includeTypes
+            @RequestParam(required = false) String includeTypes,
+            WebRequest webRequest
     ) {
         List<String> types = parseTypes(includeTypes);
+        List<Integer> yearList = parseYears(years);
+        // unparsable years fall through so the service reports the error
+        if (yearList != null && webRequest.checkNotModified(dataVersionService.etag(
+                Scope.AC, acCode, yearList, "historic", types))) {
+            return null;
+        }
         return assemblyAnalysisService.doHistoricAnalysis(acCode, years, types);
     }
 
+    private List<Integer> parseYears(String years) {
+        try {
+            return Arrays.stream(years.split(","))
+                    .map(String::trim)
+                    .filter(s -> !s.isEmpty())
+                    .map(Integer::parseInt)
+                    .toList();
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
     private List<String> parseTypes(String includeTypes) {
         if (includeTypes == null || includeTypes.isBlank()) {
             log.info("No includeTypes provided, including all types");
@@ -1,12 +1,27 @@
 package com.keralavotes.election.controller;
 
+import com.keralavotes.election.dto.ImportJobDto;
+import com.keralavotes.election.entity.ImportJob;
 import com.keralavotes.election.service.CsvImportService;
+import com.keralavotes.election.service.ImportJobService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.ResponseEntity;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.List;
+
+/**
+ * CSV uploads. Each POST queues an import job and answers 202 with it; poll
+ * GET /jobs/{jobId} for progress and the result. Imports commit in chunks; if one
+ * fails or is cancelled, POST the same file again to resume after its last committed row.
+ * Example:
+ *   curl -F file=@form20.csv /api/v1/admin/import/form20
+ *   curl /api/v1/admin/import/jobs/{jobId}
+ *   curl -X POST /api/v1/admin/import/jobs/{jobId}/cancel
+ */
 @Slf4j
 @RestController
 @RequestMapping("/v1/admin/import")
@@ -14,51 +29,56 @@ import org.springframework.web.multipart.MultipartFile;
 public class ImportController {
 
     private final CsvImportService csvImportService;
+    private final ImportJobService importJobService;
 
     @PostMapping("/booths")
-    public ResponseEntity<?> importBooths(
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ImportJobDto importBooths(
             @RequestParam("file") MultipartFile file) {
-        try {
-            csvImportService.importBoothsCsv(file);
-            return ResponseEntity.ok("Booths imported");
-        } catch (Exception e) {
-            log.error("ImportController::importBooths -> Exception in import booths, {}", e.getMessage());
-            return ResponseEntity.badRequest().body(e.getMessage());
-        }
+        return importJobService.submit(ImportJob.Type.BOOTHS, file,
+                (path, progress) -> csvImportService.importBoothsCsv(new FileSystemResource(path), progress));
     }
 
     @PostMapping("/form20")
-    public ResponseEntity<?> importForm20(
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ImportJobDto importForm20(
             @RequestParam("file") MultipartFile file) {
-        try {
-            csvImportService.importForm20Votes(file);
-            return ResponseEntity.ok("Form20 votes imported");
-        } catch (Exception e) {
-            log.error("ImportController::importForm20 -> Exception in import form20, {}", e.getMessage());
-            return ResponseEntity.badRequest().body(e.getMessage());
-        }
+        return importJobService.submit(ImportJob.Type.FORM20_VOTES, file,
+                (path, progress) -> csvImportService.importForm20Votes(new FileSystemResource(path), progress));
     }
 
     @PostMapping("/form20-totals")
-    public ResponseEntity<?> importForm20Totals(@RequestParam("file") MultipartFile file) {
-        try {
-            csvImportService.importForm20Totals(file);
-            return ResponseEntity.ok("Form 20 booth totals imported");
-        } catch (Exception ex) {
-            log.error("ImportController::importForm20Totals -> Exception in import form20 totals, {}", ex.getMessage());
-            return ResponseEntity.badRequest().body(ex.getMessage());
-        }
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ImportJobDto importForm20Totals(@RequestParam("file") MultipartFile file) {
+        return importJobService.submit(ImportJob.Type.FORM20_TOTALS, file,
+                (path, progress) -> csvImportService.importForm20Totals(new FileSystemResource(path), progress));
     }
 
     @PostMapping("/candidates")
-    public ResponseEntity<String> importCandidates(@RequestParam("file") MultipartFile file) {
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ImportJobDto importCandidates(@RequestParam("file") MultipartFile file) {
+        return importJobService.submit(ImportJob.Type.CANDIDATES, file,
+                (path, progress) -> csvImportService.importCandidatesCsv(new FileSystemResource(path), progress));
+    }
+
+    /* ===================== JOBS ===================== */
+
+    /** Most recent import jobs first, running ones with live counters. */
+    @GetMapping("/jobs")
+    public List<ImportJobDto> jobs(@RequestParam(defaultValue = "50") int limit) {
+        return importJobService.history(limit);
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public ImportJobDto job(@PathVariable String jobId) {
+        return importJobService.status(jobId);
+    }
 
-        try {
-            String summary = csvImportService.importCandidatesCsv(file);
-            return ResponseEntity.ok(summary);
-        } catch (Exception e) {
-            log.error("ImportController::importCandidates -> Exception in import candidates, {}", e.getMessage());
-            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
-        }
+    /** Asks a queued or running job to stop; the chunk in progress is rolled back. */
+    @PostMapping("/jobs/{jobId}/cancel")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ImportJobDto cancel(@PathVariable String jobId) {
+        log.info("ImportController::cancel -> jobId={}", jobId);
+        return importJobService.cancel(jobId);
     }
 }
@@ -1,13 +1,27 @@
 package com.keralavotes.election.controller;
 
+import com.keralavotes.election.constants.ElectionYear;
 import com.keralavotes.election.model.LocalbodyAnalysisResponse;
 import com.keralavotes.election.dto.details.AllianceAnalysisResponse;
+import com.keralavotes.election.dto.details.SwingCurveResponse;
 import com.keralavotes.election.model.LocalbodyWardDetailsResponse;
 import com.keralavotes.election.service.AllianceAnalysisService;
+import com.keralavotes.election.service.DataVersionService;
+import com.keralavotes.election.service.DataVersionService.Scope;
 import com.keralavotes.election.service.LocalbodyElectionAnalysisService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.ObjectMapper;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
 import java.util.List;
 
 @RestController
@@ -17,6 +31,8 @@ public class LocalbodyAnalysisController {
 
     private final LocalbodyElectionAnalysisService analysisService;
     private final AllianceAnalysisService allianceAnalysisService;
+    private final DataVersionService dataVersionService;
+    private final ObjectMapper objectMapper;
 
     /**
      * Example:
@@ -27,8 +43,16 @@ public class LocalbodyAnalysisController {
     @GetMapping("/{localbodyId}/analysis")
     public LocalbodyAnalysisResponse analyze(
             @PathVariable("localbodyId") Long localbodyId,
-            @RequestParam(value = "years", required = false) List<Integer> years
+            @RequestParam(value = "years", required = false) List<Integer> years,
+            WebRequest webRequest
     ) {
+        List<Integer> versionYears = years == null || years.isEmpty()
+                ? Arrays.stream(ElectionYear.values()).map(ElectionYear::getYear).toList()
+                : years;
+        if (webRequest.checkNotModified(dataVersionService.etag(
+                Scope.LOCALBODY, localbodyId, versionYears, "analysis"))) {
+            return null;
+        }
         return analysisService.analyzeLocalbody(localbodyId, years);
     }
 
@@ -43,18 +67,99 @@ public class LocalbodyAnalysisController {
             @RequestParam String alliance,
             @RequestParam int year,
             @RequestParam(defaultValue = "10") int swing,
-            @RequestParam(required = false) Long localbodyId
+            @RequestParam(required = false) Long localbodyId,
+            WebRequest webRequest
     ) {
+        String etag = localbodyId != null
+                ? dataVersionService.etag(Scope.LOCALBODY, localbodyId, List.of(year), "alliance", type, alliance, swing)
+                : dataVersionService.etag(Scope.DISTRICT, district, List.of(year), "alliance", type, alliance, swing);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
         return allianceAnalysisService.analyze(district, type, alliance, year, swing, localbodyId);
     }
 
+    /**
+     * Winnable wards/booths for every swing from 0 to maxSwing, for the swing slider.
+     * Example:
+     * GET /api/v1/public/localbody/analysis/alliance/swing-curve?district=10&type=grama_panchayath&alliance=LDF&year=2020&maxSwing=30
+     */
+    @GetMapping("/analysis/alliance/swing-curve")
+    public SwingCurveResponse allianceSwingCurve(
+            @RequestParam int district,
+            @RequestParam(required = false) String type,
+            @RequestParam String alliance,
+            @RequestParam int year,
+            @RequestParam(defaultValue = "30") int maxSwing,
+            @RequestParam(required = false) Long localbodyId,
+            WebRequest webRequest
+    ) {
+        String etag = localbodyId != null
+                ? dataVersionService.etag(Scope.LOCALBODY, localbodyId, List.of(year), "swing-curve", type, alliance, maxSwing)
+                : dataVersionService.etag(Scope.DISTRICT, district, List.of(year), "swing-curve", type, alliance, maxSwing);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return allianceAnalysisService.swingCurve(district, type, alliance, year, maxSwing, localbodyId);
+    }
+
     @GetMapping("/analysis/{localbodyId}/ward-details")
     public LocalbodyWardDetailsResponse getWardDetails(
             @PathVariable Long localbodyId,
             @RequestParam int year,
             @RequestParam String alliance,
-            @RequestParam(name = "swing", defaultValue = "10") int swingPercent
+            @RequestParam(name = "swing", defaultValue = "10") int swingPercent,
+            WebRequest webRequest
     ) {
+        if (webRequest.checkNotModified(dataVersionService.etag(
+                Scope.LOCALBODY, localbodyId, List.of(year), "ward-details", alliance, swingPercent))) {
+            return null;
+        }
         return allianceAnalysisService.getWardDetails(localbodyId, alliance, year, swingPercent);
     }
+
+    /**
+     * Ward details for many localbodies in one call, streamed as newline-delimited JSON
+     * (one LocalbodyWardDetailsResponse per line) as each localbody is finished.
+     * Scope is either localbodyIds, or a district with an optional localbody type.
+     * Example:
+     * GET /api/v1/public/localbody/analysis/ward-details?district=10&type=municipality&year=2020&alliance=LDF&swing=10
+     * GET /api/v1/public/localbody/analysis/ward-details?localbodyIds=12,15,31&year=2020&alliance=UDF
+     */
+    @GetMapping(value = "/analysis/ward-details", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamWardDetails(
+            @RequestParam(required = false) Integer district,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) List<Long> localbodyIds,
+            @RequestParam int year,
+            @RequestParam String alliance,
+            @RequestParam(name = "swing", defaultValue = "10") int swingPercent,
+            WebRequest webRequest
+    ) {
+        boolean byIds = localbodyIds != null && !localbodyIds.isEmpty();
+        if (!byIds && district == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Either district or localbodyIds is required");
+        }
+        String etag = byIds
+                ? dataVersionService.etag(Scope.STATE, null, List.of(year), "ward-details", localbodyIds, type, alliance, swingPercent)
+                : dataVersionService.etag(Scope.DISTRICT, district, List.of(year), "ward-details", type, alliance, swingPercent);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        StreamingResponseBody body = out -> allianceAnalysisService.streamWardDetails(
+                district, type, localbodyIds, alliance, year, swingPercent, details -> {
+                    try {
+                        out.write(objectMapper.writeValueAsBytes(details));
+                        out.write('\n');
+                        out.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Failed to write ward details", e);
+                    }
+                });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .eTag(etag)
+                .body(body);
+    }
 }
@@ -1,21 +1,22 @@
 package com.keralavotes.election.controller;
 
-import com.keralavotes.election.dto.LocalbodyFixReport;
-import com.keralavotes.election.dto.LocalbodyImportAudit;
-import com.keralavotes.election.service.CsvImportService;
+import com.keralavotes.election.dto.ImportJobDto;
+import com.keralavotes.election.entity.ImportJob;
+import com.keralavotes.election.service.ImportJobService;
 import com.keralavotes.election.service.LocalbodyImportAuditService;
 import com.keralavotes.election.service.LocalbodyImportFixService;
 import com.keralavotes.election.service.LocalbodyMongoImportService;
-import lombok.RequiredArgsConstructor;
-import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.multipart.MultipartFile;
 
+/**
+ * Mongo → SQL localbody import, audit and fixes. Each call queues a job (see
+ * ImportController /jobs); the audit / fix report is the finished job's result.
+ */
 @RestController
 @RequestMapping("/v1/admin/import")
 public class LocalbodyImportController {
@@ -24,39 +25,51 @@ public class LocalbodyImportController {
     private final LocalbodyImportFixService fixService;
     private final LocalbodyMongoImportService importService;
     private final LocalbodyImportAuditService auditService;
+    private final ImportJobService importJobService;
 
     public LocalbodyImportController(LocalbodyImportFixService fixService,
                                      LocalbodyMongoImportService importService,
-                                     LocalbodyImportAuditService auditService) {
+                                     LocalbodyImportAuditService auditService,
+                                     ImportJobService importJobService) {
         this.fixService = fixService;
         this.importService = importService;
         this.auditService = auditService;
+        this.importJobService = importJobService;
     }
 
     @PostMapping("/localbody")
-    public String importLocalbodyData() {
-        importService.importAll();
-        return "Localbody data import finished.";
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ImportJobDto importLocalbodyData() {
+        return importJobService.submit(ImportJob.Type.LOCALBODY, null,
+                (file, progress) -> importService.importAll(progress));
     }
 
     @GetMapping("/localbody/audit")
-    public ResponseEntity<LocalbodyImportAudit> auditMissing() {
-        return ResponseEntity.ok(auditService.audit());
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ImportJobDto auditMissing() {
+        return importJobService.submit(ImportJob.Type.LOCALBODY_AUDIT, null,
+                (file, progress) -> auditService.audit());
     }
 
     @GetMapping("/localbody/fix/missing-wards")
-    public ResponseEntity<LocalbodyFixReport> fixWards() {
-        return ResponseEntity.ok(fixService.fixMissingWards());
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ImportJobDto fixWards() {
+        return importJobService.submit(ImportJob.Type.LOCALBODY_FIX_WARDS, null,
+                (file, progress) -> fixService.fixMissingWards());
     }
 
     @GetMapping("/localbody/fix/missing-candidates")
-    public ResponseEntity<LocalbodyFixReport> fixCandidates() {
-        return ResponseEntity.ok(fixService.fixMissingCandidates());
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ImportJobDto fixCandidates() {
+        return importJobService.submit(ImportJob.Type.LOCALBODY_FIX_CANDIDATES, null,
+                (file, progress) -> fixService.fixMissingCandidates());
     }
 
     @GetMapping("/localbody/fix/missing-results")
-    public ResponseEntity<LocalbodyFixReport> fixResults() {
-        return ResponseEntity.ok(fixService.fixMissingResults());
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ImportJobDto fixResults() {
+        return importJobService.submit(ImportJob.Type.LOCALBODY_FIX_RESULTS, null,
+                (file, progress) -> fixService.fixMissingResults());
     }
 
-}
\ No newline at end of file
+}
@@ -7,6 +7,7 @@ import com.keralavotes.election.entity.AssemblyConstituency;
 import com.keralavotes.election.entity.Candidate;
 import com.keralavotes.election.entity.LoksabhaConstituency;
 import com.keralavotes.election.entity.Party;
+import com.keralavotes.election.event.ElectionDataChangedEvent;
 import com.keralavotes.election.model.BatchCreateCandidateRequest;
 import com.keralavotes.election.model.CreateCandidateRequest;
 import com.keralavotes.election.model.CreatePartyRequest;
@@ -14,14 +15,18 @@ import com.keralavotes.election.model.MapCandidatePartyRequest;
 import com.keralavotes.election.model.PartyAllianceAdminRow;
 import com.keralavotes.election.model.UpdatePartyAllianceRequest;
 import com.keralavotes.election.repository.*;
+import com.keralavotes.election.service.PartyAllianceAdminService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Slf4j
 @RestController
@@ -29,12 +34,13 @@ import java.util.Objects;
 @RequiredArgsConstructor
 public class PartyCandidateAdminController {
 
-    private final AllianceRepository allianceRepo;
     private final PartyRepository partyRepo;
     private final CandidateRepository candidateRepo;
     private final LoksabhaConstituencyRepository lsRepo;
     private final AssemblyConstituencyRepository assemblyConstituencyRepo;
     private final PartyAllianceMappingRepository mappingRepo;
+    private final PartyAllianceAdminService partyAllianceAdminService;
+    private final ApplicationEventPublisher eventPublisher;
 
 
     /* ---------------- Parties ---------------- */
@@ -46,33 +52,13 @@ public class PartyCandidateAdminController {
 
     @PostMapping("/admin/parties")
     public Party createParty(@RequestBody CreatePartyRequest req) {
-        Party.PartyBuilder builder = Party.builder()
-                .name(req.getName())
-                .shortName(req.getCode());
-
-        if (req.getAllianceId() != null) {
-            Alliance alliance = allianceRepo.findById(req.getAllianceId())
-                    .orElseThrow(() -> new IllegalArgumentException("Alliance not found: " + req.getAllianceId()));
-            builder.alliance(alliance);
-        }
-
-        return partyRepo.save(builder.build());
+        return partyAllianceAdminService.createParty(req);
     }
 
     @PutMapping("/admin/parties/{id}/alliance")
     public Party updatePartyAlliance(@PathVariable Long id,
                                      @RequestBody UpdatePartyAllianceRequest req) {
-        Party party = partyRepo.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Party not found: " + id));
-
-        if (req.getAllianceId() == null) {
-            party.setAlliance(null);
-        } else {
-            Alliance alliance = allianceRepo.findById(req.getAllianceId())
-                    .orElseThrow(() -> new IllegalArgumentException("Alliance not found: " + req.getAllianceId()));
-            party.setAlliance(alliance);
-        }
-        return partyRepo.save(party);
+        return partyAllianceAdminService.updateDefaultAlliance(id, req.getAllianceId());
     }
 
     /* ---------------- Candidates ---------------- */
@@ -199,6 +185,8 @@ public class PartyCandidateAdminController {
         }
         c.setParty(p);
         Candidate saved = candidateRepo.save(c);
+        eventPublisher.publishEvent(ElectionDataChangedEvent.boothResults(
+                Set.of(saved.getElectionYear()), candidateAcCodes(saved)));
 
         Party savedParty = saved.getParty();
         Alliance a = savedParty != null ? savedParty.getAlliance() : null;
@@ -222,4 +210,14 @@ public class PartyCandidateAdminController {
                 a != null ? a.getColor() : null
         );
     }
+
+    /** ACs whose booth rollups rank this candidate; null (every AC) when it has neither AC nor LS. */
+    private Set<Integer> candidateAcCodes(Candidate c) {
+        if (c.getAc() != null) return Set.of(c.getAc().getAcCode());
+        if (c.getLs() == null) return null;
+        Set<Integer> acCodes = assemblyConstituencyRepo.findByLs_Id(c.getLs().getId()).stream()
+                .map(AssemblyConstituency::getAcCode)
+                .collect(Collectors.toSet());
+        return acCodes.isEmpty() ? null : acCodes;
+    }
 }
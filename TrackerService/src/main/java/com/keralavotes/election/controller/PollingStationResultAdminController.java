@@ -2,15 +2,18 @@ package com.keralavotes.election.controller;
 
 import com.keralavotes.election.dto.CandidateVoteInputDto;
 import com.keralavotes.election.model.BoothResultSaveRequest;
+import com.keralavotes.election.model.ColumnarTable;
 import com.keralavotes.election.model.PollingStationResultInsertRequest;
 import com.keralavotes.election.dto.details.BoothVoteDetailsRowDto;
 import com.keralavotes.election.service.BoothResultService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -24,9 +27,23 @@ public class PollingStationResultAdminController {
 
     private final BoothResultService boothResultService;
 
+    /**
+     * Booth totals and candidate votes of an AC. Clients sending
+     * Accept: application/vnd.keralavotes.columnar+json get [booth-totals, booth-candidate-votes]
+     * as ColumnarTables instead of one nested object per booth.
+     */
     @GetMapping("/public/boothvotes")
-    public List<BoothVoteDetailsRowDto> getBoothVotes(@RequestParam Integer acCode, @RequestParam Integer year) {
-        return boothResultService.getBoothResultsData(acCode, year);
+    public ResponseEntity<?> getBoothVotes(@RequestParam Integer acCode,
+                                           @RequestParam Integer year,
+                                           @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        if (ColumnarTable.isAccepted(accept)) {
+            return ResponseEntity.ok()
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .contentType(ColumnarTable.MEDIA_TYPE)
+                    .body(boothResultService.getBoothResultsColumnar(acCode, year));
+        }
+        List<BoothVoteDetailsRowDto> booths = boothResultService.getBoothResultsData(acCode, year);
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(booths);
     }
 
     @PostMapping("/admin/bulk-result")
@@ -0,0 +1,45 @@
+package com.keralavotes.election.controller;
+
+import com.keralavotes.election.dto.details.SeatProjectionJob;
+import com.keralavotes.election.model.SeatProjectionRequest;
+import com.keralavotes.election.service.SeatProjectionService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+@Slf4j
+@RestController
+@RequestMapping("/v1/admin/projections")
+@RequiredArgsConstructor
+public class ProjectionAdminController {
+
+    private final SeatProjectionService projectionService;
+
+    /**
+     * Starts a Monte Carlo seat projection; poll GET /{jobId} for progress and the result.
+     * Example:
+     *   POST /api/v1/admin/projections
+     *   { "year": 2025, "iterations": 100000, "seed": 42, "stateSigma": 2, "districtSigma": 1.5,
+     *     "unitSigma": 3, "meanSwing": {"UDF": 1.0} }
+     */
+    @PostMapping
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public SeatProjectionJob start(@Valid @RequestBody SeatProjectionRequest request) {
+        log.info("ProjectionAdminController::start -> year={}, iterations={}, seed={}",
+                request.getYear(), request.getIterations(), request.getSeed());
+        return projectionService.start(request);
+    }
+
+    @GetMapping("/{jobId}")
+    public SeatProjectionJob status(@PathVariable String jobId) {
+        return projectionService.status(jobId);
+    }
+}
@@ -0,0 +1,46 @@
+package com.keralavotes.election.controller;
+
+import com.keralavotes.election.constants.ElectionYear;
+import com.keralavotes.election.service.AllianceRollupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Arrays;
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping("/v1/admin/rollups")
+@RequiredArgsConstructor
+public class RollupAdminController {
+
+    private final AllianceRollupService rollupService;
+
+    /**
+     * Full rebuild of ward / booth alliance rollups.
+     * Example:
+     *   POST /api/v1/admin/rollups/rebuild?years=2015,2020,2024
+     *   POST /api/v1/admin/rollups/rebuild          (all configured years)
+     */
+    @PostMapping("/rebuild")
+    public ResponseEntity<String> rebuild(@RequestParam(required = false) List<Integer> years) {
+        List<Integer> yearList = (years == null || years.isEmpty())
+                ? Arrays.stream(ElectionYear.values()).map(ElectionYear::getYear).toList()
+                : years;
+
+        for (Integer year : yearList) {
+            try {
+                rollupService.rebuildYear(year);
+            } catch (Exception e) {
+                log.error("RollupAdminController::rebuild -> Rollup rebuild failed for year {}, {}", year, e.getMessage());
+                return ResponseEntity.badRequest().body("Rollup rebuild failed for " + year + ": " + e.getMessage());
+            }
+        }
+        return ResponseEntity.ok("Rollups rebuilt for " + yearList);
+    }
+}
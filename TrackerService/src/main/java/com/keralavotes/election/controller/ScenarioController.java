@@ -0,0 +1,36 @@
+package com.keralavotes.election.controller;
+
+import com.keralavotes.election.dto.details.VoteTransferScenarioResponse;
+import com.keralavotes.election.model.VoteTransferScenarioRequest;
+import com.keralavotes.election.service.VoteTransferScenarioService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@Slf4j
+@RestController
+@RequestMapping("/v1/public/scenario")
+@RequiredArgsConstructor
+public class ScenarioController {
+
+    private final VoteTransferScenarioService scenarioService;
+
+    /**
+     * Example:
+     * POST /api/v1/public/scenario/vote-transfer
+     * {
+     *   "year": 2020, "alliance": "UDF", "swingPercent": 10,
+     *   "transfers": [ {"from": "UDF", "to": "NDA", "percent": 3}, {"from": "LDF", "to": "UDF", "percent": 2} ],
+     *   "districtOverrides": [ {"districtCode": 1, "transfers": [ {"from": "LDF", "to": "NDA", "percent": 5} ]} ]
+     * }
+     */
+    @PostMapping("/vote-transfer")
+    public VoteTransferScenarioResponse voteTransfer(@Valid @RequestBody VoteTransferScenarioRequest request) {
+        log.info("voteTransfer called for year={}, alliance={}", request.getYear(), request.getAlliance());
+        return scenarioService.evaluate(request);
+    }
+}
@@ -0,0 +1,33 @@
+package com.keralavotes.election.controller;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+/**
+ * Published JSON Schemas of the non-default response encodings.
+ */
+@RestController
+@RequestMapping("/v1/public/schema")
+public class SchemaController {
+
+    private static final MediaType SCHEMA_JSON = MediaType.parseMediaType("application/schema+json");
+
+    private final Resource columnarTable = new ClassPathResource("schema/columnar-table-v1.json");
+
+    /** Schema of ColumnarTable (Accept: application/vnd.keralavotes.columnar+json). */
+    @GetMapping("/columnar-table")
+    public ResponseEntity<Resource> columnarTable() {
+        return ResponseEntity.ok()
+                .contentType(SCHEMA_JSON)
+                .cacheControl(CacheControl.maxAge(Duration.ofDays(1)).cachePublic())
+                .body(columnarTable);
+    }
+}
@@ -1,5 +1,6 @@
 package com.keralavotes.election.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -21,12 +22,22 @@ public class AssemblyAnalysisResponseDto {
 
     private int totalWards;
 
+    // the three parts below are left out when not selected with fields=
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private List<AllianceVoteShare> overallVoteShare;
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private List<LocalbodySummary> localbodies; // localbodies inside this AC (only wards that map to this AC)
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private List<WardRow> wards; // flat ward list for the AC
 
+    // keyset cursor of the next ward page; absent on the last page
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long nextAfterLocalbodyId;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer nextAfterWardNum;
+
     @Data @NoArgsConstructor @AllArgsConstructor @Builder
     public static class AllianceVoteShare {
         private String alliance;
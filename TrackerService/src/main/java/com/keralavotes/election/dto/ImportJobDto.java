@@ -0,0 +1,41 @@
+package com.keralavotes.election.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportJobDto {
+    private String jobId;
+    private String type;
+    private String status;           // QUEUED, RUNNING, DONE, FAILED, CANCELLED
+    private boolean cancelRequested;
+    private String fileName;
+    private Long fileSize;
+    private String fileHash;
+
+    private Long totalRows;          // estimated from the file's line count
+    private long rowsParsed;
+    private long rowsInserted;
+    private long rowsSkipped;
+    private Long resumedAfterRow;    // rows committed by an earlier upload of the same file
+    private Long rowsCommitted;      // a re-upload of the file resumes after this row
+    private Double progress;         // 0..1, null while unknown
+    private Long etaMs;
+
+    private Instant createdAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private Long elapsedMs;
+
+    @JsonRawValue
+    private String result;           // JSON: summary string or report object
+    private String error;
+}
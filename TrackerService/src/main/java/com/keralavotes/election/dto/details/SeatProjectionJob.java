@@ -0,0 +1,78 @@
+package com.keralavotes.election.dto.details;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SeatProjectionJob {
+    private String jobId;
+    private String status;           // RUNNING, DONE, FAILED
+    private int year;
+    private long seed;
+    private int iterations;
+    private long completedIterations;
+    private double progress;         // 0..1
+    private Instant startedAt;
+    private Long elapsedMs;
+    private String error;
+
+    private Result result;           // set once DONE
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Result {
+        private String unitType;     // WARD or BOOTH
+        private int totalSeats;
+        private int majorityNeeded;
+        private List<AllianceSeats> seats;
+        private List<AcOdds> acs;
+        private List<LocalbodyOdds> localbodies;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class AllianceSeats {
+        private String alliance;
+        private double mean;
+        private int p5;
+        private int p50;
+        private int p95;
+        private double majorityProbability;
+        // [seats] = probability of winning exactly that many ACs
+        private double[] distribution;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class AcOdds {
+        private Integer acCode;
+        private String acName;
+        private Map<String, Double> winProbability;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class LocalbodyOdds {
+        private Long localbodyId;
+        private String localbodyName;
+        // alliances missing here never reached a majority of units
+        private Map<String, Double> majorityProbability;
+    }
+}
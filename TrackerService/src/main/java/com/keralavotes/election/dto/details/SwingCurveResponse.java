@@ -0,0 +1,62 @@
+package com.keralavotes.election.dto.details;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SwingCurveResponse {
+    private String district;
+    private String type;
+    private String alliance;
+    private int year;
+    private int maxSwing;
+
+    private int localbodyCount;
+
+    private int wardsWon;
+    private Integer boothsWon;       // GE only
+
+    private List<Point> points;      // one per swing 0..maxSwing
+    private List<LocalbodyCurve> breakdown;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Point {
+        private int swing;
+        private int wardsWinnable;
+        private Integer boothsWinnable;   // GE only
+
+        private int localbodiesMajority;  // verdict MAJORITY
+        private int localbodiesPossible;  // verdict POSSIBLE_WITH_SWING at this swing
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class LocalbodyCurve {
+        private Long localbodyId;
+        private String localbodyName;
+
+        private int wardsWon;
+        private int totalWards;
+        private int majorityNeeded;
+
+        // [swing] = winnable count at that swing percent
+        private int[] wardsWinnable;
+        private Integer boothsWon;
+        private int[] boothsWinnable;
+
+        // verdict is MAJORITY at 0, POSSIBLE_WITH_SWING from here on, HARD before; null = HARD throughout
+        private Integer majorityAtSwing;
+    }
+}
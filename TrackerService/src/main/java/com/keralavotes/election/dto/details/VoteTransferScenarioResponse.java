@@ -0,0 +1,80 @@
+package com.keralavotes.election.dto.details;
+
+import com.keralavotes.election.dto.ElectionType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class VoteTransferScenarioResponse {
+    private int year;
+    private ElectionType type;
+    private String unitType;         // WARD (localbody years) or BOOTH (GE years)
+    private String alliance;
+    private int swingPercent;
+
+    private int units;
+    private int flippedUnits;        // units whose winner changed
+
+    private List<AllianceUnits> unitsWon;
+    private List<LocalbodyResult> localbodies;
+    private List<AcResult> acs;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class AllianceUnits {
+        private String alliance;
+        private int before;
+        private int after;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class AllianceVotes {
+        private String alliance;
+        private long before;
+        private long after;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class LocalbodyResult {
+        private Long localbodyId;
+        private String localbodyName;
+
+        private int totalUnits;
+        private int majorityNeeded;
+        private List<AllianceUnits> unitsWon;
+
+        // for the requested alliance, after transfers
+        private int won;
+        private int winnable;
+        private String verdict;          // "MAJORITY", "POSSIBLE_WITH_SWING", "HARD"
+        private String baselineVerdict;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class AcResult {
+        private Integer acCode;
+        private String acName;
+        private List<AllianceVotes> votes;
+        private String winner;
+        private String baselineWinner;
+        private long margin;
+    }
+}
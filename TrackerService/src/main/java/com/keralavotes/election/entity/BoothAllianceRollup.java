@@ -0,0 +1,61 @@
+package com.keralavotes.election.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Pre-aggregated alliance votes for one polling station in one GE / assembly election.
+ * Localbody is resolved through polling_station at read time, so booth re-mapping
+ * does not invalidate these rows.
+ */
+@Entity
+@Table(name = "booth_alliance_rollup",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"ps_id", "election_year", "alliance"}))
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class BoothAllianceRollup {
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "ps_id", nullable = false)
+    private Long psId;
+
+    @Column(name = "ac_code", nullable = false)
+    private Integer acCode;
+
+    @Column(name = "election_year", nullable = false)
+    private Integer electionYear;
+
+    @Column(nullable = false)
+    private String alliance;
+
+    @Column(nullable = false)
+    private Long votes;
+
+    // sum of all alliance votes in the booth
+    @Column(nullable = false)
+    private Long total;
+
+    // booth_totals.total_valid, null until Form 20 totals are imported
+    @Column(name = "total_valid")
+    private Integer totalValid;
+
+    // 1 = winner, 2 = runner-up, ...
+    @Column(nullable = false)
+    private Integer position;
+
+    @Column(nullable = false)
+    private String winner;
+
+    @Column(nullable = false)
+    private Long margin;
+}
@@ -0,0 +1,55 @@
+package com.keralavotes.election.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * How far a chunked CSV import got with one file, keyed by import type and the file's
+ * SHA-256. Written in the same transaction as each chunk, so rows 1..rowsCommitted are
+ * in the database; a re-upload of an unfinished file resumes after them.
+ */
+@Entity
+@Table(name = "import_checkpoint",
+       uniqueConstraints = @UniqueConstraint(name = "import_checkpoint_uq", columnNames = {"type", "file_hash"}))
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class ImportCheckpoint {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private ImportJob.Type type;
+
+    @Column(name = "file_hash", nullable = false, length = 64)
+    private String fileHash;
+
+    /** Data rows (header excluded) committed so far. */
+    private long rowsCommitted;
+    private long rowsInserted;
+    private long rowsSkipped;
+
+    /** Job that wrote the last chunk. */
+    @Column(length = 36)
+    private String jobId;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+
+    /** Set when the whole file went in; the next upload of it starts over. */
+    private Instant completedAt;
+}
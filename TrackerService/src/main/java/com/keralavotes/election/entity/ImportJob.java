@@ -0,0 +1,82 @@
+package com.keralavotes.election.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * History of admin import jobs run by {@code ImportJobService}. Row counts are written
+ * when a job finishes; live progress of a running job is kept in memory.
+ */
+@Entity
+@Table(name = "import_job",
+       indexes = @Index(name = "import_job_created_idx", columnList = "created_at"))
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class ImportJob {
+
+    public enum Type {
+        BOOTHS, CANDIDATES, FORM20_VOTES, FORM20_TOTALS,
+        LOCALBODY, LOCALBODY_AUDIT, LOCALBODY_FIX_WARDS, LOCALBODY_FIX_CANDIDATES, LOCALBODY_FIX_RESULTS
+    }
+
+    public enum Status {
+        QUEUED, RUNNING, DONE, FAILED, CANCELLED;
+
+        public boolean isFinished() {
+            return this == DONE || this == FAILED || this == CANCELLED;
+        }
+    }
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private Type type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    private String fileName;
+    private Long fileSize;
+
+    /** SHA-256 of the upload; keys its ImportCheckpoint. */
+    @Column(length = 64)
+    private String fileHash;
+
+    /** Rows skipped because an earlier job for the same file committed them. */
+    private Long resumedAfterRow;
+
+    /** Last row committed, counting resumed rows. */
+    private Long rowsCommitted;
+
+    private Long totalRows;
+    private long rowsParsed;
+    private long rowsInserted;
+    private long rowsSkipped;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+
+    /** Summary line, or the JSON report for audit / fix jobs. */
+    @Column(columnDefinition = "text")
+    private String result;
+
+    @Column(columnDefinition = "text")
+    private String error;
+}
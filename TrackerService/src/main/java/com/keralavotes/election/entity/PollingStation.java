@@ -18,7 +18,7 @@ import lombok.Setter;
 @Entity
 @Table(
     name = "polling_station",
-    uniqueConstraints = @UniqueConstraint(columnNames = {"ac_code", "ps_number", "ps_suffix"})
+    uniqueConstraints = @UniqueConstraint(columnNames = {"election_year", "ac_code", "ps_number", "ps_suffix"})
 )
 @Getter
 @Setter
@@ -0,0 +1,54 @@
+package com.keralavotes.election.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Pre-aggregated alliance votes for one ward in one localbody election.
+ * Rows are rebuilt by {@code AllianceRollupService} whenever ward results are imported.
+ * The localbody is read through ward, so remapping a ward leaves no stale rows.
+ */
+@Entity
+@Table(name = "ward_alliance_rollup",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"ward_id", "election_year", "alliance"}))
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class WardAllianceRollup {
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "ward_id", nullable = false)
+    private Long wardId;
+
+    @Column(name = "election_year", nullable = false)
+    private Integer electionYear;
+
+    @Column(nullable = false)
+    private String alliance;
+
+    @Column(nullable = false)
+    private Long votes;
+
+    // sum of all alliance votes in the ward
+    @Column(nullable = false)
+    private Long total;
+
+    // 1 = winner, 2 = runner-up, ...
+    @Column(nullable = false)
+    private Integer position;
+
+    @Column(nullable = false)
+    private String winner;
+
+    @Column(nullable = false)
+    private Long margin;
+}
@@ -0,0 +1,53 @@
+package com.keralavotes.election.event;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Set;
+
+/**
+ * Published inside a write transaction whenever vote data or party → alliance mapping changes.
+ * Listeners use {@code @TransactionalEventListener} so they only run once the write has committed.
+ */
+@Getter
+@ToString
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class ElectionDataChangedEvent {
+
+    public enum Source {
+        WARD_RESULTS,   // lb_ward_results / lb_candidate
+        BOOTH_RESULTS,  // booth_votes / booth_totals
+        ALLIANCE_MAPPING // party.alliance_id / party_alliance_mapping
+    }
+
+    private final Source source;
+    private final Set<Integer> years;
+
+    // WARD_RESULTS / ALLIANCE_MAPPING scope, null = every localbody
+    private final Set<Long> localbodyIds;
+
+    // BOOTH_RESULTS scope, null = every AC
+    private final Set<Integer> acCodes;
+
+    public static ElectionDataChangedEvent wardResults(Set<Integer> years, Set<Long> localbodyIds) {
+        return new ElectionDataChangedEvent(Source.WARD_RESULTS, Set.copyOf(years),
+                localbodyIds == null ? null : Set.copyOf(localbodyIds), null);
+    }
+
+    public static ElectionDataChangedEvent boothResults(Set<Integer> years, Set<Integer> acCodes) {
+        return new ElectionDataChangedEvent(Source.BOOTH_RESULTS, Set.copyOf(years),
+                null, acCodes == null ? null : Set.copyOf(acCodes));
+    }
+
+    public static ElectionDataChangedEvent allianceMapping(Set<Integer> years) {
+        return new ElectionDataChangedEvent(Source.ALLIANCE_MAPPING, Set.copyOf(years), null, null);
+    }
+
+    // a party's default alliance changed; only these localbodies' ward rollups are affected
+    public static ElectionDataChangedEvent allianceMapping(Set<Integer> years, Set<Long> localbodyIds) {
+        return new ElectionDataChangedEvent(Source.ALLIANCE_MAPPING, Set.copyOf(years),
+                Set.copyOf(localbodyIds), null);
+    }
+}
@@ -0,0 +1,129 @@
+package com.keralavotes.election.model;
+
+import java.util.Arrays;
+
+/**
+ * Per-alliance vote accumulator backed by a {@code long[]} indexed by the dense alliance id
+ * from {@link PartyAllianceSnapshot}. Adding a row does not box or allocate.
+ *
+ * An alliance counts as "present" once it has been added to, even with zero votes,
+ * which matches the old {@code Map.merge} behaviour.
+ */
+public final class AllianceTally {
+
+    @FunctionalInterface
+    public interface AllianceVotesConsumer {
+        void accept(int allianceId, long votes);
+    }
+
+    private long[] votes;
+    private boolean[] present;
+    private int presentCount;
+    private long total;
+
+    public AllianceTally(int allianceCount) {
+        int capacity = Math.max(allianceCount, 4);
+        this.votes = new long[capacity];
+        this.present = new boolean[capacity];
+    }
+
+    /* ===================== WRITE ===================== */
+
+    public void add(int allianceId, long v) {
+        if (allianceId >= votes.length) {
+            grow(allianceId + 1);
+        }
+        votes[allianceId] += v;
+        total += v;
+        if (!present[allianceId]) {
+            present[allianceId] = true;
+            presentCount++;
+        }
+    }
+
+    public void addAll(AllianceTally other) {
+        for (int id = 0; id < other.votes.length; id++) {
+            if (other.present[id]) {
+                add(id, other.votes[id]);
+            }
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(votes, 0L);
+        Arrays.fill(present, false);
+        presentCount = 0;
+        total = 0L;
+    }
+
+    /* ===================== READ ===================== */
+
+    public long get(int allianceId) {
+        return allianceId < votes.length ? votes[allianceId] : 0L;
+    }
+
+    public boolean contains(int allianceId) {
+        return allianceId >= 0 && allianceId < present.length && present[allianceId];
+    }
+
+    public long total() {
+        return total;
+    }
+
+    /** Number of alliances present. */
+    public int size() {
+        return presentCount;
+    }
+
+    public boolean isEmpty() {
+        return presentCount == 0;
+    }
+
+    public void forEach(AllianceVotesConsumer consumer) {
+        for (int id = 0; id < votes.length; id++) {
+            if (present[id]) {
+                consumer.accept(id, votes[id]);
+            }
+        }
+    }
+
+    /**
+     * Fills {@code into} with the top three alliances (lowest id on ties) and returns it.
+     * Reuse one {@link Podium} across wards to keep the ranking allocation-free.
+     */
+    public Podium podium(Podium into) {
+        into.reset();
+        for (int id = 0; id < votes.length; id++) {
+            if (present[id]) {
+                into.offer(id, votes[id]);
+            }
+        }
+        return into;
+    }
+
+    /** Alliance ids present, ordered by votes desc (lowest id on ties). */
+    public int[] ranked() {
+        int[] ids = new int[presentCount];
+        int n = 0;
+        for (int id = 0; id < votes.length; id++) {
+            if (present[id]) ids[n++] = id;
+        }
+        // insertion sort: a handful of alliances
+        for (int i = 1; i < n; i++) {
+            int cur = ids[i];
+            int j = i - 1;
+            while (j >= 0 && votes[ids[j]] < votes[cur]) {
+                ids[j + 1] = ids[j];
+                j--;
+            }
+            ids[j + 1] = cur;
+        }
+        return ids;
+    }
+
+    private void grow(int minCapacity) {
+        int capacity = Math.max(minCapacity, votes.length * 2);
+        votes = Arrays.copyOf(votes, capacity);
+        present = Arrays.copyOf(present, capacity);
+    }
+}
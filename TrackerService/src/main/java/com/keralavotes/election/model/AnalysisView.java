@@ -0,0 +1,80 @@
+package com.keralavotes.election.model;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Which parts of an assembly / district / state analysis response to build, and which page
+ * of ward rows. Ward pages are keyed by (localbodyId, wardNum): a page holds the first
+ * {@code limit} wards after the cursor in that order.
+ *
+ * A record so it can be part of response cache keys and ETags.
+ */
+public record AnalysisView(boolean overall,
+                           boolean localbodies,
+                           boolean wards,
+                           Long afterLocalbodyId,
+                           Integer afterWardNum,
+                           Integer limit) {
+
+    public static final AnalysisView ALL = new AnalysisView(true, true, true, null, null, null);
+
+    public static final int DEFAULT_PAGE_SIZE = 500;
+    public static final int MAX_PAGE_SIZE = 5000;
+
+    private static final Set<String> FIELDS = Set.of("overall", "localbodies", "wards");
+
+    /**
+     * @param fields comma-separated subset of overall, localbodies, wards; all when blank
+     * @param limit  ward page size; defaults to {@link #DEFAULT_PAGE_SIZE} once a cursor is given
+     */
+    public static AnalysisView parse(String fields, Long afterLocalbodyId, Integer afterWardNum, Integer limit) {
+        Set<String> selected = fields == null || fields.isBlank()
+                ? FIELDS
+                : Arrays.stream(fields.split(","))
+                        .map(f -> f.trim().toLowerCase(Locale.ROOT))
+                        .filter(f -> !f.isEmpty())
+                        .collect(Collectors.toSet());
+        for (String f : selected) {
+            if (!FIELDS.contains(f)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Unknown field " + f + "; expected any of overall, localbodies, wards");
+            }
+        }
+        if ((afterLocalbodyId == null) != (afterWardNum == null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "afterLocalbodyId and afterWardNum must be given together");
+        }
+        if (limit != null && (limit < 1 || limit > MAX_PAGE_SIZE)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (limit == null && afterLocalbodyId != null) {
+            limit = DEFAULT_PAGE_SIZE;
+        }
+        return new AnalysisView(selected.contains("overall"), selected.contains("localbodies"),
+                selected.contains("wards"), afterLocalbodyId, afterWardNum, limit);
+    }
+
+    public boolean paged() {
+        return wards && limit != null;
+    }
+
+    /** True if a ward sorts after the cursor in (localbodyId, wardNum) order. */
+    public boolean isAfterCursor(Long localbodyId, int wardNum) {
+        if (afterLocalbodyId == null) return true;
+        long lb = localbodyId == null ? Long.MIN_VALUE : localbodyId;
+        return lb > afterLocalbodyId || (lb == afterLocalbodyId && wardNum > afterWardNum);
+    }
+
+    /** Response cache / ETag parameters for a request with these localbody types. */
+    public List<Object> cacheParams(List<String> types) {
+        return List.of(types == null ? List.of() : types, this);
+    }
+}
@@ -0,0 +1,18 @@
+package com.keralavotes.election.model;
+
+public interface BoothRollupRow {
+
+    Long getPsId();
+    Integer getPsNumber();
+    String getPsName();
+
+    Integer getElectionYear();
+
+    String getAlliance();
+    Long getVotes();
+    Long getTotal();
+    Integer getTotalValid();
+    Integer getPosition();
+    String getWinner();
+    Long getMargin();
+}
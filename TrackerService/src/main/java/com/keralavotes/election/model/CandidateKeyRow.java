@@ -0,0 +1,12 @@
+package com.keralavotes.election.model;
+
+/**
+ * Id of a candidate with the fields a Form 20 row identifies it by.
+ */
+public interface CandidateKeyRow {
+
+    Long getId();
+    String getLsName();
+    String getName();
+    Integer getElectionYear();
+}
@@ -0,0 +1,197 @@
+package com.keralavotes.election.model;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.annotation.JsonValue;
+import lombok.Getter;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Column-oriented encoding of a flat result table, served instead of the row-per-object
+ * JSON when a client sends {@code Accept: application/vnd.keralavotes.columnar+json}.
+ *
+ * Every column is one JSON array with one entry per row. Numbers are plain int / long
+ * arrays; strings that repeat across rows (alliance, party, candidate and booth names)
+ * are dictionary-encoded: the column holds indexes into {@code dictionaries[column]},
+ * with -1 for null. A null number is written as 0 and its row index listed under
+ * {@code nulls[column]}. Schema: GET /api/v1/public/schema/columnar-table
+ * (resources/schema/columnar-table-v1.json).
+ */
+@Getter
+@JsonPropertyOrder({"schema", "table", "rows", "columns", "dictionaries", "nulls"})
+public final class ColumnarTable {
+
+    public static final String MEDIA_TYPE_VALUE = "application/vnd.keralavotes.columnar+json";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+    public static final String SCHEMA = "columnar-table/v1";
+
+    private final String schema = SCHEMA;
+    private final String table;
+    private final Map<String, Column> columns = new LinkedHashMap<>();
+    private final Map<String, List<String>> dictionaries = new LinkedHashMap<>();
+
+    public ColumnarTable(String table) {
+        this.table = table;
+    }
+
+    /** True if the Accept header names the columnar media type explicitly (wildcards do not count). */
+    public static boolean isAccepted(String acceptHeader) {
+        if (acceptHeader == null || acceptHeader.isBlank()) {
+            return false;
+        }
+        try {
+            return MediaType.parseMediaTypes(acceptHeader).stream().anyMatch(MEDIA_TYPE::equalsTypeAndSubtype);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+
+    /** Row count; every column is expected to have received one value per row. */
+    public int getRows() {
+        return columns.isEmpty() ? 0 : columns.values().iterator().next().size();
+    }
+
+    /** Null row indexes of every number column that has any. */
+    public Map<String, int[]> getNulls() {
+        Map<String, int[]> nulls = new LinkedHashMap<>();
+        columns.forEach((name, column) -> {
+            int[] rows = column.nullRows();
+            if (rows.length > 0) {
+                nulls.put(name, rows);
+            }
+        });
+        return nulls;
+    }
+
+    public IntColumn intColumn(String name) {
+        return add(name, new IntColumn());
+    }
+
+    public LongColumn longColumn(String name) {
+        return add(name, new LongColumn());
+    }
+
+    public DictColumn dictColumn(String name) {
+        List<String> dictionary = new ArrayList<>();
+        DictColumn column = add(name, new DictColumn(dictionary));
+        dictionaries.put(name, dictionary);
+        return column;
+    }
+
+    private <C extends Column> C add(String name, C column) {
+        if (columns.putIfAbsent(name, column) != null) {
+            throw new IllegalArgumentException("Duplicate column " + name);
+        }
+        return column;
+    }
+
+    public interface Column {
+        int size();
+
+        @JsonValue
+        Object values();
+
+        /** Rows added as null, ascending; their slot in {@link #values()} holds 0. */
+        default int[] nullRows() {
+            return new int[0];
+        }
+    }
+
+    public static final class IntColumn implements Column {
+        private int[] data = new int[64];
+        private int size;
+        private int[] nulls = new int[0];
+        private int nullCount;
+
+        public void add(int value) {
+            if (size == data.length) data = Arrays.copyOf(data, size * 2);
+            data[size++] = value;
+        }
+
+        public void add(Number value) {
+            if (value == null) {
+                if (nullCount == nulls.length) nulls = Arrays.copyOf(nulls, Math.max(8, nullCount * 2));
+                nulls[nullCount++] = size;
+                add(0);
+                return;
+            }
+            add(Math.toIntExact(value.longValue()));
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Object values() {
+            return Arrays.copyOf(data, size);
+        }
+
+        @Override
+        public int[] nullRows() {
+            return Arrays.copyOf(nulls, nullCount);
+        }
+    }
+
+    public static final class LongColumn implements Column {
+        private long[] data = new long[64];
+        private int size;
+
+        public void add(long value) {
+            if (size == data.length) data = Arrays.copyOf(data, size * 2);
+            data[size++] = value;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Object values() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+
+    public static final class DictColumn implements Column {
+        private final List<String> dictionary;
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final IntColumn indexes = new IntColumn();
+
+        DictColumn(List<String> dictionary) {
+            this.dictionary = dictionary;
+        }
+
+        public void add(String value) {
+            if (value == null) {
+                indexes.add(-1);
+                return;
+            }
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = dictionary.size();
+                dictionary.add(value);
+                codes.put(value, code);
+            }
+            indexes.add(code);
+        }
+
+        @Override
+        public int size() {
+            return indexes.size();
+        }
+
+        @Override
+        public Object values() {
+            return indexes.values();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.keralavotes.election.model;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live counters of one running import, written by the import thread and read by status
+ * requests. Imports call {@link #checkCancelled()} between rows; the CancellationException
+ * it throws rolls back the transaction in progress (for chunked CSV imports, the current
+ * chunk only).
+ *
+ * Chunked imports also carry their resume point here: rows up to {@link #getResumeAfter()}
+ * were committed by an earlier job for the same file, and each chunk reports its last row
+ * through {@link #checkpoint(long)} before it commits.
+ *
+ * Inserted/skipped counts move live while a transaction writes; when it rolls back they
+ * return to what the last committed chunk left ({@link #rolledBack()}).
+ */
+public final class ImportProgress {
+
+    /** Persists a chunk's checkpoint; called inside the chunk's transaction. */
+    @FunctionalInterface
+    public interface Checkpointer {
+        void save(long lastRow, long inserted, long skipped);
+    }
+
+    private final AtomicLong parsed = new AtomicLong();
+    private final AtomicLong inserted = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private volatile long totalRows = -1;
+    private volatile boolean cancelRequested;
+    private volatile long resumeAfter;
+    private volatile long committedRows;
+    private volatile long committedInserted;
+    private volatile long committedSkipped;
+    private Checkpointer checkpointer;
+
+    public void parsed() {
+        parsed.incrementAndGet();
+    }
+
+    public void inserted(long rows) {
+        inserted.addAndGet(rows);
+    }
+
+    public void skipped(long rows) {
+        skipped.addAndGet(rows);
+    }
+
+    /** Expected row count, or -1 when unknown. */
+    public void setTotalRows(long totalRows) {
+        this.totalRows = totalRows;
+    }
+
+    /** Continues a file whose rows 1..rows were committed, with that run's counters. */
+    public void resume(long rows, long inserted, long skipped) {
+        this.parsed.set(rows);
+        this.inserted.set(inserted);
+        this.skipped.set(skipped);
+        this.resumeAfter = rows;
+        this.committedRows = rows;
+        this.committedInserted = inserted;
+        this.committedSkipped = skipped;
+    }
+
+    public void setCheckpointer(Checkpointer checkpointer) {
+        this.checkpointer = checkpointer;
+    }
+
+    /** Records that rows 1..lastRow are written; call inside the transaction writing them. */
+    public void checkpoint(long lastRow) {
+        if (checkpointer != null) {
+            checkpointer.save(lastRow, inserted.get(), skipped.get());
+        }
+    }
+
+    /** The transaction that called {@link #checkpoint(long)} has committed, with the rows counted so far. */
+    public void committed(long lastRow) {
+        this.committedInserted = inserted.get();
+        this.committedSkipped = skipped.get();
+        this.committedRows = lastRow;
+    }
+
+    /** The transaction in progress rolled back: rows it counted as inserted or skipped are not. */
+    public void rolledBack() {
+        inserted.set(committedInserted);
+        skipped.set(committedSkipped);
+    }
+
+    public void requestCancel() {
+        cancelRequested = true;
+    }
+
+    public boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
+    public void checkCancelled() {
+        if (cancelRequested) {
+            throw new CancellationException("Import cancelled");
+        }
+    }
+
+    public long getParsed() {
+        return parsed.get();
+    }
+
+    public long getInserted() {
+        return inserted.get();
+    }
+
+    public long getSkipped() {
+        return skipped.get();
+    }
+
+    public long getTotalRows() {
+        return totalRows;
+    }
+
+    /** Rows committed by an earlier job for the same file, skipped by this one. */
+    public long getResumeAfter() {
+        return resumeAfter;
+    }
+
+    /** Last row known to be committed, by this job or the one it resumed. */
+    public long getCommittedRows() {
+        return committedRows;
+    }
+
+    /**
+     * 0..1, or null while the total is unknown. Parsing a row and storing or skipping it
+     * count as one half each, so imports that parse the whole file first still move forward.
+     */
+    public Double fraction() {
+        long total = totalRows;
+        if (total <= 0) return null;
+        double done = parsed.get() + inserted.get() + skipped.get();
+        return Math.min(1.0, done / (2.0 * total));
+    }
+}
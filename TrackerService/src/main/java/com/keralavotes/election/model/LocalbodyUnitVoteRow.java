@@ -0,0 +1,14 @@
+package com.keralavotes.election.model;
+
+/**
+ * One candidate's votes in a ward (localbody elections) or booth (GE),
+ * tagged with the localbody it belongs to.
+ */
+public interface LocalbodyUnitVoteRow {
+
+    Long getLocalbodyId();
+    Long getUnitId();
+
+    Long getPartyId();
+    Long getVotes();
+}
@@ -0,0 +1,10 @@
+package com.keralavotes.election.model;
+
+/**
+ * One localbody that has ward results in one election year.
+ */
+public interface LocalbodyYearRow {
+
+    Integer getElectionYear();
+    Long getLocalbodyId();
+}
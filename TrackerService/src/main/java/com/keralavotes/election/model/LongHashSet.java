@@ -0,0 +1,90 @@
+package com.keralavotes.election.model;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Open-addressing set of primitive longs: 8 bytes a slot instead of a boxed Long plus a
+ * HashMap node per key. Used for import dedupe keys. Not thread-safe; no removal.
+ */
+public final class LongHashSet implements LongConsumer {
+
+    private static final long EMPTY = 0L;
+
+    private long[] slots;
+    private int size;
+    private boolean hasZero;
+
+    public LongHashSet() {
+        this(16);
+    }
+
+    public LongHashSet(int expected) {
+        int capacity = 16;
+        while (capacity < expected * 2) capacity <<= 1;
+        this.slots = new long[capacity];
+    }
+
+    /** @return true if the key was not present */
+    public boolean add(long key) {
+        if (key == EMPTY) {
+            if (hasZero) return false;
+            hasZero = true;
+            size++;
+            return true;
+        }
+        if ((size + 1) * 2 > slots.length) {
+            grow();
+        }
+        if (!insert(slots, key)) {
+            return false;
+        }
+        size++;
+        return true;
+    }
+
+    /** Same as {@link #add}, so a set can be the target of {@code Stream.mapToLong(...).forEach}. */
+    @Override
+    public void accept(long key) {
+        add(key);
+    }
+
+    public boolean contains(long key) {
+        if (key == EMPTY) return hasZero;
+        int mask = slots.length - 1;
+        for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+            long slot = slots[i];
+            if (slot == EMPTY) return false;
+            if (slot == key) return true;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void grow() {
+        long[] bigger = new long[slots.length * 2];
+        for (long key : slots) {
+            if (key != EMPTY) insert(bigger, key);
+        }
+        slots = bigger;
+    }
+
+    private static boolean insert(long[] table, long key) {
+        int mask = table.length - 1;
+        for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+            long slot = table[i];
+            if (slot == EMPTY) {
+                table[i] = key;
+                return true;
+            }
+            if (slot == key) return false;
+        }
+    }
+
+    // packed (id << 32 | id) keys have structure in both halves; spread them before masking
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
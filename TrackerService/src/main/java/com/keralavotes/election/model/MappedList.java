@@ -0,0 +1,34 @@
+package com.keralavotes.election.model;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Function;
+
+/**
+ * Read-only list view that converts each source element when it is read.
+ *
+ * Used for large response lists (ward rows) so Jackson can write them one element at
+ * a time instead of the whole DTO graph being built before serialization starts.
+ * Every read converts again; iterate it once.
+ */
+public final class MappedList<S, T> extends AbstractList<T> implements RandomAccess {
+
+    private final List<S> source;
+    private final Function<? super S, ? extends T> mapper;
+
+    public MappedList(List<S> source, Function<? super S, ? extends T> mapper) {
+        this.source = source;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public T get(int index) {
+        return mapper.apply(source.get(index));
+    }
+
+    @Override
+    public int size() {
+        return source.size();
+    }
+}
@@ -0,0 +1,9 @@
+package com.keralavotes.election.model;
+
+import com.keralavotes.election.dto.ElectionType;
+
+public interface PartyAllianceMappingRow extends PartyAllianceRow {
+
+    Integer getElectionYear();
+    ElectionType getElectionType();
+}
@@ -0,0 +1,7 @@
+package com.keralavotes.election.model;
+
+public interface PartyAllianceRow {
+
+    Long getPartyId();
+    String getAllianceName();  // nullable for parties without a default alliance
+}
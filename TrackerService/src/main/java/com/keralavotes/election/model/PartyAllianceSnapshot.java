@@ -0,0 +1,153 @@
+package com.keralavotes.election.model;
+
+import com.keralavotes.election.dto.ElectionType;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Immutable party → alliance lookup for every (year, election type) plus the party's default alliance.
+ *
+ * Alliances are interned to dense ids (0..allianceCount-1) so callers can accumulate into arrays
+ * (see {@link AllianceTally}). OTH, LDF, UDF and NDA always get ids 0-3; other alliances are
+ * registered in load order. Names are matched case-insensitively; OTH is returned for unmapped parties.
+ */
+public final class PartyAllianceSnapshot {
+
+    public static final String OTHERS = "OTH";
+
+    private static final List<String> FIXED_ALLIANCES = List.of(OTHERS, "LDF", "UDF", "NDA");
+
+    private record YearType(int year, ElectionType type) {}
+
+    @Getter
+    private final long version;
+
+    private final String[] allianceNames;
+    private final Map<String, Integer> allianceIds;    // normalized name -> id
+    private final int othersId;
+
+    private final Map<YearType, Map<Long, Integer>> mappings;
+    private final Map<Long, Integer> defaults;
+
+    private PartyAllianceSnapshot(long version,
+                                  String[] allianceNames,
+                                  Map<String, Integer> allianceIds,
+                                  Map<YearType, Map<Long, Integer>> mappings,
+                                  Map<Long, Integer> defaults) {
+        this.version = version;
+        this.allianceNames = allianceNames;
+        this.allianceIds = allianceIds;
+        this.othersId = allianceIds.get(normalize(OTHERS));
+        this.mappings = mappings;
+        this.defaults = defaults;
+    }
+
+    public static PartyAllianceSnapshot build(long version,
+                                              List<PartyAllianceRow> defaultRows,
+                                              List<PartyAllianceMappingRow> mappingRows) {
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> names = new ArrayList<>();
+        Function<String, Integer> intern = name -> ids.computeIfAbsent(normalize(name), k -> {
+            names.add(name.trim());
+            return names.size() - 1;
+        });
+        FIXED_ALLIANCES.forEach(intern::apply);
+
+        Map<Long, Integer> defaults = new HashMap<>();
+        for (PartyAllianceRow r : defaultRows) {
+            if (r.getAllianceName() == null || r.getAllianceName().isBlank()) continue;
+            defaults.put(r.getPartyId(), intern.apply(r.getAllianceName()));
+        }
+
+        Map<YearType, Map<Long, Integer>> mappings = new HashMap<>();
+        for (PartyAllianceMappingRow r : mappingRows) {
+            int allianceId = intern.apply(r.getAllianceName());
+            mappings.computeIfAbsent(new YearType(r.getElectionYear(), r.getElectionType()), k -> new HashMap<>())
+                    .put(r.getPartyId(), allianceId);
+        }
+
+        Map<YearType, Map<Long, Integer>> frozen = new HashMap<>();
+        mappings.forEach((k, v) -> frozen.put(k, Map.copyOf(v)));
+
+        return new PartyAllianceSnapshot(
+                version,
+                names.toArray(String[]::new),
+                Map.copyOf(ids),
+                Map.copyOf(frozen),
+                Map.copyOf(defaults)
+        );
+    }
+
+    /* ===================== DENSE IDS ===================== */
+
+    public int allianceCount() {
+        return allianceNames.length;
+    }
+
+    public String allianceName(int allianceId) {
+        return allianceNames[allianceId];
+    }
+
+    /** @return dense id (case-insensitive), or -1 if the alliance is unknown */
+    public int allianceId(String name) {
+        if (name == null) return -1;
+        Integer id = allianceIds.get(name);             // already normalized: no allocation
+        if (id == null) id = allianceIds.get(normalize(name));
+        return id == null ? -1 : id;
+    }
+
+    /** Dense id for an alliance name, OTH for unknown names. */
+    public int allianceIdOrOthers(String name) {
+        int id = allianceId(name);
+        return id < 0 ? othersId : id;
+    }
+
+    /** Empty tally sized for every alliance in this snapshot. */
+    public AllianceTally newTally() {
+        return new AllianceTally(allianceNames.length);
+    }
+
+    public int othersId() {
+        return othersId;
+    }
+
+    public List<String> allianceNames() {
+        return Arrays.asList(allianceNames.clone());
+    }
+
+    /* ===================== RESOLUTION ===================== */
+
+    /** Alliance from party_alliance_mapping for the given election, OTH when unmapped. */
+    public int resolve(int year, ElectionType type, Long partyId) {
+        if (partyId == null) return othersId;
+        Map<Long, Integer> m = mappings.get(new YearType(year, type));
+        return m == null ? othersId : m.getOrDefault(partyId, othersId);
+    }
+
+    public String resolveName(int year, ElectionType type, Long partyId) {
+        return allianceNames[resolve(year, type, partyId)];
+    }
+
+    /** Alliance from party.alliance_id, OTH when the party has none. */
+    public int resolveDefault(Long partyId) {
+        return partyId == null ? othersId : defaults.getOrDefault(partyId, othersId);
+    }
+
+    public String resolveDefaultName(Long partyId) {
+        return allianceNames[resolveDefault(partyId)];
+    }
+
+    public boolean hasMappings(int year, ElectionType type) {
+        return mappings.containsKey(new YearType(year, type));
+    }
+
+    private static String normalize(String name) {
+        return name.trim().toUpperCase();
+    }
+}
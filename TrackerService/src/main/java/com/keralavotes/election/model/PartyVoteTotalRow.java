@@ -0,0 +1,10 @@
+package com.keralavotes.election.model;
+
+/**
+ * Votes summed per party over a scope.
+ */
+public interface PartyVoteTotalRow {
+
+    Long getPartyId();
+    Long getVotes();
+}
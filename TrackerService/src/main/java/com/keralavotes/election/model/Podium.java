@@ -0,0 +1,93 @@
+package com.keralavotes.election.model;
+
+/**
+ * Top-three selection over (key, votes) pairs in one pass, without sorting or allocating.
+ * Used wherever a ward/booth needs its winner, runner-up, third and margin.
+ *
+ * Ties keep the earlier-offered key ahead, which is what a stable descending sort of the
+ * same sequence would give. Instances are mutable; call {@link #reset()} to reuse one
+ * across wards.
+ */
+public final class Podium {
+
+    public static final int NONE = -1;
+
+    private int first, second, third;
+    private long firstVotes, secondVotes, thirdVotes;
+    private int size;
+
+    public Podium() {
+        reset();
+    }
+
+    public Podium reset() {
+        first = second = third = NONE;
+        firstVotes = secondVotes = thirdVotes = 0L;
+        size = 0;
+        return this;
+    }
+
+    public void offer(int key, long votes) {
+        size++;
+        if (size == 1 || votes > firstVotes) {
+            third = second;
+            thirdVotes = secondVotes;
+            second = first;
+            secondVotes = firstVotes;
+            first = key;
+            firstVotes = votes;
+        } else if (size == 2 || votes > secondVotes) {
+            third = second;
+            thirdVotes = secondVotes;
+            second = key;
+            secondVotes = votes;
+        } else if (size == 3 || votes > thirdVotes) {
+            third = key;
+            thirdVotes = votes;
+        }
+    }
+
+    /* ===================== READ ===================== */
+
+    public int first() {
+        return first;
+    }
+
+    public int second() {
+        return second;
+    }
+
+    public int third() {
+        return third;
+    }
+
+    public long firstVotes() {
+        return firstVotes;
+    }
+
+    public long secondVotes() {
+        return secondVotes;
+    }
+
+    public long thirdVotes() {
+        return thirdVotes;
+    }
+
+    /** Number of pairs offered since the last reset. */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean hasRunnerUp() {
+        return size > 1;
+    }
+
+    /** Winner votes minus runner-up votes; 0 when fewer than two pairs were offered. */
+    public long margin() {
+        return size > 1 ? firstVotes - secondVotes : 0L;
+    }
+}
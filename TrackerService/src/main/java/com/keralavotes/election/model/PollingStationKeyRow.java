@@ -0,0 +1,13 @@
+package com.keralavotes.election.model;
+
+/**
+ * Id of a polling station with the fields a Form 20 row identifies it by.
+ */
+public interface PollingStationKeyRow {
+
+    Long getId();
+    Integer getElectionYear();
+    Integer getAcCode();
+    Integer getPsNumber();
+    String getPsSuffix();
+}
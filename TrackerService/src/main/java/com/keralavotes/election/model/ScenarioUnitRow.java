@@ -0,0 +1,19 @@
+package com.keralavotes.election.model;
+
+/**
+ * One alliance's votes in one ward or booth, with the localbody / AC / district
+ * it rolls up to. Feeds {@link VoteMatrix}.
+ */
+public interface ScenarioUnitRow {
+
+    Long getUnitId();
+
+    Long getLocalbodyId();
+    String getLocalbodyName();
+    Integer getAcCode();
+    String getAcName();
+    Integer getDistrictCode();
+
+    String getAlliance();
+    Long getVotes();
+}
@@ -0,0 +1,38 @@
+package com.keralavotes.election.model;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+public class SeatProjectionRequest {
+
+    // base election the swings are applied to, e.g. 2025 localbody wards
+    @NotNull
+    private Integer year;
+
+    @Min(1)
+    @Max(100_000)
+    private int iterations = 10_000;
+
+    // same seed + same data -> same distribution, whatever the thread count
+    private long seed = 1L;
+
+    // swing standard deviations in percentage points of a unit's total votes
+    @DecimalMin("0.0")
+    private double stateSigma = 2.0;
+
+    @DecimalMin("0.0")
+    private double districtSigma = 1.5;
+
+    @DecimalMin("0.0")
+    private double unitSigma = 3.0;
+
+    // expected statewide swing per alliance (percentage points), e.g. {"UDF": 1.5}
+    private Map<String, Double> meanSwing = new HashMap<>();
+}
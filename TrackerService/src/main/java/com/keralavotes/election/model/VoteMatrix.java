@@ -0,0 +1,270 @@
+package com.keralavotes.election.model;
+
+import com.keralavotes.election.dto.ElectionType;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Columnar, immutable snapshot of every ward (localbody years) or booth (GE years)
+ * alliance vote vector for one election year.
+ *
+ * Unit u's votes for alliance a sit at {@code votes[u * allianceCount + a]};
+ * {@link #ABSENT} marks an alliance that did not contest the unit. Localbodies, ACs
+ * and districts are dense indexes so a scenario can aggregate into plain arrays.
+ * The arrays never leave the instance (reads are indexed), so it is safe to share
+ * between threads.
+ */
+public final class VoteMatrix {
+
+    public static final long ABSENT = -1L;
+    public static final int NONE = -1;
+
+    @Getter
+    private final int year;
+    @Getter
+    private final ElectionType type;
+
+    private final String[] alliances;
+    @Getter
+    private final int unitCount;
+    private final long[] votes;
+
+    private final int[] unitLocalbody;
+    private final int[] unitAc;
+    private final int[] unitDistrict;
+
+    private final long[] localbodyIds;
+    private final String[] localbodyNames;
+    private final int[] acCodes;
+    private final String[] acNames;
+    private final int[] districtCodes;
+
+    private VoteMatrix(int year, ElectionType type, String[] alliances, int unitCount, long[] votes,
+                       int[] unitLocalbody, int[] unitAc, int[] unitDistrict,
+                       long[] localbodyIds, String[] localbodyNames,
+                       int[] acCodes, String[] acNames, int[] districtCodes) {
+        this.year = year;
+        this.type = type;
+        this.alliances = alliances;
+        this.unitCount = unitCount;
+        this.votes = votes;
+        this.unitLocalbody = unitLocalbody;
+        this.unitAc = unitAc;
+        this.unitDistrict = unitDistrict;
+        this.localbodyIds = localbodyIds;
+        this.localbodyNames = localbodyNames;
+        this.acCodes = acCodes;
+        this.acNames = acNames;
+        this.districtCodes = districtCodes;
+    }
+
+    public int allianceCount() {
+        return alliances.length;
+    }
+
+    public String allianceName(int alliance) {
+        return alliances[alliance];
+    }
+
+    /** Alliance names by dense id. */
+    public List<String> allianceNames() {
+        return List.of(alliances);
+    }
+
+    /** Votes of the unit for the alliance, or {@link #ABSENT}. */
+    public long votes(int unit, int alliance) {
+        return votes[unit * alliances.length + alliance];
+    }
+
+    /** Dense localbody index of the unit, or {@link #NONE}. */
+    public int unitLocalbody(int unit) {
+        return unitLocalbody[unit];
+    }
+
+    /** Dense AC index of the unit, or {@link #NONE}. */
+    public int unitAc(int unit) {
+        return unitAc[unit];
+    }
+
+    /** Dense district index of the unit, or {@link #NONE}. */
+    public int unitDistrict(int unit) {
+        return unitDistrict[unit];
+    }
+
+    public int localbodyCount() {
+        return localbodyIds.length;
+    }
+
+    public long localbodyId(int localbody) {
+        return localbodyIds[localbody];
+    }
+
+    public String localbodyName(int localbody) {
+        return localbodyNames[localbody];
+    }
+
+    public int acCount() {
+        return acCodes.length;
+    }
+
+    public int acCode(int ac) {
+        return acCodes[ac];
+    }
+
+    public String acName(int ac) {
+        return acNames[ac];
+    }
+
+    public int districtCount() {
+        return districtCodes.length;
+    }
+
+    /** Dense id for an alliance name (case-insensitive), or {@link #NONE}. */
+    public int allianceId(String name) {
+        if (name == null) return NONE;
+        String key = name.trim().toUpperCase(Locale.ROOT);
+        for (int a = 0; a < alliances.length; a++) {
+            if (alliances[a].equals(key)) return a;
+        }
+        return NONE;
+    }
+
+    /** Dense index of a district code, or {@link #NONE} if no unit belongs to it. */
+    public int districtIndex(int districtCode) {
+        for (int d = 0; d < districtCodes.length; d++) {
+            if (districtCodes[d] == districtCode) return d;
+        }
+        return NONE;
+    }
+
+    /* ===================== BUILD ===================== */
+
+    /** Rows must come ordered by unit id. */
+    public static VoteMatrix build(int year, ElectionType type, Stream<ScenarioUnitRow> rows) {
+        Builder b = new Builder();
+        rows.forEach(b::add);
+        return b.build(year, type);
+    }
+
+    private static final class Builder {
+        private final Map<String, Integer> allianceIndex = new HashMap<>();
+        private final Map<Long, Integer> lbIndex = new HashMap<>();
+        private final Map<Integer, Integer> acIndex = new HashMap<>();
+        private final Map<Integer, Integer> districtIndex = new HashMap<>();
+
+        private long[] lbIds = new long[256];
+        private String[] lbNames = new String[256];
+        private int[] acs = new int[256];
+        private String[] acNames = new String[256];
+        private int[] districts = new int[16];
+
+        // one entry per row; laid out into the matrix once the alliance count is known
+        private int rowCount;
+        private int[] rowUnit = new int[4096];
+        private int[] rowAlliance = new int[4096];
+        private long[] rowVotes = new long[4096];
+
+        private int unitCount;
+        private Long currentUnit;
+        private int[] unitLb = new int[1024];
+        private int[] unitAc = new int[1024];
+        private int[] unitDistrict = new int[1024];
+
+        void add(ScenarioUnitRow r) {
+            if (!r.getUnitId().equals(currentUnit)) {
+                currentUnit = r.getUnitId();
+                if (unitCount == unitLb.length) {
+                    unitLb = Arrays.copyOf(unitLb, unitCount * 2);
+                    unitAc = Arrays.copyOf(unitAc, unitCount * 2);
+                    unitDistrict = Arrays.copyOf(unitDistrict, unitCount * 2);
+                }
+                unitLb[unitCount] = localbody(r.getLocalbodyId(), r.getLocalbodyName());
+                unitAc[unitCount] = ac(r.getAcCode(), r.getAcName());
+                unitDistrict[unitCount] = district(r.getDistrictCode());
+                unitCount++;
+            }
+
+            if (rowCount == rowUnit.length) {
+                rowUnit = Arrays.copyOf(rowUnit, rowCount * 2);
+                rowAlliance = Arrays.copyOf(rowAlliance, rowCount * 2);
+                rowVotes = Arrays.copyOf(rowVotes, rowCount * 2);
+            }
+            String alliance = r.getAlliance() == null
+                    ? PartyAllianceSnapshot.OTHERS
+                    : r.getAlliance().trim().toUpperCase(Locale.ROOT);
+            rowUnit[rowCount] = unitCount - 1;
+            rowAlliance[rowCount] = allianceIndex.computeIfAbsent(alliance, k -> allianceIndex.size());
+            rowVotes[rowCount] = r.getVotes() == null ? 0L : r.getVotes();
+            rowCount++;
+        }
+
+        private int localbody(Long id, String name) {
+            if (id == null) return NONE;
+            return lbIndex.computeIfAbsent(id, k -> {
+                int i = lbIndex.size();
+                if (i == lbIds.length) {
+                    lbIds = Arrays.copyOf(lbIds, i * 2);
+                    lbNames = Arrays.copyOf(lbNames, i * 2);
+                }
+                lbIds[i] = id;
+                lbNames[i] = name;
+                return i;
+            });
+        }
+
+        private int ac(Integer code, String name) {
+            if (code == null) return NONE;
+            return acIndex.computeIfAbsent(code, k -> {
+                int i = acIndex.size();
+                if (i == acs.length) {
+                    acs = Arrays.copyOf(acs, i * 2);
+                    acNames = Arrays.copyOf(acNames, i * 2);
+                }
+                acs[i] = code;
+                acNames[i] = name;
+                return i;
+            });
+        }
+
+        private int district(Integer code) {
+            if (code == null) return NONE;
+            return districtIndex.computeIfAbsent(code, k -> {
+                int i = districtIndex.size();
+                if (i == districts.length) {
+                    districts = Arrays.copyOf(districts, i * 2);
+                }
+                districts[i] = code;
+                return i;
+            });
+        }
+
+        VoteMatrix build(int year, ElectionType type) {
+            String[] names = new String[allianceIndex.size()];
+            allianceIndex.forEach((name, i) -> names[i] = name);
+
+            int width = names.length;
+            long[] votes = new long[unitCount * width];
+            Arrays.fill(votes, ABSENT);
+            for (int i = 0; i < rowCount; i++) {
+                int cell = rowUnit[i] * width + rowAlliance[i];
+                votes[cell] = votes[cell] == ABSENT ? rowVotes[i] : votes[cell] + rowVotes[i];
+            }
+
+            return new VoteMatrix(year, type, names, unitCount, votes,
+                    Arrays.copyOf(unitLb, unitCount),
+                    Arrays.copyOf(unitAc, unitCount),
+                    Arrays.copyOf(unitDistrict, unitCount),
+                    Arrays.copyOf(lbIds, lbIndex.size()),
+                    Arrays.copyOf(lbNames, lbIndex.size()),
+                    Arrays.copyOf(acs, acIndex.size()),
+                    Arrays.copyOf(acNames, acIndex.size()),
+                    Arrays.copyOf(districts, districtIndex.size()));
+        }
+    }
+}
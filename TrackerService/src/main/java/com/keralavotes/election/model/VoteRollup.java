@@ -0,0 +1,157 @@
+package com.keralavotes.election.model;
+
+import com.keralavotes.election.dto.ElectionType;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Ward → localbody → AC → district → state alliance totals of one localbody election year,
+ * filled from a single pass over {@link VoteRow}s using the metadata each row carries.
+ *
+ * State, district and AC analysis and the assembly overview are projections of one rollup.
+ * Wards are kept in ward-number order and in (localbodyId, wardNum) order for paging;
+ * localbodies and ACs keep the order they were first seen in. Not modified after {@link #build}, so safe to share between threads.
+ */
+@Getter
+public final class VoteRollup {
+
+    private final int year;
+    private final PartyAllianceSnapshot alliances;
+
+    private final List<WardAccumulator> wards;
+    private final List<WardAccumulator> wardsByLocalbody;
+    private final Map<Long, LocalbodyTotals> localbodies;
+    private final Map<Integer, AcTotals> assemblies;
+    private final Map<Integer, AllianceTally> districts;
+    private final AllianceTally state;
+
+    private VoteRollup(int year, PartyAllianceSnapshot alliances) {
+        this.year = year;
+        this.alliances = alliances;
+        this.wards = new ArrayList<>();
+        this.wardsByLocalbody = new ArrayList<>();
+        this.localbodies = new LinkedHashMap<>();
+        this.assemblies = new LinkedHashMap<>();
+        this.districts = new HashMap<>();
+        this.state = alliances.newTally();
+    }
+
+    /** Alliance totals of a district, or an empty tally if it had no wards. */
+    public AllianceTally district(Integer districtCode) {
+        AllianceTally tally = districts.get(districtCode);
+        return tally != null ? tally : alliances.newTally();
+    }
+
+    @Getter
+    public static final class LocalbodyTotals {
+        private final Long localbodyId;
+        private final String localbodyName;
+        private final String localbodyType;
+        private final Integer districtCode;
+        private final AllianceTally votes;
+        private int wardsCount;
+
+        LocalbodyTotals(VoteRow r, int allianceCount) {
+            this.localbodyId = r.getLocalbodyId();
+            this.localbodyName = r.getLocalbodyName();
+            this.localbodyType = r.getLocalbodyType();
+            this.districtCode = r.getDistrictCode();
+            this.votes = new AllianceTally(allianceCount);
+        }
+    }
+
+    @Getter
+    public static final class AcTotals {
+        private final Integer acCode;
+        private final String acName;
+        private final Integer districtCode;
+        private final AllianceTally votes;
+        private int wardsCount;
+
+        AcTotals(VoteRow r, int allianceCount) {
+            this.acCode = r.getAcCode();
+            this.acName = r.getAcName();
+            this.districtCode = r.getAcDistrictCode();
+            this.votes = new AllianceTally(allianceCount);
+        }
+    }
+
+    /* ===================== BUILD ===================== */
+
+    public static VoteRollup build(int year, PartyAllianceSnapshot alliances, Stream<VoteRow> rows) {
+        VoteRollup rollup = new VoteRollup(year, alliances);
+        int allianceCount = alliances.allianceCount();
+        Map<Long, WardAccumulator> wardIndex = new HashMap<>();
+
+        rows.forEach(r -> {
+            int alliance = alliances.resolve(year, ElectionType.LOCALBODY, r.getPartyId());
+            int votes = r.getVotes();
+
+            // get/put instead of computeIfAbsent: no capturing lambda per row
+            WardAccumulator ward = wardIndex.get(r.getWardId());
+            boolean newWard = ward == null;
+            if (newWard) {
+                ward = new WardAccumulator(r, allianceCount);
+                wardIndex.put(r.getWardId(), ward);
+                rollup.wards.add(ward);
+            }
+            ward.add(alliance, votes);
+
+            if (r.getLocalbodyId() != null) {
+                LocalbodyTotals lb = rollup.localbodies.get(r.getLocalbodyId());
+                if (lb == null) {
+                    lb = new LocalbodyTotals(r, allianceCount);
+                    rollup.localbodies.put(r.getLocalbodyId(), lb);
+                }
+                lb.votes.add(alliance, votes);
+                if (newWard) lb.wardsCount++;
+            }
+
+            if (r.getAcCode() != null) {
+                AcTotals ac = rollup.assemblies.get(r.getAcCode());
+                if (ac == null) {
+                    ac = new AcTotals(r, allianceCount);
+                    rollup.assemblies.put(r.getAcCode(), ac);
+                }
+                ac.votes.add(alliance, votes);
+                if (newWard) ac.wardsCount++;
+            }
+
+            if (r.getDistrictCode() != null) {
+                AllianceTally district = rollup.districts.get(r.getDistrictCode());
+                if (district == null) {
+                    district = new AllianceTally(allianceCount);
+                    rollup.districts.put(r.getDistrictCode(), district);
+                }
+                district.add(alliance, votes);
+            }
+
+            rollup.state.add(alliance, votes);
+        });
+        // stable: wards with the same number keep scan order
+        rollup.wards.sort(Comparator.comparingInt(WardAccumulator::getWardNum));
+        // keyset order for ward pages
+        rollup.wardsByLocalbody.addAll(rollup.wards);
+        rollup.wardsByLocalbody.sort(Comparator
+                .comparing(WardAccumulator::getLocalbodyId, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparingInt(WardAccumulator::getWardNum));
+        return rollup;
+    }
+
+    /** Sum of the given wards' alliance votes. */
+    public AllianceTally total(Collection<WardAccumulator> wards) {
+        AllianceTally tally = alliances.newTally();
+        for (WardAccumulator w : wards) {
+            tally.addAll(w.getAllianceVotes());
+        }
+        return tally;
+    }
+}
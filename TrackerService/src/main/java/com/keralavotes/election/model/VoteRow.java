@@ -12,6 +12,8 @@ public interface VoteRow {
     Integer getDistrictCode();
 
     Integer getAcCode();
+    String getAcName();
+    Integer getAcDistrictCode();
 
     Long getPartyId();
     Integer getVotes();
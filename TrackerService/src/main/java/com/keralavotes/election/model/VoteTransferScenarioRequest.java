@@ -0,0 +1,55 @@
+package com.keralavotes.election.model;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class VoteTransferScenarioRequest {
+
+    @NotNull
+    private Integer year;
+
+    // alliance the LB verdicts are computed for
+    @NotBlank
+    private String alliance;
+
+    private int swingPercent = 10;
+
+    @Valid
+    private List<Transfer> transfers = new ArrayList<>();
+
+    // replaces the statewide transfers for units in that district
+    @Valid
+    private List<DistrictOverride> districtOverrides = new ArrayList<>();
+
+    @Data
+    public static class Transfer {
+        @NotBlank
+        private String from;
+
+        @NotBlank
+        private String to;
+
+        // share of "from" votes that move to "to"
+        @NotNull
+        @DecimalMin("0.0")
+        @DecimalMax("100.0")
+        private Double percent;
+    }
+
+    @Data
+    public static class DistrictOverride {
+        @NotNull
+        private Integer districtCode;
+
+        @Valid
+        private List<Transfer> transfers = new ArrayList<>();
+    }
+}
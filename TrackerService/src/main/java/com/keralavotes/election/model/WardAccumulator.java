@@ -1,13 +1,9 @@
 package com.keralavotes.election.model;
 
 import lombok.AllArgsConstructor;
-import lombok.Data;
 import lombok.Getter;
 import lombok.Setter;
 
-import java.util.HashMap;
-import java.util.Map;
-
 @Getter
 @Setter
 @AllArgsConstructor
@@ -18,22 +14,25 @@ public class WardAccumulator {
     private String wardName;
     private Long localbodyId;
     private String localbodyName;
+    private Integer districtCode;
+    private Integer acCode;
 
     private int totalVotes = 0;
-    private Map<String, Long> allianceVotes = new HashMap<>();
+    private AllianceTally allianceVotes;
 
-    public WardAccumulator(VoteRow r) {
+    public WardAccumulator(VoteRow r, int allianceCount) {
         wardId = r.getWardId();
         wardNum = r.getWardNum();
         wardName = r.getWardName();
         localbodyId = r.getLocalbodyId();
         localbodyName = r.getLocalbodyName();
+        districtCode = r.getDistrictCode();
+        acCode = r.getAcCode();
+        allianceVotes = new AllianceTally(allianceCount);
     }
 
-    public void add(String alliance, int votes) {
+    public void add(int allianceId, int votes) {
         totalVotes += votes;
-        allianceVotes.merge(alliance, (long) votes, Long::sum);
+        allianceVotes.add(allianceId, votes);
     }
 }
-
-
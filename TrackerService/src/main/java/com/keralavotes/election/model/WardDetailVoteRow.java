@@ -0,0 +1,17 @@
+package com.keralavotes.election.model;
+
+/**
+ * One candidate's votes in a ward, with the ward's identity. Wards without results
+ * for the year come through once with a null result id.
+ */
+public interface WardDetailVoteRow {
+
+    Long getLocalbodyId();
+    Long getWardId();
+    Integer getWardNum();
+    String getWardName();
+
+    Integer getResultId();
+    Long getPartyId();
+    Integer getVotes();
+}
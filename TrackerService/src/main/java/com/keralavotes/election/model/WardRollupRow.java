@@ -0,0 +1,17 @@
+package com.keralavotes.election.model;
+
+public interface WardRollupRow {
+
+    Long getWardId();
+    Integer getWardNum();
+    String getWardName();
+
+    Integer getElectionYear();
+
+    String getAlliance();
+    Long getVotes();
+    Long getTotal();
+    Integer getPosition();
+    String getWinner();
+    Long getMargin();
+}
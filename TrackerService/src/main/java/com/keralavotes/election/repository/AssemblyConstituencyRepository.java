@@ -2,6 +2,8 @@ package com.keralavotes.election.repository;
 
 import com.keralavotes.election.entity.AssemblyConstituency;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -11,5 +13,12 @@ public interface AssemblyConstituencyRepository extends JpaRepository<AssemblyCo
     Optional<AssemblyConstituency> findByNameIgnoreCase(String name);
     List<AssemblyConstituency> findByDistrict_DistrictCode(Integer districtCode);
     List<AssemblyConstituency> findByLs_LsCode(String lsCode);
+    List<AssemblyConstituency> findByLs_Id(Long lsId);
     Optional<AssemblyConstituency> findByAcCode(Integer acCode);
+
+    @Query(value = """
+        SELECT DISTINCT district_code FROM assembly_constituency
+        WHERE ac_code = ANY(:acCodes) AND district_code IS NOT NULL
+        """, nativeQuery = true)
+    List<Integer> findDistrictCodesByAcCodes(@Param("acCodes") Integer[] acCodes);
 }
@@ -0,0 +1,122 @@
+package com.keralavotes.election.repository;
+
+import com.keralavotes.election.entity.BoothAllianceRollup;
+import com.keralavotes.election.model.BoothRollupRow;
+import com.keralavotes.election.model.ScenarioUnitRow;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.stream.Stream;
+
+public interface BoothAllianceRollupRepository extends JpaRepository<BoothAllianceRollup, Long> {
+
+    // every requested year in one round trip, rows tagged with electionYear
+    @Query(value = """
+        SELECT
+            r.ps_id         AS psId,
+            ps.ps_number    AS psNumber,
+            ps.name         AS psName,
+            r.election_year AS electionYear,
+            r.alliance      AS alliance,
+            r.votes         AS votes,
+            r.total         AS total,
+            r.total_valid   AS totalValid,
+            r.position      AS position,
+            r.winner        AS winner,
+            r.margin        AS margin
+        FROM booth_alliance_rollup r
+        JOIN polling_station ps ON ps.id = r.ps_id
+        WHERE ps.localbody_id = :localbodyId
+          AND r.election_year = ANY(:years)
+        ORDER BY r.election_year, ps.ps_number, r.ps_id, r.position
+        """,
+            nativeQuery = true)
+    Stream<BoothRollupRow> streamRowsForLocalbody(
+            @Param("localbodyId") Long localbodyId,
+            @Param("years") Integer[] years
+    );
+
+    // whole year, one row per (booth, alliance), for the scenario engine
+    @Query(value = """
+        SELECT
+            r.ps_id          AS unitId,
+            ps.localbody_id  AS localbodyId,
+            lb.name          AS localbodyName,
+            r.ac_code        AS acCode,
+            ac.name          AS acName,
+            ac.district_code AS districtCode,
+            r.alliance       AS alliance,
+            r.votes          AS votes
+        FROM booth_alliance_rollup r
+        JOIN polling_station ps ON ps.id = r.ps_id
+        JOIN assembly_constituency ac ON ac.ac_code = r.ac_code
+        LEFT JOIN localbody lb ON lb.id = ps.localbody_id
+        WHERE r.election_year = :year
+        ORDER BY r.ps_id
+        """,
+            nativeQuery = true)
+    Stream<ScenarioUnitRow> streamScenarioRows(@Param("year") int year);
+
+    /* ================================
+       REBUILD (acCodes = null -> whole year)
+       ================================ */
+
+    @Modifying
+    @Query(value = """
+        DELETE FROM booth_alliance_rollup
+        WHERE election_year = :year
+          AND (CAST(:acCodes AS integer[]) IS NULL OR ac_code = ANY(:acCodes))
+        """,
+            nativeQuery = true)
+    int deleteScope(
+            @Param("year") int year,
+            @Param("acCodes") Integer[] acCodes
+    );
+
+    @Modifying
+    @Query(value = """
+        INSERT INTO booth_alliance_rollup
+            (ps_id, ac_code, election_year, alliance, votes, total, total_valid, position, winner, margin)
+        SELECT
+            agg.ps_id,
+            agg.ac_code,
+            agg.election_year,
+            agg.alliance,
+            agg.votes,
+            SUM(agg.votes) OVER booth_total,
+            bt.total_valid,
+            ROW_NUMBER() OVER ranked,
+            FIRST_VALUE(agg.alliance) OVER ranked,
+            FIRST_VALUE(agg.votes) OVER ranked
+                - COALESCE(NTH_VALUE(agg.votes, 2) OVER (ranked ROWS BETWEEN UNBOUNDED PRECEDING AND UNBOUNDED FOLLOWING), 0)
+        FROM (
+            SELECT
+                bv.ps_id,
+                ps.ac_code,
+                bv.year AS election_year,
+                COALESCE(a.name, 'OTH') AS alliance,
+                SUM(bv.votes) AS votes
+            FROM booth_votes bv
+            JOIN polling_station ps ON ps.id = bv.ps_id
+            JOIN candidate c ON c.id = bv.candidate_id
+            LEFT JOIN party_alliance_mapping pam ON pam.party_id = c.party_id
+                 AND pam.election_year = bv.year
+                 AND pam.election_type = :electionType
+            LEFT JOIN alliance a ON a.id = pam.alliance_id
+            WHERE bv.year = :year
+              AND (CAST(:acCodes AS integer[]) IS NULL OR ps.ac_code = ANY(:acCodes))
+            GROUP BY bv.ps_id, ps.ac_code, bv.year, 4
+        ) agg
+        LEFT JOIN booth_totals bt ON bt.ps_id = agg.ps_id AND bt.year = agg.election_year
+        WINDOW booth_total AS (PARTITION BY agg.ps_id),
+               ranked AS (PARTITION BY agg.ps_id ORDER BY agg.votes DESC, agg.alliance)
+        """,
+            nativeQuery = true)
+    int insertScope(
+            @Param("year") int year,
+            @Param("electionType") String electionType,
+            @Param("acCodes") Integer[] acCodes
+    );
+}
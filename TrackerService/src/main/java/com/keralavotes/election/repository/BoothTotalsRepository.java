@@ -3,10 +3,12 @@ package com.keralavotes.election.repository;
 import com.keralavotes.election.entity.BoothTotals;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Stream;
 
 public interface BoothTotalsRepository extends JpaRepository<BoothTotals, Long> {
     @Query("select t.pollingStation.psNumber from BoothTotals t where t.pollingStation.ac.acCode = :acCode and t.year = :year")
@@ -19,4 +21,19 @@ public interface BoothTotalsRepository extends JpaRepository<BoothTotals, Long>
     List<BoothTotals> findByYearAndPollingStation_IdIn(int year, Set<Long> psIds);
 
     Optional<BoothTotals> findByYearAndPollingStation_Id(int year, long pollingStationId);
+
+    @Query("select coalesce(sum(t.totalValid), 0) from BoothTotals t " +
+            "where t.pollingStation.ac.acCode = :acCode " +
+            "and t.pollingStation.electionYear = :year and t.year = :year")
+    long sumTotalValidForAc(int acCode, int year);
+
+    /** Polling station ids that already have totals for the year, limited to the given ACs. */
+    @Query(value = """
+        SELECT bt.ps_id
+        FROM booth_totals bt
+        JOIN polling_station ps ON ps.id = bt.ps_id
+        WHERE bt.year = :year
+          AND ps.ac_code = ANY(:acCodes)
+        """, nativeQuery = true)
+    Stream<Long> streamPsIdsWithTotals(@Param("year") int year, @Param("acCodes") Integer[] acCodes);
 }
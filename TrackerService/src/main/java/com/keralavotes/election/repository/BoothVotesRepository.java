@@ -5,6 +5,7 @@ import com.keralavotes.election.dto.LocalbodyAllianceVotesDto;
 import com.keralavotes.election.dto.LocalbodyPartyVotesDto;
 import com.keralavotes.election.dto.details.CandidateVoteDataDto;
 import com.keralavotes.election.entity.BoothVotes;
+import com.keralavotes.election.model.LocalbodyUnitVoteRow;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -12,6 +13,7 @@ import org.springframework.data.repository.query.Param;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Stream;
 
 public interface BoothVotesRepository extends JpaRepository<BoothVotes, Long> {
 
@@ -84,6 +86,26 @@ public interface BoothVotesRepository extends JpaRepository<BoothVotes, Long> {
 """)
     List<Object[]> getWardAllianceVotes(Long lbId, Integer year);
 
+    /** {@link #getWardAllianceVotes} as a cursor; rows of a ward are adjacent. */
+    @Query("""
+    SELECT
+        w.wardNum,
+        w.wardName,
+        COALESCE(a.name, 'OTH') AS alliance,
+        SUM(bv.votes) AS votes
+    FROM BoothVotes bv
+        JOIN bv.pollingStation ps
+        JOIN ps.ward w
+        JOIN bv.candidate c
+        LEFT JOIN c.party p
+        LEFT JOIN p.alliance a
+    WHERE ps.localbody.id = :lbId
+      AND bv.year = :year
+    GROUP BY w.wardNum, w.wardName, a.name
+    ORDER BY w.wardNum ASC
+""")
+    Stream<Object[]> streamWardAllianceVotes(Long lbId, Integer year);
+
     @Query("""
     SELECT\s
         ps.psNumber,
@@ -102,6 +124,25 @@ public interface BoothVotesRepository extends JpaRepository<BoothVotes, Long> {
 """)
     List<Object[]> getBoothAllianceVotes(Long lbId, Integer year);
 
+    /** {@link #getBoothAllianceVotes} as a cursor; rows of a booth are adjacent. */
+    @Query("""
+    SELECT
+        ps.psNumber,
+        ps.name,
+        COALESCE(a.name, 'OTH') AS alliance,
+        SUM(bv.votes) AS votes
+    FROM BoothVotes bv
+        JOIN bv.pollingStation ps
+        JOIN bv.candidate c
+        LEFT JOIN c.party p
+        LEFT JOIN p.alliance a
+    WHERE ps.localbody.id = :lbId
+      AND bv.year = :year
+    GROUP BY ps.psNumber, ps.name, a.name
+    ORDER BY ps.psNumber ASC
+""")
+    Stream<Object[]> streamBoothAllianceVotes(Long lbId, Integer year);
+
     @Query("SELECT p.shortName, a.name, SUM(bv.votes) as total " +
             "FROM BoothVotes bv JOIN bv.pollingStation ps JOIN bv.candidate c " +
             "LEFT JOIN c.party p LEFT JOIN PartyAllianceMapping pam ON pam.party.id=p.id " +
@@ -134,6 +175,19 @@ public interface BoothVotesRepository extends JpaRepository<BoothVotes, Long> {
 
     List<BoothVotes> findByYearAndPollingStation_Ac_AcCode(int year, int acCode);
 
+    /**
+     * (ps_id, candidate_id) of the year's booth votes in the given ACs, packed as
+     * {@code ps_id << 32 | candidate_id} (see CsvImportService#voteKey).
+     */
+    @Query(value = """
+        SELECT (bv.ps_id << 32) | bv.candidate_id
+        FROM booth_votes bv
+        JOIN polling_station ps ON ps.id = bv.ps_id
+        WHERE bv.year = :year
+          AND ps.ac_code = ANY(:acCodes)
+        """, nativeQuery = true)
+    Stream<Long> streamVoteKeys(@Param("year") int year, @Param("acCodes") Integer[] acCodes);
+
     @Query("SELECT COALESCE(a.name, 'OTH'), SUM(bv.votes) " +
             "FROM BoothVotes bv " +
             "JOIN bv.pollingStation ps " +
@@ -170,5 +224,51 @@ public interface BoothVotesRepository extends JpaRepository<BoothVotes, Long> {
             @Param("year") Integer year
     );
 
+    /** {@link #findBoothVotes} as a cursor, in the same booth / candidate order. */
+    @Query("""
+        select new com.keralavotes.election.dto.details.CandidateVoteDataDto(
+            ps.id,
+            c.id,
+            c.name,
+            p.shortName,
+            coalesce(bv.votes, 0)
+        )
+        from PollingStation ps
+            join Candidate c
+                on c.ac = ps.ac
+                    and c.electionYear = :year
+            left join BoothVotes bv
+                 on bv.pollingStation = ps
+                     and bv.candidate = c
+                         and bv.year = :year
+            left join c.party p
+        where ps.ac.acCode = :acCode
+            and ps.electionYear = :year
+        order by ps.psNumber, c.id
+    """)
+    Stream<CandidateVoteDataDto> streamBoothVotes(
+            @Param("acCode") Integer acCode,
+            @Param("year") Integer year
+    );
+
     Optional<BoothVotes> findByPollingStation_IdAndCandidate_IdAndYear(long pollingStationId, long candidateId, Integer year);
+
+    @Query(value = """
+        SELECT
+            ps.localbody_id  AS localbodyId,
+            ps.id            AS unitId,
+            c.party_id       AS partyId,
+            SUM(bv.votes)    AS votes
+        FROM booth_votes bv
+        JOIN polling_station ps ON ps.id = bv.ps_id
+        JOIN candidate c ON c.id = bv.candidate_id
+        WHERE bv.year = :year
+          AND ps.localbody_id = ANY(:localbodyIds)
+        GROUP BY ps.localbody_id, ps.id, c.id, c.party_id
+        ORDER BY ps.localbody_id, ps.id, c.id
+        """, nativeQuery = true)
+    Stream<LocalbodyUnitVoteRow> streamCandidateVotesForLocalbodies(
+            @Param("year") int year,
+            @Param("localbodyIds") Long[] localbodyIds
+    );
 }
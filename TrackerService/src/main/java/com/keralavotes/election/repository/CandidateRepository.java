@@ -1,8 +1,12 @@
 package com.keralavotes.election.repository;
 
 import com.keralavotes.election.entity.Candidate;
+import com.keralavotes.election.model.CandidateKeyRow;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,4 +18,15 @@ public interface CandidateRepository extends JpaRepository<Candidate, Long> {
     List<Candidate> findByLs_IdAndElectionYearOrderByNameAsc(Long lsId, int electionYear);
     List<Candidate> findByNameAndLs_LsCodeAndElectionYearOrderByNameAsc(String name, Long lsCode, int electionYear);
     List<Candidate> findByNameAndAc_AcCodeAndElectionYearOrderByNameAsc(String name, Long acCode, int electionYear);
+
+    /** Candidates of the given years in the given LS constituencies (names compared lower-cased and trimmed). */
+    @Query("""
+        select c.id as id, c.ls.name as lsName, c.name as name, c.electionYear as electionYear
+        from Candidate c
+        where c.electionYear in :years
+          and lower(trim(c.ls.name)) in :lsNames
+        order by c.id
+        """)
+    List<CandidateKeyRow> findKeysByYearsAndLsNames(@Param("years") Collection<Integer> years,
+                                                    @Param("lsNames") Collection<String> lsNames);
 }
@@ -0,0 +1,50 @@
+package com.keralavotes.election.repository;
+
+import com.keralavotes.election.entity.ImportCheckpoint;
+import com.keralavotes.election.entity.ImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface ImportCheckpointRepository extends JpaRepository<ImportCheckpoint, Long> {
+
+    Optional<ImportCheckpoint> findByTypeAndFileHash(ImportJob.Type type, String fileHash);
+
+    /** Runs in the chunk's transaction, so the checkpoint commits or rolls back with its rows. */
+    @Modifying
+    @Query(value = """
+        insert into import_checkpoint
+            (type, file_hash, rows_committed, rows_inserted, rows_skipped, job_id, updated_at, completed_at)
+        values (:type, :fileHash, :rows, :inserted, :skipped, :jobId, :now, null)
+        on conflict (type, file_hash) do update
+            set rows_committed = excluded.rows_committed,
+                rows_inserted  = excluded.rows_inserted,
+                rows_skipped   = excluded.rows_skipped,
+                job_id         = excluded.job_id,
+                updated_at     = excluded.updated_at,
+                completed_at   = null
+        """, nativeQuery = true)
+    int upsert(@Param("type") String type,
+               @Param("fileHash") String fileHash,
+               @Param("rows") long rows,
+               @Param("inserted") long inserted,
+               @Param("skipped") long skipped,
+               @Param("jobId") String jobId,
+               @Param("now") Instant now);
+
+    @Modifying
+    @Transactional
+    @Query("""
+        update ImportCheckpoint c
+        set c.completedAt = :now, c.updatedAt = :now
+        where c.type = :type and c.fileHash = :fileHash
+        """)
+    int markCompleted(@Param("type") ImportJob.Type type,
+                      @Param("fileHash") String fileHash,
+                      @Param("now") Instant now);
+}
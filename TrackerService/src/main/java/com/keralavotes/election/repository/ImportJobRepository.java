@@ -0,0 +1,31 @@
+package com.keralavotes.election.repository;
+
+import com.keralavotes.election.entity.ImportJob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface ImportJobRepository extends JpaRepository<ImportJob, String> {
+
+    List<ImportJob> findAllByOrderByCreatedAtDesc(Pageable page);
+
+    /** Jobs a previous instance left queued or running; their uploads are gone with it. */
+    @Modifying
+    @Transactional
+    @Query("""
+        update ImportJob j
+        set j.status = :status, j.error = :error, j.finishedAt = :now
+        where j.status in :statuses
+        """)
+    int finishAll(@Param("statuses") Collection<ImportJob.Status> statuses,
+                  @Param("status") ImportJob.Status status,
+                  @Param("error") String error,
+                  @Param("now") Instant now);
+}
@@ -26,6 +26,16 @@ public interface LbCandidateRepository extends JpaRepository<LbCandidate, Intege
 
     List<LbCandidate> findByLocalbodyId(long lbId);
 
+    @Query(value = """
+        SELECT DISTINCT localbody_id FROM lb_candidate
+        WHERE election_year = :year
+          AND localbody_id = ANY(:localbodyIds)
+        """, nativeQuery = true)
+    List<Long> findLocalbodyIdsWithCandidates(
+            @Param("year") int year,
+            @Param("localbodyIds") Long[] localbodyIds
+    );
+
     @Query("""
     SELECT c FROM LbCandidate c
     JOIN LbWardResult r ON r.candidateId = c.id
@@ -1,7 +1,11 @@
 package com.keralavotes.election.repository;
 
 import com.keralavotes.election.entity.LbWardResult;
+import com.keralavotes.election.model.LocalbodyUnitVoteRow;
+import com.keralavotes.election.model.LocalbodyYearRow;
+import com.keralavotes.election.model.PartyVoteTotalRow;
 import com.keralavotes.election.model.VoteRow;
+import com.keralavotes.election.model.WardDetailVoteRow;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -47,16 +51,20 @@ public interface LbWardResultRepository extends JpaRepository<LbWardResult, Inte
             lb.name         AS localbodyName,
             lb.type         AS localbodyType,
             lb.district_code AS districtCode,
+            w.ac_code       AS acCode,
+            ac.name         AS acName,
+            ac.district_code AS acDistrictCode,
             c.party_id      AS partyId,
             r.votes         AS votes
         FROM lb_ward_results r
         JOIN ward w ON w.id = r.ward_id
         JOIN localbody lb ON lb.id = w.localbody_id
         JOIN lb_candidate c ON c.id = r.candidate_id
+        LEFT JOIN assembly_constituency ac ON ac.ac_code = w.ac_code
         WHERE r.election_year = :year
           AND (:acCode IS NULL OR w.ac_code = :acCode)
           AND (:districtCode IS NULL OR lb.district_code = :districtCode)
-          AND (:types IS NULL OR lower(lb.type) = ANY(:types))
+          AND (CAST(:types AS text[]) IS NULL OR lower(lb.type) = ANY(:types))
         """,
             nativeQuery = true)
     Stream<VoteRow> streamVotes(
@@ -66,33 +74,84 @@ public interface LbWardResultRepository extends JpaRepository<LbWardResult, Inte
             @Param("types") String[] types
     );
 
-    @Query("""
-select
-  w.id as wardId,
-  w.wardNum as wardNum,
-  w.wardName as wardName,
-  lb.id as localbodyId,
-  lb.name as localbodyName,
-  ac.acCode as acCode,
-  p.id as partyId,
-  r.votes as votes
-from LbWardResult r,
-     Ward w,
-     Candidate c
-join w.localbody lb
-join w.ac ac
-join c.party p
-where w.id = r.wardId
-  and c.id = r.candidateId
-  and r.electionYear = :year
-  and (:districtCode is null or ac.district.districtCode = :districtCode)
-  and (:localbodyTypes is null or lower(lb.type) in :localbodyTypes)
-""")
-    Stream<VoteRow> streamVotesForAssemblyOverview(
-            int year,
-            Integer districtCode,
-            String[] localbodyTypes
+    // same rows as streamVotes for one AC, summed per party in the database
+    @Query(value = """
+        SELECT
+            c.party_id      AS partyId,
+            SUM(r.votes)    AS votes
+        FROM lb_ward_results r
+        JOIN ward w ON w.id = r.ward_id
+        JOIN localbody lb ON lb.id = w.localbody_id
+        JOIN lb_candidate c ON c.id = r.candidate_id
+        WHERE r.election_year = :year
+          AND w.ac_code = :acCode
+          AND (CAST(:types AS text[]) IS NULL OR lower(lb.type) = ANY(:types))
+        GROUP BY c.party_id
+        """,
+            nativeQuery = true)
+    List<PartyVoteTotalRow> sumVotesByPartyForAc(
+            @Param("year") int year,
+            @Param("acCode") int acCode,
+            @Param("types") String[] types
+    );
+
+    // ordered per ward by result id, so ties resolve the same way as the per-localbody path
+    @Query(value = """
+        SELECT
+            w.localbody_id  AS localbodyId,
+            w.id            AS unitId,
+            c.party_id      AS partyId,
+            r.votes         AS votes
+        FROM lb_ward_results r
+        JOIN ward w ON w.id = r.ward_id
+        LEFT JOIN lb_candidate c ON c.id = r.candidate_id
+        WHERE r.election_year = :year
+          AND w.localbody_id = ANY(:localbodyIds)
+        ORDER BY w.localbody_id, w.id, r.id
+        """,
+            nativeQuery = true)
+    Stream<LocalbodyUnitVoteRow> streamWardVotesForLocalbodies(
+            @Param("year") int year,
+            @Param("localbodyIds") Long[] localbodyIds
     );
 
+    // every ward of the localbodies (all delimitations, like WardRepository.findByLocalbodyId),
+    // candidates resolved the same way as the single-localbody ward details
+    @Query(value = """
+        SELECT
+            w.localbody_id  AS localbodyId,
+            w.id            AS wardId,
+            w.ward_num      AS wardNum,
+            w.ward_name     AS wardName,
+            r.id            AS resultId,
+            c.party_id      AS partyId,
+            r.votes         AS votes
+        FROM ward w
+        LEFT JOIN lb_ward_results r
+               ON r.ward_id = w.id AND r.election_year = :year
+        LEFT JOIN lb_candidate c
+               ON c.id = r.candidate_id
+              AND c.localbody_id = w.localbody_id
+              AND c.election_year = :year
+        WHERE w.localbody_id = ANY(:localbodyIds)
+        ORDER BY w.localbody_id, w.id, r.id
+        """,
+            nativeQuery = true)
+    Stream<WardDetailVoteRow> streamWardDetailsForLocalbodies(
+            @Param("year") int year,
+            @Param("localbodyIds") Long[] localbodyIds
+    );
 
-}
\ No newline at end of file
+    // localbodies and years whose ward results include the party; scope of a default-alliance change
+    @Query(value = """
+        SELECT DISTINCT
+            r.election_year AS electionYear,
+            w.localbody_id  AS localbodyId
+        FROM lb_ward_results r
+        JOIN lb_candidate c ON c.id = r.candidate_id
+        JOIN ward w ON w.id = r.ward_id
+        WHERE c.party_id = :partyId
+        """,
+            nativeQuery = true)
+    List<LocalbodyYearRow> findLocalbodyYearsForParty(@Param("partyId") long partyId);
+}
@@ -53,4 +53,20 @@ public interface LocalbodyRepository extends JpaRepository<Localbody, Long> {
         return (matches.size() == 1) ? matches.getFirst() : null;
     }
 
+    @Query(value = """
+        SELECT DISTINCT district_code FROM localbody
+        WHERE id = ANY(:ids) AND district_code IS NOT NULL
+        """, nativeQuery = true)
+    List<Integer> findDistrictCodesByIds(@Param("ids") Long[] ids);
+
+    @Query(value = """
+        SELECT DISTINCT ac_code FROM ward
+        WHERE localbody_id = ANY(:ids) AND ac_code IS NOT NULL
+        """, nativeQuery = true)
+    List<Integer> findAcCodesByLocalbodyIds(@Param("ids") Long[] ids);
+
+    @Query(value = """
+        SELECT DISTINCT lower(type) FROM localbody WHERE type IS NOT NULL
+        """, nativeQuery = true)
+    List<String> findDistinctTypes();
 }
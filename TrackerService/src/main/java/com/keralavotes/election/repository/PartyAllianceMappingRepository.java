@@ -4,6 +4,7 @@ import com.keralavotes.election.dto.ElectionType;
 import com.keralavotes.election.dto.PartyAllianceMappingDto;
 import com.keralavotes.election.entity.PartyAllianceMapping;
 import com.keralavotes.election.model.PartyAllianceAdminRow;
+import com.keralavotes.election.model.PartyAllianceMappingRow;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -66,4 +67,12 @@ public interface PartyAllianceMappingRepository
             @Param("type") ElectionType type
     );
 
+    @Query("""
+        select m.party.id as partyId, a.name as allianceName,
+               m.electionYear as electionYear, m.electionType as electionType
+        from PartyAllianceMapping m
+        join m.alliance a
+    """)
+    List<PartyAllianceMappingRow> findAllForSnapshot();
+
 }
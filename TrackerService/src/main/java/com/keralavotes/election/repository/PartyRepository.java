@@ -1,8 +1,10 @@
 package com.keralavotes.election.repository;
 
 import com.keralavotes.election.entity.Party;
+import com.keralavotes.election.model.PartyAllianceRow;
 import jakarta.validation.constraints.NotBlank;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.Optional;
 import java.util.List;
@@ -12,4 +14,7 @@ public interface PartyRepository extends JpaRepository<Party, Long> {
     Optional<Party> findByShortNameIgnoreCase(String shortName);
     List<Party> findAllByOrderByNameAsc();
     Optional<Party> findByNameIgnoreCase(@NotBlank String partyName);
+
+    @Query("select p.id as partyId, a.name as allianceName from Party p left join p.alliance a")
+    List<PartyAllianceRow> findAllDefaultAlliances();
 }
@@ -2,10 +2,12 @@ package com.keralavotes.election.repository;
 
 import com.keralavotes.election.dto.details.BoothVoteDetailsRowDto;
 import com.keralavotes.election.entity.PollingStation;
+import com.keralavotes.election.model.PollingStationKeyRow;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -29,6 +31,15 @@ public interface PollingStationRepository extends JpaRepository<PollingStation,
 
     List<PollingStation> findByLocalbody_Id(Long localbodyId);
 
+    @Query("""
+        select ps.id as id, ps.electionYear as electionYear, ps.ac.acCode as acCode,
+               ps.psNumber as psNumber, ps.psSuffix as psSuffix
+        from PollingStation ps
+        where ps.electionYear in :years and ps.ac.acCode in :acCodes
+        """)
+    List<PollingStationKeyRow> findKeysByYearsAndAcCodes(@Param("years") Collection<Integer> years,
+                                                         @Param("acCodes") Collection<Integer> acCodes);
+
     @Query("""
         select new com.keralavotes.election.dto.details.BoothVoteDetailsRowDto(
             ps.id,
@@ -52,4 +63,11 @@ public interface PollingStationRepository extends JpaRepository<PollingStation,
             @Param("year") Integer year
     );
 
+    @Query(value = """
+        SELECT DISTINCT localbody_id FROM polling_station
+        WHERE ac_code = ANY(:acCodes)
+          AND election_year = ANY(:years)
+          AND localbody_id IS NOT NULL
+        """, nativeQuery = true)
+    List<Long> findLocalbodyIdsByAcCodes(@Param("acCodes") Integer[] acCodes, @Param("years") Integer[] years);
 }
@@ -0,0 +1,115 @@
+package com.keralavotes.election.repository;
+
+import com.keralavotes.election.entity.WardAllianceRollup;
+import com.keralavotes.election.model.ScenarioUnitRow;
+import com.keralavotes.election.model.WardRollupRow;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.stream.Stream;
+
+public interface WardAllianceRollupRepository extends JpaRepository<WardAllianceRollup, Long> {
+
+    // every requested year in one round trip, rows tagged with electionYear
+    @Query(value = """
+        SELECT
+            r.ward_id       AS wardId,
+            w.ward_num      AS wardNum,
+            w.ward_name     AS wardName,
+            r.election_year AS electionYear,
+            r.alliance      AS alliance,
+            r.votes         AS votes,
+            r.total         AS total,
+            r.position      AS position,
+            r.winner        AS winner,
+            r.margin        AS margin
+        FROM ward_alliance_rollup r
+        JOIN ward w ON w.id = r.ward_id
+        WHERE w.localbody_id = :localbodyId
+          AND r.election_year = ANY(:years)
+        ORDER BY r.election_year, w.ward_num, r.position
+        """,
+            nativeQuery = true)
+    Stream<WardRollupRow> streamRowsForLocalbody(
+            @Param("localbodyId") Long localbodyId,
+            @Param("years") Integer[] years
+    );
+
+    // whole year, one row per (ward, alliance), for the scenario engine
+    @Query(value = """
+        SELECT
+            r.ward_id        AS unitId,
+            w.localbody_id   AS localbodyId,
+            lb.name          AS localbodyName,
+            w.ac_code        AS acCode,
+            ac.name          AS acName,
+            lb.district_code AS districtCode,
+            r.alliance       AS alliance,
+            r.votes          AS votes
+        FROM ward_alliance_rollup r
+        JOIN ward w ON w.id = r.ward_id
+        JOIN localbody lb ON lb.id = w.localbody_id
+        LEFT JOIN assembly_constituency ac ON ac.ac_code = w.ac_code
+        WHERE r.election_year = :year
+        ORDER BY r.ward_id
+        """,
+            nativeQuery = true)
+    Stream<ScenarioUnitRow> streamScenarioRows(@Param("year") int year);
+
+    /* ================================
+       REBUILD (localbodyIds = null -> whole year)
+       ================================ */
+
+    @Modifying
+    @Query(value = """
+        DELETE FROM ward_alliance_rollup
+        WHERE election_year = :year
+          AND (CAST(:localbodyIds AS bigint[]) IS NULL
+               OR ward_id IN (SELECT id FROM ward WHERE localbody_id = ANY(:localbodyIds)))
+        """,
+            nativeQuery = true)
+    int deleteScope(
+            @Param("year") int year,
+            @Param("localbodyIds") Long[] localbodyIds
+    );
+
+    @Modifying
+    @Query(value = """
+        INSERT INTO ward_alliance_rollup
+            (ward_id, election_year, alliance, votes, total, position, winner, margin)
+        SELECT
+            agg.ward_id,
+            agg.election_year,
+            agg.alliance,
+            agg.votes,
+            SUM(agg.votes) OVER ward_total,
+            ROW_NUMBER() OVER ranked,
+            FIRST_VALUE(agg.alliance) OVER ranked,
+            FIRST_VALUE(agg.votes) OVER ranked
+                - COALESCE(NTH_VALUE(agg.votes, 2) OVER (ranked ROWS BETWEEN UNBOUNDED PRECEDING AND UNBOUNDED FOLLOWING), 0)
+        FROM (
+            SELECT
+                r.ward_id,
+                r.election_year,
+                COALESCE(NULLIF(UPPER(TRIM(a.name)), ''), 'OTH') AS alliance,
+                SUM(r.votes) AS votes
+            FROM lb_ward_results r
+            JOIN ward w ON w.id = r.ward_id
+            JOIN lb_candidate c ON c.id = r.candidate_id
+            LEFT JOIN party p ON p.id = c.party_id
+            LEFT JOIN alliance a ON a.id = p.alliance_id
+            WHERE r.election_year = :year
+              AND (CAST(:localbodyIds AS bigint[]) IS NULL OR w.localbody_id = ANY(:localbodyIds))
+            GROUP BY r.ward_id, r.election_year, 3
+        ) agg
+        WINDOW ward_total AS (PARTITION BY agg.ward_id),
+               ranked AS (PARTITION BY agg.ward_id ORDER BY agg.votes DESC, agg.alliance)
+        """,
+            nativeQuery = true)
+    int insertScope(
+            @Param("year") int year,
+            @Param("localbodyIds") Long[] localbodyIds
+    );
+}
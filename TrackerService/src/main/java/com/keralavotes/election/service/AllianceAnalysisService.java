@@ -1,20 +1,30 @@
 package com.keralavotes.election.service;
 
+import com.keralavotes.election.config.DbBulkhead;
 import com.keralavotes.election.dto.AllianceDto;
 import com.keralavotes.election.dto.details.AllianceAnalysisResponse;
+import com.keralavotes.election.dto.details.SwingCurveResponse;
+import com.keralavotes.election.model.LocalbodyUnitVoteRow;
 import com.keralavotes.election.model.LocalbodyWardDetailsResponse;
+import com.keralavotes.election.model.PartyAllianceSnapshot;
+import com.keralavotes.election.model.Podium;
+import com.keralavotes.election.model.WardDetailVoteRow;
 import com.keralavotes.election.entity.*;
 import com.keralavotes.election.repository.*;
-import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import static java.util.stream.Collectors.groupingBy;
-import static java.util.stream.Collectors.summingInt;
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toMap;
 
@@ -23,35 +33,26 @@ import static java.util.stream.Collectors.toMap;
 @Slf4j
 public class AllianceAnalysisService {
 
+    // localbodies per cursor and per buffered write in streamWardDetails
+    private static final int WARD_DETAILS_CHUNK = 50;
+
     private final LocalbodyRepository localbodyRepo;
     private final WardRepository wardRepo;
-    private final PartyRepository partyRepo;
+    private final PartyAllianceSnapshotService allianceSnapshotService;
     private final LbCandidateRepository candidateRepo;
     private final LbWardResultRepository wardResultRepo;
     private final AllianceRepository allianceRepository;
+    private final BoothVotesRepository boothVotesRepo;
+    private final StreamingQueryService streamingQueries;
+    private final ExecutorService analysisExecutor;
+    private final DbBulkhead dbBulkhead;
 
-    private final EntityManager em;
-
+    // read-only tx keeps the connection open for the streamed scope queries
+    @Transactional(readOnly = true, timeoutString = "${analysis.scan.timeout:120}")
     public AllianceAnalysisResponse analyze(int district, String type, String alliance, int year, int swingPercent, Long localbodyId) {
 
         // ======== Load Localbodies ========
-        List<Localbody> lbs;
-
-        if (localbodyId != null) {
-            // Single localbody selected
-            Localbody lb = localbodyRepo.findById(localbodyId)
-                    .orElseThrow(() -> new RuntimeException("Localbody not found: " + localbodyId));
-            lbs = List.of(lb);
-        } else {
-            // All localbodies of district & type
-            if (type == null || type.isBlank()) {
-                // All types
-                lbs = localbodyRepo.findByDistrict_DistrictCode(district);
-            } else {
-                lbs = localbodyRepo.findByDistrict_DistrictCodeAndTypeIgnoreCase(district, type);
-            }
-        }
-
+        List<Localbody> lbs = loadLocalbodies(district, type, localbodyId);
 
         // ======== Response Object Setup ========
         AllianceAnalysisResponse resp = new AllianceAnalysisResponse();
@@ -67,19 +68,22 @@ public class AllianceAnalysisService {
         int totalWardsWon = 0, totalWardsWinnable = 0;
         int totalBoothsWon = 0, totalBoothsWinnable = 0;
 
-        boolean isGE = (year == 2024 || year == 2019 || year == 2014); // adjust as needed
+        boolean isGE = isGE(year);
 
 
         // ======== Run Localbody Loop ========
-        for (Localbody lb : lbs) {
-            var breakdown = analyzeSingleLocalbody(lb, alliance, year, swingPercent, isGE);
+        // one localbody or a whole district: the scope is streamed once either way
+        List<AllianceAnalysisResponse.LocalbodyBreakdown> breakdowns =
+                analyzeLocalbodies(lbs, alliance, year, swingPercent, isGE);
 
+        for (var breakdown : breakdowns) {
             totalWardsWon += breakdown.getWardsWon();
             totalWardsWinnable += breakdown.getWardsWinnable();
 
             if (isGE) {
-                totalBoothsWon += breakdown.getBoothsWon();
-                totalBoothsWinnable += breakdown.getBoothsWinnable();
+                // localbodies without booth votes leave these null
+                totalBoothsWon += Objects.requireNonNullElse(breakdown.getBoothsWon(), 0);
+                totalBoothsWinnable += Objects.requireNonNullElse(breakdown.getBoothsWinnable(), 0);
             }
 
             breakdownList.add(breakdown);
@@ -97,166 +101,273 @@ public class AllianceAnalysisService {
         return resp;
     }
 
-    private AllianceAnalysisResponse.LocalbodyBreakdown analyzeSingleLocalbody(
-            Localbody lb,
-            String alliance,
-            int year,
-            int swingPercent,
-            boolean isGE
-    ) {
-        AllianceAnalysisResponse.LocalbodyBreakdown out = new AllianceAnalysisResponse.LocalbodyBreakdown();
-        out.setLocalbodyId(lb.getId());
-        out.setLocalbodyName(lb.getName());
-
-        // ======== LB ELECTION (WARD BASED) ========
-        List<LbCandidate> candidates = candidateRepo.findByLocalbodyIdAndElectionYear(lb.getId(), year);
-        if (!candidates.isEmpty()) {
-
-            // Map candidateId -> alliance
-            Map<Integer, String> allianceMap = new HashMap<>();
-            for (LbCandidate c : candidates) {
-                Party p = c.getPartyId() == null ? null : partyRepo.findById(c.getPartyId()).orElse(null);
-                String a = (p == null || p.getAlliance() == null) ? "OTH" : p.getAlliance().getName();
-                allianceMap.put(c.getId(), a.toUpperCase());
-            }
+    /**
+     * Winnable wards/booths and LB verdicts for every swing from 0 to maxSwing percent,
+     * so the UI slider can read any position from one response. Gaps are computed once
+     * per ward/booth (as in {@link #analyze}), sorted, and swept.
+     */
+    @Transactional(readOnly = true, timeoutString = "${analysis.scan.timeout:120}")
+    public SwingCurveResponse swingCurve(int district, String type, String alliance, int year, int maxSwing, Long localbodyId) {
+        List<Localbody> lbs = loadLocalbodies(district, type, localbodyId);
+        boolean isGE = isGE(year);
+        int n = Math.clamp(maxSwing, 0, 100);
 
-            // Ward results by ward
-            // Fetch wards belonging to this localbody
-            List<Ward> wards = wardRepo.findByLocalbodyId(lb.getId());
-            Set<Long> wardIds = wards.stream().map(Ward::getId).collect(Collectors.toSet());
+        ScopeScores scores = scoreLocalbodies(lbs, alliance, year, isGE);
 
-            // Fetch ward results for these wards
-            List<LbWardResult> results =
-                    wardResultRepo.findByElectionYearAndWardIdIn(year, wardIds);
+        int[] wardsWinnable = new int[n + 1];
+        int[] boothsWinnable = new int[n + 1];
+        int[] majority = new int[n + 1];
+        int[] possible = new int[n + 1];
+        int totalWardsWon = 0, totalBoothsWon = 0;
 
-            Map<Integer, List<LbWardResult>> wardGroups = results.stream()
-                    .collect(groupingBy(LbWardResult::getWardId));
+        List<SwingCurveResponse.LocalbodyCurve> breakdown = new ArrayList<>(lbs.size());
+        for (Localbody lb : lbs) {
+            SwingCurveResponse.LocalbodyCurve curve = new SwingCurveResponse.LocalbodyCurve();
+            curve.setLocalbodyId(lb.getId());
+            curve.setLocalbodyName(lb.getName());
+
+            if (scores.withCandidates().contains(lb.getId())) {
+                UnitScores wards = scores.wards().getOrDefault(lb.getId(), new UnitScores());
+                int needed = (wards.units / 2) + 1;
+                int[] winnable = wards.winnableCurve(n);
+
+                curve.setWardsWon(wards.won);
+                curve.setTotalWards(wards.units);
+                curve.setMajorityNeeded(needed);
+                curve.setWardsWinnable(winnable);
+                curve.setMajorityAtSwing(majorityAtSwing(wards.won, needed, winnable));
+
+                totalWardsWon += wards.won;
+                for (int s = 0; s <= n; s++) {
+                    wardsWinnable[s] += winnable[s];
+                    if (wards.won >= needed) majority[s]++;
+                    else if (wards.won + winnable[s] >= needed) possible[s]++;
+                }
+            }
 
-            int win = 0, winnable = 0;
+            UnitScores booths = scores.booths().get(lb.getId());
+            if (booths != null) {
+                int[] winnable = booths.winnableCurve(n);
+                curve.setBoothsWon(booths.won);
+                curve.setBoothsWinnable(winnable);
 
-            for (var entry : wardGroups.entrySet()) {
-                List<LbWardResult> wardVotes = entry.getValue();
+                totalBoothsWon += booths.won;
+                for (int s = 0; s <= n; s++) {
+                    boothsWinnable[s] += winnable[s];
+                }
+            }
+            breakdown.add(curve);
+        }
 
-                // Sort by votes desc
-                wardVotes.sort((a, b) -> Integer.compare(b.getVotes(), a.getVotes()));
+        List<SwingCurveResponse.Point> points = new ArrayList<>(n + 1);
+        for (int s = 0; s <= n; s++) {
+            points.add(SwingCurveResponse.Point.builder()
+                    .swing(s)
+                    .wardsWinnable(wardsWinnable[s])
+                    .boothsWinnable(isGE ? boothsWinnable[s] : null)
+                    .localbodiesMajority(majority[s])
+                    .localbodiesPossible(possible[s])
+                    .build());
+        }
 
-                LbWardResult winner = wardVotes.get(0);
-                String winnerAlliance = allianceMap.get(winner.getCandidateId());
+        return SwingCurveResponse.builder()
+                .district(String.valueOf(district))
+                .type(type)
+                .alliance(alliance)
+                .year(year)
+                .maxSwing(n)
+                .localbodyCount(lbs.size())
+                .wardsWon(totalWardsWon)
+                .boothsWon(isGE ? totalBoothsWon : null)
+                .points(points)
+                .breakdown(breakdown)
+                .build();
+    }
 
-                if (winnerAlliance != null && winnerAlliance.equalsIgnoreCase(alliance)) {
-                    win++;
-                    continue;
-                }
+    // smallest swing at which won + winnable reaches a majority; 0 if already there, null if never
+    private Integer majorityAtSwing(int won, int needed, int[] winnable) {
+        for (int s = 0; s < winnable.length; s++) {
+            if (won + winnable[s] >= needed) return s;
+        }
+        return null;
+    }
+
+    private List<Localbody> loadLocalbodies(int district, String type, Long localbodyId) {
+        if (localbodyId != null) {
+            // Single localbody selected
+            Localbody lb = localbodyRepo.findById(localbodyId)
+                    .orElseThrow(() -> new RuntimeException("Localbody not found: " + localbodyId));
+            return List.of(lb);
+        }
+        // All localbodies of district & type
+        if (type == null || type.isBlank()) {
+            // All types
+            return localbodyRepo.findByDistrict_DistrictCode(district);
+        }
+        return localbodyRepo.findByDistrict_DistrictCodeAndTypeIgnoreCase(district, type);
+    }
 
-                // Find candidate of target alliance
-                Optional<LbWardResult> oursOpt = wardVotes.stream()
-                        .filter(r -> alliance.equalsIgnoreCase(allianceMap.get(r.getCandidateId())))
-                        .findFirst();
+    private boolean isGE(int year) {
+        return year == 2024 || year == 2019 || year == 2014; // adjust as needed
+    }
 
-                if (oursOpt.isPresent()) {
-                    LbWardResult ours = oursOpt.get();
-                    int gap = winner.getVotes() - ours.getVotes();
-                    double pctGap = (gap * 100.0) / winner.getVotes();
+    /**
+     * Ward and booth outcome per localbody. The whole scope is read with one ward-result
+     * cursor and one booth-vote cursor, grouped in memory.
+     */
+    private List<AllianceAnalysisResponse.LocalbodyBreakdown> analyzeLocalbodies(
+            List<Localbody> lbs,
+            String alliance,
+            int year,
+            int swingPercent,
+            boolean isGE
+    ) {
+        ScopeScores scores = scoreLocalbodies(lbs, alliance, year, isGE);
 
-                    if (pctGap <= swingPercent) {
-                        winnable++;
-                    }
-                }
+        List<AllianceAnalysisResponse.LocalbodyBreakdown> out = new ArrayList<>(lbs.size());
+        for (Localbody lb : lbs) {
+            AllianceAnalysisResponse.LocalbodyBreakdown b = new AllianceAnalysisResponse.LocalbodyBreakdown();
+            b.setLocalbodyId(lb.getId());
+            b.setLocalbodyName(lb.getName());
+
+            if (scores.withCandidates().contains(lb.getId())) {
+                UnitScores wards = scores.wards().getOrDefault(lb.getId(), new UnitScores());
+                int majority = (wards.units / 2) + 1;
+                int winnable = wards.winnable(swingPercent);
+                b.setWardsWon(wards.won);
+                b.setWardsWinnable(winnable);
+                b.setTotalWards(wards.units);
+                b.setMajorityNeeded(majority);
+                b.setVerdict(wards.won >= majority ? "MAJORITY"
+                        : wards.won + winnable >= majority ? "POSSIBLE_WITH_SWING"
+                        : "HARD");
             }
 
-            out.setWardsWon(win);
-            out.setWardsWinnable(winnable);
-
-            // NEW: total wards & majority
-            int totalWards = wardGroups.size();
-            int majority = (totalWards / 2) + 1;
-            out.setTotalWards(totalWards);
-            out.setMajorityNeeded(majority);
-
-            // NEW: verdict at LB level
-            String verdict;
-            if (win >= majority) {
-                verdict = "MAJORITY";
-            } else if (win + winnable >= majority) {
-                verdict = "POSSIBLE_WITH_SWING";
-            } else {
-                verdict = "HARD";
+            UnitScores booths = scores.booths().get(lb.getId());
+            if (booths != null) {
+                b.setBoothsWon(booths.won);
+                b.setBoothsWinnable(booths.winnable(swingPercent));
             }
-            out.setVerdict(verdict);
+            out.add(b);
         }
+        return out;
+    }
 
-        // ======== GE ANALYSIS (BOOTH BASED) ========
-        if (isGE) {
-            List<Object[]> boothRows = em.createQuery("""
-                SELECT ps.id, c.id, SUM(bv.votes)
-                FROM BoothVotes bv
-                JOIN bv.pollingStation ps
-                JOIN bv.candidate c
-                WHERE ps.localbody.id = :lbId AND bv.year = :year
-                GROUP BY ps.id, c.id
-                """, Object[].class)
-                    .setParameter("lbId", lb.getId())
-                    .setParameter("year", year)
-                    .getResultList();
-
-            if (!boothRows.isEmpty()) {
-
-                Map<Long, Map<Integer, Integer>> boothMap = new HashMap<>();
-                boothRows.forEach(row -> {
-                    Long psId = ((Number) row[0]).longValue();
-                    Integer candId = ((Number) row[1]).intValue();
-                    Integer votes = ((Number) row[2]).intValue();
-
-                    boothMap.computeIfAbsent(psId, k -> new HashMap<>())
-                            .merge(candId, votes, Integer::sum);
-                });
+    private record ScopeScores(Map<Long, UnitScores> wards, Map<Long, UnitScores> booths, Set<Long> withCandidates) {}
 
-                // Build candidate alliance map
-                Map<Integer, String> candAlliance = new HashMap<>();
-                List<LbCandidate> candList = candidateRepo.findByElectionYear(year);
-                for (LbCandidate c : candList) {
-                    Party p = c.getPartyId() == null ? null : partyRepo.findById(c.getPartyId()).orElse(null);
-                    String a = (p == null || p.getAlliance() == null) ? "OTH" : p.getAlliance().getName();
-                    candAlliance.put(c.getId(), a.toUpperCase());
-                }
+    private ScopeScores scoreLocalbodies(List<Localbody> lbs, String alliance, int year, boolean isGE) {
+        if (lbs.isEmpty()) {
+            return new ScopeScores(Map.of(), Map.of(), Set.of());
+        }
 
-                int boothsWon = 0, boothsWinnable = 0;
+        Long[] lbIds = lbs.stream().map(Localbody::getId).toArray(Long[]::new);
+        PartyAllianceSnapshot alliances = allianceSnapshotService.current();
+        int target = alliances.allianceId(alliance);
 
-                for (var entry : boothMap.entrySet()) {
-                    var votes = entry.getValue()
-                            .entrySet()
-                            .stream()
-                            .sorted((a, b) -> Integer.compare(b.getValue(), a.getValue()))
-                            .toList();
+        Map<Long, UnitScores> wards = new HashMap<>();
+        streamingQueries.scan("alliance-ward-votes",
+                () -> wardResultRepo.streamWardVotesForLocalbodies(year, lbIds),
+                rows -> {
+                    scoreUnits(rows, alliances, target, wards);
+                    return null;
+                });
 
-                    var top = votes.get(0);
-                    String winnerAlliance = candAlliance.get(top.getKey());
+        Map<Long, UnitScores> booths = new HashMap<>();
+        if (isGE) {
+            streamingQueries.scan("alliance-booth-votes",
+                    () -> boothVotesRepo.streamCandidateVotesForLocalbodies(year, lbIds),
+                    rows -> {
+                        scoreUnits(rows, alliances, target, booths);
+                        return null;
+                    });
+        }
 
-                    if (winnerAlliance != null && winnerAlliance.equalsIgnoreCase(alliance)) {
-                        boothsWon++;
-                        continue;
-                    }
+        Set<Long> withCandidates = new HashSet<>(candidateRepo.findLocalbodyIdsWithCandidates(year, lbIds));
+        return new ScopeScores(wards, booths, withCandidates);
+    }
 
-                    // Find our candidate in booth
-                    Optional<Map.Entry<Integer, Integer>> oursOpt = votes.stream()
-                            .filter(e -> alliance.equalsIgnoreCase(candAlliance.get(e.getKey())))
-                            .findFirst();
+    /**
+     * Per-localbody ward/booth outcome: how many units were won, and the gap % to the
+     * winner of every unit that was lost but contested.
+     */
+    private static final class UnitScores {
+        int units, won;
+        double[] gaps = new double[16];
+        int gapCount;
+
+        void add(Podium podium, long oursVotes) {
+            units++;
+            if (podium.first() == 1) {
+                won++;
+                return;
+            }
+            if (oursVotes < 0) {
+                return;
+            }
+            double gapPct = ((podium.firstVotes() - oursVotes) * 100.0) / podium.firstVotes();
+            if (Double.isNaN(gapPct)) {
+                return; // 0/0: never winnable
+            }
+            if (gapCount == gaps.length) {
+                gaps = Arrays.copyOf(gaps, gapCount * 2);
+            }
+            gaps[gapCount++] = gapPct;
+        }
 
-                    if (oursOpt.isPresent()) {
-                        int gap = top.getValue() - oursOpt.get().getValue();
-                        double pctGap = (gap * 100.0) / top.getValue();
-                        if (pctGap <= swingPercent) {
-                            boothsWinnable++;
-                        }
-                    }
-                }
+        int winnable(int swingPercent) {
+            int n = 0;
+            for (int i = 0; i < gapCount; i++) {
+                if (gaps[i] <= swingPercent) n++;
+            }
+            return n;
+        }
 
-                out.setBoothsWon(boothsWon);
-                out.setBoothsWinnable(boothsWinnable);
+        // [s] = units winnable with a swing of s percent, s in 0..maxSwing
+        int[] winnableCurve(int maxSwing) {
+            Arrays.sort(gaps, 0, gapCount);
+            int[] curve = new int[maxSwing + 1];
+            int i = 0;
+            for (int s = 0; s <= maxSwing; s++) {
+                while (i < gapCount && gaps[i] <= s) i++;
+                curve[s] = i;
             }
+            return curve;
         }
+    }
 
-        return out;
+    /**
+     * Rows arrive ordered by localbody then unit (ward / booth). Each unit is scored when the
+     * next one starts, from its top candidate and our best candidate.
+     */
+    private void scoreUnits(Stream<LocalbodyUnitVoteRow> rows,
+                            PartyAllianceSnapshot alliances,
+                            int target,
+                            Map<Long, UnitScores> scores) {
+        Podium podium = new Podium();
+        long[] oursVotes = {-1L};
+        Long[] current = {null, null}; // localbody id, unit id
+
+        rows.forEach(r -> {
+            if (!r.getUnitId().equals(current[1])) {
+                if (current[1] != null) {
+                    scores.computeIfAbsent(current[0], k -> new UnitScores()).add(podium, oursVotes[0]);
+                }
+                current[0] = r.getLocalbodyId();
+                current[1] = r.getUnitId();
+                podium.reset();
+                oursVotes[0] = -1L;
+            }
+            long v = r.getVotes() == null ? 0L : r.getVotes();
+            boolean ours = alliances.resolveDefault(r.getPartyId()) == target;
+            // key 1 marks our alliance, so podium.first() tells whether we won
+            podium.offer(ours ? 1 : 0, v);
+            if (ours && v > oursVotes[0]) {
+                oursVotes[0] = v;
+            }
+        });
+        if (current[1] != null) {
+            scores.computeIfAbsent(current[0], k -> new UnitScores()).add(podium, oursVotes[0]);
+        }
     }
 
     public List<AllianceDto> getAll() {
@@ -286,15 +397,10 @@ public class AllianceAnalysisService {
         List<LbCandidate> candidates =
                 candidateRepo.findByLocalbodyIdAndElectionYear(lb.getId(), year);
 
+        PartyAllianceSnapshot alliances = allianceSnapshotService.current();
         Map<Integer, String> candidateAlliance = new HashMap<>();
         for (LbCandidate c : candidates) {
-            Party p = c.getPartyId() == null
-                    ? null
-                    : partyRepo.findById(c.getPartyId()).orElse(null);
-            String a = (p == null || p.getAlliance() == null)
-                    ? "OTH"
-                    : p.getAlliance().getName();
-            candidateAlliance.put(c.getId(), a.toUpperCase());
+            candidateAlliance.put(c.getId(), alliances.resolveDefaultName(c.getPartyId()).toUpperCase());
         }
 
         // wards for this localbody
@@ -305,14 +411,7 @@ public class AllianceAnalysisService {
         Set<Long> wardIds = wardById.keySet();
 
         if (wardIds.isEmpty()) {
-            return LocalbodyWardDetailsResponse.builder()
-                    .localbodyId(lb.getId())
-                    .localbodyName(lb.getName())
-                    .year(year)
-                    .totalWards(0)
-                    .majorityNeeded(0)
-                    .wards(Collections.emptyList())
-                    .build();
+            return wardDetails(lb, year, 0, new ArrayList<>());
         }
 
         // ward results
@@ -323,48 +422,234 @@ public class AllianceAnalysisService {
                 .collect(groupingBy(r -> r.getWardId().longValue()));
 
         List<LocalbodyWardDetailsResponse.WardRow> wardRows = new ArrayList<>();
+        WardVotes wardVotes = new WardVotes();
 
         for (Map.Entry<Long, List<LbWardResult>> entry : wardGroups.entrySet()) {
-            Long wardId = entry.getKey();
-            List<LbWardResult> wardVotes = entry.getValue();
-
-            Ward ward = wardById.get(wardId);
+            Ward ward = wardById.get(entry.getKey());
             if (ward == null) {
                 continue;
             }
 
-            // sort descending by votes
-            wardVotes.sort((a, b) -> Integer.compare(b.getVotes(), a.getVotes()));
-
-            int totalVotes = wardVotes.stream()
-                    .mapToInt(LbWardResult::getVotes)
-                    .sum();
-
-            LbWardResult winnerRes = wardVotes.get(0);
-            String winnerAlliance = candidateAlliance.get(winnerRes.getCandidateId());
-            if (winnerAlliance == null) winnerAlliance = "OTH";
-
-            // build alliance votes list
-            List<LocalbodyWardDetailsResponse.AllianceVotes> allianceVotesList =
-                    wardVotes.stream()
-                            .collect(groupingBy(
-                                    r -> candidateAlliance.getOrDefault(r.getCandidateId(), "OTH"),
-                                    summingInt(LbWardResult::getVotes)
-                            ))
-                            .entrySet()
-                            .stream()
-                            .map(e -> {
-                                String a = e.getKey();
-                                int v = e.getValue();
-                                double pct = totalVotes == 0 ? 0.0 : (v * 100.0) / totalVotes;
-                                return LocalbodyWardDetailsResponse.AllianceVotes.builder()
-                                        .alliance(a)
-                                        .votes(v)
-                                        .percentage(pct)
-                                        .build();
-                            })
-                            .sorted((a, b) -> Integer.compare(b.getVotes(), a.getVotes()))
-                            .collect(toList());
+            wardVotes.reset();
+            for (LbWardResult r : entry.getValue()) {
+                wardVotes.add(candidateAlliance.getOrDefault(r.getCandidateId(), PartyAllianceSnapshot.OTHERS), r.getVotes());
+            }
+            wardRows.add(wardVotes.toRow(ward.getWardNum(), ward.getWardName(), alliance, swingPercent));
+        }
+
+        return wardDetails(lb, year, wards.size(), wardRows);
+    }
+
+    /**
+     * Ward details for many localbodies: every localbody given by id, or else every localbody
+     * of the district (optionally of one type), handed to {@code sink} in localbody id order.
+     *
+     * Localbodies are read {@value #WARD_DETAILS_CHUNK} at a time, each chunk from one cursor
+     * and buffered. Reads run on the analysis executor under a {@link DbBulkhead} permit, away
+     * from the request thread's open-in-view EntityManager, and {@code sink} only runs between
+     * them, so a slow client never holds a connection or a permit.
+     *
+     * Each response is the same as {@link #getWardDetails} for that localbody.
+     */
+    public void streamWardDetails(Integer district,
+                                  String type,
+                                  Collection<Long> localbodyIds,
+                                  String alliance,
+                                  int year,
+                                  int swingPercent,
+                                  Consumer<LocalbodyWardDetailsResponse> sink) {
+        List<Localbody> lbs = new ArrayList<>(offRequest(() -> localbodyIds != null && !localbodyIds.isEmpty()
+                ? localbodyRepo.findAllById(localbodyIds).stream()
+                        .filter(lb -> type == null || type.isBlank() || type.equalsIgnoreCase(lb.getType()))
+                        .toList()
+                : loadLocalbodies(district, type, null)));
+        if (lbs.isEmpty()) {
+            return;
+        }
+        lbs.sort(Comparator.comparing(Localbody::getId));
+
+        // one snapshot for the whole stream; the first call after a remap reloads it
+        PartyAllianceSnapshot alliances = offRequest(allianceSnapshotService::current);
+        List<LocalbodyWardDetailsResponse> buffer = new ArrayList<>(WARD_DETAILS_CHUNK);
+        for (int from = 0; from < lbs.size(); from += WARD_DETAILS_CHUNK) {
+            List<Localbody> chunk = lbs.subList(from, Math.min(from + WARD_DETAILS_CHUNK, lbs.size()));
+            Long[] lbIds = chunk.stream().map(Localbody::getId).toArray(Long[]::new);
+            WardDetailsEmitter emitter = new WardDetailsEmitter(chunk, alliance, year, swingPercent, buffer::add);
+
+            offRequest(() -> {
+                streamingQueries.forEach("ward-details",
+                        () -> wardResultRepo.streamWardDetailsForLocalbodies(year, lbIds),
+                        r -> emitter.add(r, alliances));
+                return null;
+            });
+            emitter.finish();
+
+            buffer.forEach(sink);
+            buffer.clear();
+        }
+    }
+
+    /** Runs {@code read} on the analysis executor under a DB permit and waits for it. */
+    private <T> T offRequest(Supplier<T> read) {
+        Future<T> future = analysisExecutor.submit(() -> dbBulkhead.call(read));
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while reading ward details", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Rows arrive ordered by localbody, ward and result id. A ward becomes a row when the next
+     * ward starts, and a localbody is emitted when the next one starts; localbodies without
+     * any ward are emitted empty in their place.
+     */
+    private static final class WardDetailsEmitter {
+        private final List<Localbody> lbs;
+        private final String alliance;
+        private final int year;
+        private final int swingPercent;
+        private final Consumer<LocalbodyWardDetailsResponse> sink;
+
+        private final WardVotes wardVotes = new WardVotes();
+        private int next;            // index into lbs of the next localbody to emit
+        private Long wardId;
+        private int wardNum;
+        private String wardName;
+        private int totalWards;
+        private List<LocalbodyWardDetailsResponse.WardRow> wardRows = new ArrayList<>();
+
+        WardDetailsEmitter(List<Localbody> lbs, String alliance, int year, int swingPercent,
+                           Consumer<LocalbodyWardDetailsResponse> sink) {
+            this.lbs = lbs;
+            this.alliance = alliance;
+            this.year = year;
+            this.swingPercent = swingPercent;
+            this.sink = sink;
+        }
+
+        void add(WardDetailVoteRow r, PartyAllianceSnapshot alliances) {
+            if (!r.getWardId().equals(wardId)) {
+                closeWard();
+                if (totalWards == 0 || !r.getLocalbodyId().equals(lbs.get(next).getId())) {
+                    if (totalWards > 0) {
+                        closeLocalbody();
+                    }
+                    // localbodies before this one had no wards at all
+                    while (!lbs.get(next).getId().equals(r.getLocalbodyId())) {
+                        emitEmpty();
+                    }
+                }
+                wardId = r.getWardId();
+                wardNum = r.getWardNum();
+                wardName = r.getWardName();
+                totalWards++;
+            }
+            if (r.getResultId() != null) {
+                wardVotes.add(alliances.resolveDefaultName(r.getPartyId()).toUpperCase(),
+                        r.getVotes() == null ? 0 : r.getVotes());
+            }
+        }
+
+        void finish() {
+            closeWard();
+            if (totalWards > 0) {
+                closeLocalbody();
+            }
+            while (next < lbs.size()) {
+                emitEmpty();
+            }
+        }
+
+        private void closeWard() {
+            if (wardId != null && !wardVotes.isEmpty()) {
+                wardRows.add(wardVotes.toRow(wardNum, wardName, alliance, swingPercent));
+            }
+            wardVotes.reset();
+            wardId = null;
+        }
+
+        private void closeLocalbody() {
+            sink.accept(wardDetails(lbs.get(next++), year, totalWards, wardRows));
+            totalWards = 0;
+            wardRows = new ArrayList<>();
+        }
+
+        private void emitEmpty() {
+            sink.accept(wardDetails(lbs.get(next++), year, 0, new ArrayList<>()));
+        }
+    }
+
+    private static LocalbodyWardDetailsResponse wardDetails(Localbody lb, int year, int totalWards,
+                                                            List<LocalbodyWardDetailsResponse.WardRow> wardRows) {
+        wardRows.sort(Comparator.comparingInt(LocalbodyWardDetailsResponse.WardRow::getWardNum));
+        return LocalbodyWardDetailsResponse.builder()
+                .localbodyId(lb.getId())
+                .localbodyName(lb.getName())
+                .year(year)
+                .totalWards(totalWards)
+                .majorityNeeded(totalWards == 0 ? 0 : (totalWards / 2) + 1)
+                .wards(wardRows)
+                .build();
+    }
+
+    /**
+     * Candidate votes of one ward, in result order, turned into a ward details row.
+     * Reusable across wards via {@link #reset()}.
+     */
+    private static final class WardVotes {
+        private final Podium podium = new Podium();
+        private String[] alliances = new String[16];
+        private int[] votes = new int[16];
+        private int count;
+        private int total;
+
+        void reset() {
+            podium.reset();
+            count = 0;
+            total = 0;
+        }
+
+        boolean isEmpty() {
+            return count == 0;
+        }
+
+        void add(String alliance, int v) {
+            if (count == votes.length) {
+                alliances = Arrays.copyOf(alliances, count * 2);
+                votes = Arrays.copyOf(votes, count * 2);
+            }
+            podium.offer(count, v);
+            alliances[count] = alliance;
+            votes[count++] = v;
+            total += v;
+        }
+
+        LocalbodyWardDetailsResponse.WardRow toRow(int wardNum, String wardName, String alliance, int swingPercent) {
+            // top candidate decides the winner; alliance totals drive the gap
+            String winnerAlliance = alliances[podium.first()];
+
+            Map<String, Integer> byAlliance = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++) {
+                byAlliance.merge(alliances[i], votes[i], Integer::sum);
+            }
+            int totalVotes = total;
+            List<LocalbodyWardDetailsResponse.AllianceVotes> allianceVotesList = byAlliance.entrySet()
+                    .stream()
+                    .map(e -> LocalbodyWardDetailsResponse.AllianceVotes.builder()
+                            .alliance(e.getKey())
+                            .votes(e.getValue())
+                            .percentage(totalVotes == 0 ? 0.0 : (e.getValue() * 100.0) / totalVotes)
+                            .build())
+                    .sorted((a, b) -> Integer.compare(b.getVotes(), a.getVotes()))
+                    .collect(toList());
 
             // find target alliance result
             Optional<LocalbodyWardDetailsResponse.AllianceVotes> oursOpt =
@@ -378,12 +663,10 @@ public class AllianceAnalysisService {
 
             if (winnerAlliance.equalsIgnoreCase(alliance)) {
                 // already won
-                marginVotes = null; // you can compute if you want vs #2
-                winnable = true;   // or true but you already count it as win
+                winnable = true;
             } else if (oursOpt.isPresent()) {
-                LocalbodyWardDetailsResponse.AllianceVotes ours = oursOpt.get();
                 int winnerVotes = allianceVotesList.get(0).getVotes();
-                int gap = winnerVotes - ours.getVotes();
+                int gap = winnerVotes - oursOpt.get().getVotes();
                 marginVotes = gap;
                 gapPct = winnerVotes == 0 ? 0.0 : (gap * 100.0) / winnerVotes;
                 if (gapPct <= swingPercent) {
@@ -391,34 +674,16 @@ public class AllianceAnalysisService {
                 }
             }
 
-            LocalbodyWardDetailsResponse.WardRow row =
-                    LocalbodyWardDetailsResponse.WardRow.builder()
-                            .wardNum(ward.getWardNum()) // adjust getter as per your entity
-                            .wardName(ward.getWardName())
-                            .alliances(allianceVotesList)
-                            .totalVotes(totalVotes)
-                            .winnerAlliance(winnerAlliance)
-                            .marginVotes(marginVotes)
-                            .winnable(winnable)
-                            .gapPercent(gapPct)
-                            .build();
-
-            wardRows.add(row);
+            return LocalbodyWardDetailsResponse.WardRow.builder()
+                    .wardNum(wardNum)
+                    .wardName(wardName)
+                    .alliances(allianceVotesList)
+                    .totalVotes(totalVotes)
+                    .winnerAlliance(winnerAlliance)
+                    .marginVotes(marginVotes)
+                    .winnable(winnable)
+                    .gapPercent(gapPct)
+                    .build();
         }
-
-        int totalWards = wards.size();
-        int majority = (totalWards / 2) + 1;
-
-        return LocalbodyWardDetailsResponse.builder()
-                .localbodyId(lb.getId())
-                .localbodyName(lb.getName())
-                .year(year)
-                .totalWards(totalWards)
-                .majorityNeeded(majority)
-                .wards(wardRows.stream()
-                        .sorted(Comparator.comparingInt(LocalbodyWardDetailsResponse.WardRow::getWardNum))
-                        .collect(toList()))
-                .build();
     }
 }
-
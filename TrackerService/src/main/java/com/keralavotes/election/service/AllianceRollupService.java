@@ -0,0 +1,102 @@
+package com.keralavotes.election.service;
+
+import com.keralavotes.election.constants.ElectionYear;
+import com.keralavotes.election.dto.ElectionType;
+import com.keralavotes.election.event.ElectionDataChangedEvent;
+import com.keralavotes.election.repository.BoothAllianceRollupRepository;
+import com.keralavotes.election.repository.WardAllianceRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Set;
+
+/**
+ * Maintains ward_alliance_rollup and booth_alliance_rollup.
+ *
+ * Each rebuild is a set-based DELETE + INSERT ... SELECT for the affected scope,
+ * so public analysis reads a handful of pre-ranked rows instead of the raw vote tables.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AllianceRollupService {
+
+    private final WardAllianceRollupRepository wardRollupRepo;
+    private final BoothAllianceRollupRepository boothRollupRepo;
+
+    @Order(0)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onElectionDataChanged(ElectionDataChangedEvent event) {
+        log.info("AllianceRollupService::onElectionDataChanged -> Refreshing rollups for {}", event);
+
+        for (int year : event.getYears()) {
+            switch (event.getSource()) {
+                case WARD_RESULTS -> rebuildWardRollups(year, event.getLocalbodyIds());
+                case BOOTH_RESULTS -> rebuildBoothRollups(year, event.getAcCodes());
+                case ALLIANCE_MAPPING -> {
+                    ElectionType type = ElectionYear.typeOf(year);
+                    if (type == ElectionType.LOCALBODY) {
+                        rebuildWardRollups(year, event.getLocalbodyIds());
+                    } else if (type != null) {
+                        rebuildYear(year);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Rebuild every rollup for the given year (used by the admin backfill endpoint).
+     */
+    @Transactional
+    public void rebuildYear(int year) {
+        ElectionType type = ElectionYear.typeOf(year);
+        if (type == null) {
+            throw new IllegalArgumentException("Year not configured in ElectionYear: " + year);
+        }
+        if (type == ElectionType.LOCALBODY) {
+            rebuildWardRollups(year, null);
+        } else {
+            rebuildBoothRollups(year, null);
+        }
+    }
+
+    @Transactional
+    public void rebuildWardRollups(int year, Set<Long> localbodyIds) {
+        long start = System.currentTimeMillis();
+        Long[] ids = localbodyIds == null ? null : localbodyIds.toArray(Long[]::new);
+
+        int removed = wardRollupRepo.deleteScope(year, ids);
+        int inserted = wardRollupRepo.insertScope(year, ids);
+
+        log.info("Ward rollups rebuilt for year={} localbodies={} -> removed={}, inserted={} in {} ms",
+                year, localbodyIds == null ? "ALL" : localbodyIds.size(), removed, inserted,
+                System.currentTimeMillis() - start);
+    }
+
+    @Transactional
+    public void rebuildBoothRollups(int year, Set<Integer> acCodes) {
+        ElectionType type = ElectionYear.typeOf(year);
+        if (type == null || type == ElectionType.LOCALBODY) {
+            log.warn("Skipping booth rollups for year={} (type={})", year, type);
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        Integer[] codes = acCodes == null ? null : acCodes.toArray(Integer[]::new);
+
+        int removed = boothRollupRepo.deleteScope(year, codes);
+        int inserted = boothRollupRepo.insertScope(year, type.name(), codes);
+
+        log.info("Booth rollups rebuilt for year={} acs={} -> removed={}, inserted={} in {} ms",
+                year, acCodes == null ? "ALL" : acCodes.size(), removed, inserted,
+                System.currentTimeMillis() - start);
+    }
+}
@@ -2,13 +2,15 @@ package com.keralavotes.election.service;
 
 import com.keralavotes.election.dto.ElectionType;
 import com.keralavotes.election.dto.details.*;
+import com.keralavotes.election.model.Podium;
 import com.keralavotes.election.repository.BoothVotesRepository;
 import com.keralavotes.election.repository.LocalbodyRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -16,54 +18,46 @@ public class AnalysisDetailService {
 
     private final BoothVotesRepository repo;
     private final LocalbodyRepository localbodyRepo;
+    private final StreamingQueryService streamingQueries;
 
     public Map<String, LocalbodyDetailYearDataDto> loadDetails(Long lbId, List<Integer> years) {
 
         Map<String, LocalbodyDetailYearDataDto> result = new LinkedHashMap<>();
+        Podium podium = new Podium();
 
         for (Integer year : years) {
 
             String type = determineElectionType(year);
 
             if (type.equals("LOCALBODY")) {
-                var rows = repo.getWardAllianceVotes(lbId, year);
-
-                Map<Integer, List<Object[]>> grouped =
-                        rows.stream().collect(Collectors.groupingBy(r -> (Integer) r[0], LinkedHashMap::new, Collectors.toList()));
-
                 List<WardDetailRowDto> wards = new ArrayList<>();
 
-                for (var entry : grouped.entrySet()) {
-                    int wardNum = entry.getKey();
-                    List<Object[]> list = entry.getValue();
-
-                    String name = (String) list.get(0)[1];
-
-                    long total = list.stream().map(r -> (Long) r[3]).reduce(0L, Long::sum);
-
-                    List<AllianceVoteDetailDto> alliances =
-                            list.stream()
-                                    .map(r -> AllianceVoteDetailDto.builder()
-                                            .alliance((String) r[2])
-                                            .votes((Long) r[3])
-                                            .percentage(total == 0 ? 0.0 : ((Long) r[3] * 100.0) / total)
-                                            .build())
-                                    .sorted((a, b) -> Long.compare(b.getVotes(), a.getVotes()))
-                                    .collect(Collectors.toList());
-
-                    String winner = alliances.isEmpty() ? null : alliances.get(0).getAlliance();
-                    Long margin = alliances.size() < 2 ? null :
-                            alliances.get(0).getVotes() - alliances.get(1).getVotes();
-
-                    wards.add(WardDetailRowDto.builder()
-                            .wardNum(wardNum)
-                            .wardName(name)
-                            .alliances(alliances)
-                            .total(total)
-                            .winner(winner)
-                            .margin(margin)
-                            .build());
-                }
+                streamingQueries.scan("detail-ward-alliance", () -> repo.streamWardAllianceVotes(lbId, year),
+                        rows -> forEachGroup(rows, (wardNum, list) -> {
+                            String name = (String) list.get(0)[1];
+
+                            podium.reset();
+                            long total = 0L;
+                            for (int i = 0; i < list.size(); i++) {
+                                long v = (Long) list.get(i)[3];
+                                podium.offer(i, v);
+                                total += v;
+                            }
+
+                            List<AllianceVoteDetailDto> alliances = toAllianceDetails(list, total);
+
+                            String winner = podium.isEmpty() ? null : (String) list.get(podium.first())[2];
+                            Long margin = podium.hasRunnerUp() ? podium.margin() : null;
+
+                            wards.add(WardDetailRowDto.builder()
+                                    .wardNum(wardNum)
+                                    .wardName(name)
+                                    .alliances(alliances)
+                                    .total(total)
+                                    .winner(winner)
+                                    .margin(margin)
+                                    .build());
+                        }));
 
                 result.put(year.toString(),
                         LocalbodyDetailYearDataDto.builder()
@@ -73,44 +67,34 @@ public class AnalysisDetailService {
                                 .build());
 
             } else {
-                var rows = repo.getBoothAllianceVotes(lbId, year);
-
-                Map<Integer, List<Object[]>> grouped =
-                        rows.stream().collect(Collectors.groupingBy(r -> (Integer) r[0], LinkedHashMap::new, Collectors.toList()));
-
                 List<BoothDetailRowDto> booths = new ArrayList<>();
 
-                for (var entry : grouped.entrySet()) {
-                    int psnum = entry.getKey();
-                    List<Object[]> list = entry.getValue();
-
-                    String name = (String) list.get(0)[1];
-
-                    long total = list.stream().map(r -> (Long) r[3]).reduce(0L, Long::sum);
-
-                    List<AllianceVoteDetailDto> alliances =
-                            list.stream()
-                                    .map(r -> AllianceVoteDetailDto.builder()
-                                            .alliance((String) r[2])
-                                            .votes((Long) r[3])
-                                            .percentage(total == 0 ? 0.0 : ((Long) r[3] * 100.0) / total)
-                                            .build())
-                                    .sorted((a, b) -> Long.compare(b.getVotes(), a.getVotes()))
-                                    .collect(Collectors.toList());
-
-                    String winner = alliances.isEmpty() ? null : alliances.get(0).getAlliance();
-                    Long margin = alliances.size() < 2 ? null :
-                            alliances.get(0).getVotes() - alliances.get(1).getVotes();
-
-                    booths.add(BoothDetailRowDto.builder()
-                            .boothNum(psnum)
-                            .boothName(name)
-                            .alliances(alliances)
-                            .total(total)
-                            .winner(winner)
-                            .margin(margin)
-                            .build());
-                }
+                streamingQueries.scan("detail-booth-alliance", () -> repo.streamBoothAllianceVotes(lbId, year),
+                        rows -> forEachGroup(rows, (psnum, list) -> {
+                            String name = (String) list.get(0)[1];
+
+                            podium.reset();
+                            long total = 0L;
+                            for (int i = 0; i < list.size(); i++) {
+                                long v = (Long) list.get(i)[3];
+                                podium.offer(i, v);
+                                total += v;
+                            }
+
+                            List<AllianceVoteDetailDto> alliances = toAllianceDetails(list, total);
+
+                            String winner = podium.isEmpty() ? null : (String) list.get(podium.first())[2];
+                            Long margin = podium.hasRunnerUp() ? podium.margin() : null;
+
+                            booths.add(BoothDetailRowDto.builder()
+                                    .boothNum(psnum)
+                                    .boothName(name)
+                                    .alliances(alliances)
+                                    .total(total)
+                                    .winner(winner)
+                                    .margin(margin)
+                                    .build());
+                        }));
 
                 result.put(year.toString(),
                         LocalbodyDetailYearDataDto.builder()
@@ -124,6 +108,47 @@ public class AnalysisDetailService {
         return result;
     }
 
+    /**
+     * Hands each run of rows with the same ward / booth number (column 0) to {@code group};
+     * the streamed queries order by that number. Returns the number of groups.
+     */
+    private static int forEachGroup(Stream<Object[]> rows, BiConsumer<Integer, List<Object[]>> group) {
+        int groups = 0;
+        Integer current = null;
+        List<Object[]> list = new ArrayList<>();
+        for (Iterator<Object[]> it = rows.iterator(); it.hasNext(); ) {
+            Object[] r = it.next();
+            Integer num = (Integer) r[0];
+            if (!list.isEmpty() && !num.equals(current)) {
+                group.accept(current, list);
+                groups++;
+                list = new ArrayList<>();
+            }
+            current = num;
+            list.add(r);
+        }
+        if (!list.isEmpty()) {
+            group.accept(current, list);
+            groups++;
+        }
+        return groups;
+    }
+
+    // Rows of one ward/booth -> alliance details, votes desc for display
+    private List<AllianceVoteDetailDto> toAllianceDetails(List<Object[]> list, long total) {
+        List<AllianceVoteDetailDto> out = new ArrayList<>(list.size());
+        for (Object[] r : list) {
+            long votes = (Long) r[3];
+            out.add(AllianceVoteDetailDto.builder()
+                    .alliance((String) r[2])
+                    .votes(votes)
+                    .percentage(total == 0 ? 0.0 : (votes * 100.0) / total)
+                    .build());
+        }
+        out.sort((a, b) -> Long.compare(b.getVotes(), a.getVotes()));
+        return out;
+    }
+
     private String determineElectionType(Integer year) {
         if (year == 2015 || year == 2020) return "LOCALBODY";
         return "GE";
@@ -0,0 +1,180 @@
+package com.keralavotes.election.service;
+
+import com.keralavotes.election.config.DbBulkhead;
+import com.keralavotes.election.constants.ElectionYear;
+import com.keralavotes.election.dto.ElectionType;
+import com.keralavotes.election.model.AnalysisView;
+import com.keralavotes.election.model.VoteRollup;
+import com.keralavotes.election.service.DataVersionService.Scope;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Precomputes the state, district and assembly-overview responses of the localbody years
+ * so the first visitors after a deploy do not each trigger a full-state scan.
+ *
+ * The startup run happens inside the ApplicationReadyEvent listener, and Spring Boot only
+ * reports readiness (ACCEPTING_TRAFFIC) once listeners return, so a load balancer keeps
+ * traffic away until the caches are warm or analysis.warmup.timeout passes. An optional
+ * cron (analysis.warmup.cron) re-warms whatever a data change has made stale.
+ *
+ * Years are warmed analysis.warmup.parallelism at a time; each year's scan also takes a
+ * {@link DbBulkhead} permit, so warm-up never holds more connections than analysis may.
+ */
+@Slf4j
+@Service
+public class AnalysisWarmupService {
+
+    private final VoteRollupService voteRollupService;
+    private final AssemblyAnalysisService assemblyAnalysisService;
+    private final AssemblyOverviewService assemblyOverviewService;
+    private final ResponseCacheService responseCacheService;
+    private final DbBulkhead dbBulkhead;
+    private final ExecutorService analysisExecutor;
+    private final MeterRegistry meterRegistry;
+
+    private final boolean enabled;
+    private final List<Integer> years;
+    private final Semaphore parallelism;
+    private final Duration timeout;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public AnalysisWarmupService(VoteRollupService voteRollupService,
+                                 AssemblyAnalysisService assemblyAnalysisService,
+                                 AssemblyOverviewService assemblyOverviewService,
+                                 ResponseCacheService responseCacheService,
+                                 DbBulkhead dbBulkhead,
+                                 ExecutorService analysisExecutor,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${analysis.warmup.enabled:true}") boolean enabled,
+                                 @Value("${analysis.warmup.years:}") List<Integer> years,
+                                 @Value("${analysis.warmup.parallelism:1}") int parallelism,
+                                 @Value("${analysis.warmup.timeout:PT5M}") Duration timeout) {
+        this.voteRollupService = voteRollupService;
+        this.assemblyAnalysisService = assemblyAnalysisService;
+        this.assemblyOverviewService = assemblyOverviewService;
+        this.responseCacheService = responseCacheService;
+        this.dbBulkhead = dbBulkhead;
+        this.analysisExecutor = analysisExecutor;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.years = years == null || years.isEmpty()
+                ? ElectionYear.byType(ElectionType.LOCALBODY).stream().map(ElectionYear::getYear).toList()
+                : years;
+        this.parallelism = new Semaphore(Math.max(1, parallelism));
+        this.timeout = timeout;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        warmup("startup");
+    }
+
+    // "-" (the default) disables the schedule
+    @Scheduled(cron = "${analysis.warmup.cron:-}")
+    public void onSchedule() {
+        warmup("scheduled");
+    }
+
+    /** Warms every configured year; returns once done or after analysis.warmup.timeout. */
+    public void warmup(String trigger) {
+        if (!enabled) {
+            return;
+        }
+        if (!running.compareAndSet(false, true)) {
+            log.info("AnalysisWarmupService::warmup -> {} warm-up skipped, previous run still in progress", trigger);
+            return;
+        }
+
+        long start = System.nanoTime();
+        long heapBefore = usedHeap();
+        long cacheBefore = responseCacheService.bytes();
+        AtomicInteger responses = new AtomicInteger();
+
+        List<CompletableFuture<Void>> tasks = new ArrayList<>(years.size());
+        for (int year : years) {
+            tasks.add(CompletableFuture.runAsync(() -> warmYear(year, responses), analysisExecutor));
+        }
+        CompletableFuture<Void> all = CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new))
+                .whenComplete((ok, error) -> {
+                    Duration took = Duration.ofNanos(System.nanoTime() - start);
+                    Timer.builder("analysis.warmup.duration")
+                            .tag("trigger", trigger)
+                            .register(meterRegistry)
+                            .record(took);
+                    log.info("AnalysisWarmupService::warmup -> {} warm-up of years {} done in {} ms: {} responses, "
+                                    + "response cache +{} KB, heap +{} MB",
+                            trigger, years, took.toMillis(), responses.get(),
+                            (responseCacheService.bytes() - cacheBefore) / 1024,
+                            (usedHeap() - heapBefore) / (1024 * 1024));
+                    running.set(false);
+                });
+
+        try {
+            all.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("AnalysisWarmupService::warmup -> {} warm-up still running after {}; continuing in background",
+                    trigger, timeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            // per-year failures are logged in warmYear
+        }
+    }
+
+    private void warmYear(int year, AtomicInteger responses) {
+        parallelism.acquireUninterruptibly();
+        try {
+            long start = System.nanoTime();
+            // the one full-state scan of the year; everything below is in memory
+            VoteRollup rollup = dbBulkhead.call(() -> voteRollupService.rollup(year, null));
+            List<Integer> yearList = List.of(year);
+
+            // same cache keys as AssemblyAnalysisController with no includeTypes / fields
+            List<Object> params = AnalysisView.ALL.cacheParams(null);
+            responseCacheService.warm("state", Scope.STATE, null, yearList, params,
+                    () -> assemblyAnalysisService.analyzeState(year, null, AnalysisView.ALL));
+            responseCacheService.warm("overview", Scope.STATE, null, yearList, null,
+                    () -> assemblyOverviewService.overviewState(year, null));
+            responses.addAndGet(2);
+
+            for (Integer district : rollup.getDistricts().keySet()) {
+                responseCacheService.warm("district", Scope.DISTRICT, district, yearList, params,
+                        () -> assemblyAnalysisService.analyzeByDistrict(district, year, null, AnalysisView.ALL));
+                responseCacheService.warm("overview", Scope.DISTRICT, district, yearList, null,
+                        () -> assemblyOverviewService.overviewByDistrict(district, year, null));
+                responses.addAndGet(2);
+            }
+            log.info("AnalysisWarmupService::warmYear -> year {} : {} wards, {} districts in {} ms",
+                    year, rollup.getWards().size(), rollup.getDistricts().size(),
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            log.warn("AnalysisWarmupService::warmYear -> warm-up of year {} failed", year, e);
+        } finally {
+            parallelism.release();
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
@@ -1,60 +1,63 @@
 package com.keralavotes.election.service;
 
+import com.keralavotes.election.config.DbBulkhead;
 import com.keralavotes.election.constants.ElectionYear;
 import com.keralavotes.election.dto.AssemblyAnalysisResponseDto;
 import com.keralavotes.election.dto.ElectionType;
 import com.keralavotes.election.dto.SingleElectionAnalysisDto;
 import com.keralavotes.election.dto.VoteShareRowDto;
 import com.keralavotes.election.entity.AssemblyConstituency;
-import com.keralavotes.election.entity.BoothTotals;
-import com.keralavotes.election.entity.PollingStation;
+import com.keralavotes.election.model.AllianceTally;
+import com.keralavotes.election.model.AnalysisView;
 import com.keralavotes.election.model.AssemblyHistoricResultsResponse;
-import com.keralavotes.election.model.VoteRow;
+import com.keralavotes.election.model.MappedList;
+import com.keralavotes.election.model.PartyAllianceSnapshot;
+import com.keralavotes.election.model.PartyVoteTotalRow;
+import com.keralavotes.election.model.Podium;
+import com.keralavotes.election.model.VoteRollup;
 import com.keralavotes.election.model.WardAccumulator;
 import com.keralavotes.election.repository.AssemblyConstituencyRepository;
 import com.keralavotes.election.repository.BoothTotalsRepository;
 import com.keralavotes.election.repository.BoothVotesRepository;
-import com.keralavotes.election.repository.LocalbodyRepository;
-import com.keralavotes.election.repository.PartyAllianceMappingRepository;
 import com.keralavotes.election.repository.LbWardResultRepository;
-import com.keralavotes.election.repository.PollingStationRepository;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class AssemblyAnalysisService {
 
+    private final VoteRollupService voteRollupService;
+    private final PartyAllianceSnapshotService allianceSnapshotService;
     private final LbWardResultRepository wardResultRepository;
-    private final PartyAllianceMappingRepository partyAllianceMappingRepository;
-    private final LocalbodyRepository localbodyRepository;
     private final AssemblyConstituencyRepository assemblyConstituencyRepository;
     private final BoothVotesRepository boothVotesRepository;
-    private final PollingStationRepository pollingStationRepository;
     private final BoothTotalsRepository boothTotalsRepository;
+    private final ExecutorService analysisExecutor;
+    private final DbBulkhead dbBulkhead;
 
     /* ============================================================
        PUBLIC ENTRY POINTS
     ============================================================ */
 
-    @Transactional
     public AssemblyAnalysisResponseDto analyzeByAcCode(Integer acCode, int year, List<String> includeTypes) {
         log.info("analyzeByAcCode called with acCode={}, year={}, includeTypes={}", acCode, year, includeTypes);
-        return analyze(year, acCode, null, includeTypes, ElectionType.LOCALBODY, "Assembly " + acCode);
+        return analyze(year, acCode, null, includeTypes, ElectionType.LOCALBODY, "Assembly " + acCode, AnalysisView.ALL);
     }
 
-    @Transactional
     public AssemblyAnalysisResponseDto analyzeByDistrict(
             Integer districtCode,
             int year,
-            List<String> includeTypes
+            List<String> includeTypes,
+            AnalysisView view
     ) {
         return analyze(
                 year,
@@ -62,14 +65,15 @@ public class AssemblyAnalysisService {
                 districtCode,
                 includeTypes,
                 ElectionType.LOCALBODY,
-                "District " + districtCode
+                "District " + districtCode,
+                view
         );
     }
 
-    @Transactional
     public AssemblyAnalysisResponseDto analyzeState(
             int year,
-            List<String> includeTypes
+            List<String> includeTypes,
+            AnalysisView view
     ) {
         return analyze(
                 year,
@@ -77,7 +81,8 @@ public class AssemblyAnalysisService {
                 null,
                 includeTypes,
                 ElectionType.LOCALBODY,
-                "Kerala State"
+                "Kerala State",
+                view
         );
     }
 
@@ -85,75 +90,75 @@ public class AssemblyAnalysisService {
        CORE ANALYSIS (SINGLE SOURCE OF TRUTH)
     ============================================================ */
 
-    @Transactional
     protected AssemblyAnalysisResponseDto analyze(int year,
                                                   Integer acCode,
                                                   Integer districtCode,
                                                   List<String> includeTypes,
                                                   ElectionType electionType,
-                                                  String scopeName) {
+                                                  String scopeName,
+                                                  AnalysisView view) {
         log.info("analyze called with year={}, acCode={}, districtCode={}, includeTypes={}, electionType={}, scopeName={}",
                 year, acCode, districtCode, includeTypes, electionType, scopeName);
+
         /* ------------------------------
-           Load party → alliance mapping
+           One state-wide rollup per year; every scope is a projection of it.
+           A single AC reads only its own wards unless the state rollup is already built.
         ------------------------------ */
-        Map<Long, String> partyAlliance =
-                partyAllianceMappingRepository
-                        .findForYearAndType(year, electionType)
-                        .stream()
-                        .collect(Collectors.toMap(
-                                m -> m.getParty().getId(),
-                                m -> m.getAlliance().getName()
-                        ));
-        log.info("Loaded party-alliance mapping for year={} type={}: {} entries",
-                year, electionType, partyAlliance.size());
-
-        if (partyAlliance.isEmpty()) {
+        VoteRollup rollup = acCode != null
+                ? voteRollupService.acRollup(year, acCode, includeTypes)
+                : voteRollupService.rollup(year, includeTypes);
+        PartyAllianceSnapshot alliances = rollup.getAlliances();
+        log.info("Using party-alliance snapshot v{} for year={} type={}",
+                alliances.getVersion(), year, electionType);
+
+        if (!alliances.hasMappings(year, electionType)) {
             log.warn(
                     "No party-alliance mapping found for year={} type={}",
                     year, electionType
             );
         }
 
-        /* ------------------------------
-           Accumulators
-        ------------------------------ */
-        Map<Long, WardAccumulator> wardMap = new LinkedHashMap<>();
-        Map<String, Long> overallVotes = new HashMap<>();
-
-        /* ------------------------------
-           Stream votes (NO IN clause)
-        ------------------------------ */
-        try (Stream<VoteRow> stream =
-                     wardResultRepository.streamVotes(
-                             year,
-                             acCode,
-                             districtCode,
-                             normalizeTypes(includeTypes)
-                     )) {
-
-            stream.forEach(r -> {
-
-                String alliance =
-                        r.getPartyId() == null
-                                ? "OTH"
-                                : partyAlliance.getOrDefault(
-                                r.getPartyId(),
-                                "OTH"
-                        );
-
-                WardAccumulator acc =
-                        wardMap.computeIfAbsent(
-                                r.getWardId(),
-                                id -> new WardAccumulator(r)
-                        );
-
-                acc.add(alliance, r.getVotes());
-                overallVotes.merge(alliance, (long) r.getVotes(), Long::sum);
-            });
+        List<WardAccumulator> wards;
+        AllianceTally overallVotes;
+        List<AssemblyAnalysisResponseDto.LocalbodySummary> localbodies = null;
+
+        // parts that were not asked for are never built
+        if (acCode != null) {
+            // an AC can cut through localbodies: summaries cover only its own wards
+            wards = scopeWards(rollup, view, w -> acCode.equals(w.getAcCode()));
+            overallVotes = view.overall() ? rollup.total(wards) : null;
+            if (view.localbodies()) {
+                localbodies = buildLocalbodies(wards, rollup);
+            }
+        } else if (districtCode != null) {
+            wards = scopeWards(rollup, view, w -> districtCode.equals(w.getDistrictCode()));
+            overallVotes = rollup.district(districtCode);
+            if (view.localbodies()) {
+                localbodies = rollup.getLocalbodies().values().stream()
+                        .filter(lb -> districtCode.equals(lb.getDistrictCode()))
+                        .map(lb -> toLocalbodySummary(lb.getLocalbodyId(), lb.getLocalbodyName(),
+                                lb.getLocalbodyType(), lb.getWardsCount(), lb.getVotes(), alliances))
+                        .toList();
+            }
+        } else {
+            wards = view.paged() ? rollup.getWardsByLocalbody() : rollup.getWards();
+            overallVotes = rollup.getState();
+            if (view.localbodies()) {
+                localbodies = rollup.getLocalbodies().values().stream()
+                        .map(lb -> toLocalbodySummary(lb.getLocalbodyId(), lb.getLocalbodyName(),
+                                lb.getLocalbodyType(), lb.getWardsCount(), lb.getVotes(), alliances))
+                        .toList();
+            }
         }
 
-        return buildDto(scopeName, year, wardMap, overallVotes);
+        return buildDto(scopeName, year, wards, view, overallVotes, localbodies, alliances);
+    }
+
+    /** Wards of the scope, in (localbodyId, wardNum) order when a page is requested. */
+    private List<WardAccumulator> scopeWards(VoteRollup rollup, AnalysisView view, Predicate<WardAccumulator> inScope) {
+        return (view.paged() ? rollup.getWardsByLocalbody() : rollup.getWards()).stream()
+                .filter(inScope)
+                .toList();
     }
 
     /* ============================================================
@@ -163,47 +168,38 @@ public class AssemblyAnalysisService {
     private AssemblyAnalysisResponseDto buildDto(
             String name,
             int year,
-            Map<Long, WardAccumulator> wardMap,
-            Map<String, Long> overallVotes
+            List<WardAccumulator> wards,
+            AnalysisView view,
+            AllianceTally overallVotes,
+            List<AssemblyAnalysisResponseDto.LocalbodySummary> localbodies,
+            PartyAllianceSnapshot alliances
     ) {
 
     /* ------------------------------
        Ward rows (SOURCE OF TRUTH)
+       rollup wards are already in ward-number order; rows are built while
+       Jackson writes them, so a state response never holds every WardRow
     ------------------------------ */
-        List<AssemblyAnalysisResponseDto.WardRow> wardRows =
-                wardMap.values().stream()
-                        .map(this::toWardRow)
-                        .sorted(Comparator.comparingInt(
-                                AssemblyAnalysisResponseDto.WardRow::getWardNum
-                        ))
-                        .toList();
+        List<AssemblyAnalysisResponseDto.WardRow> wardRows = null;
+        WardAccumulator last = null;
+        // rows are read one at a time by the serializer, so they can share one podium
+        Podium podium = new Podium();
+        if (view.paged()) {
+            int from = firstAfterCursor(wards, view);
+            int to = Math.min(wards.size(), from + view.limit());
+            List<WardAccumulator> page = wards.subList(from, to);
+            wardRows = new MappedList<>(page, w -> toWardRow(w, alliances, podium));
+            last = to < wards.size() && !page.isEmpty() ? page.getLast() : null;
+        } else if (view.wards()) {
+            wardRows = new MappedList<>(wards, w -> toWardRow(w, alliances, podium));
+        }
 
     /* ------------------------------
        Overall vote share
     ------------------------------ */
-        long totalVotes =
-                overallVotes.values().stream().mapToLong(Long::longValue).sum();
-
-        List<AssemblyAnalysisResponseDto.AllianceVoteShare> overall =
-                overallVotes.entrySet().stream()
-                        .map(e -> AssemblyAnalysisResponseDto.AllianceVoteShare.builder()
-                                .alliance(e.getKey())
-                                .votes(e.getValue())
-                                .percentage(
-                                        totalVotes == 0 ? 0.0 :
-                                                (e.getValue() * 100.0 / totalVotes)
-                                )
-                                .build())
-                        .sorted(Comparator.comparingLong(
-                                AssemblyAnalysisResponseDto.AllianceVoteShare::getVotes
-                        ).reversed())
-                        .toList();
-
-    /* ------------------------------
-       Localbody summaries (DERIVED)
-    ------------------------------ */
-        List<AssemblyAnalysisResponseDto.LocalbodySummary> localbodies =
-                buildLocalbodies(wardRows);
+        List<AssemblyAnalysisResponseDto.AllianceVoteShare> overall = view.overall()
+                ? toVoteShares(overallVotes, overallVotes.total(), alliances)
+                : null;
 
     /* ------------------------------
        FINAL RESPONSE (ALL LEVELS)
@@ -211,20 +207,39 @@ public class AssemblyAnalysisService {
         return AssemblyAnalysisResponseDto.builder()
                 .acName(name)
                 .year(year)
-                .totalWards(wardRows.size())
+                .totalWards(wards.size())
                 .overallVoteShare(overall)
                 .localbodies(localbodies)
                 .wards(wardRows)        // ✅ RESTORED
+                .nextAfterLocalbodyId(last != null ? last.getLocalbodyId() : null)
+                .nextAfterWardNum(last != null ? last.getWardNum() : null)
                 .build();
     }
 
+    // wards are in (localbodyId, wardNum) order: binary search for the first one past the cursor
+    private int firstAfterCursor(List<WardAccumulator> wards, AnalysisView view) {
+        int lo = 0, hi = wards.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            WardAccumulator w = wards.get(mid);
+            if (view.isAfterCursor(w.getLocalbodyId(), w.getWardNum())) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        return lo;
+    }
+
 
     /* ============================================================
        WARD CONVERSION
     ============================================================ */
 
     private AssemblyAnalysisResponseDto.WardRow toWardRow(
-            WardAccumulator w
+            WardAccumulator w,
+            PartyAllianceSnapshot snapshot,
+            Podium podium
     ) {
 
         int totalVotes = w.getTotalVotes();
@@ -233,32 +248,13 @@ public class AssemblyAnalysisService {
             totalVotes = 1; // avoid divide-by-zero
         }
 
-        int finalTotalVotes = totalVotes;
+        AllianceTally tally = w.getAllianceVotes();
         List<AssemblyAnalysisResponseDto.AllianceVoteShare> alliances =
-                w.getAllianceVotes().entrySet().stream()
-                        .map(e -> AssemblyAnalysisResponseDto.AllianceVoteShare.builder()
-                                .alliance(e.getKey())
-                                .votes(e.getValue())
-                                .percentage((e.getValue() * 100.0) / finalTotalVotes)
-                                .build())
-                        .sorted(Comparator.comparingLong(
-                                AssemblyAnalysisResponseDto.AllianceVoteShare::getVotes
-                        ).reversed())
-                        .toList();
+                toVoteShares(tally, totalVotes, snapshot);
 
-        String winner =
-                alliances.isEmpty()
-                        ? null
-                        : alliances.getFirst().getAlliance();
-
-        Integer margin = null;
-        if (alliances.size() > 1) {
-            margin =
-                    (int) (
-                            alliances.get(0).getVotes() -
-                                    alliances.get(1).getVotes()
-                    );
-        }
+        tally.podium(podium);
+        String winner = podium.isEmpty() ? null : snapshot.allianceName(podium.first());
+        Integer margin = podium.hasRunnerUp() ? (int) podium.margin() : null;
 
         return AssemblyAnalysisResponseDto.WardRow.builder()
                 .wardId(w.getWardId())
@@ -277,92 +273,76 @@ public class AssemblyAnalysisService {
        HELPERS
     ============================================================ */
 
-    private AssemblyAnalysisResponseDto emptyResponse(
-            String name,
-            int year
+    /**
+     * Alliance vote shares ordered by votes desc.
+     */
+    private List<AssemblyAnalysisResponseDto.AllianceVoteShare> toVoteShares(
+            AllianceTally tally,
+            long totalVotes,
+            PartyAllianceSnapshot snapshot
     ) {
-        return AssemblyAnalysisResponseDto.builder()
-                .acName(name)
-                .year(year)
-                .totalWards(0)
-                .overallVoteShare(List.of())
-                .localbodies(List.of())
-                .wards(List.of())
-                .build();
-    }
-
-    private String[] normalizeTypes(List<String> types) {
-        if (types == null || types.isEmpty()) {
-            return null;
+        int[] ranked = tally.ranked();
+        List<AssemblyAnalysisResponseDto.AllianceVoteShare> shares = new ArrayList<>(ranked.length);
+        for (int id : ranked) {
+            long votes = tally.get(id);
+            shares.add(AssemblyAnalysisResponseDto.AllianceVoteShare.builder()
+                    .alliance(snapshot.allianceName(id))
+                    .votes(votes)
+                    .percentage(totalVotes == 0 ? 0.0 : (votes * 100.0 / totalVotes))
+                    .build());
         }
-        return types.stream()
-                .map(String::toLowerCase)
-                .toArray(String[]::new);
+        return shares;
     }
 
+    /** Localbody summaries from a subset of wards, in the order the localbodies were first seen. */
     private List<AssemblyAnalysisResponseDto.LocalbodySummary> buildLocalbodies(
-            List<AssemblyAnalysisResponseDto.WardRow> wards
+            Collection<WardAccumulator> wards,
+            VoteRollup rollup
     ) {
-
-        Map<Long, List<AssemblyAnalysisResponseDto.WardRow>> byLocalbody =
-                wards.stream()
-                        .filter(w -> w.getLocalbodyId() != null)
-                        .collect(Collectors.groupingBy(
-                                AssemblyAnalysisResponseDto.WardRow::getLocalbodyId
-                        ));
+        PartyAllianceSnapshot snapshot = rollup.getAlliances();
+        Map<Long, AllianceTally> votesByLocalbody = new LinkedHashMap<>();
+        Map<Long, Integer> wardCounts = new HashMap<>();
+
+        for (WardAccumulator w : wards) {
+            if (w.getLocalbodyId() == null) continue;
+            votesByLocalbody
+                    .computeIfAbsent(w.getLocalbodyId(), k -> snapshot.newTally())
+                    .addAll(w.getAllianceVotes());
+            wardCounts.merge(w.getLocalbodyId(), 1, Integer::sum);
+        }
 
         List<AssemblyAnalysisResponseDto.LocalbodySummary> result = new ArrayList<>();
-
-        for (var entry : byLocalbody.entrySet()) {
-
-            Long lbId = entry.getKey();
-            List<AssemblyAnalysisResponseDto.WardRow> rows = entry.getValue();
-
-            Map<String, Long> votes = new HashMap<>();
-
-            rows.forEach(w ->
-                    w.getAlliances().forEach(a ->
-                            votes.merge(a.getAlliance(), (long) a.getVotes(), Long::sum)
-                    )
-            );
-
-            long totalVotes =
-                    votes.values().stream().mapToLong(Long::longValue).sum();
-
-            List<AssemblyAnalysisResponseDto.AllianceVoteShare> voteShare =
-                    votes.entrySet().stream()
-                            .map(e -> AssemblyAnalysisResponseDto.AllianceVoteShare.builder()
-                                    .alliance(e.getKey())
-                                    .votes(e.getValue())
-                                    .percentage(
-                                            totalVotes == 0 ? 0.0 :
-                                                    (e.getValue() * 100.0 / totalVotes)
-                                    )
-                                    .build())
-                            .sorted(Comparator.comparingLong(
-                                    AssemblyAnalysisResponseDto.AllianceVoteShare::getVotes
-                            ).reversed())
-                            .toList();
-
-            AssemblyAnalysisResponseDto.WardRow first = rows.getFirst();
-
-            localbodyRepository.findById(lbId).ifPresent(lb -> {
-                result.add(
-                        AssemblyAnalysisResponseDto.LocalbodySummary.builder()
-                                .localbodyId(lbId)
-                                .localbodyName(lb.getName())
-                                .localbodyType(lb.getType())
-                                .wardsCount(rows.size())
-                                .voteShare(voteShare)
-                                .wardPerformance(List.of())
-                                .build()
-                );
-            });
+        for (var entry : votesByLocalbody.entrySet()) {
+            VoteRollup.LocalbodyTotals lb = rollup.getLocalbodies().get(entry.getKey());
+            result.add(toLocalbodySummary(entry.getKey(), lb.getLocalbodyName(), lb.getLocalbodyType(),
+                    wardCounts.get(entry.getKey()), entry.getValue(), snapshot));
         }
         return result;
     }
 
-    @Transactional()
+    private AssemblyAnalysisResponseDto.LocalbodySummary toLocalbodySummary(
+            Long localbodyId,
+            String localbodyName,
+            String localbodyType,
+            int wardsCount,
+            AllianceTally votes,
+            PartyAllianceSnapshot snapshot
+    ) {
+        return AssemblyAnalysisResponseDto.LocalbodySummary.builder()
+                .localbodyId(localbodyId)
+                .localbodyName(localbodyName)
+                .localbodyType(localbodyType)
+                .wardsCount(wardsCount)
+                .voteShare(toVoteShares(votes, votes.total(), snapshot))
+                .wardPerformance(List.of())
+                .build();
+    }
+
+    /**
+     * Per-year alliance vote share, winner and margin of an AC. Only aggregates are read:
+     * party vote sums for localbody years, alliance vote sums and SUM(total_valid) for general
+     * election years. Years run concurrently, each holding a DB permit.
+     */
     public AssemblyHistoricResultsResponse doHistoricAnalysis(int acCode, String years, List<String> includeTypes) {
         AssemblyConstituency assemblyConstituency = assemblyConstituencyRepository.findByAcCode(acCode)
                 .orElseThrow(() -> new RuntimeException("Invalid AC code: " + acCode));
@@ -376,89 +356,93 @@ public class AssemblyAnalysisService {
         if (yearList.isEmpty()) {
             throw new RuntimeException("No valid years provided");
         }
-
-        AssemblyHistoricResultsResponse responseDto = new AssemblyHistoricResultsResponse();
-        responseDto.setAssembly(assemblyConstituency);
-
-        List<SingleElectionAnalysisDto> historicResults = new ArrayList<>();
         for (int year : yearList) {
-            SingleElectionAnalysisDto singleElectionAnalysisDto = new SingleElectionAnalysisDto();
-            singleElectionAnalysisDto.setYear(year);
-            singleElectionAnalysisDto.setType(ElectionYear.typeOf(year));
-            singleElectionAnalysisDto.setLabel(ElectionYear.labelOf(year));
-
-            if (ElectionYear.fromYear(year).isGeneral()) {
-                List<Object[]> assemblyVoteshare;
-                // Find the poling stations for this localbody
-                Set<Long> pollingStationIds = pollingStationRepository
-                        .findByAc_AcCodeAndElectionYearOrderByPsNumberAsc(acCode, year)
-                        .stream()
-                        .map(PollingStation::getId)
-                        .collect(Collectors.toSet());
-
-                // Find total valid votes across all booths in this localbody/year
-                long totalVotes = boothTotalsRepository.findByYearAndPollingStation_IdIn(year, pollingStationIds)
-                        .stream()
-                        .mapToLong(BoothTotals::getTotalValid)
-                        .sum();
-
-                assemblyVoteshare = boothVotesRepository.getAssemblyVoteShare(acCode, year);
-                List<VoteShareRowDto> boothVoteShare = assemblyVoteshare.stream()
-                        .map(a -> {
-                            String alliance = a[0].toString();
-                            long votes = ((Number) a[1]).longValue();
-                            double pct = totalVotes == 0 ? 0 : (votes * 100.0 / totalVotes);
-                            return new VoteShareRowDto(alliance, votes, pct);
-                        })
-                        .sorted(Comparator.comparingLong(VoteShareRowDto::getVotes).reversed())
-                        .toList();
+            if (ElectionYear.fromYear(year) == null) {
+                throw new RuntimeException("Unknown election year: " + year);
+            }
+        }
 
-                VoteShareRowDto winner = !boothVoteShare.isEmpty() ? boothVoteShare.getFirst() : null;
-                VoteShareRowDto runnerUp = boothVoteShare.size() > 1 ? boothVoteShare.get(1) : null;
+        PartyAllianceSnapshot alliances = allianceSnapshotService.current();
+        String[] types = includeTypes == null || includeTypes.isEmpty()
+                ? null
+                : includeTypes.stream().map(String::toLowerCase).toArray(String[]::new);
 
-                String winnerAlliance = winner != null ? winner.getAlliance() : "OTH";
-                String runnerUpAlliance = runnerUp != null ? runnerUp.getAlliance() : null;
-                long margin = (winner != null && runnerUp != null) ? winner.getVotes() - runnerUp.getVotes() : 0;
+        List<Future<SingleElectionAnalysisDto>> futures = new ArrayList<>(yearList.size());
+        for (int year : yearList) {
+            futures.add(analysisExecutor.submit(() -> dbBulkhead.call(() ->
+                    historicYear(acCode, year, types, alliances))));
+        }
 
-                singleElectionAnalysisDto.setVoteShare(boothVoteShare);
+        List<SingleElectionAnalysisDto> historicResults = new ArrayList<>(futures.size());
+        for (Future<SingleElectionAnalysisDto> f : futures) {
+            historicResults.add(await(f, futures));
+        }
 
-                singleElectionAnalysisDto.setWinner(winnerAlliance);
-                singleElectionAnalysisDto.setRunnerUp(runnerUpAlliance);
-                singleElectionAnalysisDto.setMargin(margin);
+        AssemblyHistoricResultsResponse responseDto = new AssemblyHistoricResultsResponse();
+        responseDto.setAssembly(assemblyConstituency);
+        responseDto.setHistoricResults(historicResults);
+        return responseDto;
+    }
 
-                historicResults.add(singleElectionAnalysisDto);
-            } else {
-                AssemblyAnalysisResponseDto assemblyAnalysisResponseDto =
-                        analyze(year, acCode, null, includeTypes, ElectionType.LOCALBODY, "Assembly " + acCode);
-                List<VoteShareRowDto> voteShareRowDtoList = assemblyAnalysisResponseDto.getOverallVoteShare().stream()
-                        .map(voteshare -> {
-                                    String alliance = voteshare.getAlliance();
-                                    long votes = voteshare.getVotes();
-                                    double percentage = voteshare.getPercentage();
-                                    return new VoteShareRowDto(alliance, votes, percentage);
-                                }
-                        )
-                        .sorted(Comparator.comparingLong(VoteShareRowDto::getVotes).reversed())
-                        .toList();
+    private SingleElectionAnalysisDto historicYear(int acCode, int year, String[] types, PartyAllianceSnapshot alliances) {
+        SingleElectionAnalysisDto singleElectionAnalysisDto = new SingleElectionAnalysisDto();
+        singleElectionAnalysisDto.setYear(year);
+        singleElectionAnalysisDto.setType(ElectionYear.typeOf(year));
+        singleElectionAnalysisDto.setLabel(ElectionYear.labelOf(year));
+
+        List<VoteShareRowDto> voteShare;
+        if (ElectionYear.fromYear(year).isGeneral()) {
+            // total valid votes across all booths of the AC, against alliance sums
+            long totalVotes = boothTotalsRepository.sumTotalValidForAc(acCode, year);
+            voteShare = boothVotesRepository.getAssemblyVoteShare(acCode, year).stream()
+                    .map(a -> {
+                        String alliance = a[0].toString();
+                        long votes = ((Number) a[1]).longValue();
+                        double pct = totalVotes == 0 ? 0 : (votes * 100.0 / totalVotes);
+                        return new VoteShareRowDto(alliance, votes, pct);
+                    })
+                    .sorted(Comparator.comparingLong(VoteShareRowDto::getVotes).reversed())
+                    .toList();
+        } else {
+            // party sums folded into alliances the same way as the ward-level analysis
+            AllianceTally tally = alliances.newTally();
+            for (PartyVoteTotalRow r : wardResultRepository.sumVotesByPartyForAc(year, acCode, types)) {
+                tally.add(alliances.resolve(year, ElectionType.LOCALBODY, r.getPartyId()),
+                        r.getVotes() == null ? 0L : r.getVotes());
+            }
+            voteShare = toVoteShares(tally, tally.total(), alliances).stream()
+                    .map(v -> new VoteShareRowDto(v.getAlliance(), v.getVotes(), v.getPercentage()))
+                    .toList();
+        }
 
-                VoteShareRowDto winner = !voteShareRowDtoList.isEmpty() ? voteShareRowDtoList.getFirst() : null;
-                VoteShareRowDto runnerUp = voteShareRowDtoList.size() > 1 ? voteShareRowDtoList.get(1) : null;
+        VoteShareRowDto winner = !voteShare.isEmpty() ? voteShare.getFirst() : null;
+        VoteShareRowDto runnerUp = voteShare.size() > 1 ? voteShare.get(1) : null;
 
-                String winnerAlliance = winner != null ? winner.getAlliance() : "OTH";
-                String runnerUpAlliance = runnerUp != null ? runnerUp.getAlliance() : null;
-                long margin = (winner != null && runnerUp != null) ? winner.getVotes() - runnerUp.getVotes() : 0;
+        String winnerAlliance = winner != null ? winner.getAlliance() : "OTH";
+        String runnerUpAlliance = runnerUp != null ? runnerUp.getAlliance() : null;
+        long margin = (winner != null && runnerUp != null) ? winner.getVotes() - runnerUp.getVotes() : 0;
 
-                singleElectionAnalysisDto.setVoteShare(voteShareRowDtoList);
+        singleElectionAnalysisDto.setVoteShare(voteShare);
 
-                singleElectionAnalysisDto.setWinner(winnerAlliance);
-                singleElectionAnalysisDto.setRunnerUp(runnerUpAlliance);
-                singleElectionAnalysisDto.setMargin(margin);
+        singleElectionAnalysisDto.setWinner(winnerAlliance);
+        singleElectionAnalysisDto.setRunnerUp(runnerUpAlliance);
+        singleElectionAnalysisDto.setMargin(margin);
+        return singleElectionAnalysisDto;
+    }
 
-                historicResults.add(singleElectionAnalysisDto);
+    private <T> T await(Future<T> future, List<? extends Future<?>> siblings) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            siblings.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading historic assembly analysis", e);
+        } catch (ExecutionException e) {
+            siblings.forEach(f -> f.cancel(true));
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
             }
+            throw new IllegalStateException(e.getCause());
         }
-        responseDto.setHistoricResults(historicResults);
-
-        return responseDto;
     }
 }
@@ -3,28 +3,22 @@ package com.keralavotes.election.service;
 import com.keralavotes.election.dto.AssemblyAnalysisResponseDto;
 import com.keralavotes.election.dto.AssemblyOverviewResponseDto;
 import com.keralavotes.election.dto.AssemblyOverviewRowDto;
-import com.keralavotes.election.dto.ElectionType;
-import com.keralavotes.election.repository.AssemblyConstituencyRepository;
-import com.keralavotes.election.repository.LbWardResultRepository;
-import com.keralavotes.election.repository.PartyAllianceMappingRepository;
-import jakarta.transaction.Transactional;
+import com.keralavotes.election.model.AllianceTally;
+import com.keralavotes.election.model.PartyAllianceSnapshot;
+import com.keralavotes.election.model.Podium;
+import com.keralavotes.election.model.VoteRollup;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
-@Transactional
 public class AssemblyOverviewService {
 
-    private final LbWardResultRepository wardResultRepository;
-    private final PartyAllianceMappingRepository partyAllianceMappingRepository;
-    private final AssemblyConstituencyRepository assemblyRepository;
+    private final VoteRollupService voteRollupService;
 
     public AssemblyOverviewResponseDto overviewByDistrict(
             Integer districtCode,
@@ -48,40 +42,14 @@ public class AssemblyOverviewService {
             String scope
     ) {
 
-        Map<Long, String> partyAlliance =
-                partyAllianceMappingRepository
-                        .findForYearAndType(year, ElectionType.LOCALBODY)
-                        .stream()
-                        .collect(Collectors.toMap(
-                                m -> m.getParty().getId(),
-                                m -> m.getAlliance().getName()
-                        ));
+        VoteRollup rollup = voteRollupService.rollup(year, includeTypes);
+        Podium podium = new Podium();
 
-        Map<Integer, Map<String, Long>> acVotes = new HashMap<>();
-        Map<Integer, Integer> wardCounts = new HashMap<>();
-
-        try (var stream = wardResultRepository.streamVotesForAssemblyOverview(
-                year,
-                districtCode,
-                normalizeTypes(includeTypes)
-        )) {
-            stream.forEach(r -> {
-                String alliance =
-                        r.getPartyId() == null
-                                ? "OTH"
-                                : partyAlliance.getOrDefault(r.getPartyId(), "OTH");
-
-                acVotes
-                        .computeIfAbsent(r.getAcCode(), k -> new HashMap<>())
-                        .merge(alliance, (long) r.getVotes(), Long::sum);
-
-                wardCounts.merge(r.getAcCode(), 1, Integer::sum);
-            });
-        }
-
-        List<AssemblyOverviewRowDto> rows = acVotes.entrySet().stream()
-                .map(e -> buildRow(e.getKey(), e.getValue(), wardCounts.get(e.getKey())))
-                .sorted(Comparator.comparing(AssemblyOverviewRowDto::getAcName))
+        List<AssemblyOverviewRowDto> rows = rollup.getAssemblies().values().stream()
+                .filter(ac -> districtCode == null || districtCode.equals(ac.getDistrictCode()))
+                .map(ac -> buildRow(ac, rollup.getAlliances(), podium))
+                .sorted(Comparator.comparing(AssemblyOverviewRowDto::getAcName,
+                        Comparator.nullsLast(Comparator.naturalOrder())))
                 .toList();
 
         return AssemblyOverviewResponseDto.builder()
@@ -96,45 +64,36 @@ public class AssemblyOverviewService {
     }
 
     private AssemblyOverviewRowDto buildRow(
-            Integer acCode,
-            Map<String, Long> votes,
-            Integer wardCount
+            VoteRollup.AcTotals ac,
+            PartyAllianceSnapshot alliances,
+            Podium podium
     ) {
 
-        long total = votes.values().stream().mapToLong(Long::longValue).sum();
-
-        List<AssemblyAnalysisResponseDto.AllianceVoteShare> voteShare =
-                votes.entrySet().stream()
-                        .map(e -> AssemblyAnalysisResponseDto.AllianceVoteShare.builder()
-                                .alliance(e.getKey())
-                                .votes(e.getValue())
-                                .percentage(total == 0 ? 0 : e.getValue() * 100.0 / total)
-                                .build())
-                        .sorted(Comparator.comparingLong(
-                                AssemblyAnalysisResponseDto.AllianceVoteShare::getVotes
-                        ).reversed())
-                        .toList();
-
-        String winner = voteShare.isEmpty() ? null : voteShare.getFirst().getAlliance();
-        Integer margin = voteShare.size() > 1
-                ? (int) (voteShare.get(0).getVotes() - voteShare.get(1).getVotes())
-                : null;
+        AllianceTally votes = ac.getVotes();
+        long total = votes.total();
+
+        int[] ranked = votes.ranked();
+        List<AssemblyAnalysisResponseDto.AllianceVoteShare> voteShare = new ArrayList<>(ranked.length);
+        for (int id : ranked) {
+            long v = votes.get(id);
+            voteShare.add(AssemblyAnalysisResponseDto.AllianceVoteShare.builder()
+                    .alliance(alliances.allianceName(id))
+                    .votes(v)
+                    .percentage(total == 0 ? 0 : v * 100.0 / total)
+                    .build());
+        }
 
-        var ac = assemblyRepository.findByAcCode(acCode).orElseThrow();
+        votes.podium(podium);
+        String winner = podium.isEmpty() ? null : alliances.allianceName(podium.first());
+        Integer margin = podium.hasRunnerUp() ? (int) podium.margin() : null;
 
         return AssemblyOverviewRowDto.builder()
-                .acCode(acCode)
-                .acName(ac.getName())
-                .totalWards(wardCount)
+                .acCode(ac.getAcCode())
+                .acName(ac.getAcName())
+                .totalWards(ac.getWardsCount())
                 .voteShare(voteShare)
                 .winner(winner)
                 .margin(margin)
                 .build();
     }
-
-    private String[] normalizeTypes(List<String> types) {
-        return (types == null || types.isEmpty())
-                ? null
-                : types.stream().map(String::toLowerCase).toArray(String[]::new);
-    }
 }
@@ -4,7 +4,8 @@ import com.keralavotes.election.constants.ElectionYear;
 import com.keralavotes.election.dto.ElectionType;
 import com.keralavotes.election.model.PollingStationResultInsertRequest;
 import com.keralavotes.election.dto.details.BoothVoteDetailsRowDto;
-import com.keralavotes.election.dto.details.CandidateVoteDataDto;
+import com.keralavotes.election.dto.details.BoothVoteTotalsDataDto;
+import com.keralavotes.election.model.ColumnarTable;
 import com.keralavotes.election.entity.AssemblyConstituency;
 import com.keralavotes.election.entity.BoothTotals;
 import com.keralavotes.election.entity.BoothVotes;
@@ -12,6 +13,7 @@ import com.keralavotes.election.entity.Candidate;
 import com.keralavotes.election.entity.Localbody;
 import com.keralavotes.election.entity.LoksabhaConstituency;
 import com.keralavotes.election.entity.PollingStation;
+import com.keralavotes.election.event.ElectionDataChangedEvent;
 import com.keralavotes.election.repository.AssemblyConstituencyRepository;
 import com.keralavotes.election.repository.BoothTotalsRepository;
 import com.keralavotes.election.repository.BoothVotesRepository;
@@ -22,14 +24,15 @@ import com.keralavotes.election.repository.PollingStationRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -43,9 +46,14 @@ public class BoothResultService {
     private final BoothVotesRepository boothVotesRepository;
     private final BoothTotalsRepository  boothTotalsRepository;
     private final LocalbodyRepository localbodyRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StreamingQueryService streamingQueries;
 
     @Transactional
     public String insertPollingStationResult(PollingStationResultInsertRequest  resultInsertRequest) {
+        Set<Integer> touchedYears = new HashSet<>();
+        Set<Integer> touchedAcCodes = new HashSet<>();
+
         for (var psListResults : resultInsertRequest.getResults()) {
             String acName = psListResults.getAcName();
             int acCode = psListResults.getAcCode();
@@ -169,7 +177,14 @@ public class BoothResultService {
 
             log.info("Successfully inserted {} booths, {} votes, for constituency: {}",
                     pollingStations.size(), boothVotes.size(), constituency.getName());
+
+            touchedYears.add(electionYear);
+            touchedAcCodes.add(acCode);
         };
+
+        if (!touchedYears.isEmpty()) {
+            eventPublisher.publishEvent(ElectionDataChangedEvent.boothResults(touchedYears, touchedAcCodes));
+        }
         return "OK";
     }
 
@@ -187,14 +202,19 @@ public class BoothResultService {
 
         if (ElectionYear.fromYear(year).isGeneral()) {
             List<BoothVoteDetailsRowDto> booths = pollingStationRepository.findBoothTotals(acCode, year);
-            List<CandidateVoteDataDto> votes = boothVotesRepository.findBoothVotes(acCode, year);
 
-            Map<Long, List<CandidateVoteDataDto>> voteMap =
-                    votes.stream().collect(Collectors.groupingBy(CandidateVoteDataDto::getPsId));
-
-                booths.forEach(b -> {
-                b.setCandidates(voteMap.getOrDefault(b.getPsId(), List.of()));
+            Map<Long, BoothVoteDetailsRowDto> boothById = new HashMap<>(booths.size() * 2);
+            booths.forEach(b -> {
+                b.setCandidates(new ArrayList<>());
+                boothById.put(b.getPsId(), b);
             });
+            // booth x candidate grid of the AC: append as rows arrive instead of grouping a full list
+            streamingQueries.forEach("booth-votes-ac",
+                    () -> boothVotesRepository.streamBoothVotes(acCode, year),
+                    v -> {
+                        BoothVoteDetailsRowDto booth = boothById.get(v.getPsId());
+                        if (booth != null) booth.getCandidates().add(v);
+                    });
 
             return booths;
         } else {
@@ -202,12 +222,61 @@ public class BoothResultService {
         }
     }
 
+    /**
+     * {@link #getBoothResultsData} as two columnar tables: booth-totals (one row per booth) and
+     * booth-candidate-votes (one row per booth and candidate, in booth number / candidate order).
+     */
+    public List<ColumnarTable> getBoothResultsColumnar(Integer acCode, Integer year) {
+        assemblyRepository.findByAcCode(acCode)
+                .orElseThrow(() -> new RuntimeException("Invalid AC code: " + acCode));
+        if (!ElectionYear.fromYear(year).isGeneral()) {
+            throw new RuntimeException("No valid years provided");
+        }
+
+        ColumnarTable booths = new ColumnarTable("booth-totals");
+        ColumnarTable.LongColumn boothPsId = booths.longColumn("psId");
+        ColumnarTable.IntColumn psNumber = booths.intColumn("psNumber");
+        ColumnarTable.DictColumn psName = booths.dictColumn("psName");
+        ColumnarTable.IntColumn totalValid = booths.intColumn("totalValid");
+        ColumnarTable.IntColumn rejected = booths.intColumn("rejected");
+        ColumnarTable.IntColumn nota = booths.intColumn("nota");
+        for (BoothVoteDetailsRowDto b : pollingStationRepository.findBoothTotals(acCode, year)) {
+            boothPsId.add(b.getPsId());
+            psNumber.add(b.getPsNumber());
+            psName.add(b.getPsName());
+            BoothVoteTotalsDataDto totals = b.getTotals();
+            totalValid.add(totals == null ? null : totals.getTotalValid());
+            rejected.add(totals == null ? null : totals.getRejected());
+            nota.add(totals == null ? null : totals.getNota());
+        }
+
+        ColumnarTable votes = new ColumnarTable("booth-candidate-votes");
+        ColumnarTable.LongColumn votePsId = votes.longColumn("psId");
+        ColumnarTable.LongColumn candidateId = votes.longColumn("candidateId");
+        ColumnarTable.DictColumn candidate = votes.dictColumn("candidate");
+        ColumnarTable.DictColumn party = votes.dictColumn("party");
+        ColumnarTable.IntColumn voteCount = votes.intColumn("votes");
+        streamingQueries.forEach("booth-votes-ac-columnar",
+                () -> boothVotesRepository.streamBoothVotes(acCode, year),
+                v -> {
+                    votePsId.add(v.getPsId());
+                    candidateId.add(v.getCandidateId());
+                    candidate.add(v.getCandidateName());
+                    party.add(v.getPartyName());
+                    voteCount.add(v.getVotes());
+                });
+
+        return List.of(booths, votes);
+    }
+
     @Transactional
     public void saveBoothVote(Long psId, Long candidateId, Integer year, Integer votes) {
         PollingStation pollingStation = pollingStationRepository.findById(psId)
                 .orElseThrow(() -> new RuntimeException("Invalid PS ID: " + psId));
         Candidate candidate = candidateRepository.findById(candidateId)
                         .orElseThrow(() -> new RuntimeException("Invalid Candidate ID: " + candidateId));
+        eventPublisher.publishEvent(ElectionDataChangedEvent.boothResults(
+                Set.of(year), Set.of(pollingStation.getAc().getAcCode())));
         boothVotesRepository.findByPollingStation_IdAndCandidate_IdAndYear(psId, candidateId, year)
                 .ifPresentOrElse(
                         bv -> bv.setVotes(votes),
@@ -226,6 +295,8 @@ public class BoothResultService {
     public void saveBoothTotals(Long psId, Integer year, Integer totalValid, Integer rejected, Integer nota) {
         PollingStation pollingStation = pollingStationRepository.findById(psId)
                 .orElseThrow(() -> new RuntimeException("Invalid PS ID: " + psId));
+        eventPublisher.publishEvent(ElectionDataChangedEvent.boothResults(
+                Set.of(year), Set.of(pollingStation.getAc().getAcCode())));
         boothTotalsRepository.findByYearAndPollingStation_Id(year, psId)
                 .ifPresentOrElse(
                         bt -> {
@@ -1,6 +1,10 @@
 package com.keralavotes.election.service;
 
 import com.keralavotes.election.entity.*;
+import com.keralavotes.election.event.ElectionDataChangedEvent;
+import com.keralavotes.election.model.ImportProgress;
+import com.keralavotes.election.model.LongHashSet;
+import com.keralavotes.election.model.PollingStationKeyRow;
 import com.keralavotes.election.repository.*;
 import com.keralavotes.election.entity.AssemblyConstituency;
 import com.keralavotes.election.entity.BoothVotes;
@@ -14,16 +18,21 @@ import com.keralavotes.election.repository.PollingStationRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.csv.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.core.io.InputStreamSource;
 
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.ToIntFunction;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -40,16 +49,21 @@ public class CsvImportService {
     private final BoothVotesRepository bvRepo;
     private final BoothTotalsRepository boothTotalsRepo;
     private final DistrictRepository districtRepo;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StreamingQueryService streamingQueries;
+    private final Form20CopyLoader form20CopyLoader;
+    private final ImportChunkRunner chunkRunner;
+
+    /** Form 20 imports through COPY + set-based merge (Form20CopyLoader) instead of saveAll. */
+    @Value("${import.form20.copy:true}")
+    private boolean form20CopyEnabled;
 
     /* ===========================================================
        BOOTH IMPORT WITH AUTO-CREATE + DUPLICATE SKIP
        =========================================================== */
-    @Transactional
-    public String importBoothsCsv(MultipartFile file) throws Exception {
-
-        int inserted = 0;
-        int skipped = 0;
+    public String importBoothsCsv(InputStreamSource file, ImportProgress progress) throws Exception {
 
+        List<BoothChunk> chunks;
         try (var in = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
 
             CSVFormat format = CSVFormat.DEFAULT
@@ -59,137 +73,109 @@ public class CsvImportService {
 
             CSVParser parser = new CSVParser(in, format);
 
-            for (CSVRecord rec : parser) {
+            chunks = chunkRunner.run(parser, progress, rec -> rec,
+                    rec -> Integer.parseInt(rec.get("ac_code")),
+                    chunk -> saveBooths(chunk, progress));
+        }
 
-                // ======= READ CSV FIELDS =======
-                String districtCode = rec.get("district_code");
-                String districtName = rec.get("district_name");
+        int inserted = chunks.stream().mapToInt(BoothChunk::inserted).sum();
+        int skipped = chunks.stream().mapToInt(BoothChunk::skipped).sum();
+        return "Booths inserted = " + inserted + ", Skipped duplicates = " + skipped + resumeNote(progress);
+    }
 
-                Integer acCode = Integer.parseInt(rec.get("ac_code"));
-                String acName = rec.get("ac_name");
+    private record BoothChunk(int inserted, int skipped) {}
 
-                String psNumberRaw = rec.get("ps_number_raw");
-                Integer psNumber = Integer.valueOf(rec.get("ps_number"));
-                String psSuffix = rec.get("ps_suffix");
-                String name = rec.get("polling_station_name");
+    private BoothChunk saveBooths(List<CSVRecord> chunk, ImportProgress progress) {
 
+        int inserted = 0;
+        int skipped = 0;
 
-                // ======= 1. AUTO-CREATE DISTRICT =======
-                District district = districtRepo.findByDistrictCode(Integer.parseInt(districtCode))
-                        .orElseGet(() -> {
-                            District d = District.builder()
-                                    .districtCode(Integer.parseInt(districtCode))
-                                    .name(districtName)
-                                    .build();
-                            return districtRepo.save(d);
-                        });
+        for (CSVRecord rec : chunk) {
+            progress.checkCancelled();
 
+            // ======= READ CSV FIELDS =======
+            String districtCode = rec.get("district_code");
+            String districtName = rec.get("district_name");
 
-                // ======= 2. AUTO-CREATE ASSEMBLY CONSTITUENCY =======
-                AssemblyConstituency ac = acRepo.findByAcCode(acCode)
-                        .orElseGet(() -> {
-                            AssemblyConstituency a = AssemblyConstituency.builder()
-                                    .acCode(acCode)
-                                    .name(acName)
-                                    .district(district)
-                                    .ls(null) // LS mapping done later via admin UI
-                                    .build();
-                            return acRepo.save(a);
-                        });
+            Integer acCode = Integer.parseInt(rec.get("ac_code"));
+            String acName = rec.get("ac_name");
 
+            String psNumberRaw = rec.get("ps_number_raw");
+            Integer psNumber = Integer.valueOf(rec.get("ps_number"));
+            String psSuffix = rec.get("ps_suffix");
+            String name = rec.get("polling_station_name");
 
-                // Normalize suffix (empty = null)
-                String normalizedSuffix = (psSuffix == null || psSuffix.isBlank()) ? "" : psSuffix;
 
+            // ======= 1. AUTO-CREATE DISTRICT =======
+            District district = districtRepo.findByDistrictCode(Integer.parseInt(districtCode))
+                    .orElseGet(() -> {
+                        District d = District.builder()
+                                .districtCode(Integer.parseInt(districtCode))
+                                .name(districtName)
+                                .build();
+                        return districtRepo.save(d);
+                    });
 
-                // ======= 3. CHECK FOR DUPLICATE POLLING STATION =======
-                Optional<PollingStation> existing =
-                        psRepo.findByAc_AcCodeAndPsNumberAndPsSuffix(acCode, psNumber, normalizedSuffix);
 
-                if (existing.isPresent()) {
-                    skipped++;
-                    log.info("Skipping duplicate PS: AC {} PS {} {}",acCode, psNumber, normalizedSuffix);
-                    continue;
-                }
+            // ======= 2. AUTO-CREATE ASSEMBLY CONSTITUENCY =======
+            AssemblyConstituency ac = acRepo.findByAcCode(acCode)
+                    .orElseGet(() -> {
+                        AssemblyConstituency a = AssemblyConstituency.builder()
+                                .acCode(acCode)
+                                .name(acName)
+                                .district(district)
+                                .ls(null) // LS mapping done later via admin UI
+                                .build();
+                        return acRepo.save(a);
+                    });
 
 
-                // ======= 4. INSERT POLLING STATION (ls = null) =======
-                PollingStation ps = PollingStation.builder()
-                        .ac(ac)
-                        .ls(null)                    // will be populated later
-                        .psNumber(psNumber)
-                        .psSuffix(normalizedSuffix)
-                        .psNumberRaw(psNumberRaw)
-                        .name(name)
-                        .localbody(null)
-                        .ward(null)
-                        .build();
+            // Normalize suffix (empty = null)
+            String normalizedSuffix = (psSuffix == null || psSuffix.isBlank()) ? "" : psSuffix;
 
-                psRepo.save(ps);
-                inserted++;
+
+            // ======= 3. CHECK FOR DUPLICATE POLLING STATION =======
+            Optional<PollingStation> existing =
+                    psRepo.findByAc_AcCodeAndPsNumberAndPsSuffix(acCode, psNumber, normalizedSuffix);
+
+            if (existing.isPresent()) {
+                skipped++;
+                progress.skipped(1);
+                log.info("Skipping duplicate PS: AC {} PS {} {}",acCode, psNumber, normalizedSuffix);
+                continue;
             }
+
+
+            // ======= 4. INSERT POLLING STATION (ls = null) =======
+            PollingStation ps = PollingStation.builder()
+                    .ac(ac)
+                    .ls(null)                    // will be populated later
+                    .psNumber(psNumber)
+                    .psSuffix(normalizedSuffix)
+                    .psNumberRaw(psNumberRaw)
+                    .name(name)
+                    .localbody(null)
+                    .ward(null)
+                    .build();
+
+            psRepo.save(ps);
+            inserted++;
+            progress.inserted(1);
         }
 
-        return "Booths inserted = " + inserted + ", Skipped duplicates = " + skipped;
+        return new BoothChunk(inserted, skipped);
     }
 
     // ----------------------------------------
     // Import booth-wise votes from Form 20 CSV
     // ----------------------------------------
-    @Transactional
-    public void importForm20Votes(MultipartFile file) throws Exception {
+    public String importForm20Votes(InputStreamSource file, ImportProgress progress) throws Exception {
 
         long start = System.currentTimeMillis();
-        log.info("=== Form20 import started ===");
-
-    /* ---------------------------------------------------------
-       STEP 1: Load full lookup data into memory (FAST)
-    --------------------------------------------------------- */
-
-        // Map <(acCode,psNumber,psSuffix), PollingStation>
-        Map<String, PollingStation> psMap = psRepo.findAll()
-                .stream()
-                .collect(Collectors.toMap(
-                        ps -> ps.getAc().getAcCode() + "|" +
-                                ps.getPsNumber() + "|" +
-                                (ps.getPsSuffix() == null ? "" : ps.getPsSuffix().trim()),
-                        ps -> ps
-                ));
-
-        log.info("Loaded {} polling stations", psMap.size());
-
-        // Map <(lsName|candidateName|year), Candidate>
-        Map<String, Candidate> candidateMap = candidateRepo.findAll()
-                .stream()
-                .collect(Collectors.toMap(
-                        c -> c.getLs().getName().trim().toLowerCase() + "|" +
-                                c.getName().trim().toLowerCase() + "|" +
-                                c.getElectionYear(),
-                        c -> c
-                ));
-
-        log.info("Loaded {} candidates", candidateMap.size());
-
-        // Map existing booth votes to skip duplicates
-        // key format: "psId|candidateId|year"
-        Map<String, BoothVotes> existingVotes = bvRepo.findAll()
-                .stream()
-                .collect(Collectors.toMap(
-                        bv -> bv.getPollingStation().getId() + "|" +
-                                bv.getCandidate().getId() + "|" +
-                                bv.getYear(),
-                        bv -> bv,
-                        (a, b) -> a     // ignore duplicates
-                ));
-
-        log.info("Loaded {} existing booth vote rows", existingVotes.size());
-
-
-    /* ---------------------------------------------------------
-       STEP 2: Parse CSV rows
-    --------------------------------------------------------- */
-        List<BoothVotes> toInsert = new ArrayList<>();
+        log.info("=== Form20 import started ({}{}) ===", form20CopyEnabled ? "COPY" : "row by row",
+                progress.getResumeAfter() > 0 ? ", resuming after row " + progress.getResumeAfter() : "");
 
+        List<Form20LoadResult> chunks;
         try (var in = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
             CSVParser parser = CSVFormat.DEFAULT
                     .withFirstRecordAsHeader()
@@ -197,193 +183,248 @@ public class CsvImportService {
                     .withTrim(true)
                     .parse(in);
 
-            int processed = 0;
-            int skippedMissingPS = 0;
-            int skippedMissingCandidate = 0;
-            int skippedDuplicate = 0;
-
-            for (CSVRecord rec : parser) {
-
-                processed++;
+            chunks = chunkRunner.run(parser, progress,
+                    rec -> new Form20VoteLine(
+                            Integer.parseInt(rec.get("ac")),
+                            Integer.parseInt(rec.get("ps_number")),
+                            normalizeSuffix(rec.get("ps_suffix")),
+                            rec.get("ls").trim().toLowerCase(),
+                            rec.get("candidate_name").trim().toLowerCase(),
+                            Integer.parseInt(rec.get("year")),
+                            Integer.parseInt(rec.get("votes"))),
+                    Form20VoteLine::acCode,
+                    lines -> publishBoothResults(form20CopyEnabled
+                            ? form20CopyLoader.loadVotes(lines, progress)
+                            : saveForm20Votes(lines, progress)));
+        }
 
-                int acCode = Integer.parseInt(rec.get("ac"));
-                int psNumber = Integer.parseInt(rec.get("ps_number"));
-                String psSuffix = rec.get("ps_suffix");
-                if (psSuffix == null) psSuffix = "";
-                psSuffix = psSuffix.trim();
+        Form20LoadResult result = Form20LoadResult.sum(chunks);
+        long ms = System.currentTimeMillis() - start;
 
-                String lsName = rec.get("ls").trim().toLowerCase();
-                String candidateName = rec.get("candidate_name").trim().toLowerCase();
-                int year = Integer.parseInt(rec.get("year"));
-                int votes = Integer.parseInt(rec.get("votes"));
+        log.info("=== Form20 import finished in {} ms ({} chunks) ===", ms, chunks.size());
+        log.info("Total rows processed  : {}", progress.getParsed() - progress.getResumeAfter());
+        log.info("Inserted new votes    : {}", result.inserted());
+        log.info("Skipped missing PS    : {}", result.skippedMissingPs());
+        log.info("Skipped missing cand  : {}", result.skippedMissingCandidate());
+        log.info("Skipped duplicates    : {}", result.skippedDuplicate());
+
+        return "Inserted = " + result.inserted()
+                + ", Skipped missing PS = " + result.skippedMissingPs()
+                + ", Skipped missing candidate = " + result.skippedMissingCandidate()
+                + ", Skipped duplicates = " + result.skippedDuplicate()
+                + resumeNote(progress);
+    }
 
-            /* ---------------------------------------------------------
-               STEP 2A: Find polling station (from cached map)
-            --------------------------------------------------------- */
-                String psKey = acCode + "|" + psNumber + "|" + psSuffix;
-                PollingStation ps = psMap.get(psKey);
+    /** Row-by-row path: lookups scoped to the file's (year, AC) partitions, JPA inserts. */
+    private Form20LoadResult saveForm20Votes(List<Form20VoteLine> lines, ImportProgress progress) {
 
-                if (ps == null) {
-                    skippedMissingPS++;
-                    continue;
-                }
+    /* ---------------------------------------------------------
+       STEP 1: Load lookups for the (year, AC) partitions in the file only
+    --------------------------------------------------------- */
+        Map<PsKey, Long> psIds = loadPsIds(
+                lines.stream().map(Form20VoteLine::year).collect(Collectors.toSet()),
+                lines.stream().map(Form20VoteLine::acCode).collect(Collectors.toSet()));
+        log.info("Loaded {} polling stations", psIds.size());
+
+        Map<CandidateKey, Long> candidateIds = new HashMap<>();
+        candidateRepo.findKeysByYearsAndLsNames(
+                        lines.stream().map(Form20VoteLine::year).collect(Collectors.toSet()),
+                        lines.stream().map(Form20VoteLine::lsName).collect(Collectors.toSet()))
+                .forEach(c -> candidateIds.putIfAbsent(new CandidateKey(
+                        c.getLsName().trim().toLowerCase(),
+                        c.getName().trim().toLowerCase(),
+                        c.getElectionYear()), c.getId()));
+        log.info("Loaded {} candidates", candidateIds.size());
+
+        // existing (psId, candidateId) pairs per year, packed into one long
+        Map<Integer, LongHashSet> existingVotes = new HashMap<>();
+        acCodesByYear(lines, Form20VoteLine::year, Form20VoteLine::acCode).forEach((year, acCodes) -> {
+            LongHashSet keys = new LongHashSet();
+            streamingQueries.forEach("form20-vote-keys",
+                    () -> bvRepo.streamVoteKeys(year, acCodes.toArray(Integer[]::new)),
+                    keys::add);
+            existingVotes.put(year, keys);
+        });
+        log.info("Loaded {} existing booth vote rows",
+                existingVotes.values().stream().mapToInt(LongHashSet::size).sum());
 
-            /* ---------------------------------------------------------
-               STEP 2B: Find candidate (from cached map)
-            --------------------------------------------------------- */
-                String candKey = lsName + "|" + candidateName + "|" + year;
-                Candidate candidate = candidateMap.get(candKey);
+    /* ---------------------------------------------------------
+       STEP 2: Resolve, dedupe and insert
+    --------------------------------------------------------- */
+        List<BoothVotes> toInsert = new ArrayList<>();
+        Set<Integer> touchedYears = new HashSet<>();
+        Set<Integer> touchedAcCodes = new HashSet<>();
 
-                if (candidate == null) {
-                    skippedMissingCandidate++;
-                    continue;
-                }
+        int inserted = 0;
+        int skippedMissingPS = 0;
+        int skippedMissingCandidate = 0;
+        int skippedDuplicate = 0;
 
-            /* ---------------------------------------------------------
-               STEP 2C: Skip duplicates (existing booth vote)
-            --------------------------------------------------------- */
-                String voteKey = ps.getId() + "|" + candidate.getId() + "|" + year;
-                if (existingVotes.containsKey(voteKey)) {
-                    skippedDuplicate++;
-                    continue;
-                }
+        for (Form20VoteLine line : lines) {
+            progress.checkCancelled();
 
-            /* ---------------------------------------------------------
-               STEP 2D: Add batch insert
-            --------------------------------------------------------- */
-                BoothVotes bv = BoothVotes.builder()
-                        .pollingStation(ps)
-                        .candidate(candidate)
-                        .votes(votes)
-                        .year(year)
-                        .build();
+            Long psId = psIds.get(new PsKey(line.year(), line.acCode(), line.psNumber(), line.psSuffix()));
+            if (psId == null) {
+                skippedMissingPS++;
+                progress.skipped(1);
+                continue;
+            }
 
-                toInsert.add(bv);
+            Long candidateId = candidateIds.get(new CandidateKey(line.lsName(), line.candidateName(), line.year()));
+            if (candidateId == null) {
+                skippedMissingCandidate++;
+                progress.skipped(1);
+                continue;
+            }
 
-                // Gradually free memory for huge imports
-                if (toInsert.size() >= 2000) {
-                    bvRepo.saveAll(toInsert);
-                    toInsert.clear();
-                }
+            // also catches repeats within the file
+            if (!existingVotes.get(line.year()).add(voteKey(psId, candidateId))) {
+                skippedDuplicate++;
+                progress.skipped(1);
+                continue;
             }
 
-            // Final batch save
-            if (!toInsert.isEmpty()) {
+            toInsert.add(BoothVotes.builder()
+                    .pollingStation(psRepo.getReferenceById(psId))
+                    .candidate(candidateRepo.getReferenceById(candidateId))
+                    .votes(line.votes())
+                    .year(line.year())
+                    .build());
+            inserted++;
+            progress.inserted(1);
+            touchedYears.add(line.year());
+            touchedAcCodes.add(line.acCode());
+
+            // Gradually free memory for huge imports
+            if (toInsert.size() >= 2000) {
                 bvRepo.saveAll(toInsert);
+                toInsert.clear();
             }
+        }
 
-            long ms = System.currentTimeMillis() - start;
-
-            log.info("=== Form20 import finished in {} ms ===", ms);
-            log.info("Total rows processed  : {}", processed);
-            log.info("Inserted new votes    : {}", toInsert.size());
-            log.info("Skipped missing PS    : {}", skippedMissingPS);
-            log.info("Skipped missing cand  : {}", skippedMissingCandidate);
-            log.info("Skipped duplicates    : {}", skippedDuplicate);
+        // Final batch save
+        if (!toInsert.isEmpty()) {
+            bvRepo.saveAll(toInsert);
         }
+
+        return new Form20LoadResult(inserted, skippedMissingPS, skippedMissingCandidate, skippedDuplicate,
+                touchedYears, touchedAcCodes);
     }
 
 
     // ----------------------------------------
     // Import booth totals from Form 20 CSV
     // ----------------------------------------
-    @Transactional
-    public void importForm20Totals(MultipartFile file) throws Exception {
+    public String importForm20Totals(InputStreamSource file, ImportProgress progress) throws Exception {
 
         long start = System.currentTimeMillis();
-        log.info("=== Form20 Totals Import Started ===");
+        log.info("=== Form20 Totals Import Started ({}{}) ===", form20CopyEnabled ? "COPY" : "row by row",
+                progress.getResumeAfter() > 0 ? ", resuming after row " + progress.getResumeAfter() : "");
 
-    /* ---------------------------------------------------------
-       STEP 1: Preload lookup maps (FAST)
-    --------------------------------------------------------- */
+        List<Form20LoadResult> chunks;
+        try (var in = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
+            CSVParser parser = CSVFormat.DEFAULT
+                    .withFirstRecordAsHeader()
+                    .withIgnoreSurroundingSpaces()
+                    .withTrim()
+                    .parse(in);
 
-        // Map <acCode|psNumber|psSuffix> → PollingStation
-        Map<String, PollingStation> psMap = psRepo.findAll()
-                .stream()
-                .collect(Collectors.toMap(
-                        ps -> ps.getAc().getAcCode() + "|" +
-                                ps.getPsNumber() + "|" +
-                                (ps.getPsSuffix() == null ? "" : ps.getPsSuffix().trim()),
-                        ps -> ps
-                ));
-
-        log.info("Loaded {} polling stations", psMap.size());
-
-        // Map existing totals to detect duplicates
-        // key: "psId|year"
-        Map<String, BoothTotals> existingTotals = boothTotalsRepo.findAll()
-                .stream()
-                .collect(Collectors.toMap(
-                        bt -> bt.getPollingStation().getId() + "|" + bt.getYear(),
-                        bt -> bt,
-                        (a, b) -> a
-                ));
-
-        log.info("Loaded {} existing booth totals", existingTotals.size());
+            chunks = chunkRunner.run(parser, progress,
+                    row -> new Form20TotalsLine(
+                            Integer.parseInt(row.get("ac")),
+                            Integer.parseInt(row.get("ps_number")),
+                            normalizeSuffix(row.get("ps_suffix")),
+                            Integer.parseInt(row.get("year")),
+                            Integer.parseInt(row.get("total_valid")),
+                            Integer.parseInt(row.get("rejected")),
+                            Integer.parseInt(row.get("nota"))),
+                    Form20TotalsLine::acCode,
+                    lines -> publishBoothResults(form20CopyEnabled
+                            ? form20CopyLoader.loadTotals(lines, progress)
+                            : saveForm20Totals(lines, progress)));
+        }
+
+        Form20LoadResult result = Form20LoadResult.sum(chunks);
+        long ms = System.currentTimeMillis() - start;
 
     /* ---------------------------------------------------------
-       STEP 2: Read CSV and build list of inserts
+       LOG SUMMARY
     --------------------------------------------------------- */
 
-        List<BoothTotals> batchInsert = new ArrayList<>();
+        log.info("=== Form20 Totals Import Completed in {} ms ({} chunks) ===", ms, chunks.size());
+        log.info("Total CSV rows processed : {}", progress.getParsed() - progress.getResumeAfter());
+        log.info("Inserted new totals     : {}", result.inserted());
+        log.info("Skipped missing PS      : {}", result.skippedMissingPs());
+        log.info("Skipped duplicates      : {}", result.skippedDuplicate());
 
-        CSVParser parser = CSVFormat.DEFAULT
-                .withFirstRecordAsHeader()
-                .withIgnoreSurroundingSpaces()
-                .withTrim()
-                .parse(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8));
+        return "Inserted = " + result.inserted()
+                + ", Skipped missing PS = " + result.skippedMissingPs()
+                + ", Skipped duplicates = " + result.skippedDuplicate()
+                + resumeNote(progress);
+    }
 
-        int processed = 0;
-        int skippedMissingPS = 0;
-        int skippedDuplicate = 0;
+    /** Row-by-row path: lookups scoped to the file's (year, AC) partitions, JPA inserts. */
+    private Form20LoadResult saveForm20Totals(List<Form20TotalsLine> lines, ImportProgress progress) {
 
-        for (CSVRecord row : parser) {
+    /* ---------------------------------------------------------
+       STEP 1: Load lookups for the (year, AC) partitions in the file only
+    --------------------------------------------------------- */
+        Map<PsKey, Long> psIds = loadPsIds(
+                lines.stream().map(Form20TotalsLine::year).collect(Collectors.toSet()),
+                lines.stream().map(Form20TotalsLine::acCode).collect(Collectors.toSet()));
+        log.info("Loaded {} polling stations", psIds.size());
+
+        // polling stations that already have totals, per year
+        Map<Integer, LongHashSet> existingTotals = new HashMap<>();
+        acCodesByYear(lines, Form20TotalsLine::year, Form20TotalsLine::acCode).forEach((year, acCodes) -> {
+            LongHashSet psWithTotals = new LongHashSet();
+            streamingQueries.forEach("form20-total-keys",
+                    () -> boothTotalsRepo.streamPsIdsWithTotals(year, acCodes.toArray(Integer[]::new)),
+                    psWithTotals::add);
+            existingTotals.put(year, psWithTotals);
+        });
+        log.info("Loaded {} existing booth totals",
+                existingTotals.values().stream().mapToInt(LongHashSet::size).sum());
 
-            processed++;
+    /* ---------------------------------------------------------
+       STEP 2: Resolve, dedupe and insert
+    --------------------------------------------------------- */
 
-            int acCode = Integer.parseInt(row.get("ac"));
-            int psNumber = Integer.parseInt(row.get("ps_number"));
-            String psSuffix = row.get("ps_suffix");
-            if (psSuffix == null) psSuffix = "";
-            psSuffix = psSuffix.trim();
+        List<BoothTotals> batchInsert = new ArrayList<>();
+        Set<Integer> touchedYears = new HashSet<>();
+        Set<Integer> touchedAcCodes = new HashSet<>();
 
-            int year = Integer.parseInt(row.get("year"));
-            int totalValid = Integer.parseInt(row.get("total_valid"));
-            int rejected = Integer.parseInt(row.get("rejected"));
-            int nota = Integer.parseInt(row.get("nota"));
+        int inserted = 0;
+        int skippedMissingPS = 0;
+        int skippedDuplicate = 0;
 
-        /* ---------------------------------------------------------
-           Lookup PollingStation (O(1), no DB)
-        --------------------------------------------------------- */
-            String psKey = acCode + "|" + psNumber + "|" + psSuffix;
-            PollingStation ps = psMap.get(psKey);
+        for (Form20TotalsLine line : lines) {
+            progress.checkCancelled();
 
-            if (ps == null) {
+            Long psId = psIds.get(new PsKey(line.year(), line.acCode(), line.psNumber(), line.psSuffix()));
+            if (psId == null) {
                 skippedMissingPS++;
+                progress.skipped(1);
                 continue;
             }
 
-        /* ---------------------------------------------------------
-           Skip duplicate totals (O(1), no DB)
-        --------------------------------------------------------- */
-            String totalKey = ps.getId() + "|" + year;
-            if (existingTotals.containsKey(totalKey)) {
+            if (!existingTotals.get(line.year()).add(psId)) {
                 skippedDuplicate++;
+                progress.skipped(1);
                 continue;
             }
 
-        /* ---------------------------------------------------------
-           Add to batch insert
-        --------------------------------------------------------- */
-            BoothTotals bt = BoothTotals.builder()
-                    .pollingStation(ps)
-                    .totalValid(totalValid)
-                    .rejected(rejected)
-                    .nota(nota)
-                    .year(year)
-                    .build();
-
-            batchInsert.add(bt);
+            batchInsert.add(BoothTotals.builder()
+                    .pollingStation(psRepo.getReferenceById(psId))
+                    .totalValid(line.totalValid())
+                    .rejected(line.rejected())
+                    .nota(line.nota())
+                    .year(line.year())
+                    .build());
+            inserted++;
+            progress.inserted(1);
+            touchedYears.add(line.year());
+            touchedAcCodes.add(line.acCode());
 
             // batch flush to keep memory low
             if (batchInsert.size() >= 2000) {
@@ -397,32 +438,101 @@ public class CsvImportService {
             boothTotalsRepo.saveAll(batchInsert);
         }
 
-        long ms = System.currentTimeMillis() - start;
+        return new Form20LoadResult(inserted, skippedMissingPS, 0, skippedDuplicate, touchedYears, touchedAcCodes);
+    }
 
     /* ---------------------------------------------------------
-       LOG SUMMARY
+       Form 20 helpers
     --------------------------------------------------------- */
 
-        log.info("=== Form20 Totals Import Completed in {} ms ===", ms);
-        log.info("Total CSV rows processed : {}", processed);
-        log.info("Inserted new totals     : {}", batchInsert.size());
-        log.info("Skipped missing PS      : {}", skippedMissingPS);
-        log.info("Skipped duplicates      : {}", skippedDuplicate);
+    /** One parsed Form 20 votes row; names trimmed and lower-cased, suffix never null. */
+    record Form20VoteLine(int acCode, int psNumber, String psSuffix, String lsName,
+                          String candidateName, int year, int votes) {}
+
+    record Form20TotalsLine(int acCode, int psNumber, String psSuffix, int year,
+                            int totalValid, int rejected, int nota) {}
+
+    /** Counts for the import log, plus the (years, ACs) that received rows. */
+    record Form20LoadResult(int inserted, int skippedMissingPs, int skippedMissingCandidate, int skippedDuplicate,
+                            Set<Integer> years, Set<Integer> acCodes) {
+
+        static Form20LoadResult sum(List<Form20LoadResult> chunks) {
+            Set<Integer> years = new HashSet<>();
+            Set<Integer> acCodes = new HashSet<>();
+            int inserted = 0, missingPs = 0, missingCandidate = 0, duplicate = 0;
+            for (Form20LoadResult r : chunks) {
+                inserted += r.inserted();
+                missingPs += r.skippedMissingPs();
+                missingCandidate += r.skippedMissingCandidate();
+                duplicate += r.skippedDuplicate();
+                years.addAll(r.years());
+                acCodes.addAll(r.acCodes());
+            }
+            return new Form20LoadResult(inserted, missingPs, missingCandidate, duplicate, years, acCodes);
+        }
     }
 
+    private record PsKey(int year, int acCode, int psNumber, String psSuffix) {}
 
-    @Transactional
-    public String importCandidatesCsv(MultipartFile file) throws Exception {
+    private record CandidateKey(String lsName, String name, int year) {}
 
-        log.info("Starting Candidate CSV import: {}", file.getOriginalFilename());
+    /** Rollups and data versions follow each chunk's commit, for the (years, ACs) it wrote. */
+    private Form20LoadResult publishBoothResults(Form20LoadResult chunk) {
+        if (!chunk.years().isEmpty()) {
+            eventPublisher.publishEvent(ElectionDataChangedEvent.boothResults(chunk.years(), chunk.acCodes()));
+        }
+        return chunk;
+    }
 
-        int inserted = 0;
-        int updated = 0;
+    private static String resumeNote(ImportProgress progress) {
+        return progress.getResumeAfter() > 0 ? " (resumed after row " + progress.getResumeAfter() + ")" : "";
+    }
+
+    private static String normalizeSuffix(String suffix) {
+        return suffix == null ? "" : suffix.trim();
+    }
 
-        Pattern p = Pattern.compile(
-                "^LS_(.*?)_AC(\\d+)_C\\(\\s*(\\d+),\\s*'(.+)'\\s*\\)$"
-        );
+    /**
+     * (year, acCode, psNumber, psSuffix) -> polling station id, for the given years and ACs only.
+     * Booth numbers are reused across delimitations, so the year is part of the key.
+     */
+    private Map<PsKey, Long> loadPsIds(Set<Integer> years, Set<Integer> acCodes) {
+        Map<PsKey, Long> ids = new HashMap<>();
+        if (years.isEmpty() || acCodes.isEmpty()) return ids;
+        for (PollingStationKeyRow ps : psRepo.findKeysByYearsAndAcCodes(years, acCodes)) {
+            ids.put(new PsKey(ps.getElectionYear(), ps.getAcCode(), ps.getPsNumber(),
+                    normalizeSuffix(ps.getPsSuffix())), ps.getId());
+        }
+        return ids;
+    }
+
+    private static <L> Map<Integer, Set<Integer>> acCodesByYear(List<L> lines,
+                                                                ToIntFunction<L> year,
+                                                                ToIntFunction<L> acCode) {
+        Map<Integer, Set<Integer>> byYear = new HashMap<>();
+        for (L line : lines) {
+            byYear.computeIfAbsent(year.applyAsInt(line), y -> new HashSet<>()).add(acCode.applyAsInt(line));
+        }
+        return byYear;
+    }
+
+    /** psId and candidateId in one long; same packing as BoothVotesRepository#streamVoteKeys. */
+    static long voteKey(long psId, long candidateId) {
+        if (psId < 0 || psId > Integer.MAX_VALUE || candidateId < 0 || candidateId > 0xFFFF_FFFFL) {
+            throw new IllegalStateException("Id out of range for vote key: " + psId + "/" + candidateId);
+        }
+        return psId << 32 | candidateId;
+    }
 
+    private static final Pattern CANDIDATE_KEY = Pattern.compile(
+            "^LS_(.*?)_AC(\\d+)_C\\(\\s*(\\d+),\\s*'(.+)'\\s*\\)$"
+    );
+
+    public String importCandidatesCsv(InputStreamSource file, ImportProgress progress) throws Exception {
+
+        log.info("Starting Candidate CSV import: {}", file);
+
+        List<CandidateChunk> chunks;
         try (var in = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
             CSVParser parser = new CSVParser(in,
                     CSVFormat.DEFAULT
@@ -431,63 +541,91 @@ public class CsvImportService {
                             .withIgnoreEmptyLines(true)
             );
 
-            for (CSVRecord rec : parser) {
-
-                try {
-                    String key = rec.get("candidate_key").trim();
-
-                    Matcher m = p.matcher(key);
-                    if (!m.matches()) {
-                        log.warn("Skipping invalid candidate_key format: {}", key);
-                        continue;
-                    }
-
-                    String lsName = m.group(1).trim();
-                    Integer acCode = Integer.valueOf(m.group(2));
-                    Integer candidateIndex = Integer.valueOf(m.group(3));
-                    String candidateName = m.group(4).trim();
-
-                    Integer year = 2024; // default for now
-
-                    // ---- LS ----
-                    LoksabhaConstituency ls = lsRepo.findByName(lsName)
-                            .orElseGet(() -> {
-                                log.info("Creating LS entry: {}", lsName);
-                                return null;
-                            });
-
-                    // ---- Candidate Existence Check ----
-                    Optional<Candidate> existing =
-                            candidateRepo.findByNameAndLs_NameAndElectionYear(candidateName, lsName, year);
-
-                    if (existing.isPresent()) {
-                        // maybe update index later
-                        updated++;
-                        continue;
-                    }
-
-                    Candidate candidate = Candidate.builder()
-                            .name(candidateName)
-                            .ls(ls)
-                            .electionYear(year)
-                            .party(null)
-                            .alliance(null)
-                            .build();
-
-                    candidateRepo.save(candidate);
-                    log.info("Inserted Candidate: {} (LS: {}, AC: {})",candidateName, lsName, acCode);
-                    inserted++;
-
-                } catch (Exception ex) {
-                    log.error("Error processing candidate row: {}", rec, ex);
-                }
-            }
+            chunks = chunkRunner.run(parser, progress, rec -> rec, null,
+                    chunk -> saveCandidates(chunk, progress));
         }
 
-        String summary = "Inserted = " + inserted + ", Updated = " + updated;
+        int inserted = chunks.stream().mapToInt(CandidateChunk::inserted).sum();
+        int updated = chunks.stream().mapToInt(CandidateChunk::updated).sum();
+        String summary = "Inserted = " + inserted + ", Updated = " + updated + resumeNote(progress);
         log.info("Candidate CSV Import Finished: {}", summary);
         return summary;
     }
 
+    private record CandidateChunk(int inserted, int updated) {}
+
+    private CandidateChunk saveCandidates(List<CSVRecord> chunk, ImportProgress progress) {
+
+        int inserted = 0;
+        int updated = 0;
+        Set<Integer> touchedYears = new HashSet<>();
+        Set<Integer> touchedAcCodes = new HashSet<>();
+
+        for (CSVRecord rec : chunk) {
+            progress.checkCancelled();
+
+            try {
+                String key = rec.get("candidate_key").trim();
+
+                Matcher m = CANDIDATE_KEY.matcher(key);
+                if (!m.matches()) {
+                    log.warn("Skipping invalid candidate_key format: {}", key);
+                    progress.skipped(1);
+                    continue;
+                }
+
+                String lsName = m.group(1).trim();
+                Integer acCode = Integer.valueOf(m.group(2));
+                Integer candidateIndex = Integer.valueOf(m.group(3));
+                String candidateName = m.group(4).trim();
+
+                Integer year = 2024; // default for now
+
+                // ---- LS ----
+                LoksabhaConstituency ls = lsRepo.findByName(lsName)
+                        .orElseGet(() -> {
+                            log.info("Creating LS entry: {}", lsName);
+                            return null;
+                        });
+
+                // ---- Candidate Existence Check ----
+                Optional<Candidate> existing =
+                        candidateRepo.findByNameAndLs_NameAndElectionYear(candidateName, lsName, year);
+
+                if (existing.isPresent()) {
+                    // maybe update index later
+                    updated++;
+                    progress.skipped(1);
+                    continue;
+                }
+
+                Candidate candidate = Candidate.builder()
+                        .name(candidateName)
+                        .ls(ls)
+                        .electionYear(year)
+                        .party(null)
+                        .alliance(null)
+                        .build();
+
+                candidateRepo.save(candidate);
+                log.info("Inserted Candidate: {} (LS: {}, AC: {})",candidateName, lsName, acCode);
+                inserted++;
+                progress.inserted(1);
+                touchedYears.add(year);
+                touchedAcCodes.add(acCode);
+
+            } catch (Exception ex) {
+                log.error("Error processing candidate row: {}", rec, ex);
+                progress.skipped(1);
+            }
+        }
+
+        // booth rollups resolve alliances through candidate rows; refresh the ACs this chunk wrote
+        if (!touchedYears.isEmpty()) {
+            eventPublisher.publishEvent(ElectionDataChangedEvent.boothResults(touchedYears, touchedAcCodes));
+        }
+        return new CandidateChunk(inserted, updated);
+    }
+
 
 }
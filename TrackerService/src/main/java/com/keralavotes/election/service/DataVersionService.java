@@ -0,0 +1,148 @@
+package com.keralavotes.election.service;
+
+import com.keralavotes.election.event.ElectionDataChangedEvent;
+import com.keralavotes.election.repository.AssemblyConstituencyRepository;
+import com.keralavotes.election.repository.LocalbodyRepository;
+import com.keralavotes.election.repository.PollingStationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic data-version counters used to build ETags for /v1/public analysis responses.
+ *
+ * Counters live in memory: a version is global + per-year + per-(year, scope, id).
+ * Every counter only ever grows, so any write reachable from a scope changes its ETag.
+ * The boot id in the ETag invalidates everything after a restart.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DataVersionService {
+
+    /** Request attribute set when a write in the current request already bumped versions. */
+    public static final String BUMPED_ATTRIBUTE = DataVersionService.class.getName() + ".BUMPED";
+
+    public enum Scope { LOCALBODY, AC, DISTRICT, STATE }
+
+    private record ScopeKey(int year, Scope scope, long id) {}
+
+    private final LocalbodyRepository localbodyRepo;
+    private final AssemblyConstituencyRepository assemblyRepo;
+    private final PollingStationRepository pollingStationRepo;
+
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong global = new AtomicLong();
+    private final ConcurrentMap<Integer, AtomicLong> byYear = new ConcurrentHashMap<>();
+    private final ConcurrentMap<ScopeKey, AtomicLong> byScope = new ConcurrentHashMap<>();
+
+    /* ===================== READ ===================== */
+
+    public long version(Scope scope, Number id, Collection<Integer> years) {
+        long scopeId = scope == Scope.STATE || id == null ? 0L : id.longValue();
+        long v = global.get();
+        for (Integer year : years) {
+            v += read(byYear, year);
+            v += read(byScope, new ScopeKey(year, scope, scopeId));
+        }
+        return v;
+    }
+
+    /**
+     * Weak ETag for a response that depends on the given scope and years.
+     * {@code params} are the remaining request parameters that shape the body.
+     *
+     * Weak because the same data goes out as JSON, CBOR, gzip or identity; Tomcat also
+     * refuses to compress responses carrying a strong ETag.
+     */
+    public String etag(Scope scope, Number id, Collection<Integer> years, Object... params) {
+        int paramHash = Objects.hash(scope, id, years, Arrays.hashCode(params));
+        return "W/\"" + bootId + "-" + Long.toString(version(scope, id, years), 36)
+                + "-" + Integer.toHexString(paramHash) + "\"";
+    }
+
+    /* ===================== WRITE ===================== */
+
+    /** Everything changes (admin edits that do not publish a scoped event). */
+    public void bumpAll() {
+        global.incrementAndGet();
+    }
+
+    // runs after the rollup rebuild / alliance snapshot swap so a new ETag never serves stale data
+    @Order(100)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onElectionDataChanged(ElectionDataChangedEvent event) {
+        Integer[] years = event.getYears().toArray(Integer[]::new);
+
+        switch (event.getSource()) {
+            case WARD_RESULTS -> {
+                if (event.getLocalbodyIds() == null) {
+                    bumpYears(event.getYears());
+                } else {
+                    Long[] ids = event.getLocalbodyIds().toArray(Long[]::new);
+                    bumpScoped(event.getYears(),
+                            event.getLocalbodyIds(),
+                            new HashSet<>(localbodyRepo.findAcCodesByLocalbodyIds(ids)),
+                            new HashSet<>(localbodyRepo.findDistrictCodesByIds(ids)));
+                }
+            }
+            case BOOTH_RESULTS -> {
+                if (event.getAcCodes() == null) {
+                    bumpYears(event.getYears());
+                } else {
+                    Integer[] acCodes = event.getAcCodes().toArray(Integer[]::new);
+                    bumpScoped(event.getYears(),
+                            new HashSet<>(pollingStationRepo.findLocalbodyIdsByAcCodes(acCodes, years)),
+                            event.getAcCodes(),
+                            new HashSet<>(assemblyRepo.findDistrictCodesByAcCodes(acCodes)));
+                }
+            }
+            case ALLIANCE_MAPPING -> bumpYears(event.getYears());
+        }
+
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            request.setAttribute(BUMPED_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+        log.debug("DataVersionService::onElectionDataChanged -> bumped versions for {}", event);
+    }
+
+    private void bumpYears(Set<Integer> years) {
+        years.forEach(y -> counter(byYear, y).incrementAndGet());
+    }
+
+    private void bumpScoped(Set<Integer> years, Set<Long> localbodyIds, Set<Integer> acCodes, Set<Integer> districtCodes) {
+        for (Integer year : years) {
+            localbodyIds.forEach(id -> counter(byScope, new ScopeKey(year, Scope.LOCALBODY, id)).incrementAndGet());
+            acCodes.forEach(ac -> counter(byScope, new ScopeKey(year, Scope.AC, ac)).incrementAndGet());
+            districtCodes.forEach(d -> counter(byScope, new ScopeKey(year, Scope.DISTRICT, d)).incrementAndGet());
+            counter(byScope, new ScopeKey(year, Scope.STATE, 0L)).incrementAndGet();
+        }
+    }
+
+    private static <K> long read(ConcurrentMap<K, AtomicLong> map, K key) {
+        AtomicLong c = map.get(key);
+        return c == null ? 0L : c.get();
+    }
+
+    private static <K> AtomicLong counter(ConcurrentMap<K, AtomicLong> map, K key) {
+        return map.computeIfAbsent(key, k -> new AtomicLong());
+    }
+}
@@ -0,0 +1,267 @@
+package com.keralavotes.election.service;
+
+import com.keralavotes.election.model.ImportProgress;
+import com.keralavotes.election.service.CsvImportService.Form20LoadResult;
+import com.keralavotes.election.service.CsvImportService.Form20TotalsLine;
+import com.keralavotes.election.service.CsvImportService.Form20VoteLine;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Bulk path for the Form 20 imports. BoothVotes / BoothTotals ids are IDENTITY, so
+ * Hibernate cannot batch their inserts and saveAll costs one round trip per row.
+ *
+ * Instead the parsed rows are streamed with COPY into a temporary staging table
+ * (temp tables are not WAL-logged and are dropped at commit), polling stations and
+ * candidates are resolved with one join, and the rows are merged with
+ * INSERT ... ON CONFLICT DO NOTHING on the tables' unique constraints. Matching rules and
+ * the counts reported are the same as the row-by-row path in CsvImportService: polling
+ * stations by (year, ac, ps_number, trimmed ps_suffix), candidates by trimmed lower-case
+ * (LS name, name) and year, and the first of several rows for the same key wins.
+ *
+ * Runs on the caller's transaction and connection. Cancellation is checked per COPY chunk
+ * and before the merge; the merge itself runs to completion.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class Form20CopyLoader {
+
+    /** Rows buffered before they are written to the COPY stream. */
+    private static final int COPY_CHUNK = 5000;
+
+    private final EntityManager em;
+
+    public Form20LoadResult loadVotes(List<Form20VoteLine> lines, ImportProgress progress) {
+        return em.unwrap(Session.class).doReturningWork(conn -> {
+            try (Statement st = conn.createStatement()) {
+                st.execute("""
+                        create temp table form20_votes_stage (
+                            line_no        int  not null,
+                            ac_code        int  not null,
+                            ps_number      int  not null,
+                            ps_suffix      text not null,
+                            ls_name        text not null,
+                            candidate_name text not null,
+                            year           int  not null,
+                            votes          int  not null
+                        ) on commit drop""");
+            }
+
+            copy(conn, "copy form20_votes_stage from stdin with (format csv)", lines, progress, (line, sb) -> {
+                sb.append(line.acCode()).append(',')
+                        .append(line.psNumber()).append(',');
+                csv(sb, line.psSuffix()).append(',');
+                csv(sb, line.lsName()).append(',');
+                csv(sb, line.candidateName()).append(',')
+                        .append(line.year()).append(',')
+                        .append(line.votes());
+            });
+
+            try (Statement st = conn.createStatement()) {
+                st.execute("""
+                        create temp table form20_votes_resolved on commit drop as
+                        select distinct on (s.line_no)
+                               s.line_no, s.year, s.votes, s.ac_code, ps.id as ps_id, c.id as candidate_id
+                        from form20_votes_stage s
+                        left join polling_station ps
+                               on ps.election_year = s.year
+                              and ps.ac_code = s.ac_code
+                              and ps.ps_number = s.ps_number
+                              and coalesce(trim(ps.ps_suffix), '') = s.ps_suffix
+                        left join (candidate c join loksabha_constituency ls on ls.ls_code = c.ls_code)
+                               on lower(trim(ls.name)) = s.ls_name
+                              and lower(trim(c.name)) = s.candidate_name
+                              and c.election_year = s.year
+                        order by s.line_no, c.id""");
+
+                int missingPs;
+                int missingCandidate;
+                try (ResultSet rs = st.executeQuery("""
+                        select count(*) filter (where ps_id is null),
+                               count(*) filter (where ps_id is not null and candidate_id is null)
+                        from form20_votes_resolved""")) {
+                    rs.next();
+                    missingPs = rs.getInt(1);
+                    missingCandidate = rs.getInt(2);
+                }
+
+                progress.checkCancelled();
+
+                // rows are offered in file order, so DO NOTHING keeps the first of any repeats
+                Merged merged = merge(st, """
+                        with ins as (
+                            insert into booth_votes (ps_id, candidate_id, votes, year)
+                            select ps_id, candidate_id, votes, year
+                            from form20_votes_resolved
+                            where ps_id is not null and candidate_id is not null
+                            order by line_no
+                            on conflict (ps_id, candidate_id, year) do nothing
+                            returning ps_id, year
+                        )
+                        select ins.year, ps.ac_code, count(*)
+                        from ins join polling_station ps on ps.id = ins.ps_id
+                        group by ins.year, ps.ac_code""");
+
+                int resolved = lines.size() - missingPs - missingCandidate;
+                progress.inserted(merged.inserted);
+                progress.skipped(lines.size() - merged.inserted);
+                return new Form20LoadResult(merged.inserted, missingPs, missingCandidate,
+                        resolved - merged.inserted, merged.years, merged.acCodes);
+            }
+        });
+    }
+
+    public Form20LoadResult loadTotals(List<Form20TotalsLine> lines, ImportProgress progress) {
+        return em.unwrap(Session.class).doReturningWork(conn -> {
+            try (Statement st = conn.createStatement()) {
+                st.execute("""
+                        create temp table form20_totals_stage (
+                            line_no     int  not null,
+                            ac_code     int  not null,
+                            ps_number   int  not null,
+                            ps_suffix   text not null,
+                            year        int  not null,
+                            total_valid int  not null,
+                            rejected    int  not null,
+                            nota        int  not null
+                        ) on commit drop""");
+            }
+
+            copy(conn, "copy form20_totals_stage from stdin with (format csv)", lines, progress, (line, sb) -> {
+                sb.append(line.acCode()).append(',')
+                        .append(line.psNumber()).append(',');
+                csv(sb, line.psSuffix()).append(',')
+                        .append(line.year()).append(',')
+                        .append(line.totalValid()).append(',')
+                        .append(line.rejected()).append(',')
+                        .append(line.nota());
+            });
+
+            try (Statement st = conn.createStatement()) {
+                st.execute("""
+                        create temp table form20_totals_resolved on commit drop as
+                        select s.line_no, s.year, s.total_valid, s.rejected, s.nota, ps.id as ps_id
+                        from form20_totals_stage s
+                        left join polling_station ps
+                               on ps.election_year = s.year
+                              and ps.ac_code = s.ac_code
+                              and ps.ps_number = s.ps_number
+                              and coalesce(trim(ps.ps_suffix), '') = s.ps_suffix""");
+
+                int missingPs;
+                try (ResultSet rs = st.executeQuery(
+                        "select count(*) from form20_totals_resolved where ps_id is null")) {
+                    rs.next();
+                    missingPs = rs.getInt(1);
+                }
+
+                progress.checkCancelled();
+
+                Merged merged = merge(st, """
+                        with ins as (
+                            insert into booth_totals (ps_id, total_valid, rejected, nota, year)
+                            select ps_id, total_valid, rejected, nota, year
+                            from form20_totals_resolved
+                            where ps_id is not null
+                            order by line_no
+                            on conflict (ps_id, year) do nothing
+                            returning ps_id, year
+                        )
+                        select ins.year, ps.ac_code, count(*)
+                        from ins join polling_station ps on ps.id = ins.ps_id
+                        group by ins.year, ps.ac_code""");
+
+                int resolved = lines.size() - missingPs;
+                progress.inserted(merged.inserted);
+                progress.skipped(lines.size() - merged.inserted);
+                return new Form20LoadResult(merged.inserted, missingPs, 0,
+                        resolved - merged.inserted, merged.years, merged.acCodes);
+            }
+        });
+    }
+
+    /* ---------------------------------------------------------
+       helpers
+    --------------------------------------------------------- */
+
+    private interface RowWriter<L> {
+        void write(L line, StringBuilder sb);
+    }
+
+    /** Streams {@code lines} into COPY ... FROM STDIN (format csv), prefixed with their 1-based line number. */
+    private static <L> void copy(Connection conn, String sql, List<L> lines, ImportProgress progress,
+                                 RowWriter<L> writer) throws SQLException {
+        long start = System.currentTimeMillis();
+        CopyIn copyIn = conn.unwrap(PGConnection.class).getCopyAPI().copyIn(sql);
+        try {
+            StringBuilder sb = new StringBuilder(COPY_CHUNK * 64);
+            int lineNo = 0;
+            for (L line : lines) {
+                sb.append(++lineNo).append(',');
+                writer.write(line, sb);
+                sb.append('\n');
+                if (lineNo % COPY_CHUNK == 0) {
+                    progress.checkCancelled();
+                    flush(copyIn, sb);
+                }
+            }
+            flush(copyIn, sb);
+            copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+        log.debug("Form20CopyLoader::copy -> {} rows staged in {} ms", lines.size(), System.currentTimeMillis() - start);
+    }
+
+    private static void flush(CopyIn copyIn, StringBuilder sb) throws SQLException {
+        if (sb.isEmpty()) return;
+        byte[] bytes = sb.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        sb.setLength(0);
+    }
+
+    /** Quoted CSV field; COPY reads an unquoted empty field as NULL. */
+    private static StringBuilder csv(StringBuilder sb, String value) {
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch == '"') sb.append('"');
+            sb.append(ch);
+        }
+        return sb.append('"');
+    }
+
+    private record Merged(int inserted, Set<Integer> years, Set<Integer> acCodes) {}
+
+    /** Runs an INSERT ... RETURNING wrapped to report (year, ac_code, inserted rows). */
+    private static Merged merge(Statement st, String sql) throws SQLException {
+        int inserted = 0;
+        Set<Integer> years = new HashSet<>();
+        Set<Integer> acCodes = new HashSet<>();
+        try (ResultSet rs = st.executeQuery(sql)) {
+            while (rs.next()) {
+                years.add(rs.getInt(1));
+                acCodes.add(rs.getInt(2));
+                inserted += rs.getInt(3);
+            }
+        }
+        return new Merged(inserted, years, acCodes);
+    }
+}
@@ -0,0 +1,101 @@
+package com.keralavotes.election.service;
+
+import com.keralavotes.election.model.ImportProgress;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.csv.CSVRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Commits CSV imports in chunks, so a failure or cancel loses only the chunk in progress
+ * and the persistence context never holds more than one chunk.
+ *
+ * Each chunk is written in its own transaction together with the job's checkpoint
+ * ({@link ImportProgress#checkpoint(long)}). Rows up to the job's resume point were
+ * committed by an earlier upload of the same file and are skipped without being mapped.
+ *
+ * A chunk closes once it has import.chunk-rows rows (default 5000) and the chunk key
+ * changes, so files sorted by AC commit whole ACs and each AC's rollups are rebuilt once;
+ * a key run MAX_CHUNK_FACTOR times longer than that is split anyway.
+ */
+@Slf4j
+@Component
+public class ImportChunkRunner {
+
+    private static final int MAX_CHUNK_FACTOR = 4;
+
+    private final TransactionTemplate tx;
+    private final int chunkRows;
+
+    public ImportChunkRunner(PlatformTransactionManager transactionManager,
+                             @Value("${import.chunk-rows:5000}") int chunkRows) {
+        this.tx = new TransactionTemplate(transactionManager);
+        this.chunkRows = Math.max(1, chunkRows);
+    }
+
+    /**
+     * @param mapper   parses a record; runs outside any transaction
+     * @param chunkKey rows with equal keys stay in one chunk where possible, or null
+     * @param writer   writes one chunk inside its transaction
+     * @return the writer's result for each chunk, in file order
+     */
+    public <L, R> List<R> run(Iterable<CSVRecord> records,
+                              ImportProgress progress,
+                              Function<CSVRecord, L> mapper,
+                              ToIntFunction<L> chunkKey,
+                              Function<List<L>, R> writer) {
+        long resumeAfter = progress.getResumeAfter();
+        List<R> results = new ArrayList<>();
+        List<L> chunk = new ArrayList<>();
+        long row = 0;
+        int lastKey = 0;
+
+        for (CSVRecord rec : records) {
+            if (++row <= resumeAfter) continue;
+            progress.checkCancelled();
+
+            L line = mapper.apply(rec);
+            progress.parsed();
+
+            int key = chunkKey == null ? 0 : chunkKey.applyAsInt(line);
+            if (chunk.size() >= chunkRows
+                    && (key != lastKey || chunk.size() >= MAX_CHUNK_FACTOR * chunkRows)) {
+                results.add(commit(chunk, row - 1, progress, writer));
+                chunk = new ArrayList<>();
+            }
+            chunk.add(line);
+            lastKey = key;
+        }
+
+        if (!chunk.isEmpty()) {
+            results.add(commit(chunk, row, progress, writer));
+        }
+        return results;
+    }
+
+    private <L, R> R commit(List<L> chunk, long lastRow, ImportProgress progress, Function<List<L>, R> writer) {
+        long start = System.currentTimeMillis();
+        R result;
+        try {
+            result = tx.execute(status -> {
+                R r = writer.apply(chunk);
+                progress.checkpoint(lastRow);
+                return r;
+            });
+        } catch (RuntimeException | Error e) {
+            progress.rolledBack();
+            throw e;
+        }
+        progress.committed(lastRow);
+        log.debug("ImportChunkRunner::commit -> {} rows committed up to row {} in {} ms",
+                chunk.size(), lastRow, System.currentTimeMillis() - start);
+        return result;
+    }
+}
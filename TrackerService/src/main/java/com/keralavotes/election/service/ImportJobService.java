@@ -0,0 +1,395 @@
+package com.keralavotes.election.service;
+
+import com.keralavotes.election.dto.ImportJobDto;
+import com.keralavotes.election.entity.ImportJob;
+import com.keralavotes.election.model.ImportProgress;
+import com.keralavotes.election.repository.ImportCheckpointRepository;
+import com.keralavotes.election.repository.ImportJobRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs admin imports as background jobs so the upload request returns at once.
+ *
+ * The upload is copied to a temp file (Tomcat deletes multipart parts when the request
+ * ends) and the import runs on a fixed pool of import.workers threads (default 1) with at
+ * most import.queue-capacity jobs waiting. Each running import holds one DB connection for
+ * its transaction, so the analysis bulkhead leaves import.workers connections free for them.
+ *
+ * Imports that publish an ElectionDataChangedEvent bump data versions on commit as before;
+ * the others bump the global version when their job is DONE, which the admin write
+ * interceptor no longer does for the 202 answer.
+ *
+ * Live counters come from the job's {@link ImportProgress}; the import_job row is written
+ * when a job is queued, started and finished. Cancelling sets a flag the import checks
+ * between rows, which rolls back the chunk in progress; a queued job is dropped when it
+ * would start. Jobs still QUEUED / RUNNING at startup were lost with the previous instance
+ * and are marked FAILED.
+ *
+ * CSV imports commit in chunks (ImportChunkRunner) and checkpoint each one under the
+ * upload's SHA-256. Uploading a file whose last import did not finish resumes after its
+ * last committed row, with that run's counters; a finished file is imported again from
+ * the start (its rows are then skipped as duplicates).
+ */
+@Slf4j
+@Service
+public class ImportJobService {
+
+    public static final int MAX_HISTORY = 200;
+
+    /** Imports that publish no ElectionDataChangedEvent; a finished one bumps the global data version. */
+    private static final Set<ImportJob.Type> UNSCOPED_WRITES = EnumSet.of(
+            ImportJob.Type.BOOTHS, ImportJob.Type.CANDIDATES, ImportJob.Type.LOCALBODY_FIX_WARDS,
+            ImportJob.Type.LOCALBODY_FIX_CANDIDATES, ImportJob.Type.LOCALBODY_FIX_RESULTS);
+
+    /** An import; the result is stored as JSON (a summary string or a report object). */
+    @FunctionalInterface
+    public interface ImportTask {
+        /** @param file the upload copied to a temp file, or null for jobs without one */
+        Object run(Path file, ImportProgress progress) throws Exception;
+    }
+
+    private final ImportJobRepository jobRepo;
+    private final ImportCheckpointRepository checkpointRepo;
+    private final DataVersionService dataVersionService;
+    private final ResponseCacheService responseCacheService;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolExecutor workers;
+    private final Map<String, ActiveJob> active = new ConcurrentHashMap<>();
+
+    public ImportJobService(ImportJobRepository jobRepo,
+                            ImportCheckpointRepository checkpointRepo,
+                            DataVersionService dataVersionService,
+                            ResponseCacheService responseCacheService,
+                            ObjectMapper objectMapper,
+                            @Value("${import.workers:1}") int workers,
+                            @Value("${import.queue-capacity:20}") int queueCapacity) {
+        this.jobRepo = jobRepo;
+        this.checkpointRepo = checkpointRepo;
+        this.dataVersionService = dataVersionService;
+        this.responseCacheService = responseCacheService;
+        this.objectMapper = objectMapper;
+        int threads = Math.max(1, workers);
+        this.workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                Thread.ofPlatform().name("import-", 1).factory());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        active.values().forEach(job -> job.progress.requestCancel());
+        workers.shutdownNow();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void failInterrupted() {
+        int n = jobRepo.finishAll(List.of(ImportJob.Status.QUEUED, ImportJob.Status.RUNNING),
+                ImportJob.Status.FAILED, "Interrupted by a restart", Instant.now());
+        if (n > 0) {
+            log.warn("ImportJobService::failInterrupted -> marked {} unfinished import jobs as FAILED", n);
+        }
+    }
+
+    /* ===================== JOBS ===================== */
+
+    /**
+     * Queues {@code task}. With a {@code file}, the upload is saved first and its line count
+     * becomes the job's expected row count.
+     */
+    public ImportJobDto submit(ImportJob.Type type, MultipartFile file, ImportTask task) {
+        Path path = null;
+        if (file != null) {
+            if (file.isEmpty()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Empty upload");
+            }
+            try {
+                path = Files.createTempFile("import-", ".csv");
+                file.transferTo(path);
+            } catch (IOException e) {
+                deleteQuietly(path);
+                throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Could not store upload", e);
+            }
+        }
+
+        ImportJob job = jobRepo.save(ImportJob.builder()
+                .id(UUID.randomUUID().toString())
+                .type(type)
+                .status(ImportJob.Status.QUEUED)
+                .fileName(file == null ? null : file.getOriginalFilename())
+                .fileSize(file == null ? null : file.getSize())
+                .createdAt(Instant.now())
+                .build());
+        ActiveJob activeJob = new ActiveJob(job, path);
+        active.put(job.getId(), activeJob);
+
+        try {
+            workers.execute(() -> run(activeJob, task));
+        } catch (RejectedExecutionException e) {
+            active.remove(job.getId());
+            deleteQuietly(path);
+            job.setStatus(ImportJob.Status.FAILED);
+            job.setError("Import queue is full");
+            job.setFinishedAt(Instant.now());
+            jobRepo.save(job);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Import queue is full (" + workers.getQueue().size() + " waiting); try again later");
+        }
+
+        log.info("ImportJobService::submit -> {} job {} queued ({})", type, job.getId(), job.getFileName());
+        return toDto(job, activeJob.progress);
+    }
+
+    public ImportJobDto status(String jobId) {
+        ActiveJob a = active.get(jobId);
+        if (a != null) {
+            return toDto(a.job, a.progress);
+        }
+        return jobRepo.findById(jobId)
+                .map(job -> toDto(job, null))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown import job: " + jobId));
+    }
+
+    /** Most recent jobs first. */
+    public List<ImportJobDto> history(int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_HISTORY));
+        return jobRepo.findAllByOrderByCreatedAtDesc(PageRequest.of(0, size)).stream()
+                .map(job -> {
+                    ActiveJob a = active.get(job.getId());
+                    return a != null ? toDto(a.job, a.progress) : toDto(job, null);
+                })
+                .toList();
+    }
+
+    public ImportJobDto cancel(String jobId) {
+        ActiveJob a = active.get(jobId);
+        if (a == null) {
+            ImportJobDto finished = status(jobId);
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Import job " + jobId + " already " + finished.getStatus());
+        }
+        a.progress.requestCancel();
+        log.info("ImportJobService::cancel -> cancel requested for job {}", jobId);
+        return toDto(a.job, a.progress);
+    }
+
+    private void run(ActiveJob a, ImportTask task) {
+        ImportJob job = a.job;
+        ImportProgress progress = a.progress;
+        ImportJob.Status status = ImportJob.Status.FAILED;
+        String error = null;
+        try {
+            if (progress.isCancelRequested()) {
+                throw new CancellationException("Cancelled before start");
+            }
+            job.setStatus(ImportJob.Status.RUNNING);
+            job.setStartedAt(Instant.now());
+            jobRepo.save(job);
+
+            if (a.file != null) {
+                FileScan scan = scan(a.file);
+                progress.setTotalRows(scan.rows());
+                resumeFromCheckpoint(a, scan.sha256());
+            }
+            Object result = task.run(a.file, progress);
+            job.setResult(result == null ? null : objectMapper.writeValueAsString(result));
+            if (job.getFileHash() != null) {
+                checkpointRepo.markCompleted(job.getType(), job.getFileHash(), Instant.now());
+            }
+            status = ImportJob.Status.DONE;
+        } catch (CancellationException e) {
+            status = ImportJob.Status.CANCELLED;
+            error = e.getMessage() + resumeHint(job, progress);
+        } catch (Exception e) {
+            log.error("ImportJobService::run -> {} job {} failed", job.getType(), job.getId(), e);
+            error = (e.getMessage() != null ? e.getMessage() : e.toString()) + resumeHint(job, progress);
+        } finally {
+            if (status != ImportJob.Status.DONE) {
+                // counts of the transaction that failed went with it; chunked imports keep their commits
+                progress.rolledBack();
+            }
+            // chunked imports keep what they committed, whatever the status
+            if (UNSCOPED_WRITES.contains(job.getType())
+                    && (status == ImportJob.Status.DONE || progress.getCommittedRows() > progress.getResumeAfter())) {
+                dataVersionService.bumpAll();
+                responseCacheService.evictStale();
+            }
+            job.setError(error);
+            job.setFinishedAt(Instant.now());
+            job.setTotalRows(progress.getTotalRows() < 0 ? null : progress.getTotalRows());
+            job.setRowsParsed(progress.getParsed());
+            job.setRowsInserted(progress.getInserted());
+            job.setRowsSkipped(progress.getSkipped());
+            job.setRowsCommitted(job.getFileHash() == null ? null : progress.getCommittedRows());
+            // last: a status request that sees the job finished reads the stored counters
+            job.setStatus(status);
+            try {
+                jobRepo.save(job);
+            } finally {
+                active.remove(job.getId());
+                deleteQuietly(a.file);
+            }
+            log.info("ImportJobService::run -> {} job {} {} : parsed={}, inserted={}, skipped={}",
+                    job.getType(), job.getId(), job.getStatus(),
+                    job.getRowsParsed(), job.getRowsInserted(), job.getRowsSkipped());
+        }
+    }
+
+    /**
+     * Picks up where the last unfinished import of the same file stopped, and makes each
+     * committed chunk of this one record its checkpoint.
+     */
+    private synchronized void resumeFromCheckpoint(ActiveJob a, String fileHash) {
+        ImportJob job = a.job;
+        boolean busy = active.values().stream()
+                .anyMatch(other -> other != a && other.job.getType() == job.getType()
+                        && fileHash.equals(other.job.getFileHash()));
+        if (busy) {
+            throw new IllegalStateException("The same file is already being imported by another job");
+        }
+        job.setFileHash(fileHash);
+
+        ImportProgress progress = a.progress;
+        checkpointRepo.findByTypeAndFileHash(job.getType(), fileHash)
+                .filter(cp -> cp.getCompletedAt() == null && cp.getRowsCommitted() > 0)
+                .ifPresent(cp -> {
+                    progress.resume(cp.getRowsCommitted(), cp.getRowsInserted(), cp.getRowsSkipped());
+                    job.setResumedAfterRow(cp.getRowsCommitted());
+                    log.info("ImportJobService::run -> {} job {} resumes after row {} (checkpoint of job {})",
+                            job.getType(), job.getId(), cp.getRowsCommitted(), cp.getJobId());
+                });
+        jobRepo.save(job);
+
+        progress.setCheckpointer((lastRow, inserted, skipped) -> checkpointRepo.upsert(
+                job.getType().name(), fileHash, lastRow, inserted, skipped, job.getId(), Instant.now()));
+    }
+
+    private static String resumeHint(ImportJob job, ImportProgress progress) {
+        if (job.getFileHash() == null || progress.getCommittedRows() == 0) return "";
+        return "; rows up to " + progress.getCommittedRows()
+                + " are committed, upload the same file again to resume after them";
+    }
+
+    private static final class ActiveJob {
+        final ImportJob job;
+        final Path file;
+        final ImportProgress progress = new ImportProgress();
+
+        ActiveJob(ImportJob job, Path file) {
+            this.job = job;
+            this.file = file;
+        }
+    }
+
+    private ImportJobDto toDto(ImportJob job, ImportProgress progress) {
+        Instant now = Instant.now();
+        Instant end = job.getFinishedAt() != null ? job.getFinishedAt() : now;
+        Long elapsedMs = job.getStartedAt() == null ? null : Duration.between(job.getStartedAt(), end).toMillis();
+
+        ImportJobDto.ImportJobDtoBuilder dto = ImportJobDto.builder()
+                .jobId(job.getId())
+                .type(job.getType().name())
+                .status(job.getStatus().name())
+                .fileName(job.getFileName())
+                .fileSize(job.getFileSize())
+                .fileHash(job.getFileHash())
+                .resumedAfterRow(job.getResumedAfterRow())
+                .createdAt(job.getCreatedAt())
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .elapsedMs(elapsedMs)
+                .result(job.getResult())
+                .error(job.getError());
+
+        if (progress == null || job.getStatus().isFinished()) {
+            return dto.totalRows(job.getTotalRows())
+                    .rowsCommitted(job.getRowsCommitted())
+                    .rowsParsed(job.getRowsParsed())
+                    .rowsInserted(job.getRowsInserted())
+                    .rowsSkipped(job.getRowsSkipped())
+                    .progress(job.getStatus() == ImportJob.Status.DONE ? 1.0 : null)
+                    .build();
+        }
+
+        Double fraction = progress.fraction();
+        Long etaMs = null;
+        if (fraction != null && fraction > 0 && elapsedMs != null) {
+            etaMs = (long) (elapsedMs * (1 - fraction) / fraction);
+        }
+        return dto.cancelRequested(progress.isCancelRequested())
+                .totalRows(progress.getTotalRows() < 0 ? null : progress.getTotalRows())
+                .rowsCommitted(job.getFileHash() == null ? null : progress.getCommittedRows())
+                .rowsParsed(progress.getParsed())
+                .rowsInserted(progress.getInserted())
+                .rowsSkipped(progress.getSkipped())
+                .progress(fraction)
+                .etaMs(etaMs)
+                .build();
+    }
+
+    /* ===================== FILES ===================== */
+
+    /** Data rows (lines minus the header; quoted newlines make it an estimate) and SHA-256. */
+    private record FileScan(long rows, String sha256) {}
+
+    private static FileScan scan(Path file) throws IOException {
+        MessageDigest sha256;
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        long lines = 0;
+        int last = '\n';
+        byte[] buf = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(file)) {
+            for (int n; (n = in.read(buf)) > 0; ) {
+                sha256.update(buf, 0, n);
+                for (int i = 0; i < n; i++) {
+                    if (buf[i] == '\n') lines++;
+                }
+                last = buf[n - 1];
+            }
+        }
+        if (last != '\n') lines++;
+        return new FileScan(Math.max(0, lines - 1), HexFormat.of().formatHex(sha256.digest()));
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) return;
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("ImportJobService::deleteQuietly -> could not delete {}", file, e);
+        }
+    }
+}
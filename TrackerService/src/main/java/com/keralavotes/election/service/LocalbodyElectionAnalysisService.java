@@ -1,33 +1,30 @@
 package com.keralavotes.election.service;
 
+import com.keralavotes.election.config.DbBulkhead;
 import com.keralavotes.election.dto.*;
 import com.keralavotes.election.dto.details.AllianceVoteDetailDto;
 import com.keralavotes.election.dto.details.BoothDetailRowDto;
 import com.keralavotes.election.dto.details.LocalbodyDetailYearDataDto;
 import com.keralavotes.election.dto.details.WardDetailRowDto;
-import com.keralavotes.election.entity.BoothTotals;
-import com.keralavotes.election.entity.LbCandidate;
-import com.keralavotes.election.entity.LbWardResult;
 import com.keralavotes.election.entity.Localbody;
-import com.keralavotes.election.entity.Party;
-import com.keralavotes.election.entity.PollingStation;
-import com.keralavotes.election.entity.Ward;
+import com.keralavotes.election.model.AllianceTally;
+import com.keralavotes.election.model.BoothRollupRow;
 import com.keralavotes.election.model.LocalbodyAnalysisResponse;
-import com.keralavotes.election.repository.BoothTotalsRepository;
-import com.keralavotes.election.repository.BoothVotesRepository;
-import com.keralavotes.election.repository.LbCandidateRepository;
-import com.keralavotes.election.repository.LbWardResultRepository;
+import com.keralavotes.election.model.PartyAllianceSnapshot;
+import com.keralavotes.election.model.WardRollupRow;
 import com.keralavotes.election.repository.LocalbodyRepository;
-import com.keralavotes.election.repository.PartyRepository;
-import com.keralavotes.election.repository.PollingStationRepository;
-import com.keralavotes.election.repository.WardRepository;
-import jakarta.persistence.EntityManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
-import java.util.function.Function;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -36,18 +33,11 @@ import java.util.stream.Collectors;
 public class LocalbodyElectionAnalysisService {
 
     private final LocalbodyRepository localbodyRepo;
-    private final LbCandidateRepository candidateRepo;
-    private final LbWardResultRepository wardResultRepo;
-    private final BoothVotesRepository boothVotesRepository;
-    private final BoothTotalsRepository boothTotalsRepository;
-    private final PollingStationRepository pollingStationRepo;
-    private final WardRepository wardRepo;
-    private final PartyRepository partyRepo;
-    private final EntityManager em;
-
-    // If you already have a booth-based analysis service for 2024 GE & future elections,
-    // inject it here and delegate from buildBoothBasedAnalysis(...)
-    // private final BoothAnalysisService boothAnalysisService;
+    private final LocalbodyRollupReader rollupReader;
+    private final PartyAllianceSnapshotService allianceSnapshotService;
+    private final ExecutorService analysisExecutor;
+    private final DbBulkhead dbBulkhead;
+    private final MeterRegistry meterRegistry;
 
     // --- election type registry (future proof) ---
 
@@ -84,21 +74,6 @@ public class LocalbodyElectionAnalysisService {
         ELECTION_LABELS = Collections.unmodifiableMap(labels);
     }
 
-    // --- Alliance helper: null/empty -> "OTH" ---
-
-    private String resolveAlliance(Party party) {
-        if (party == null) return "OTH";
-
-        if (party.getAlliance() == null || party.getAlliance().getName() == null) {
-            return "OTH";
-        }
-
-        String name = party.getAlliance().getName().trim();
-        if (name.isEmpty()) return "OTH";
-
-        return name.toUpperCase();  // LDF, UDF, NDA, etc.
-    }
-
     // === PUBLIC ENTRY POINT ==================================================
 
     public LocalbodyAnalysisResponse analyzeLocalbody(Long localbodyId, List<Integer> requestedYears) {
@@ -132,26 +107,25 @@ public class LocalbodyElectionAnalysisService {
         }
         log.info("LocalbodyElectionAnalysisService::analyzeLocalbody -> Processing years: {}", yearsToProcess);
 
+        // two queries (ward family + booth family), fetched concurrently
+        YearRows rows = fetchRows(lb.getId(), yearsToProcess);
+
         Map<String, SingleElectionAnalysisDto> electionMap = new LinkedHashMap<>();
         for (Integer year : yearsToProcess) {
             ElectionType type = ELECTION_TYPES.get(year);
-            if (type == null) {
-                log.warn("Year {} not configured in ELECTION_TYPES, skipping", year);
-                continue;
-            }
-
-            SingleElectionAnalysisDto dto;
 
-            switch (type) {
-                case LOCALBODY -> dto = buildLocalbodyAnalysis(lb, year);
-                case LOKSABHA, ASSEMBLY -> dto = buildBoothBasedAnalysis(lb, year, type);
+            SingleElectionAnalysisDto dto = timed("summary", year, () -> switch (type) {
+                case LOCALBODY -> buildLocalbodyAnalysis(lb, year, rows.wardRows(year));
+                case LOKSABHA, ASSEMBLY -> buildBoothBasedAnalysis(lb, year, type, rows.boothRows(year));
                 default -> {
                     log.warn("Unsupported election type {} for year {}", type, year);
-                    continue;
+                    yield null;
                 }
-            }
+            });
 
-            electionMap.put(String.valueOf(year), dto);
+            if (dto != null) {
+                electionMap.put(String.valueOf(year), dto);
+            }
         }
 
         resp.setElections(electionMap);
@@ -160,102 +134,35 @@ public class LocalbodyElectionAnalysisService {
 
     // === LOCALBODY (WARD-BASED) ANALYSIS =====================================
 
-    private SingleElectionAnalysisDto buildLocalbodyAnalysis(Localbody lb, int year) {
+    private SingleElectionAnalysisDto buildLocalbodyAnalysis(Localbody lb, int year, List<WardRollupRow> rows) {
 
         log.debug("Building LOCALBODY analysis for LB={} year={}", lb.getId(), year);
 
-        // 1) load all candidates for this localbody & year
-        List<LbCandidate> candidates =
-                candidateRepo.findByLocalbodyIdAndElectionYear(lb.getId(), year);
-
-        if (candidates.isEmpty()) {
-            log.info("No localbody candidates for LB={} year={}", lb.getId(), year);
-        }
-
-        Map<Integer, LbCandidate> candById = candidates.stream()
-                .filter(c -> c.getId() != null)
-                .collect(Collectors.toMap(
-                        LbCandidate::getId,
-                        Function.identity()
-                ));
-
-        Set<Integer> candIds = candById.keySet();
+        // 1) pre-ranked alliance rows per ward (ward_alliance_rollup)
 
-        if (candIds.isEmpty()) {
+        if (rows.isEmpty()) {
+            log.info("No ward rollups for LB={} year={}", lb.getId(), year);
             return emptyLocalbodyElectionDto(lb, year);
         }
 
-        // 2) load all ward results for these candidates & year
-        List<LbWardResult> results =
-                wardResultRepo.findByElectionYearAndCandidateIdIn(year, candIds);
-
-        // 3) load party map
-        Map<Long, Party> partyById = partyRepo.findAll().stream()
-                .filter(p -> p.getId() != null)
-                .collect(Collectors.toMap(Party::getId, Function.identity()));
-
-        // 4) build alliance vote totals
-        Map<String, Long> votesByAlliance = new HashMap<>();
-        long totalVotes = 0L;
+        // 2) alliance vote totals + ward performance in one pass (dense alliance ids, no boxing)
+        PartyAllianceSnapshot alliances = allianceSnapshotService.current();
+        AllianceTally votesByAlliance = alliances.newTally();
+        AllianceTally[] placings = newPlacings(alliances);
 
-        // also group by ward for performance ranking
-        Map<Integer, List<LbWardResult>> resultsByWard =
-                results.stream().collect(Collectors.groupingBy(LbWardResult::getWardId));
+        for (WardRollupRow r : rows) {
+            int alliance = alliances.allianceIdOrOthers(r.getAlliance());
+            votesByAlliance.add(alliance, r.getVotes());
 
-        for (LbWardResult r : results) {
-            LbCandidate c = candById.get(r.getCandidateId());
-            if (c == null) continue;
-
-            Party party = (c.getPartyId() != null) ? partyById.get(c.getPartyId()) : null;
-            String alliance = resolveAlliance(party);
-
-            long v = r.getVotes();
-            totalVotes += v;
-            votesByAlliance.merge(alliance, v, Long::sum);
+            int pos = r.getPosition();
+            if (pos <= 3) placings[pos - 1].add(alliance, 1);
         }
 
-        // 5) convert vote share to DTO list
-        long finalTotalVotes = totalVotes;
-        List<VoteShareRowDto> voteShare = votesByAlliance.entrySet().stream()
-                .sorted((e1, e2) -> Long.compare(e2.getValue(), e1.getValue())) // desc by votes
-                .map(e -> new VoteShareRowDto(
-                        e.getKey(),
-                        e.getValue(),
-                        finalTotalVotes == 0 ? 0.0 : (e.getValue() * 100.0 / finalTotalVotes)
-                ))
-                .toList();
-
-        // 6) ward performance
-        Map<String, PerformanceRowDto> perfByAlliance = new HashMap<>();
-
-        // ensure row exists for an alliance before incrementing
-        java.util.function.Function<String, PerformanceRowDto> perfRow =
-                a -> perfByAlliance.computeIfAbsent(a, k -> new PerformanceRowDto(k, 0, 0, 0));
+        // 3) convert to DTO lists
+        List<VoteShareRowDto> voteShare = toVoteShareRows(votesByAlliance, votesByAlliance.total(), alliances);
+        List<PerformanceRowDto> wardPerf = toPerformanceRows(placings, alliances);
 
-        for (Map.Entry<Integer, List<LbWardResult>> e : resultsByWard.entrySet()) {
-            List<LbWardResult> wardResults = e.getValue().stream()
-                    .sorted((r1, r2) -> Integer.compare(r2.getVotes(), r1.getVotes())) // desc votes
-                    .toList();
-
-            for (int pos = 0; pos < wardResults.size() && pos < 3; pos++) {
-                LbWardResult r = wardResults.get(pos);
-                LbCandidate c = candById.get(r.getCandidateId());
-                if (c == null) continue;
-                Party p = (c.getPartyId() != null) ? partyById.get(c.getPartyId()) : null;
-                String alliance = resolveAlliance(p);
-
-                PerformanceRowDto row = perfRow.apply(alliance);
-                if (pos == 0) row.setWinner(row.getWinner() + 1);
-                else if (pos == 1) row.setRunnerUp(row.getRunnerUp() + 1);
-                else if (pos == 2) row.setThird(row.getThird() + 1);
-            }
-        }
-
-        List<PerformanceRowDto> wardPerf = perfByAlliance.values().stream()
-                .sorted(Comparator.comparing(PerformanceRowDto::getAlliance))
-                .toList();
-
-        // 7) build DTO
+        // 4) build DTO
         SingleElectionAnalysisDto dto = new SingleElectionAnalysisDto();
         dto.setYear(year);
         dto.setType(ElectionType.LOCALBODY);
@@ -283,89 +190,40 @@ public class LocalbodyElectionAnalysisService {
     }
 
     // === GE / ASSEMBLY (BOOTH-BASED) ANALYSIS =================================
-    //
-    // Plug your existing 2024 GE localbody/booth analysis here.
-    // For now I provide a stub that returns an empty object, so it won’t break
-    // compilation. Replace the body with calls to your existing service.
 
-    private SingleElectionAnalysisDto buildBoothBasedAnalysis(Localbody lb, int year, ElectionType type) {
+    private SingleElectionAnalysisDto buildBoothBasedAnalysis(Localbody lb, int year, ElectionType type,
+                                                              List<BoothRollupRow> rows) {
 
         log.debug("LocalBodyElectionAnalysisService::buildBoothBasedAnalysis -> " +
                 "Building {} booth-based analysis for LB={} year={}", type, lb.getId(), year);
 
-        // Find the poling stations for this localbody
-        Set<Long> pollingStationIds = pollingStationRepo.findByLocalbody_Id(lb.getId())
-                .stream()
-                .map(PollingStation::getId)
-                .collect(Collectors.toSet());
-
-        // Find total valid votes across all booths in this localbody/year
-        long totalVotes = boothTotalsRepository.findByYearAndPollingStation_IdIn(year, pollingStationIds)
-                .stream()
-                .mapToLong(BoothTotals::getTotalValid)
-                .sum();
-
-        // party-wise booth votes
-        List<Object[]> partyRows = boothVotesRepository.getBoothPartyVotes(lb.getId(), year, type);
-
-        // Merge party votes into alliance votes
-        Map<String, Long> allianceVoteMap = partyRows.stream()
-                .collect(Collectors.groupingBy(
-                        r -> r[1] != null ? r[1].toString() : "OTH",
-                        Collectors.summingLong(r -> ((Number) r[2]).longValue())
-                ));
+        // rows: pre-ranked alliance rows per booth (booth_alliance_rollup)
+        PartyAllianceSnapshot alliances = allianceSnapshotService.current();
+        AllianceTally allianceVotes = alliances.newTally();
+        AllianceTally[] placings = newPlacings(alliances);
+        long totalValid = 0L;
 
-        List<VoteShareRowDto> boothVoteShare = allianceVoteMap.entrySet().stream()
-                .map(e -> {
-                    String alliance = e.getKey();
-                    long votes = e.getValue();
-                    double pct = totalVotes == 0 ? 0 : (votes * 100.0 / totalVotes);
-                    return new VoteShareRowDto(alliance, votes, pct);
-                })
-                .sorted(Comparator.comparingLong(VoteShareRowDto::getVotes).reversed())
-                .toList();
-
-        // Booth results grouped by booth -> used for ranking summary
-        List<Object[]> boothRows = boothVotesRepository.getBoothResultsGroupedByBooth(lb.getId(), year, type);
-
-        // Build booth performance
-        Map<Long, Map<String, Long>> boothMap = new HashMap<>();
-
-        for (Object[] row : boothRows) {
-            Long boothId = ((Number) row[0]).longValue();
-            String alliance = row[1] != null ? row[1].toString() : "OTH";
-            long votes = ((Number) row[2]).longValue();
-
-            boothMap.computeIfAbsent(boothId, k -> new HashMap<>())
-                    .merge(alliance, votes, Long::sum);
-        }
+        for (BoothRollupRow r : rows) {
+            int alliance = alliances.allianceIdOrOthers(r.getAlliance());
+            allianceVotes.add(alliance, r.getVotes());
 
-        // Ranking table
-        Map<String, PerformanceRowDto> perf = new HashMap<>();
-        Function<String, PerformanceRowDto> perfRow =
-                a -> perf.computeIfAbsent(a, k -> new PerformanceRowDto(k, 0, 0, 0));
-
-        for (var entry : boothMap.entrySet()) {
-            var alliances = entry.getValue().entrySet().stream()
-                    .sorted((a, b) -> Long.compare(b.getValue(), a.getValue()))
-                    .toList();
-
-            for (int pos = 0; pos < alliances.size() && pos < 3; pos++) {
-                String a = alliances.get(pos).getKey();
-                PerformanceRowDto row = perfRow.apply(a);
-                if (pos == 0) row.setWinner(row.getWinner() + 1);
-                else if (pos == 1) row.setRunnerUp(row.getRunnerUp() + 1);
-                else row.setThird(row.getThird() + 1);
+            int pos = r.getPosition();
+            if (pos == 1 && r.getTotalValid() != null) {
+                // total valid votes is per booth, count it once via the winner row
+                totalValid += r.getTotalValid();
             }
+            if (pos <= 3) placings[pos - 1].add(alliance, 1);
         }
 
+        List<VoteShareRowDto> boothVoteShare = toVoteShareRows(allianceVotes, totalValid, alliances);
+
         // DTO
         SingleElectionAnalysisDto dto = new SingleElectionAnalysisDto();
         dto.setYear(year);
         dto.setType(type);
         dto.setLabel(ELECTION_LABELS.get(year));
         dto.setBoothVoteShare(boothVoteShare);
-        dto.setBoothPerformance(perf.values().stream().toList());
+        dto.setBoothPerformance(toPerformanceRows(placings, alliances));
 
         dto.setVoteShare(null);
         dto.setWardPerformance(null);
@@ -373,6 +231,44 @@ public class LocalbodyElectionAnalysisService {
         return dto;
     }
 
+    // --- tally -> DTO helpers --------------------------------------------------
+
+    // [0] = winner, [1] = runner-up, [2] = third counts per alliance
+    private AllianceTally[] newPlacings(PartyAllianceSnapshot alliances) {
+        return new AllianceTally[]{alliances.newTally(), alliances.newTally(), alliances.newTally()};
+    }
+
+    private List<VoteShareRowDto> toVoteShareRows(AllianceTally tally, long totalVotes,
+                                                  PartyAllianceSnapshot alliances) {
+        int[] ranked = tally.ranked();
+        List<VoteShareRowDto> out = new ArrayList<>(ranked.length);
+        for (int id : ranked) {
+            long votes = tally.get(id);
+            out.add(new VoteShareRowDto(
+                    alliances.allianceName(id),
+                    votes,
+                    totalVotes == 0 ? 0.0 : (votes * 100.0 / totalVotes)
+            ));
+        }
+        return out;
+    }
+
+    private List<PerformanceRowDto> toPerformanceRows(AllianceTally[] placings, PartyAllianceSnapshot alliances) {
+        List<PerformanceRowDto> out = new ArrayList<>();
+        for (int id = 0; id < alliances.allianceCount(); id++) {
+            if (placings[0].contains(id) || placings[1].contains(id) || placings[2].contains(id)) {
+                out.add(new PerformanceRowDto(
+                        alliances.allianceName(id),
+                        (int) placings[0].get(id),
+                        (int) placings[1].get(id),
+                        (int) placings[2].get(id)
+                ));
+            }
+        }
+        out.sort(Comparator.comparing(PerformanceRowDto::getAlliance));
+        return out;
+    }
+
     // ========================================================================
     // NEW: DETAILED ANALYSIS (WARD / BOOTH TABLES)
     // ========================================================================
@@ -405,25 +301,22 @@ public class LocalbodyElectionAnalysisService {
                     .sorted()
                     .toList();
         }
-        Map<Integer, LocalbodyDetailYearDataDto> result = new LinkedHashMap<>();
+        YearRows rows = fetchRows(lb.getId(), yearsToProcess);
 
+        Map<Integer, LocalbodyDetailYearDataDto> result = new LinkedHashMap<>();
         for (Integer year : yearsToProcess) {
             ElectionType type = ELECTION_TYPES.get(year);
-            if (type == null) {
-                log.warn("Year {} not configured in ELECTION_TYPES, skipping details", year);
-                continue;
-            }
 
             LocalbodyDetailYearDataDto dto = new LocalbodyDetailYearDataDto();
             dto.setYear(year);
             dto.setType(type);
 
             if (type == ElectionType.LOCALBODY) {
-                dto.setWards(buildWardDetailRows(lb, year));
+                dto.setWards(timed("details", year, () -> buildWardDetailRows(lb, year, rows.wardRows(year))));
                 dto.setBooths(null);
             } else if (type == ElectionType.LOKSABHA || type == ElectionType.ASSEMBLY) {
                 dto.setWards(null);
-                dto.setBooths(buildBoothDetailRows(lb, year));
+                dto.setBooths(timed("details", year, () -> buildBoothDetailRows(lb, year, rows.boothRows(year))));
             } else {
                 dto.setWards(null);
                 dto.setBooths(null);
@@ -434,202 +327,168 @@ public class LocalbodyElectionAnalysisService {
     }
 
     // ------------------------------------------------------------------------
-    // LOCALBODY: WARD DETAIL TABLE
+    // MULTI-YEAR FETCH
     // ------------------------------------------------------------------------
-    private List<WardDetailRowDto> buildWardDetailRows(Localbody lb, int year) {
 
-        log.debug("Building ward detail rows for LB={} year={}", lb.getId(), year);
-
-        // 1) Candidates for this localbody/year
-        List<LbCandidate> candidates =
-                candidateRepo.findByLocalbodyIdAndElectionYear(lb.getId(), year);
+    /** Rollup rows for every requested year, split by year. */
+    private record YearRows(Map<Integer, List<WardRollupRow>> wards,
+                            Map<Integer, List<BoothRollupRow>> booths) {
 
-        if (candidates.isEmpty()) {
-            log.info("No localbody candidates for LB={} year={} (ward details)", lb.getId(), year);
-            return Collections.emptyList();
+        List<WardRollupRow> wardRows(int year) {
+            return wards.getOrDefault(year, List.of());
         }
 
-        Map<Integer, LbCandidate> candById = candidates.stream()
-                .filter(c -> c.getId() != null)
-                .collect(Collectors.toMap(LbCandidate::getId, Function.identity()));
-
-        Set<Integer> candIds = candById.keySet();
-        if (candIds.isEmpty()) {
-            return Collections.emptyList();
+        List<BoothRollupRow> boothRows(int year) {
+            return booths.getOrDefault(year, List.of());
         }
+    }
 
-        // 2) Ward-level results
-        List<LbWardResult> results =
-                wardResultRepo.findByElectionYearAndCandidateIdIn(year, candIds);
-
-        if (results.isEmpty()) {
-            return Collections.emptyList();
-        }
-
-        // 3) Ward map
-        Set<Long> wardIds = results.stream()
-                .map(r -> (long) r.getWardId())
-                .collect(Collectors.toSet());
-
-        Map<Long, Ward> wardById = wardRepo.findAllById(wardIds).stream()
-                .collect(Collectors.toMap(Ward::getId, Function.identity()));
+    /**
+     * One streamed query per election family for all years, run concurrently on virtual
+     * threads, each holding a DB permit. An 11-year request costs two queries.
+     */
+    private YearRows fetchRows(Long localbodyId, List<Integer> years) {
+        List<Integer> wardYears = years.stream()
+                .filter(y -> ELECTION_TYPES.get(y) == ElectionType.LOCALBODY)
+                .toList();
+        List<Integer> boothYears = years.stream()
+                .filter(y -> ELECTION_TYPES.get(y) == ElectionType.LOKSABHA
+                        || ELECTION_TYPES.get(y) == ElectionType.ASSEMBLY)
+                .toList();
 
-        // 4) Party map
-        Map<Long, Party> partyById = partyRepo.findAll().stream()
-                .filter(p -> p.getId() != null)
-                .collect(Collectors.toMap(Party::getId, Function.identity()));
+        Future<Map<Integer, List<WardRollupRow>>> wards = wardYears.isEmpty()
+                ? CompletableFuture.completedFuture(Map.of())
+                : submitFetch("ward", () -> rollupReader.wardRowsByYear(localbodyId, wardYears));
+        Future<Map<Integer, List<BoothRollupRow>>> booths = boothYears.isEmpty()
+                ? CompletableFuture.completedFuture(Map.of())
+                : submitFetch("booth", () -> rollupReader.boothRowsByYear(localbodyId, boothYears));
 
-        // 5) Group results by ward
-        Map<Integer, List<LbWardResult>> resultsByWard =
-                results.stream().collect(Collectors.groupingBy(LbWardResult::getWardId));
+        List<Future<?>> all = List.of(wards, booths);
+        return new YearRows(await(wards, all), await(booths, all));
+    }
 
-        List<WardDetailRowDto> rows = new ArrayList<>();
+    private <T> Future<T> submitFetch(String family, Supplier<T> fetch) {
+        Timer timer = Timer.builder("localbody.analysis.fetch")
+                .description("Multi-year rollup fetch time per election family")
+                .tag("family", family)
+                .register(meterRegistry);
 
-        for (Map.Entry<Integer, List<LbWardResult>> entry : resultsByWard.entrySet()) {
-            Integer wardIdInt = entry.getKey();
-            Long wardId = wardIdInt.longValue();
+        return analysisExecutor.submit(() -> dbBulkhead.call(() -> timer.record(fetch)));
+    }
 
-            Ward ward = wardById.get(wardId);
-            String wardName = ward != null ? ward.getWardName() : ("Ward " + wardIdInt);
-            Integer wardNum = ward != null ? (int) ward.getWardNum() : wardIdInt;
+    private <T> T await(Future<T> future, List<Future<?>> siblings) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            siblings.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading localbody analysis", e);
+        } catch (ExecutionException e) {
+            siblings.forEach(f -> f.cancel(true));
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
 
-            List<LbWardResult> wardResults = entry.getValue();
+    /** Per-year build time (in memory, rows are already loaded). */
+    private <T> T timed(String phase, int year, Supplier<T> builder) {
+        return Timer.builder("localbody.analysis.year")
+                .description("Per-year localbody analysis build time")
+                .tag("phase", phase)
+                .tag("year", String.valueOf(year))
+                .tag("type", String.valueOf(ELECTION_TYPES.get(year)))
+                .register(meterRegistry)
+                .record(builder);
+    }
 
-            // 5a) sum votes per alliance
-            Map<String, Long> votesByAlliance = new HashMap<>();
-            long totalVotes = 0L;
+    // ------------------------------------------------------------------------
+    // LOCALBODY: WARD DETAIL TABLE
+    // ------------------------------------------------------------------------
+    private List<WardDetailRowDto> buildWardDetailRows(Localbody lb, int year, List<WardRollupRow> rows) {
 
-            for (LbWardResult r : wardResults) {
-                LbCandidate c = candById.get(r.getCandidateId());
-                if (c == null) continue;
+        log.debug("Building ward detail rows for LB={} year={}", lb.getId(), year);
 
-                Party party = (c.getPartyId() != null) ? partyById.get(c.getPartyId()) : null;
-                String alliance = resolveAlliance(party);
+        // Rows come ordered by ward_num, position -> alliances are already sorted by votes desc
+        if (rows.isEmpty()) {
+            log.info("No ward rollups for LB={} year={} (ward details)", lb.getId(), year);
+            return Collections.emptyList();
+        }
 
-                long v = r.getVotes();
-                totalVotes += v;
-                votesByAlliance.merge(alliance, v, Long::sum);
-            }
+        Map<Long, List<WardRollupRow>> byWard = rows.stream()
+                .collect(Collectors.groupingBy(WardRollupRow::getWardId, LinkedHashMap::new, Collectors.toList()));
 
-            if (votesByAlliance.isEmpty()) {
-                continue;
-            }
+        List<WardDetailRowDto> result = new ArrayList<>(byWard.size());
 
-            // 5b) alliance list sorted by votes desc
-            List<Map.Entry<String, Long>> sortedAlliances = votesByAlliance.entrySet().stream()
-                    .sorted((a, b) -> Long.compare(b.getValue(), a.getValue()))
-                    .toList();
+        for (List<WardRollupRow> wardRows : byWard.values()) {
+            WardRollupRow first = wardRows.getFirst();
+            long totalVotes = first.getTotal();
 
-            String winnerAlliance = sortedAlliances.get(0).getKey();
-            long winnerVotes = sortedAlliances.get(0).getValue();
-            long secondVotes = sortedAlliances.size() > 1 ? sortedAlliances.get(1).getValue() : 0L;
-            long margin = winnerVotes - secondVotes;
-
-            // 5c) build AllianceBreakup list
-            long finalTotalVotes = totalVotes;
-            List<AllianceVoteDetailDto> allianceDtos = sortedAlliances.stream()
-                    .map(e -> new AllianceVoteDetailDto(
-                            e.getKey(),
-                            e.getValue(),
-                            finalTotalVotes == 0 ? 0.0 : (e.getValue() * 100.0 / finalTotalVotes)
+            List<AllianceVoteDetailDto> allianceDtos = wardRows.stream()
+                    .map(r -> new AllianceVoteDetailDto(
+                            r.getAlliance(),
+                            r.getVotes(),
+                            totalVotes == 0 ? 0.0 : (r.getVotes() * 100.0 / totalVotes)
                     ))
                     .toList();
 
             WardDetailRowDto row = new WardDetailRowDto();
-            row.setWardNum(wardNum);
-            row.setWardName(wardName);
+            row.setWardNum(first.getWardNum());
+            row.setWardName(first.getWardName());
             row.setAlliances(allianceDtos);
             row.setTotal(totalVotes);
-            row.setWinner(winnerAlliance);
-            row.setMargin(margin);
+            row.setWinner(first.getWinner());
+            row.setMargin(first.getMargin());
 
-            rows.add(row);
+            result.add(row);
         }
 
-        // Sort rows by wardNum ascending
-        rows.sort(Comparator.comparing(
-                r -> r.getWardNum() != null ? r.getWardNum() : Integer.MAX_VALUE
-        ));
-
-        return rows;
+        return result;
     }
 
     // ------------------------------------------------------------------------
     // GE / ASSEMBLY: BOOTH DETAIL TABLE
     // ------------------------------------------------------------------------
-    private List<BoothDetailRowDto> buildBoothDetailRows(Localbody lb, int year) {
+    private List<BoothDetailRowDto> buildBoothDetailRows(Localbody lb, int year, List<BoothRollupRow> rows) {
 
         log.debug("Building booth detail rows for LB={} year={}", lb.getId(), year);
 
-        // Query returns: ps.id, ps.psNumber, ps.name, allianceName, SUM(votes)
-        List<Object[]> rows = boothVotesRepository.getBoothVotesDetails(lb.getId(), year);
+        // Rows come ordered by ps_number, ps_id, position
         if (rows.isEmpty()) {
             return Collections.emptyList();
         }
 
-        // Group by booth id
-        record BoothKey(Long id, Integer num, String name) {}
-
-        Map<BoothKey, Map<String, Long>> boothMap = new HashMap<>();
-
-        for (Object[] r : rows) {
-            Long boothId = ((Number) r[0]).longValue();
-            Integer boothNum = r[1] != null ? ((Number) r[1]).intValue() : null;
-            String boothName = r[2] != null ? r[2].toString() : "";
-            String alliance = r[3] != null ? r[3].toString() : "OTH";
-            long votes = ((Number) r[4]).longValue();
-
-            BoothKey key = new BoothKey(boothId, boothNum, boothName);
-
-            boothMap.computeIfAbsent(key, k -> new HashMap<>())
-                    .merge(alliance, votes, Long::sum);
-        }
-
-        List<BoothDetailRowDto> result = new ArrayList<>();
+        Map<Long, List<BoothRollupRow>> byBooth = rows.stream()
+                .collect(Collectors.groupingBy(BoothRollupRow::getPsId, LinkedHashMap::new, Collectors.toList()));
 
-        for (var entry : boothMap.entrySet()) {
-            BoothKey key = entry.getKey();
-            Map<String, Long> votesByAlliance = entry.getValue();
+        List<BoothDetailRowDto> result = new ArrayList<>(byBooth.size());
 
-            long totalVotes = votesByAlliance.values().stream()
-                    .mapToLong(Long::longValue)
-                    .sum();
+        for (List<BoothRollupRow> boothRows : byBooth.values()) {
+            BoothRollupRow first = boothRows.getFirst();
+            long totalVotes = first.getTotal();
 
             if (totalVotes == 0) continue;
 
-            List<Map.Entry<String, Long>> sortedAlliances = votesByAlliance.entrySet().stream()
-                    .sorted((a, b) -> Long.compare(b.getValue(), a.getValue()))
-                    .toList();
-
-            String winnerAlliance = sortedAlliances.get(0).getKey();
-            long winnerVotes = sortedAlliances.get(0).getValue();
-            long secondVotes = sortedAlliances.size() > 1 ? sortedAlliances.get(1).getValue() : 0L;
-            long margin = winnerVotes - secondVotes;
-
-            List<AllianceVoteDetailDto> allianceDtos = sortedAlliances.stream()
-                    .map(e -> new AllianceVoteDetailDto(
-                            e.getKey(),
-                            e.getValue(),
-                            totalVotes == 0 ? 0.0 : (e.getValue() * 100.0 / totalVotes)
+            List<AllianceVoteDetailDto> allianceDtos = boothRows.stream()
+                    .map(r -> new AllianceVoteDetailDto(
+                            r.getAlliance(),
+                            r.getVotes(),
+                            r.getVotes() * 100.0 / totalVotes
                     ))
                     .toList();
 
             BoothDetailRowDto dto = new BoothDetailRowDto();
-            dto.setBoothNum(key.num());
-            dto.setBoothName(key.name());
+            dto.setBoothNum(first.getPsNumber());
+            dto.setBoothName(first.getPsName() != null ? first.getPsName() : "");
             dto.setAlliances(allianceDtos);
             dto.setTotal(totalVotes);
-            dto.setWinner(winnerAlliance);
-            dto.setMargin(margin);
+            dto.setWinner(first.getWinner());
+            dto.setMargin(first.getMargin());
 
             result.add(dto);
         }
 
-        // sort by booth number (nulls at end)
-        result.sort(Comparator.comparing(
-                r -> r.getBoothNum() != null ? r.getBoothNum() : Integer.MAX_VALUE
-        ));
-
         return result;
     }
 
@@ -4,9 +4,11 @@ import com.keralavotes.election.dto.LocalbodyFixReport;
 import com.keralavotes.election.dto.MongoLocalbodyResult;
 import com.keralavotes.election.dto.MongoWardData;
 import com.keralavotes.election.entity.*;
+import com.keralavotes.election.event.ElectionDataChangedEvent;
 import com.keralavotes.election.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,6 +28,7 @@ public class LocalbodyImportFixService {
     private final LbWardResultRepository wardResultRepo;
     private final PartyRepository partyRepo;
     private final DistrictRepository districtRepo;
+    private final ApplicationEventPublisher eventPublisher;
 
     private String norm(String s) {
         if (s == null) return "";
@@ -212,6 +215,8 @@ public class LocalbodyImportFixService {
 
         List<LbWardResult> toInsert = new ArrayList<>();
         List<String> insertedKeys = new ArrayList<>();
+        Set<Integer> touchedYears = new HashSet<>();
+        Set<Long> touchedLocalbodies = new HashSet<>();
 
         for (MongoLocalbodyResult mr : mongoResults) {
 
@@ -246,9 +251,14 @@ public class LocalbodyImportFixService {
 
             toInsert.add(wr);
             insertedKeys.add(key);
+            touchedYears.add(year);
+            touchedLocalbodies.add(w.getLocalbody().getId());
         }
 
         wardResultRepo.saveAll(toInsert);
+        if (!toInsert.isEmpty()) {
+            eventPublisher.publishEvent(ElectionDataChangedEvent.wardResults(touchedYears, touchedLocalbodies));
+        }
 
         report.setResultsInserted(toInsert.size());
         report.setResultKeysInserted(insertedKeys);
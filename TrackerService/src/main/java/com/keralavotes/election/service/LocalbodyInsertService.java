@@ -9,6 +9,7 @@ import com.keralavotes.election.entity.LbWardResult;
 import com.keralavotes.election.entity.Localbody;
 import com.keralavotes.election.entity.Party;
 import com.keralavotes.election.entity.Ward;
+import com.keralavotes.election.event.ElectionDataChangedEvent;
 import com.keralavotes.election.repository.DistrictRepository;
 import com.keralavotes.election.repository.LbCandidateRepository;
 import com.keralavotes.election.repository.LbWardResultRepository;
@@ -18,12 +19,14 @@ import com.keralavotes.election.repository.WardRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -37,6 +40,7 @@ public class LocalbodyInsertService {
     private final PartyRepository partyRepo;
     private final LbCandidateRepository candidateRepo;
     private final LbWardResultRepository resultRepo;
+    private final ApplicationEventPublisher eventPublisher;
 
     // ---------------- API 1: Insert Ward Metadata ----------------
     @Transactional
@@ -118,6 +122,9 @@ public class LocalbodyInsertService {
         wr.setVotes(Integer.parseInt(r.getCand_vote()));
 
         resultRepo.save(wr);
+
+        eventPublisher.publishEvent(
+                ElectionDataChangedEvent.wardResults(Set.of(year), Set.of(ward.getLocalbody().getId())));
     }
 
     @Transactional
@@ -371,6 +378,8 @@ public class LocalbodyInsertService {
 
         log.info("Batch import successful. Total operations={}", totalOps);
 
+        eventPublisher.publishEvent(ElectionDataChangedEvent.wardResults(Set.of(electionYear), Set.of(lbId)));
+
         return totalOps;
     }
 
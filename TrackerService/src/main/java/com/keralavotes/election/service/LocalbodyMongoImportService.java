@@ -3,8 +3,11 @@ package com.keralavotes.election.service;
 import com.keralavotes.election.dto.MongoLocalbodyResult;
 import com.keralavotes.election.dto.MongoWardData;
 import com.keralavotes.election.entity.*;
+import com.keralavotes.election.event.ElectionDataChangedEvent;
+import com.keralavotes.election.model.ImportProgress;
 import com.keralavotes.election.repository.*;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,6 +26,7 @@ public class LocalbodyMongoImportService {
     private final LbWardResultRepository wardResultRepo;
     private final DistrictRepository districtRepo;
     private final PartyRepository partyRepo;
+    private final ApplicationEventPublisher eventPublisher;
 
     public LocalbodyMongoImportService(
             MongoWardDataRepository mongoWardRepo,
@@ -32,7 +36,8 @@ public class LocalbodyMongoImportService {
             LbCandidateRepository candidateRepo,
             LbWardResultRepository wardResultRepo,
             DistrictRepository districtRepo,
-            PartyRepository partyRepo
+            PartyRepository partyRepo,
+            ApplicationEventPublisher eventPublisher
     ) {
         this.mongoWardRepo = mongoWardRepo;
         this.mongoResultRepo = mongoResultRepo;
@@ -42,6 +47,7 @@ public class LocalbodyMongoImportService {
         this.wardResultRepo = wardResultRepo;
         this.districtRepo = districtRepo;
         this.partyRepo = partyRepo;
+        this.eventPublisher = eventPublisher;
     }
 
     // ----------------------------------------------------
@@ -114,7 +120,7 @@ public class LocalbodyMongoImportService {
     // MAIN IMPORT
     // ----------------------------------------------------
     @Transactional
-    public void importAll() {
+    public String importAll(ImportProgress progress) {
 
         log.info("=== LOCALBODY MONGO → SQL IMPORT STARTED ===");
 
@@ -122,6 +128,7 @@ public class LocalbodyMongoImportService {
         List<MongoLocalbodyResult> mongoResults = mongoResultRepo.findAll();
 
         log.info("Mongo: wards = {}, results = {}", mongoWards.size(), mongoResults.size());
+        progress.setTotalRows(mongoWards.size() + mongoResults.size());
 
         // ----------------------------------------------------
         // LOAD EXISTING SQL DATA
@@ -201,6 +208,8 @@ public class LocalbodyMongoImportService {
         int wardCounter = 0;
 
         for (MongoWardData mw : mongoWards) {
+            progress.checkCancelled();
+            progress.parsed();
 
             if (++wardCounter % 5000 == 0) {
                 log.info("Processed {} / {} mongo wards...", wardCounter, mongoWards.size());
@@ -211,6 +220,7 @@ public class LocalbodyMongoImportService {
 
             if (dist == null) {
                 log.warn("Skipping ward {}, unknown district: {}", mw.getId(), mw.getDistrict());
+                progress.skipped(1);
                 continue;
             }
 
@@ -245,6 +255,7 @@ public class LocalbodyMongoImportService {
             if (w != null) {
                 log.debug("Reusing ward via ward_details_id={}", mw.getId());
                 wardCache.put(cacheKey, w);
+                progress.skipped(1);
                 continue;
             }
 
@@ -255,6 +266,7 @@ public class LocalbodyMongoImportService {
                 if (w != null) {
                     log.debug("Reusing ward via localbody+wardNum: LB={} WN={}", lb.getId(), wardNum);
                     wardCache.put(cacheKey, w);
+                    progress.skipped(1);
                     continue;
                 }
             }
@@ -269,6 +281,7 @@ public class LocalbodyMongoImportService {
 
             wardInsertList.add(w);
             wardCache.put(cacheKey, w);
+            progress.inserted(1);
 
             log.debug("NEW ward created: {}", cacheKey);
 
@@ -310,6 +323,8 @@ public class LocalbodyMongoImportService {
         int resCounter = 0;
 
         for (MongoLocalbodyResult mr : mongoResults) {
+            progress.checkCancelled();
+            progress.parsed();
 
             if (++resCounter % 10000 == 0) {
                 log.info("Processed {} / {} mongo results...", resCounter, mongoResults.size());
@@ -318,6 +333,7 @@ public class LocalbodyMongoImportService {
             Ward ward = wardByDetailsId.get(mr.getWard_details_id());
             if (ward == null) {
                 log.warn("Result row skipped, wardDetailsId={} not found in SQL", mr.getWard_details_id());
+                progress.skipped(1);
                 continue;
             }
 
@@ -416,6 +432,18 @@ public class LocalbodyMongoImportService {
         }
 
         log.info("WardResults inserted = {}, updated = {}", toInsert.size(), toUpdate.size());
+        progress.inserted(toInsert.size() + toUpdate.size());
+
+        // Mongo import spans the whole state, so refresh every localbody for the years we touched
+        Set<Integer> touchedYears = pendingResultMap.values().stream()
+                .map(pr -> pr.year)
+                .collect(Collectors.toSet());
+        if (!touchedYears.isEmpty()) {
+            eventPublisher.publishEvent(ElectionDataChangedEvent.wardResults(touchedYears, null));
+        }
         log.info("=== LOCALBODY IMPORT COMPLETED SUCCESSFULLY ===");
+        return "Localbodies inserted = " + lbInsertList.size() + ", Wards inserted = " + wardInsertList.size()
+                + ", Candidates inserted = " + newCandidates.size()
+                + ", Ward results inserted = " + toInsert.size() + ", updated = " + toUpdate.size();
     }
 }
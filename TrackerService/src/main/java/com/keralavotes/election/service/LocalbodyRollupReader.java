@@ -0,0 +1,47 @@
+package com.keralavotes.election.service;
+
+import com.keralavotes.election.model.BoothRollupRow;
+import com.keralavotes.election.model.WardRollupRow;
+import com.keralavotes.election.repository.BoothAllianceRollupRepository;
+import com.keralavotes.election.repository.WardAllianceRollupRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads rollup rows for many years of one localbody in a single streamed query per
+ * election family and splits them by year. Rows keep the repository ordering.
+ */
+@Service
+@RequiredArgsConstructor
+public class LocalbodyRollupReader {
+
+    private final WardAllianceRollupRepository wardRollupRepo;
+    private final BoothAllianceRollupRepository boothRollupRepo;
+    private final StreamingQueryService streamingQueries;
+
+    public Map<Integer, List<WardRollupRow>> wardRowsByYear(Long localbodyId, Collection<Integer> years) {
+        Map<Integer, List<WardRollupRow>> byYear = new LinkedHashMap<>();
+        if (years.isEmpty()) return byYear;
+
+        streamingQueries.forEach("ward-rollup-localbody",
+                () -> wardRollupRepo.streamRowsForLocalbody(localbodyId, years.toArray(Integer[]::new)),
+                r -> byYear.computeIfAbsent(r.getElectionYear(), y -> new ArrayList<>()).add(r));
+        return byYear;
+    }
+
+    public Map<Integer, List<BoothRollupRow>> boothRowsByYear(Long localbodyId, Collection<Integer> years) {
+        Map<Integer, List<BoothRollupRow>> byYear = new LinkedHashMap<>();
+        if (years.isEmpty()) return byYear;
+
+        streamingQueries.forEach("booth-rollup-localbody",
+                () -> boothRollupRepo.streamRowsForLocalbody(localbodyId, years.toArray(Integer[]::new)),
+                r -> byYear.computeIfAbsent(r.getElectionYear(), y -> new ArrayList<>()).add(r));
+        return byYear;
+    }
+}
@@ -6,6 +6,9 @@ import com.keralavotes.election.dto.PartyAllianceMappingDto;
 import com.keralavotes.election.entity.Alliance;
 import com.keralavotes.election.entity.Party;
 import com.keralavotes.election.entity.PartyAllianceMapping;
+import com.keralavotes.election.event.ElectionDataChangedEvent;
+import com.keralavotes.election.model.CreatePartyRequest;
+import com.keralavotes.election.model.LocalbodyYearRow;
 import com.keralavotes.election.model.PartyAllianceAdminRow;
 import com.keralavotes.election.model.VoteRow;
 import com.keralavotes.election.model.WardAccumulator;
@@ -16,14 +19,17 @@ import com.keralavotes.election.repository.PartyRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -36,6 +42,8 @@ public class PartyAllianceAdminService {
     private final PartyRepository partyRepo;
     private final AllianceRepository allianceRepo;
     private final PartyAllianceMappingRepository mappingRepo;
+    private final LbWardResultRepository wardResultRepo;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<PartyAllianceMappingDto> getMappings(int year, ElectionType type) {
 
@@ -78,6 +86,55 @@ public class PartyAllianceAdminService {
         mapping.setElectionType(type);
 
         mappingRepo.save(mapping);
+        eventPublisher.publishEvent(ElectionDataChangedEvent.allianceMapping(Set.of(year)));
+    }
+
+    /* ---------------- Default alliance (party.alliance_id) ---------------- */
+
+    public Party createParty(CreatePartyRequest req) {
+        Party.PartyBuilder builder = Party.builder()
+                .name(req.getName())
+                .shortName(req.getCode());
+
+        if (req.getAllianceId() != null) {
+            Alliance alliance = allianceRepo.findById(req.getAllianceId())
+                    .orElseThrow(() -> new IllegalArgumentException("Alliance not found: " + req.getAllianceId()));
+            builder.alliance(alliance);
+        }
+
+        Party saved = partyRepo.save(builder.build());
+        if (saved.getAlliance() != null) {
+            // no results reference a new party yet; only the snapshot needs the default
+            eventPublisher.publishEvent(ElectionDataChangedEvent.allianceMapping(Set.of(), Set.of()));
+        }
+        return saved;
+    }
+
+    public Party updateDefaultAlliance(Long partyId, Long allianceId) {
+        Party party = partyRepo.findById(partyId)
+                .orElseThrow(() -> new IllegalArgumentException("Party not found: " + partyId));
+
+        if (allianceId == null) {
+            party.setAlliance(null);
+        } else {
+            Alliance alliance = allianceRepo.findById(allianceId)
+                    .orElseThrow(() -> new IllegalArgumentException("Alliance not found: " + allianceId));
+            party.setAlliance(alliance);
+        }
+        Party saved = partyRepo.save(party);
+
+        // party.alliance_id is the alliance used for localbody results: the rollups of the
+        // localbodies / years where the party stood are rebuilt once this commits
+        Set<Integer> years = new HashSet<>();
+        Set<Long> localbodyIds = new HashSet<>();
+        for (LocalbodyYearRow r : wardResultRepo.findLocalbodyYearsForParty(partyId)) {
+            years.add(r.getElectionYear());
+            localbodyIds.add(r.getLocalbodyId());
+        }
+        log.info("PartyAllianceAdminService::updateDefaultAlliance -> party {} affects {} localbodies in years {}",
+                partyId, localbodyIds.size(), years);
+        eventPublisher.publishEvent(ElectionDataChangedEvent.allianceMapping(years, localbodyIds));
+        return saved;
     }
 
     public List<PartyAllianceAdminRow> getAllMappings(int year, ElectionType type) {
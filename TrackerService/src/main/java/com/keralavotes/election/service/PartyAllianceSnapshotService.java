@@ -0,0 +1,69 @@
+package com.keralavotes.election.service;
+
+import com.keralavotes.election.event.ElectionDataChangedEvent;
+import com.keralavotes.election.model.PartyAllianceSnapshot;
+import com.keralavotes.election.repository.PartyAllianceMappingRepository;
+import com.keralavotes.election.repository.PartyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current {@link PartyAllianceSnapshot}.
+ *
+ * Loaded lazily on first use and swapped atomically after any alliance edit commits,
+ * so analysis requests never hit party / party_alliance_mapping directly.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PartyAllianceSnapshotService {
+
+    private final PartyRepository partyRepo;
+    private final PartyAllianceMappingRepository mappingRepo;
+
+    private final AtomicReference<PartyAllianceSnapshot> current = new AtomicReference<>();
+    private final AtomicLong versions = new AtomicLong();
+
+    public PartyAllianceSnapshot current() {
+        PartyAllianceSnapshot snapshot = current.get();
+        if (snapshot != null) {
+            return snapshot;
+        }
+        synchronized (this) {
+            snapshot = current.get();
+            return snapshot != null ? snapshot : reload();
+        }
+    }
+
+    @Order(0)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onElectionDataChanged(ElectionDataChangedEvent event) {
+        if (event.getSource() == ElectionDataChangedEvent.Source.ALLIANCE_MAPPING) {
+            reload();
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public synchronized PartyAllianceSnapshot reload() {
+        long start = System.currentTimeMillis();
+
+        PartyAllianceSnapshot snapshot = PartyAllianceSnapshot.build(
+                versions.incrementAndGet(),
+                partyRepo.findAllDefaultAlliances(),
+                mappingRepo.findAllForSnapshot()
+        );
+        current.set(snapshot);
+
+        log.info("PartyAllianceSnapshotService::reload -> version={} alliances={} in {} ms",
+                snapshot.getVersion(), snapshot.allianceCount(), System.currentTimeMillis() - start);
+        return snapshot;
+    }
+}
@@ -0,0 +1,330 @@
+package com.keralavotes.election.service;
+
+import com.keralavotes.election.event.ElectionDataChangedEvent;
+import com.keralavotes.election.service.DataVersionService.Scope;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.WebRequest;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bounded cache of gzip-compressed JSON bodies for the large public analysis responses
+ * (state / district / overview). Saves both the rebuild and the Jackson pass.
+ * Clients that name application/cbor in Accept get the same body as CBOR, cached separately.
+ *
+ * Entries are weighted by their compressed size and evicted least-recently-used once
+ * analysis.response-cache.max-bytes is exceeded. Each entry is stamped with the
+ * {@link DataVersionService} version of its scope; a stale stamp is a miss, and stale
+ * entries are swept as soon as a data change commits.
+ * Concurrent misses on one key share a single build.
+ */
+@Slf4j
+@Service
+public class ResponseCacheService {
+
+    private record Key(String endpoint, Scope scope, long id, List<Integer> years, List<?> params, Format format) {}
+
+    private enum Format {
+        JSON(MediaType.APPLICATION_JSON),
+        CBOR(MediaType.APPLICATION_CBOR);
+
+        final MediaType mediaType;
+
+        Format(MediaType mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        // only an explicit application/cbor switches format; */* and browsers keep JSON
+        static Format of(String accept) {
+            if (accept == null || accept.isBlank()) {
+                return JSON;
+            }
+            try {
+                return MediaType.parseMediaTypes(accept).stream()
+                        .anyMatch(MediaType.APPLICATION_CBOR::equalsTypeAndSubtype) ? CBOR : JSON;
+            } catch (InvalidMediaTypeException e) {
+                return JSON;
+            }
+        }
+    }
+
+    private record Entry(byte[] gzip, long version) {}
+
+    private record Build(Key key, long version) {}
+
+    private final DataVersionService dataVersionService;
+    private final ObjectMapper objectMapper;
+    private final CBORMapper cborMapper;
+    private final MeterRegistry meterRegistry;
+    private final long maxBytes;
+
+    // access-ordered: iteration starts at the least recently used entry
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long bytes;
+
+    // builds in progress; a miss joins the one for its key and version instead of serializing again
+    private final ConcurrentMap<Build, CompletableFuture<byte[]>> building = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter staleEvictions;
+    private final DistributionSummary payloadSize;
+
+    public ResponseCacheService(DataVersionService dataVersionService,
+                                ObjectMapper objectMapper,
+                                CBORMapper cborMapper,
+                                MeterRegistry meterRegistry,
+                                @Value("${analysis.response-cache.max-bytes:67108864}") long maxBytes) {
+        this.dataVersionService = dataVersionService;
+        this.objectMapper = objectMapper;
+        this.cborMapper = cborMapper;
+        this.meterRegistry = meterRegistry;
+        this.maxBytes = maxBytes;
+
+        this.hits = Counter.builder("analysis.response.cache.requests").tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("analysis.response.cache.requests").tag("result", "miss")
+                .register(meterRegistry);
+        this.sizeEvictions = Counter.builder("analysis.response.cache.evictions").tag("cause", "size")
+                .register(meterRegistry);
+        this.staleEvictions = Counter.builder("analysis.response.cache.evictions").tag("cause", "stale")
+                .register(meterRegistry);
+        this.payloadSize = DistributionSummary.builder("analysis.response.cache.payload")
+                .baseUnit("bytes")
+                .description("Compressed size of cached analysis responses")
+                .register(meterRegistry);
+    }
+
+    // gauges hold a reference to this service, so register them once it is fully constructed
+    @PostConstruct
+    void registerGauges() {
+        Gauge.builder("analysis.response.cache.bytes", this, ResponseCacheService::bytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("analysis.response.cache.entries", this, ResponseCacheService::currentEntries)
+                .register(meterRegistry);
+    }
+
+    /* ===================== READ ===================== */
+
+    /**
+     * Cached gzip JSON (or CBOR) for the response, building and serializing it via {@code loader} on a miss.
+     * {@code params} are the remaining request parameters that shape the body.
+     */
+    public ResponseEntity<byte[]> respond(String endpoint, Scope scope, Number id, Collection<Integer> years,
+                                          List<?> params, Supplier<?> loader, WebRequest webRequest) {
+        Format format = Format.of(webRequest.getHeader(HttpHeaders.ACCEPT));
+        Key key = key(endpoint, scope, id, years, params, format);
+        long version = dataVersionService.version(scope, id, years);
+
+        byte[] gzip = lookup(key, version);
+        if (gzip == null) {
+            gzip = build(key, version, loader);
+        }
+        return toResponse(gzip, format, webRequest);
+    }
+
+    /**
+     * Builds and stores the response ahead of the first request, unless a current entry
+     * already exists. Not counted as a cache request. Returns the compressed size.
+     * Only the JSON form is warmed.
+     */
+    public int warm(String endpoint, Scope scope, Number id, Collection<Integer> years,
+                    List<?> params, Supplier<?> loader) {
+        Key key = key(endpoint, scope, id, years, params, Format.JSON);
+        long version = dataVersionService.version(scope, id, years);
+        byte[] gzip = current(key, version);
+        return (gzip != null ? gzip : build(key, version, loader)).length;
+    }
+
+    /** Builds, serializes and stores one response; concurrent callers for the same key and version wait for it. */
+    private byte[] build(Key key, long version, Supplier<?> loader) {
+        Build build = new Build(key, version);
+        CompletableFuture<byte[]> mine = new CompletableFuture<>();
+        CompletableFuture<byte[]> shared = building.computeIfAbsent(build, b -> mine);
+        if (shared == mine) {
+            try {
+                // a build that finished between our lookup and computeIfAbsent already stored it
+                byte[] gzip = current(key, version);
+                if (gzip == null) {
+                    gzip = serialize(loader.get(), key.format());
+                    store(key, new Entry(gzip, version));
+                }
+                mine.complete(gzip);
+            } catch (RuntimeException | Error e) {
+                mine.completeExceptionally(e);
+            } finally {
+                building.remove(build, mine);
+            }
+        }
+        try {
+            return shared.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException re ? re : e;
+        }
+    }
+
+    private static Key key(String endpoint, Scope scope, Number id, Collection<Integer> years, List<?> params,
+                           Format format) {
+        return new Key(endpoint, scope, scope == Scope.STATE || id == null ? 0L : id.longValue(),
+                List.copyOf(years), params == null ? List.of() : params, format);
+    }
+
+    // current entry without counting a cache request
+    private byte[] current(Key key, long version) {
+        synchronized (entries) {
+            Entry e = entries.get(key);
+            return e != null && e.version() == version ? e.gzip() : null;
+        }
+    }
+
+    private byte[] lookup(Key key, long version) {
+        synchronized (entries) {
+            Entry e = entries.get(key);
+            if (e != null && e.version() == version) {
+                hits.increment();
+                return e.gzip();
+            }
+            if (e != null) {
+                remove(key, e);
+                staleEvictions.increment();
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /* ===================== WRITE ===================== */
+
+    private void store(Key key, Entry entry) {
+        int size = entry.gzip().length;
+        payloadSize.record(size);
+        if (size > maxBytes / 4) {
+            log.info("ResponseCacheService::store -> {} bytes for {} is too large to cache", size, key.endpoint());
+            return;
+        }
+        synchronized (entries) {
+            Entry previous = entries.put(key, entry);
+            if (previous != null) {
+                bytes -= previous.gzip().length;
+            }
+            bytes += size;
+
+            Iterator<Map.Entry<Key, Entry>> lru = entries.entrySet().iterator();
+            while (bytes > maxBytes && lru.hasNext()) {
+                Map.Entry<Key, Entry> eldest = lru.next();
+                bytes -= eldest.getValue().gzip().length;
+                lru.remove();
+                sizeEvictions.increment();
+            }
+        }
+    }
+
+    /** Drops every entry whose scope moved past the version it was built at. */
+    public void evictStale() {
+        int evicted = 0;
+        synchronized (entries) {
+            Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<Key, Entry> e = it.next();
+                Key k = e.getKey();
+                if (dataVersionService.version(k.scope(), k.id(), k.years()) != e.getValue().version()) {
+                    bytes -= e.getValue().gzip().length;
+                    it.remove();
+                    evicted++;
+                }
+            }
+        }
+        if (evicted > 0) {
+            staleEvictions.increment(evicted);
+            log.debug("ResponseCacheService::evictStale -> evicted {} stale responses", evicted);
+        }
+    }
+
+    // after DataVersionService (order 100) so the sweep sees the bumped versions
+    @Order(200)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onElectionDataChanged(ElectionDataChangedEvent event) {
+        evictStale();
+    }
+
+    private void remove(Key key, Entry entry) {
+        entries.remove(key);
+        bytes -= entry.gzip().length;
+    }
+
+    /* ===================== HELPERS ===================== */
+
+    private byte[] serialize(Object body, Format format) {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream(64 * 1024);
+        try (OutputStream gzip = new GZIPOutputStream(buf, 8192)) {
+            (format == Format.CBOR ? cborMapper : objectMapper).writeValue(gzip, body);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compress analysis response", e);
+        }
+        return buf.toByteArray();
+    }
+
+    private ResponseEntity<byte[]> toResponse(byte[] gzip, Format format, WebRequest webRequest) {
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok()
+                .contentType(format.mediaType)
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+
+        String acceptEncoding = webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip")) {
+            return ok.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(gzip);
+        }
+        // rare: clients that cannot take gzip get the plain body
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            return ok.body(in.readAllBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decompress cached analysis response", e);
+        }
+    }
+
+    /** Compressed bytes currently held. */
+    public long bytes() {
+        synchronized (entries) {
+            return bytes;
+        }
+    }
+
+    private double currentEntries() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+}
@@ -0,0 +1,416 @@
+package com.keralavotes.election.service;
+
+import com.keralavotes.election.dto.ElectionType;
+import com.keralavotes.election.dto.details.SeatProjectionJob;
+import com.keralavotes.election.model.Podium;
+import com.keralavotes.election.model.SeatProjectionRequest;
+import com.keralavotes.election.model.VoteMatrix;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monte Carlo seat projection over a year's {@link VoteMatrix}.
+ *
+ * Every iteration draws a statewide, a per-district and a per-unit normal swing for each
+ * alliance (percentage points of the unit's total votes), then recomputes ward/booth
+ * winners, LB majorities and AC winners from the summed AC votes.
+ *
+ * Iterations run in fixed-size chunks on a dedicated fork-join pool. Chunk k always uses
+ * the random stream derived from (seed, k) and chunk tallies are plain sums, so a seed
+ * reproduces the same result on any number of cores. One job runs at a time.
+ */
+@Slf4j
+@Service
+public class SeatProjectionService {
+
+    private static final int CHUNK = 250;
+    private static final int KEEP_JOBS = 10;
+
+    private final VoteMatrixService voteMatrixService;
+    private final ExecutorService analysisExecutor;
+    private final ForkJoinPool pool;
+
+    private final Map<String, ProjectionJob> jobs = new LinkedHashMap<>();
+    private ProjectionJob running;
+
+    public SeatProjectionService(VoteMatrixService voteMatrixService,
+                                 ExecutorService analysisExecutor,
+                                 @Value("${analysis.projection-parallelism:0}") int parallelism) {
+        this.voteMatrixService = voteMatrixService;
+        this.analysisExecutor = analysisExecutor;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /* ===================== JOBS ===================== */
+
+    public SeatProjectionJob start(SeatProjectionRequest req) {
+        VoteMatrix m = voteMatrixService.matrix(req.getYear());
+        Model model = Model.of(m, req);
+
+        ProjectionJob job;
+        synchronized (jobs) {
+            if (running != null) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "Projection " + running.id + " is still running");
+            }
+            job = new ProjectionJob(UUID.randomUUID().toString(), req);
+            running = job;
+            jobs.put(job.id, job);
+            if (jobs.size() > KEEP_JOBS) {
+                jobs.remove(jobs.keySet().iterator().next());
+            }
+        }
+
+        analysisExecutor.execute(() -> run(job, model));
+        return job.toDto();
+    }
+
+    public SeatProjectionJob status(String jobId) {
+        synchronized (jobs) {
+            ProjectionJob job = jobs.get(jobId);
+            if (job == null) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown projection: " + jobId);
+            }
+            return job.toDto();
+        }
+    }
+
+    private void run(ProjectionJob job, Model model) {
+        long start = System.nanoTime();
+        try {
+            job.result = simulate(model, job);
+            job.status = "DONE";
+        } catch (Exception e) {
+            log.error("SeatProjectionService::run -> projection {} failed", job.id, e);
+            job.error = e.getMessage();
+            job.status = "FAILED";
+        } finally {
+            job.elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            synchronized (jobs) {
+                running = null;
+            }
+            log.info("SeatProjectionService::run -> projection {} {} : {} iterations in {} ms",
+                    job.id, job.status, job.completed.get(), job.elapsedMs);
+        }
+    }
+
+    private SeatProjectionJob.Result simulate(Model model, ProjectionJob job) {
+        Simulation sim = new Simulation(model, job);
+        int chunks = (job.iterations + CHUNK - 1) / CHUNK;
+        return summarize(model, pool.invoke(ForkJoinTask.adapt(() -> sim.tally(0, chunks))));
+    }
+
+    /** Runs a projection to completion without registering a job; used by the benchmarks. */
+    SeatProjectionJob.Result project(SeatProjectionRequest req) {
+        Model model = Model.of(voteMatrixService.matrix(req.getYear()), req);
+        return simulate(model, new ProjectionJob("inline", req));
+    }
+
+    private static final class ProjectionJob {
+        final String id;
+        final int year;
+        final long seed;
+        final int iterations;
+        final Instant startedAt = Instant.now();
+        final AtomicLong completed = new AtomicLong();
+        volatile String status = "RUNNING";
+        volatile Long elapsedMs;
+        volatile String error;
+        volatile SeatProjectionJob.Result result;
+
+        ProjectionJob(String id, SeatProjectionRequest req) {
+            this.id = id;
+            this.year = req.getYear();
+            this.seed = req.getSeed();
+            this.iterations = req.getIterations();
+        }
+
+        SeatProjectionJob toDto() {
+            long done = completed.get();
+            return SeatProjectionJob.builder()
+                    .jobId(id)
+                    .status(status)
+                    .year(year)
+                    .seed(seed)
+                    .iterations(iterations)
+                    .completedIterations(done)
+                    .progress(iterations == 0 ? 1.0 : (double) done / iterations)
+                    .startedAt(startedAt)
+                    .elapsedMs(elapsedMs)
+                    .error(error)
+                    .result(result)
+                    .build();
+        }
+    }
+
+    /* ===================== SIMULATION ===================== */
+
+    /** Immutable inputs shared by every chunk. */
+    private record Model(VoteMatrix matrix, int alliances, int districts, int localbodies, int acs,
+                         double[] unitTotal, int[] lbUnits, double[] meanSwing,
+                         double stateSigma, double districtSigma, double unitSigma) {
+
+        static Model of(VoteMatrix m, SeatProjectionRequest req) {
+            int A = m.allianceCount();
+
+            double[] unitTotal = new double[m.getUnitCount()];
+            int[] lbUnits = new int[m.localbodyCount()];
+            for (int u = 0; u < m.getUnitCount(); u++) {
+                long t = 0;
+                for (int a = 0; a < A; a++) {
+                    long v = m.votes(u, a);
+                    if (v != VoteMatrix.ABSENT) t += v;
+                }
+                unitTotal[u] = t;
+                int lb = m.unitLocalbody(u);
+                if (lb != VoteMatrix.NONE) lbUnits[lb]++;
+            }
+
+            double[] mean = new double[A];
+            if (req.getMeanSwing() != null) {
+                req.getMeanSwing().forEach((name, swing) -> {
+                    int a = m.allianceId(name);
+                    if (a == VoteMatrix.NONE) {
+                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                                "Unknown alliance " + name + " for " + m.getYear()
+                                        + "; known: " + String.join(", ", m.allianceNames()));
+                    }
+                    mean[a] = swing == null ? 0.0 : swing;
+                });
+            }
+
+            return new Model(m, A, m.districtCount(), lbUnits.length, m.acCount(),
+                    unitTotal, lbUnits, mean, req.getStateSigma(), req.getDistrictSigma(), req.getUnitSigma());
+        }
+    }
+
+    /** Counts summed over iterations; arrays are [index * A + alliance]. */
+    private static final class Tally {
+        final long[] seatHistogram;   // [alliance * (acs + 1) + seats]
+        final long[] acWins;
+        final long[] lbMajority;
+
+        Tally(Model model) {
+            int A = model.alliances();
+            seatHistogram = new long[A * (model.acs() + 1)];
+            acWins = new long[model.acs() * A];
+            lbMajority = new long[model.localbodies() * A];
+        }
+
+        Tally merge(Tally o) {
+            for (int i = 0; i < seatHistogram.length; i++) seatHistogram[i] += o.seatHistogram[i];
+            for (int i = 0; i < acWins.length; i++) acWins[i] += o.acWins[i];
+            for (int i = 0; i < lbMajority.length; i++) lbMajority[i] += o.lbMajority[i];
+            return this;
+        }
+    }
+
+    /**
+     * Splits chunks [from, to) in halves down to single chunks. Left halves are forked as
+     * adapted tasks rather than a RecursiveTask subclass, which would drag in
+     * ForkJoinTask's Serializable contract for fields that are never serialized.
+     */
+    private static final class Simulation {
+        private final Model model;
+        private final ProjectionJob job;
+
+        Simulation(Model model, ProjectionJob job) {
+            this.model = model;
+            this.job = job;
+        }
+
+        Tally tally(int from, int to) {
+            if (to - from <= 1) {
+                Tally t = new Tally(model);
+                if (from < to) runChunk(from, t);
+                return t;
+            }
+            int mid = (from + to) >>> 1;
+            ForkJoinTask<Tally> left = ForkJoinTask.adapt(() -> tally(from, mid)).fork();
+            Tally right = tally(mid, to);
+            return left.join().merge(right);
+        }
+
+        private void runChunk(int chunk, Tally t) {
+            int iterations = Math.min(CHUNK, job.iterations - chunk * CHUNK);
+            SplittableRandom rnd = new SplittableRandom(job.seed * 0x9E3779B97F4A7C15L + chunk);
+
+            VoteMatrix m = model.matrix();
+            int A = model.alliances(), D = model.districts(), L = model.localbodies(), C = model.acs();
+
+            double[] state = new double[A];
+            double[] district = new double[D * A];
+            double[] acVotes = new double[C * A];
+            int[] lbWon = new int[L * A];
+            int[] seats = new int[A];
+            Podium podium = new Podium();
+
+            for (int it = 0; it < iterations; it++) {
+                for (int a = 0; a < A; a++) {
+                    state[a] = model.meanSwing()[a] + model.stateSigma() * rnd.nextGaussian();
+                }
+                for (int i = 0; i < district.length; i++) {
+                    district[i] = model.districtSigma() * rnd.nextGaussian();
+                }
+                Arrays.fill(acVotes, 0.0);
+                Arrays.fill(lbWon, 0);
+
+                for (int u = 0; u < m.getUnitCount(); u++) {
+                    int d = m.unitDistrict(u);
+                    int ac = m.unitAc(u);
+                    double total = model.unitTotal()[u];
+
+                    podium.reset();
+                    for (int a = 0; a < A; a++) {
+                        long v = m.votes(u, a);
+                        if (v == VoteMatrix.ABSENT) continue;
+                        double swing = state[a] + (d != VoteMatrix.NONE ? district[d * A + a] : 0.0)
+                                + model.unitSigma() * rnd.nextGaussian();
+                        double after = Math.max(0.0, v + total * swing / 100.0);
+                        podium.offer(a, Math.round(after));
+                        if (ac != VoteMatrix.NONE) acVotes[ac * A + a] += after;
+                    }
+                    int lb = m.unitLocalbody(u);
+                    if (lb != VoteMatrix.NONE && !podium.isEmpty()) {
+                        lbWon[lb * A + podium.first()]++;
+                    }
+                }
+
+                for (int lb = 0; lb < L; lb++) {
+                    int majority = (model.lbUnits()[lb] / 2) + 1;
+                    for (int a = 0; a < A; a++) {
+                        if (lbWon[lb * A + a] >= majority) t.lbMajority[lb * A + a]++;
+                    }
+                }
+
+                Arrays.fill(seats, 0);
+                for (int ac = 0; ac < C; ac++) {
+                    podium.reset();
+                    for (int a = 0; a < A; a++) {
+                        double v = acVotes[ac * A + a];
+                        if (v > 0) podium.offer(a, Math.round(v));
+                    }
+                    if (!podium.isEmpty()) {
+                        seats[podium.first()]++;
+                        t.acWins[ac * A + podium.first()]++;
+                    }
+                }
+                for (int a = 0; a < A; a++) {
+                    t.seatHistogram[a * (C + 1) + seats[a]]++;
+                }
+            }
+            job.completed.addAndGet(iterations);
+        }
+    }
+
+    /* ===================== RESULT ===================== */
+
+    private SeatProjectionJob.Result summarize(Model model, Tally t) {
+        VoteMatrix m = model.matrix();
+        int A = model.alliances(), C = model.acs();
+        // every iteration lands in exactly one histogram bucket per alliance
+        long iterations = 0;
+        for (int k = 0; k <= C; k++) iterations += t.seatHistogram[k];
+        double n = Math.max(1, iterations);
+        int majorityNeeded = (C / 2) + 1;
+        List<String> names = m.allianceNames();
+
+        List<SeatProjectionJob.AllianceSeats> seats = new ArrayList<>(A);
+        for (int a = 0; a < A; a++) {
+            if (!wonAnything(t, a, model)) {
+                continue; // never won an AC in any iteration
+            }
+            double[] dist = new double[C + 1];
+            double mean = 0.0, majority = 0.0;
+            for (int k = 0; k <= C; k++) {
+                dist[k] = t.seatHistogram[a * (C + 1) + k] / n;
+                mean += k * dist[k];
+                if (k >= majorityNeeded) majority += dist[k];
+            }
+            seats.add(SeatProjectionJob.AllianceSeats.builder()
+                    .alliance(names.get(a))
+                    .mean(mean)
+                    .p5(quantile(dist, 0.05))
+                    .p50(quantile(dist, 0.50))
+                    .p95(quantile(dist, 0.95))
+                    .majorityProbability(majority)
+                    .distribution(dist)
+                    .build());
+        }
+        seats.sort((x, y) -> Double.compare(y.getMean(), x.getMean()));
+
+        List<SeatProjectionJob.AcOdds> acs = new ArrayList<>(C);
+        for (int ac = 0; ac < C; ac++) {
+            acs.add(SeatProjectionJob.AcOdds.builder()
+                    .acCode(m.acCode(ac))
+                    .acName(m.acName(ac))
+                    .winProbability(odds(t.acWins, ac, A, names, n))
+                    .build());
+        }
+
+        List<SeatProjectionJob.LocalbodyOdds> lbs = new ArrayList<>(model.localbodies());
+        for (int lb = 0; lb < model.localbodies(); lb++) {
+            lbs.add(SeatProjectionJob.LocalbodyOdds.builder()
+                    .localbodyId(m.localbodyId(lb))
+                    .localbodyName(m.localbodyName(lb))
+                    .majorityProbability(odds(t.lbMajority, lb, A, names, n))
+                    .build());
+        }
+
+        return SeatProjectionJob.Result.builder()
+                .unitType(m.getType() == ElectionType.LOCALBODY ? "WARD" : "BOOTH")
+                .totalSeats(C)
+                .majorityNeeded(majorityNeeded)
+                .seats(seats)
+                .acs(acs)
+                .localbodies(lbs)
+                .build();
+    }
+
+    private static boolean wonAnything(Tally t, int a, Model model) {
+        for (int ac = 0; ac < model.acs(); ac++) {
+            if (t.acWins[ac * model.alliances() + a] > 0) return true;
+        }
+        return false;
+    }
+
+    private static Map<String, Double> odds(long[] counts, int row, int A, List<String> names, double n) {
+        Map<String, Double> out = new LinkedHashMap<>();
+        for (int a = 0; a < A; a++) {
+            long c = counts[row * A + a];
+            if (c > 0) out.put(names.get(a), c / n);
+        }
+        return out;
+    }
+
+    private static int quantile(double[] dist, double q) {
+        double cumulative = 0.0;
+        for (int k = 0; k < dist.length; k++) {
+            cumulative += dist[k];
+            if (cumulative >= q) return k;
+        }
+        return dist.length - 1;
+    }
+}
@@ -0,0 +1,133 @@
+package com.keralavotes.election.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Runs the repository {@code Stream<...>} queries that cover a whole district or state.
+ *
+ * PgJDBC only reads a result set through a cursor when autocommit is off (Hikari
+ * auto-commit: false) and the statement has a fetch size (hibernate.jdbc.fetch_size, bound
+ * to analysis.scan.fetch-size); otherwise the driver buffers every row before the first one
+ * is returned. A scan runs in a read-only transaction, which Spring's Hibernate dialect maps
+ * to FlushMode.MANUAL and a read-only session and connection, and with a transaction timeout
+ * of analysis.scan.timeout seconds that Spring applies to each query as its query timeout.
+ * Called inside an existing transaction, the scan joins it.
+ *
+ * Per scan name it records:
+ * <ul>
+ *   <li>analysis.scan.rows - rows read</li>
+ *   <li>analysis.scan.duration - query plus consumer time</li>
+ *   <li>analysis.scan.heap.peak - growth of used heap over the scan, sampled once per fetched
+ *       batch. Approximate (the heap is shared), but a buffered result set shows up as a
+ *       large value from the first sample on.</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+public class StreamingQueryService {
+
+    private final TransactionTemplate readOnlyTx;
+    private final MeterRegistry meterRegistry;
+    private final int fetchSize;
+
+    public StreamingQueryService(PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${analysis.scan.fetch-size:1000}") int fetchSize,
+                                 @Value("${analysis.scan.timeout:120}") int timeoutSeconds) {
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.readOnlyTx.setTimeout(timeoutSeconds);
+        this.meterRegistry = meterRegistry;
+        this.fetchSize = Math.max(1, fetchSize);
+    }
+
+    /**
+     * Opens {@code query} and hands its rows to {@code reader}; the stream is closed (and the
+     * cursor released) when the reader returns.
+     *
+     * @param name metric tag for this scan
+     */
+    public <R, T> T scan(String name, Supplier<Stream<R>> query, Function<Stream<R>, T> reader) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return doScan(name, query, reader);
+        }
+        return readOnlyTx.execute(status -> doScan(name, query, reader));
+    }
+
+    public <R> void forEach(String name, Supplier<Stream<R>> query, Consumer<? super R> action) {
+        scan(name, query, rows -> {
+            rows.forEach(action);
+            return null;
+        });
+    }
+
+    private <R, T> T doScan(String name, Supplier<Stream<R>> query, Function<Stream<R>, T> reader) {
+        long start = System.nanoTime();
+        ScanProgress progress = new ScanProgress(fetchSize);
+        try (Stream<R> rows = query.get()) {
+            return reader.apply(rows.peek(progress));
+        } finally {
+            long took = System.nanoTime() - start;
+            Counter.builder("analysis.scan.rows")
+                    .description("Rows read by streamed scope-wide queries")
+                    .tag("scan", name)
+                    .register(meterRegistry)
+                    .increment(progress.rows);
+            Timer.builder("analysis.scan.duration")
+                    .tag("scan", name)
+                    .register(meterRegistry)
+                    .record(took, TimeUnit.NANOSECONDS);
+            DistributionSummary.builder("analysis.scan.heap.peak")
+                    .description("Approximate peak heap growth while a streamed query was read")
+                    .baseUnit("bytes")
+                    .tag("scan", name)
+                    .register(meterRegistry)
+                    .record(progress.peakHeapGrowth());
+            log.debug("StreamingQueryService::scan -> {} : {} rows in {} ms, heap peak +{} KB",
+                    name, progress.rows, took / 1_000_000, progress.peakHeapGrowth() / 1024);
+        }
+    }
+
+    /** Counts rows and samples used heap every {@code sampleEvery} rows. Single-threaded. */
+    private static final class ScanProgress implements Consumer<Object> {
+        private final int sampleEvery;
+        private final long heapAtStart = usedHeap();
+        private long peakHeap = heapAtStart;
+        private long rows;
+
+        ScanProgress(int sampleEvery) {
+            this.sampleEvery = sampleEvery;
+        }
+
+        @Override
+        public void accept(Object row) {
+            if (++rows % sampleEvery == 1 || sampleEvery == 1) {
+                peakHeap = Math.max(peakHeap, usedHeap());
+            }
+        }
+
+        long peakHeapGrowth() {
+            return Math.max(0, Math.max(peakHeap, usedHeap()) - heapAtStart);
+        }
+
+        private static long usedHeap() {
+            Runtime rt = Runtime.getRuntime();
+            return rt.totalMemory() - rt.freeMemory();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.keralavotes.election.service;
+
+import com.keralavotes.election.constants.ElectionYear;
+import com.keralavotes.election.dto.ElectionType;
+import com.keralavotes.election.model.VoteMatrix;
+import com.keralavotes.election.repository.BoothAllianceRollupRepository;
+import com.keralavotes.election.repository.WardAllianceRollupRepository;
+import com.keralavotes.election.service.DataVersionService.Scope;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Per-year {@link VoteMatrix} snapshots for the in-memory scenario and projection engines.
+ *
+ * A year is read once from the rollup tables and reused until its state-wide data
+ * version moves (imports, alliance remaps, admin edits). Concurrent first requests for
+ * a year share one load; the scan runs outside the map so other years are never blocked.
+ */
+@Slf4j
+@Service
+public class VoteMatrixService {
+
+    private record Key(int year, long version) {}
+
+    private final WardAllianceRollupRepository wardRollupRepo;
+    private final BoothAllianceRollupRepository boothRollupRepo;
+    private final DataVersionService dataVersionService;
+    private final StreamingQueryService streamingQueries;
+
+    private final ConcurrentMap<Key, CompletableFuture<VoteMatrix>> matrices = new ConcurrentHashMap<>();
+
+    public VoteMatrixService(WardAllianceRollupRepository wardRollupRepo,
+                             BoothAllianceRollupRepository boothRollupRepo,
+                             DataVersionService dataVersionService,
+                             StreamingQueryService streamingQueries) {
+        this.wardRollupRepo = wardRollupRepo;
+        this.boothRollupRepo = boothRollupRepo;
+        this.dataVersionService = dataVersionService;
+        this.streamingQueries = streamingQueries;
+    }
+
+    public VoteMatrix matrix(int year) {
+        ElectionType type = ElectionYear.typeOf(year);
+        if (type == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown election year: " + year);
+        }
+
+        Key key = new Key(year, dataVersionService.version(Scope.STATE, null, List.of(year)));
+        CompletableFuture<VoteMatrix> mine = new CompletableFuture<>();
+        CompletableFuture<VoteMatrix> shared = matrices.computeIfAbsent(key, k -> mine);
+        if (shared == mine) {
+            try {
+                mine.complete(load(year, type));
+                // versions only grow; older snapshots of the year are dead
+                matrices.keySet().removeIf(k -> k.year() == year && k.version() < key.version());
+            } catch (RuntimeException | Error e) {
+                // evict so the next request retries instead of replaying the failure
+                matrices.remove(key, mine);
+                mine.completeExceptionally(e);
+            }
+        }
+        try {
+            return shared.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException re ? re : e;
+        }
+    }
+
+    private VoteMatrix load(int year, ElectionType type) {
+        long start = System.nanoTime();
+        VoteMatrix m = type == ElectionType.LOCALBODY
+                ? streamingQueries.scan("vote-matrix-ward", () -> wardRollupRepo.streamScenarioRows(year),
+                        rows -> VoteMatrix.build(year, type, rows))
+                : streamingQueries.scan("vote-matrix-booth", () -> boothRollupRepo.streamScenarioRows(year),
+                        rows -> VoteMatrix.build(year, type, rows));
+        log.info("VoteMatrixService::load -> year {} : {} units x {} alliances in {} ms",
+                year, m.getUnitCount(), m.allianceCount(), (System.nanoTime() - start) / 1_000_000);
+        return m;
+    }
+}
@@ -0,0 +1,169 @@
+package com.keralavotes.election.service;
+
+import com.keralavotes.election.model.PartyAllianceSnapshot;
+import com.keralavotes.election.model.VoteRollup;
+import com.keralavotes.election.repository.LbWardResultRepository;
+import com.keralavotes.election.repository.LocalbodyRepository;
+import com.keralavotes.election.service.DataVersionService.Scope;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Per-year, per-localbody-type-filter {@link VoteRollup}s for the assembly analysis and
+ * overview endpoints.
+ *
+ * A rollup is built from one state-wide ward-result scan and reused until the year's
+ * state-wide data version or the alliance snapshot moves. Concurrent first requests for
+ * a key share one scan, which runs outside the map lock so other keys are never blocked.
+ * Type filters must name known localbody types; at most {@link #MAX_ROLLUPS} keys are
+ * kept, least recently used first out.
+ */
+@Slf4j
+@Service
+public class VoteRollupService {
+
+    private static final int MAX_ROLLUPS = 32;
+
+    private record Key(int year, List<String> types, long version, long allianceVersion) {
+
+        boolean supersedes(Key other) {
+            return year == other.year && types.equals(other.types)
+                    && (version > other.version || allianceVersion > other.allianceVersion);
+        }
+    }
+
+    private final LbWardResultRepository wardResultRepository;
+    private final LocalbodyRepository localbodyRepository;
+    private final PartyAllianceSnapshotService allianceSnapshotService;
+    private final DataVersionService dataVersionService;
+    private final StreamingQueryService streamingQueries;
+
+    // access-ordered: the least recently used rollup is dropped first
+    private final Map<Key, CompletableFuture<VoteRollup>> rollups = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, CompletableFuture<VoteRollup>> eldest) {
+            return size() > MAX_ROLLUPS;
+        }
+    };
+
+    // lower-cased localbody.type values; reloaded when a filter names one not seen yet
+    private volatile Set<String> knownTypes = Set.of();
+
+    public VoteRollupService(LbWardResultRepository wardResultRepository,
+                             LocalbodyRepository localbodyRepository,
+                             PartyAllianceSnapshotService allianceSnapshotService,
+                             DataVersionService dataVersionService,
+                             StreamingQueryService streamingQueries) {
+        this.wardResultRepository = wardResultRepository;
+        this.localbodyRepository = localbodyRepository;
+        this.allianceSnapshotService = allianceSnapshotService;
+        this.dataVersionService = dataVersionService;
+        this.streamingQueries = streamingQueries;
+    }
+
+    /** Rollup of every localbody ward of the year, limited to {@code includeTypes} if given. */
+    public VoteRollup rollup(int year, List<String> includeTypes) {
+        PartyAllianceSnapshot alliances = allianceSnapshotService.current();
+        Key key = key(year, includeTypes, alliances);
+
+        CompletableFuture<VoteRollup> mine = new CompletableFuture<>();
+        CompletableFuture<VoteRollup> shared;
+        synchronized (rollups) {
+            shared = rollups.computeIfAbsent(key, k -> mine);
+        }
+        if (shared == mine) {
+            try {
+                mine.complete(load(key, null, alliances));
+                // versions only grow; older rollups of the same year and filter are dead
+                synchronized (rollups) {
+                    rollups.keySet().removeIf(key::supersedes);
+                }
+            } catch (RuntimeException | Error e) {
+                // evict so the next request retries instead of replaying the failure
+                synchronized (rollups) {
+                    rollups.remove(key, mine);
+                }
+                mine.completeExceptionally(e);
+            }
+        }
+        return join(shared);
+    }
+
+    /**
+     * Rollup holding at least the wards of one AC: the state-wide rollup when a current one
+     * is already built, otherwise an uncached scan of that AC alone, so a single-AC request
+     * after a data change never pays for a state-wide scan.
+     */
+    public VoteRollup acRollup(int year, int acCode, List<String> includeTypes) {
+        PartyAllianceSnapshot alliances = allianceSnapshotService.current();
+        Key key = key(year, includeTypes, alliances);
+
+        CompletableFuture<VoteRollup> built;
+        synchronized (rollups) {
+            built = rollups.get(key);
+        }
+        if (built != null && built.isDone() && !built.isCompletedExceptionally()) {
+            return built.join();
+        }
+        return load(key, acCode, alliances);
+    }
+
+    private Key key(int year, List<String> includeTypes, PartyAllianceSnapshot alliances) {
+        long version = dataVersionService.version(Scope.STATE, null, List.of(year));
+        return new Key(year, normalizeTypes(includeTypes), version, alliances.getVersion());
+    }
+
+    private static VoteRollup join(CompletableFuture<VoteRollup> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException re ? re : e;
+        }
+    }
+
+    private VoteRollup load(Key key, Integer acCode, PartyAllianceSnapshot alliances) {
+        long start = System.nanoTime();
+        String[] types = key.types().isEmpty() ? null : key.types().toArray(String[]::new);
+        VoteRollup rollup = streamingQueries.scan(acCode == null ? "vote-rollup" : "vote-rollup-ac",
+                () -> wardResultRepository.streamVotes(key.year(), acCode, null, types),
+                rows -> VoteRollup.build(key.year(), alliances, rows));
+        log.info("VoteRollupService::load -> year {} ac {} types {} : {} wards, {} localbodies, {} ACs in {} ms",
+                key.year(), acCode == null ? "ALL" : acCode, key.types(), rollup.getWards().size(),
+                rollup.getLocalbodies().size(), rollup.getAssemblies().size(), (System.nanoTime() - start) / 1_000_000);
+        return rollup;
+    }
+
+    /**
+     * Lower-cased, sorted and de-duplicated. Filters come from the query string and are part
+     * of the cache key, so anything that is not a localbody type is rejected.
+     */
+    private List<String> normalizeTypes(List<String> types) {
+        if (types == null || types.isEmpty()) {
+            return List.of();
+        }
+        List<String> normalized = types.stream()
+                .map(t -> t.toLowerCase(Locale.ROOT))
+                .distinct()
+                .sorted()
+                .toList();
+        if (!knownTypes.containsAll(normalized)) {
+            knownTypes = Set.copyOf(localbodyRepository.findDistinctTypes());
+            for (String t : normalized) {
+                if (!knownTypes.contains(t)) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown localbody type: " + t);
+                }
+            }
+        }
+        return normalized;
+    }
+}
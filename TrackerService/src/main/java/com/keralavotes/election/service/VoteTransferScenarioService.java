@@ -0,0 +1,264 @@
+package com.keralavotes.election.service;
+
+import com.keralavotes.election.dto.ElectionType;
+import com.keralavotes.election.dto.details.VoteTransferScenarioResponse;
+import com.keralavotes.election.model.Podium;
+import com.keralavotes.election.model.VoteMatrix;
+import com.keralavotes.election.model.VoteTransferScenarioRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * What-if engine: applies an alliance-to-alliance vote transfer matrix to every ward
+ * (localbody years) or booth (GE years) of a year and recomputes winners, LB verdicts
+ * and AC totals.
+ *
+ * Scenarios only read the shared {@link VoteMatrix} of the year and keep their scratch
+ * state local, so concurrent requests never touch PostgreSQL.
+ */
+@Slf4j
+@Service
+public class VoteTransferScenarioService {
+
+    private final VoteMatrixService voteMatrixService;
+    private final Timer evaluateTimer;
+
+    public VoteTransferScenarioService(VoteMatrixService voteMatrixService, MeterRegistry meterRegistry) {
+        this.voteMatrixService = voteMatrixService;
+        this.evaluateTimer = Timer.builder("analysis.scenario.evaluate")
+                .description("Vote transfer scenario evaluation, excluding the first load of a year")
+                .register(meterRegistry);
+    }
+
+    /* ===================== SCENARIO ===================== */
+
+    public VoteTransferScenarioResponse evaluate(VoteTransferScenarioRequest req) {
+        VoteMatrix m = voteMatrixService.matrix(req.getYear());
+        return evaluateTimer.record(() -> evaluate(m, req));
+    }
+
+    private VoteTransferScenarioResponse evaluate(VoteMatrix m, VoteTransferScenarioRequest req) {
+        int A = m.allianceCount();
+        int L = m.localbodyCount();
+        int C = m.acCount();
+
+        double[] statewide = transferMatrix(m, req.getTransfers());
+        double[][] byDistrict = new double[m.districtCount()][];
+        for (VoteTransferScenarioRequest.DistrictOverride o
+                : Objects.requireNonNullElse(req.getDistrictOverrides(), List.<VoteTransferScenarioRequest.DistrictOverride>of())) {
+            int d = m.districtIndex(o.getDistrictCode());
+            if (d != VoteMatrix.NONE) {
+                byDistrict[d] = transferMatrix(m, o.getTransfers());
+            }
+        }
+
+        int target = m.allianceId(req.getAlliance());
+        int swing = req.getSwingPercent();
+
+        // aggregates; localbody/AC arrays are [index * A + alliance]
+        int[] wonBefore = new int[A], wonAfter = new int[A];
+        int[] lbUnits = new int[L];
+        int[] lbWonBefore = new int[L * A], lbWon = new int[L * A];
+        int[] lbTargetWon = new int[L], lbTargetWinnable = new int[L];
+        int[] lbBaseWon = new int[L], lbBaseWinnable = new int[L];
+        long[] acBefore = new long[C * A];
+        double[] acAfter = new double[C * A];
+        int flipped = 0;
+
+        double[] after = new double[A];
+        Podium before = new Podium();
+        Podium podium = new Podium();
+
+        for (int u = 0; u < m.getUnitCount(); u++) {
+            int d = m.unitDistrict(u);
+            double[] f = d != VoteMatrix.NONE && byDistrict[d] != null ? byDistrict[d] : statewide;
+            applyTransfers(m, u, f, after);
+
+            before.reset();
+            podium.reset();
+            for (int a = 0; a < A; a++) {
+                long v = m.votes(u, a);
+                if (v == VoteMatrix.ABSENT) continue;
+                before.offer(a, v);
+                podium.offer(a, Math.round(after[a]));
+            }
+            if (podium.isEmpty()) continue;
+
+            wonBefore[before.first()]++;
+            wonAfter[podium.first()]++;
+            if (before.first() != podium.first()) flipped++;
+
+            int lb = m.unitLocalbody(u);
+            if (lb != VoteMatrix.NONE) {
+                lbUnits[lb]++;
+                lbWonBefore[lb * A + before.first()]++;
+                lbWon[lb * A + podium.first()]++;
+                if (target != VoteMatrix.NONE && m.votes(u, target) != VoteMatrix.ABSENT) {
+                    if (podium.first() == target) lbTargetWon[lb]++;
+                    else if (withinSwing(podium.firstVotes(), Math.round(after[target]), swing)) lbTargetWinnable[lb]++;
+
+                    if (before.first() == target) lbBaseWon[lb]++;
+                    else if (withinSwing(before.firstVotes(), m.votes(u, target), swing)) lbBaseWinnable[lb]++;
+                }
+            }
+
+            int ac = m.unitAc(u);
+            if (ac != VoteMatrix.NONE) {
+                for (int a = 0; a < A; a++) {
+                    long v = m.votes(u, a);
+                    if (v == VoteMatrix.ABSENT) continue;
+                    acBefore[ac * A + a] += v;
+                    acAfter[ac * A + a] += after[a];
+                }
+            }
+        }
+
+        // alliances in name order for stable output
+        List<String> names = m.allianceNames();
+        int[] order = IntStream.range(0, A).boxed()
+                .sorted(Comparator.comparing(names::get))
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        List<VoteTransferScenarioResponse.LocalbodyResult> lbs = new ArrayList<>(L);
+        for (int lb = 0; lb < L; lb++) {
+            int majority = (lbUnits[lb] / 2) + 1;
+            List<VoteTransferScenarioResponse.AllianceUnits> won = new ArrayList<>();
+            for (int a : order) {
+                int b = lbWonBefore[lb * A + a], v = lbWon[lb * A + a];
+                if (b > 0 || v > 0) {
+                    won.add(new VoteTransferScenarioResponse.AllianceUnits(names.get(a), b, v));
+                }
+            }
+            lbs.add(VoteTransferScenarioResponse.LocalbodyResult.builder()
+                    .localbodyId(m.localbodyId(lb))
+                    .localbodyName(m.localbodyName(lb))
+                    .totalUnits(lbUnits[lb])
+                    .majorityNeeded(majority)
+                    .unitsWon(won)
+                    .won(lbTargetWon[lb])
+                    .winnable(lbTargetWinnable[lb])
+                    .verdict(verdict(lbTargetWon[lb], lbTargetWinnable[lb], majority))
+                    .baselineVerdict(verdict(lbBaseWon[lb], lbBaseWinnable[lb], majority))
+                    .build());
+        }
+
+        List<VoteTransferScenarioResponse.AcResult> acs = new ArrayList<>(C);
+        for (int ac = 0; ac < C; ac++) {
+            before.reset();
+            podium.reset();
+            List<VoteTransferScenarioResponse.AllianceVotes> acVotes = new ArrayList<>();
+            for (int a : order) {
+                long b = acBefore[ac * A + a];
+                long v = Math.round(acAfter[ac * A + a]);
+                if (b == 0 && v == 0) continue;
+                acVotes.add(new VoteTransferScenarioResponse.AllianceVotes(names.get(a), b, v));
+                before.offer(a, b);
+                podium.offer(a, v);
+            }
+            acs.add(VoteTransferScenarioResponse.AcResult.builder()
+                    .acCode(m.acCode(ac))
+                    .acName(m.acName(ac))
+                    .votes(acVotes)
+                    .winner(podium.isEmpty() ? null : names.get(podium.first()))
+                    .baselineWinner(before.isEmpty() ? null : names.get(before.first()))
+                    .margin(podium.margin())
+                    .build());
+        }
+
+        List<VoteTransferScenarioResponse.AllianceUnits> unitsWon = new ArrayList<>();
+        for (int a : order) {
+            if (wonBefore[a] > 0 || wonAfter[a] > 0) {
+                unitsWon.add(new VoteTransferScenarioResponse.AllianceUnits(names.get(a), wonBefore[a], wonAfter[a]));
+            }
+        }
+
+        return VoteTransferScenarioResponse.builder()
+                .year(m.getYear())
+                .type(m.getType())
+                .unitType(m.getType() == ElectionType.LOCALBODY ? "WARD" : "BOOTH")
+                .alliance(req.getAlliance())
+                .swingPercent(swing)
+                .units(m.getUnitCount())
+                .flippedUnits(flipped)
+                .unitsWon(unitsWon)
+                .localbodies(lbs)
+                .acs(acs)
+                .build();
+    }
+
+    /**
+     * Moves {@code f[from * A + to]} of each alliance's original votes to the recipient.
+     * Transfers into an alliance that did not contest the unit are skipped.
+     */
+    private static void applyTransfers(VoteMatrix m, int u, double[] f, double[] after) {
+        int A = m.allianceCount();
+        for (int a = 0; a < A; a++) {
+            long v = m.votes(u, a);
+            after[a] = v == VoteMatrix.ABSENT ? 0.0 : v;
+        }
+        if (f == null) return;
+
+        for (int from = 0; from < A; from++) {
+            long v = m.votes(u, from);
+            if (v == VoteMatrix.ABSENT || v == 0) continue;
+            for (int to = 0; to < A; to++) {
+                double share = f[from * A + to];
+                if (share == 0.0 || m.votes(u, to) == VoteMatrix.ABSENT) continue;
+                double moved = v * share;
+                after[from] -= moved;
+                after[to] += moved;
+            }
+        }
+    }
+
+    /** Dense A x A matrix of transfer fractions, or null when there is nothing to move. */
+    private static double[] transferMatrix(VoteMatrix m, List<VoteTransferScenarioRequest.Transfer> transfers) {
+        if (transfers == null || transfers.isEmpty()) return null;
+
+        int A = m.allianceCount();
+        double[] f = new double[A * A];
+        double[] outflow = new double[A];
+        for (VoteTransferScenarioRequest.Transfer t : transfers) {
+            int from = m.allianceId(t.getFrom());
+            int to = m.allianceId(t.getTo());
+            if (from == VoteMatrix.NONE || to == VoteMatrix.NONE) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Unknown alliance in transfer " + t.getFrom() + " -> " + t.getTo()
+                                + " for " + m.getYear() + "; known: " + String.join(", ", m.allianceNames()));
+            }
+            if (from == to) continue;
+
+            double share = t.getPercent() / 100.0;
+            f[from * A + to] += share;
+            outflow[from] += share;
+            if (outflow[from] > 1.0 + 1e-9) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Transfers out of " + t.getFrom() + " exceed 100%");
+            }
+        }
+        return f;
+    }
+
+    // same gap test as AllianceAnalysisService
+    private static boolean withinSwing(long winnerVotes, long ourVotes, int swingPercent) {
+        double pctGap = ((winnerVotes - ourVotes) * 100.0) / winnerVotes;
+        return pctGap <= swingPercent;
+    }
+
+    private static String verdict(int won, int winnable, int majority) {
+        if (won >= majority) return "MAJORITY";
+        if (won + winnable >= majority) return "POSSIBLE_WITH_SWING";
+        return "HARD";
+    }
+}
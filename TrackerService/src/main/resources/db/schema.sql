@@ -0,0 +1,75 @@
+-- Tables the service adds on top of the restored dump (db/restore-help.readme).
+-- Runs at every startup, before Hibernate validates the schema, so each statement
+-- must be safe to repeat.
+
+-- ===== Alliance rollups (AllianceRollupService) =====
+-- backfill after the tables are first created:
+--   curl -X POST -H "Authorization: Bearer <admin token>" http://localhost:8080/api/v1/admin/rollups/rebuild
+
+CREATE TABLE IF NOT EXISTS ward_alliance_rollup (
+    id            BIGSERIAL PRIMARY KEY,
+    ward_id       BIGINT  NOT NULL REFERENCES ward(id) ON DELETE CASCADE,
+    election_year INTEGER NOT NULL,
+    alliance      VARCHAR(255) NOT NULL,
+    votes         BIGINT  NOT NULL,
+    total         BIGINT  NOT NULL,
+    position      INTEGER NOT NULL,
+    winner        VARCHAR(255) NOT NULL,
+    margin        BIGINT  NOT NULL,
+    CONSTRAINT ward_alliance_rollup_uq UNIQUE (ward_id, election_year, alliance)
+);
+-- rollup rows reach their localbody through ward
+CREATE INDEX IF NOT EXISTS ward_localbody_idx ON ward (localbody_id);
+
+CREATE TABLE IF NOT EXISTS booth_alliance_rollup (
+    id            BIGSERIAL PRIMARY KEY,
+    ps_id         BIGINT  NOT NULL REFERENCES polling_station(id) ON DELETE CASCADE,
+    ac_code       INTEGER NOT NULL,
+    election_year INTEGER NOT NULL,
+    alliance      VARCHAR(255) NOT NULL,
+    votes         BIGINT  NOT NULL,
+    total         BIGINT  NOT NULL,
+    total_valid   INTEGER,
+    position      INTEGER NOT NULL,
+    winner        VARCHAR(255) NOT NULL,
+    margin        BIGINT  NOT NULL,
+    CONSTRAINT booth_alliance_rollup_uq UNIQUE (ps_id, election_year, alliance)
+);
+CREATE INDEX IF NOT EXISTS booth_alliance_rollup_ac_year_idx ON booth_alliance_rollup (ac_code, election_year);
+
+-- ===== Import jobs (ImportJobService) =====
+
+CREATE TABLE IF NOT EXISTS import_job (
+    id            VARCHAR(36)  PRIMARY KEY,
+    type          VARCHAR(32)  NOT NULL,
+    status        VARCHAR(16)  NOT NULL,
+    file_name     VARCHAR(255),
+    file_size     BIGINT,
+    file_hash     VARCHAR(64),
+    resumed_after_row BIGINT,
+    rows_committed    BIGINT,
+    total_rows    BIGINT,
+    rows_parsed   BIGINT       NOT NULL DEFAULT 0,
+    rows_inserted BIGINT       NOT NULL DEFAULT 0,
+    rows_skipped  BIGINT       NOT NULL DEFAULT 0,
+    created_at    TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    started_at    TIMESTAMP(6) WITH TIME ZONE,
+    finished_at   TIMESTAMP(6) WITH TIME ZONE,
+    result        TEXT,
+    error         TEXT
+);
+CREATE INDEX IF NOT EXISTS import_job_created_idx ON import_job (created_at);
+
+-- last committed row of each chunked CSV import, per uploaded file
+CREATE TABLE IF NOT EXISTS import_checkpoint (
+    id             BIGSERIAL    PRIMARY KEY,
+    type           VARCHAR(32)  NOT NULL,
+    file_hash      VARCHAR(64)  NOT NULL,
+    rows_committed BIGINT       NOT NULL DEFAULT 0,
+    rows_inserted  BIGINT       NOT NULL DEFAULT 0,
+    rows_skipped   BIGINT       NOT NULL DEFAULT 0,
+    job_id         VARCHAR(36),
+    updated_at     TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    completed_at   TIMESTAMP(6) WITH TIME ZONE,
+    CONSTRAINT import_checkpoint_uq UNIQUE (type, file_hash)
+);
@@ -0,0 +1,131 @@
+package com.keralavotes.election.model;
+
+import com.keralavotes.election.dto.ElectionType;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AllianceTallyTest {
+
+    private record DefaultRow(Long partyId, String allianceName) implements PartyAllianceRow {
+        public Long getPartyId() { return partyId; }
+        public String getAllianceName() { return allianceName; }
+    }
+
+    private record MappingRow(Long partyId, String allianceName, Integer electionYear, ElectionType electionType)
+            implements PartyAllianceMappingRow {
+        public Long getPartyId() { return partyId; }
+        public String getAllianceName() { return allianceName; }
+        public Integer getElectionYear() { return electionYear; }
+        public ElectionType getElectionType() { return electionType; }
+    }
+
+    private static PartyAllianceSnapshot snapshot() {
+        return PartyAllianceSnapshot.build(1,
+                List.of(new DefaultRow(1L, "ldf"), new DefaultRow(2L, " UDF "), new DefaultRow(3L, null),
+                        new DefaultRow(4L, "Twenty20")),
+                List.of(new MappingRow(1L, "LDF", 2024, ElectionType.LOKSABHA),
+                        new MappingRow(5L, "Independent Front", 2024, ElectionType.LOKSABHA),
+                        new MappingRow(6L, "twenty20", 2021, ElectionType.ASSEMBLY)));
+    }
+
+    @Test
+    void snapshotInternsAlliancesToDenseIds() {
+        PartyAllianceSnapshot s = snapshot();
+
+        // fixed ids first, then the others in load order, matched case-insensitively
+        assertThat(s.allianceNames()).containsExactly("OTH", "LDF", "UDF", "NDA", "Twenty20", "Independent Front");
+        assertThat(s.allianceCount()).isEqualTo(6);
+        assertThat(s.allianceId("udf")).isEqualTo(2);
+        assertThat(s.allianceId(" TWENTY20 ")).isEqualTo(4);
+        assertThat(s.allianceId("unknown")).isEqualTo(-1);
+        assertThat(s.allianceIdOrOthers("unknown")).isEqualTo(s.othersId()).isZero();
+
+        assertThat(s.resolveDefault(1L)).isEqualTo(1);
+        assertThat(s.resolveDefault(3L)).isEqualTo(s.othersId());
+        assertThat(s.resolveDefault(null)).isEqualTo(s.othersId());
+        assertThat(s.resolve(2024, ElectionType.LOKSABHA, 5L)).isEqualTo(5);
+        assertThat(s.resolve(2024, ElectionType.LOKSABHA, 2L)).isEqualTo(s.othersId());
+        assertThat(s.resolveName(2021, ElectionType.ASSEMBLY, 6L)).isEqualTo("Twenty20");
+    }
+
+    @Test
+    void tallyOverDenseIdsMatchesMapMerge() {
+        PartyAllianceSnapshot s = snapshot();
+        long[][] rows = {{1, 120}, {2, 80}, {6, 5}, {4, 40}, {1, 30}, {3, 0}, {5, 7}, {99, 11}};
+
+        AllianceTally tally = s.newTally();
+        Map<String, Long> expected = new LinkedHashMap<>();
+        for (long[] r : rows) {
+            int id = s.resolveDefault(r[0]);
+            tally.add(id, r[1]);
+            expected.merge(s.allianceName(id), r[1], Long::sum);
+        }
+
+        Map<String, Long> actual = new HashMap<>();
+        tally.forEach((id, votes) -> actual.put(s.allianceName(id), votes));
+        assertThat(actual).isEqualTo(expected);
+        assertThat(tally.size()).isEqualTo(expected.size());
+        assertThat(tally.total()).isEqualTo(expected.values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    @Test
+    void zeroVotesStillCountAsPresent() {
+        AllianceTally tally = new AllianceTally(4);
+        tally.add(2, 0);
+
+        assertThat(tally.contains(2)).isTrue();
+        assertThat(tally.contains(1)).isFalse();
+        assertThat(tally.size()).isEqualTo(1);
+        assertThat(tally.isEmpty()).isFalse();
+    }
+
+    @Test
+    void growsForIdsBeyondCapacity() {
+        AllianceTally tally = new AllianceTally(2);
+        tally.add(1, 10);
+        tally.add(17, 5);
+
+        assertThat(tally.get(17)).isEqualTo(5);
+        assertThat(tally.get(1)).isEqualTo(10);
+        assertThat(tally.get(40)).isZero();
+        assertThat(tally.contains(40)).isFalse();
+        assertThat(tally.contains(-1)).isFalse();
+        assertThat(tally.total()).isEqualTo(15);
+    }
+
+    @Test
+    void rankedOrdersByVotesThenLowestId() {
+        AllianceTally tally = new AllianceTally(6);
+        tally.add(3, 50);
+        tally.add(1, 70);
+        tally.add(5, 50);
+        tally.add(0, 10);
+
+        assertThat(tally.ranked()).containsExactly(1, 3, 5, 0);
+    }
+
+    @Test
+    void addAllMergesAndClearResets() {
+        AllianceTally a = new AllianceTally(4);
+        a.add(1, 10);
+        AllianceTally b = new AllianceTally(8);
+        b.add(1, 5);
+        b.add(6, 0);
+
+        a.addAll(b);
+        assertThat(a.get(1)).isEqualTo(15);
+        assertThat(a.contains(6)).isTrue();
+        assertThat(a.size()).isEqualTo(2);
+
+        a.clear();
+        assertThat(a.isEmpty()).isTrue();
+        assertThat(a.total()).isZero();
+        assertThat(a.contains(1)).isFalse();
+    }
+}
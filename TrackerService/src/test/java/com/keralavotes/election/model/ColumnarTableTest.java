@@ -0,0 +1,136 @@
+package com.keralavotes.election.model;
+
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ColumnarTableTest {
+
+    private final ObjectMapper mapper = JsonMapper.builder().build();
+
+    private record Booth(long psId, Integer psNumber, String psName, Integer totalValid) {}
+
+    private static ColumnarTable encode(List<Booth> booths) {
+        ColumnarTable table = new ColumnarTable("booth-totals");
+        ColumnarTable.LongColumn psId = table.longColumn("psId");
+        ColumnarTable.IntColumn psNumber = table.intColumn("psNumber");
+        ColumnarTable.DictColumn psName = table.dictColumn("psName");
+        ColumnarTable.IntColumn totalValid = table.intColumn("totalValid");
+        for (Booth b : booths) {
+            psId.add(b.psId());
+            psNumber.add(b.psNumber());
+            psName.add(b.psName());
+            totalValid.add(b.totalValid());
+        }
+        return table;
+    }
+
+    /** Client-side decode, following the schema. */
+    private static List<Booth> decode(JsonNode table) {
+        JsonNode columns = table.get("columns");
+        JsonNode names = table.get("dictionaries").get("psName");
+        Set<Integer> nullNumbers = nullRows(table, "psNumber");
+        Set<Integer> nullTotals = nullRows(table, "totalValid");
+
+        List<Booth> rows = new ArrayList<>();
+        for (int i = 0; i < table.get("rows").asInt(); i++) {
+            int name = columns.get("psName").get(i).asInt();
+            rows.add(new Booth(
+                    columns.get("psId").get(i).asLong(),
+                    nullNumbers.contains(i) ? null : columns.get("psNumber").get(i).asInt(),
+                    name == -1 ? null : names.get(name).asString(),
+                    nullTotals.contains(i) ? null : columns.get("totalValid").get(i).asInt()));
+        }
+        return rows;
+    }
+
+    private static Set<Integer> nullRows(JsonNode table, String column) {
+        Set<Integer> rows = new HashSet<>();
+        JsonNode nulls = table.get("nulls").get(column);
+        if (nulls != null) {
+            nulls.forEach(n -> rows.add(n.asInt()));
+        }
+        return rows;
+    }
+
+    @Test
+    void roundTripsValuesNullsAndZeros() {
+        List<Booth> booths = List.of(
+                new Booth(101, 1, "GHS Kottayam", 812),
+                new Booth(102, 2, "GHS Kottayam", null),
+                new Booth(103, null, null, 0),
+                new Booth(104, 4, "LP School", 655));
+
+        JsonNode json = mapper.valueToTree(encode(booths));
+
+        assertThat(json.get("schema").asString()).isEqualTo(ColumnarTable.SCHEMA);
+        assertThat(json.get("rows").asInt()).isEqualTo(4);
+        assertThat(json.get("dictionaries").get("psName")).hasSize(2);
+        // a null is 0 in the column and listed in nulls; a real 0 is not
+        assertThat(json.get("columns").get("totalValid").get(1).asInt()).isZero();
+        assertThat(json.get("nulls").propertyNames()).containsExactly("psNumber", "totalValid");
+        assertThat(decode(json)).isEqualTo(booths);
+    }
+
+    @Test
+    void propertyOrderAndEmptyNulls() {
+        String json = mapper.writeValueAsString(encode(List.of(new Booth(1, 1, "A", 10))));
+
+        assertThat(json).startsWith("{\"schema\":\"columnar-table/v1\",\"table\":\"booth-totals\",\"rows\":1,");
+        assertThat(json).endsWith(",\"nulls\":{}}");
+    }
+
+    @Test
+    void roundTripsPastInitialCapacity() {
+        List<Booth> booths = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            booths.add(new Booth(1000 + i, i % 7 == 0 ? null : i, "Booth " + (i % 40), i % 5 == 0 ? null : 3 * i));
+        }
+
+        JsonNode json = mapper.valueToTree(encode(booths));
+
+        assertThat(json.get("dictionaries").get("psName")).hasSize(40);
+        assertThat(json.get("nulls").get("psNumber")).hasSize(43);
+        assertThat(decode(json)).isEqualTo(booths);
+    }
+
+    @Test
+    void nullRowsAreACopy() {
+        ColumnarTable table = new ColumnarTable("booth-totals");
+        ColumnarTable.IntColumn votes = table.intColumn("votes");
+        votes.add((Integer) null);
+        votes.add(5);
+
+        int[] rows = votes.nullRows();
+        rows[0] = 9;
+
+        assertThat(votes.nullRows()).containsExactly(0);
+        assertThat(table.getNulls().get("votes")).containsExactly(0);
+    }
+
+    @Test
+    void rejectsDuplicateColumns() {
+        ColumnarTable table = new ColumnarTable("booth-totals");
+        table.intColumn("votes");
+
+        assertThatThrownBy(() -> table.dictColumn("votes")).isInstanceOf(IllegalArgumentException.class);
+        assertThat(table.getDictionaries()).isEmpty();
+    }
+
+    @Test
+    void acceptsOnlyExplicitColumnarMediaType() {
+        assertThat(ColumnarTable.isAccepted("application/json, " + ColumnarTable.MEDIA_TYPE_VALUE + ";q=0.9")).isTrue();
+        assertThat(ColumnarTable.isAccepted("*/*")).isFalse();
+        assertThat(ColumnarTable.isAccepted("not a media type")).isFalse();
+        assertThat(ColumnarTable.isAccepted(null)).isFalse();
+    }
+}
@@ -0,0 +1,103 @@
+package com.keralavotes.election.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongHashSetTest {
+
+    private static long voteKey(long psId, long candidateId) {
+        return psId << 32 | candidateId;
+    }
+
+    @Test
+    void addReportsNewKeysOnly() {
+        LongHashSet set = new LongHashSet();
+
+        assertThat(set.add(42)).isTrue();
+        assertThat(set.add(42)).isFalse();
+        assertThat(set.add(-42)).isTrue();
+        assertThat(set.contains(42)).isTrue();
+        assertThat(set.contains(-42)).isTrue();
+        assertThat(set.contains(43)).isFalse();
+        assertThat(set.size()).isEqualTo(2);
+    }
+
+    @Test
+    void zeroIsAnOrdinaryKey() {
+        LongHashSet set = new LongHashSet();
+
+        assertThat(set.contains(0)).isFalse();
+        assertThat(set.add(0)).isTrue();
+        assertThat(set.add(0)).isFalse();
+        assertThat(set.contains(0)).isTrue();
+        assertThat(set.size()).isEqualTo(1);
+    }
+
+    @Test
+    void keepsEveryKeyAcrossResizes() {
+        // starts at 16 slots and doubles several times
+        LongHashSet set = new LongHashSet();
+        for (long k = 1; k <= 10_000; k++) {
+            assertThat(set.add(k)).isTrue();
+        }
+
+        assertThat(set.size()).isEqualTo(10_000);
+        for (long k = 1; k <= 10_000; k++) {
+            assertThat(set.contains(k)).isTrue();
+            assertThat(set.add(k)).isFalse();
+        }
+        assertThat(set.contains(10_001)).isFalse();
+        assertThat(set.size()).isEqualTo(10_000);
+    }
+
+    @Test
+    void packedKeysThatShareLowBitsStayDistinct() {
+        // same candidate across booths, and same booth across candidates: equal halves
+        // and multiples of the table size, which would pile into one slot without mixing
+        LongHashSet set = new LongHashSet(4);
+        Set<Long> expected = new HashSet<>();
+        for (long ps = 1; ps <= 200; ps++) {
+            for (long cand : new long[]{1, 16, 1L << 20, ps}) {
+                long key = voteKey(ps, cand);
+                assertThat(set.add(key)).isEqualTo(expected.add(key));
+            }
+        }
+
+        assertThat(set.size()).isEqualTo(expected.size());
+        expected.forEach(k -> assertThat(set.contains(k)).isTrue());
+        assertThat(set.contains(voteKey(1, 2))).isFalse();
+        assertThat(set.contains(voteKey(201, 1))).isFalse();
+    }
+
+    @Test
+    void matchesHashSetOnRandomKeys() {
+        Random random = new Random(7);
+        LongHashSet set = new LongHashSet();
+        Set<Long> expected = new HashSet<>();
+        // a narrow range forces repeats
+        LongStream.generate(() -> random.nextInt(5_000) - 2_500).limit(20_000).forEach(k -> {
+            assertThat(set.add(k)).isEqualTo(expected.add(k));
+        });
+
+        assertThat(set.size()).isEqualTo(expected.size());
+        for (long k = -2_600; k < 2_600; k++) {
+            assertThat(set.contains(k)).isEqualTo(expected.contains(k));
+        }
+    }
+
+    @Test
+    void acceptAddsLikeAdd() {
+        LongHashSet set = new LongHashSet();
+        LongStream.of(3, 3, 0, 5).forEach(set);
+
+        assertThat(set.size()).isEqualTo(3);
+        assertThat(set.contains(0)).isTrue();
+        assertThat(set.contains(5)).isTrue();
+    }
+}
@@ -0,0 +1,139 @@
+package com.keralavotes.election.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PodiumTest {
+
+    @Test
+    void emptyPodiumHasNoPlaces() {
+        Podium p = new Podium();
+
+        assertThat(p.isEmpty()).isTrue();
+        assertThat(p.first()).isEqualTo(Podium.NONE);
+        assertThat(p.second()).isEqualTo(Podium.NONE);
+        assertThat(p.third()).isEqualTo(Podium.NONE);
+        assertThat(p.hasRunnerUp()).isFalse();
+        assertThat(p.margin()).isZero();
+    }
+
+    @Test
+    void singleEntryIsWinnerWithoutMargin() {
+        Podium p = new Podium();
+        p.offer(7, 0);
+
+        assertThat(p.first()).isEqualTo(7);
+        assertThat(p.firstVotes()).isZero();
+        assertThat(p.second()).isEqualTo(Podium.NONE);
+        assertThat(p.third()).isEqualTo(Podium.NONE);
+        assertThat(p.hasRunnerUp()).isFalse();
+        assertThat(p.margin()).isZero();
+    }
+
+    @Test
+    void twoEntriesLeaveThirdEmpty() {
+        Podium p = new Podium();
+        p.offer(1, 40);
+        p.offer(2, 65);
+
+        assertThat(p.first()).isEqualTo(2);
+        assertThat(p.second()).isEqualTo(1);
+        assertThat(p.third()).isEqualTo(Podium.NONE);
+        assertThat(p.size()).isEqualTo(2);
+        assertThat(p.margin()).isEqualTo(25);
+    }
+
+    @Test
+    void tiesKeepTheEarlierKeyAhead() {
+        Podium p = new Podium();
+        p.offer(4, 50);
+        p.offer(2, 50);
+        p.offer(9, 50);
+        p.offer(1, 50);
+
+        assertThat(p.first()).isEqualTo(4);
+        assertThat(p.second()).isEqualTo(2);
+        assertThat(p.third()).isEqualTo(9);
+        assertThat(p.margin()).isZero();
+    }
+
+    @Test
+    void tieForSecondDoesNotDisplaceRunnerUp() {
+        Podium p = new Podium();
+        p.offer(1, 100);
+        p.offer(2, 60);
+        p.offer(3, 60);
+        p.offer(4, 80);
+
+        assertThat(p.first()).isEqualTo(1);
+        assertThat(p.second()).isEqualTo(4);
+        assertThat(p.third()).isEqualTo(2);
+        assertThat(p.thirdVotes()).isEqualTo(60);
+    }
+
+    @Test
+    void resetAllowsReuse() {
+        Podium p = new Podium();
+        p.offer(1, 10);
+        p.offer(2, 20);
+        p.reset();
+        p.offer(3, 5);
+
+        assertThat(p.size()).isEqualTo(1);
+        assertThat(p.first()).isEqualTo(3);
+        assertThat(p.second()).isEqualTo(Podium.NONE);
+    }
+
+    /** Same answer as the stable descending sort the call sites used before. */
+    @Test
+    void matchesStableDescendingSort() {
+        Random random = new Random(42);
+        Podium p = new Podium();
+
+        for (int round = 0; round < 20_000; round++) {
+            int n = random.nextInt(8);
+            List<long[]> entries = new ArrayList<>();
+            p.reset();
+            for (int key = 0; key < n; key++) {
+                long votes = random.nextInt(6);           // small range: many ties
+                entries.add(new long[]{key, votes});
+                p.offer(key, votes);
+            }
+            List<long[]> sorted = new ArrayList<>(entries);
+            sorted.sort(Comparator.comparingLong((long[] e) -> e[1]).reversed());
+
+            assertThat(p.first()).isEqualTo(n > 0 ? (int) sorted.get(0)[0] : Podium.NONE);
+            assertThat(p.second()).isEqualTo(n > 1 ? (int) sorted.get(1)[0] : Podium.NONE);
+            assertThat(p.third()).isEqualTo(n > 2 ? (int) sorted.get(2)[0] : Podium.NONE);
+            assertThat(p.margin()).isEqualTo(n > 1 ? sorted.get(0)[1] - sorted.get(1)[1] : 0L);
+        }
+    }
+
+    @Test
+    void matchesTallyRanking() {
+        Random random = new Random(7);
+        Podium p = new Podium();
+
+        for (int round = 0; round < 5_000; round++) {
+            AllianceTally tally = new AllianceTally(6);
+            int adds = random.nextInt(10);
+            for (int i = 0; i < adds; i++) {
+                tally.add(random.nextInt(6), random.nextInt(4));
+            }
+            int[] ranked = tally.ranked();
+            tally.podium(p);
+
+            assertThat(p.size()).isEqualTo(ranked.length);
+            for (int place = 0; place < Math.min(3, ranked.length); place++) {
+                int key = place == 0 ? p.first() : place == 1 ? p.second() : p.third();
+                assertThat(key).isEqualTo(ranked[place]);
+            }
+        }
+    }
+}
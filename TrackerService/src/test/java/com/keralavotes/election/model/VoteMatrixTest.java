@@ -0,0 +1,116 @@
+package com.keralavotes.election.model;
+
+import com.keralavotes.election.dto.ElectionType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class VoteMatrixTest {
+
+    private record Row(Long unitId, Long localbodyId, String localbodyName, Integer acCode, String acName,
+                           Integer districtCode, String alliance, Long votes) implements ScenarioUnitRow {
+        public Long getUnitId() { return unitId; }
+        public Long getLocalbodyId() { return localbodyId; }
+        public String getLocalbodyName() { return localbodyName; }
+        public Integer getAcCode() { return acCode; }
+        public String getAcName() { return acName; }
+        public Integer getDistrictCode() { return districtCode; }
+        public String getAlliance() { return alliance; }
+        public Long getVotes() { return votes; }
+    }
+
+    private static Row row(long unit, long lb, int ac, int district, String alliance, Long votes) {
+        return new Row(unit, lb, "LB " + lb, ac, "AC " + ac, district, alliance, votes);
+    }
+
+    @Test
+    void laysOutUnitsAndDenseIndexes() {
+        VoteMatrix m = VoteMatrix.build(2020, ElectionType.LOCALBODY, Stream.of(
+                row(10, 1001, 5, 1, "LDF", 100L),
+                row(10, 1001, 5, 1, " udf ", 90L),
+                row(11, 1002, 7, 2, "UDF", 60L),
+                row(11, 1002, 7, 2, "NDA", 30L),
+                row(12, 1001, 5, 1, "NDA", 10L)));
+
+        assertThat(m.getYear()).isEqualTo(2020);
+        assertThat(m.getType()).isEqualTo(ElectionType.LOCALBODY);
+        assertThat(m.getUnitCount()).isEqualTo(3);
+        assertThat(m.allianceNames()).containsExactlyInAnyOrder("LDF", "UDF", "NDA");
+
+        int ldf = m.allianceId("ldf"), udf = m.allianceId("UDF"), nda = m.allianceId(" Nda ");
+        assertThat(m.allianceName(udf)).isEqualTo("UDF");
+        assertThat(m.allianceId("unknown")).isEqualTo(VoteMatrix.NONE);
+        assertThat(m.allianceId(null)).isEqualTo(VoteMatrix.NONE);
+
+        assertThat(m.votes(0, ldf)).isEqualTo(100L);
+        assertThat(m.votes(0, udf)).isEqualTo(90L);
+        assertThat(m.votes(0, nda)).isEqualTo(VoteMatrix.ABSENT);
+        assertThat(m.votes(1, ldf)).isEqualTo(VoteMatrix.ABSENT);
+        assertThat(m.votes(2, nda)).isEqualTo(10L);
+
+        // units 0 and 2 share a localbody, AC and district
+        assertThat(m.localbodyCount()).isEqualTo(2);
+        assertThat(m.unitLocalbody(2)).isEqualTo(m.unitLocalbody(0));
+        assertThat(m.localbodyId(m.unitLocalbody(1))).isEqualTo(1002L);
+        assertThat(m.localbodyName(m.unitLocalbody(1))).isEqualTo("LB 1002");
+        assertThat(m.acCount()).isEqualTo(2);
+        assertThat(m.acCode(m.unitAc(1))).isEqualTo(7);
+        assertThat(m.acName(m.unitAc(0))).isEqualTo("AC 5");
+        assertThat(m.districtCount()).isEqualTo(2);
+        assertThat(m.districtIndex(2)).isEqualTo(m.unitDistrict(1));
+        assertThat(m.districtIndex(99)).isEqualTo(VoteMatrix.NONE);
+    }
+
+    @Test
+    void sumsRepeatedAlliancesAndMapsMissingValues() {
+        VoteMatrix m = VoteMatrix.build(2024, ElectionType.LOKSABHA, Stream.of(
+                row(1, 1, 1, 1, "LDF", 40L),
+                row(1, 1, 1, 1, "LDF", 2L),
+                row(1, 1, 1, 1, null, 7L),
+                row(1, 1, 1, 1, "UDF", null),
+                new Row(2L, null, null, null, null, null, "UDF", 5L)));
+
+        int ldf = m.allianceId("LDF"), udf = m.allianceId("UDF"), oth = m.allianceId(PartyAllianceSnapshot.OTHERS);
+        assertThat(m.votes(0, ldf)).isEqualTo(42L);
+        assertThat(m.votes(0, oth)).isEqualTo(7L);
+        // a contested alliance with no count is 0, not ABSENT
+        assertThat(m.votes(0, udf)).isZero();
+
+        assertThat(m.unitLocalbody(1)).isEqualTo(VoteMatrix.NONE);
+        assertThat(m.unitAc(1)).isEqualTo(VoteMatrix.NONE);
+        assertThat(m.unitDistrict(1)).isEqualTo(VoteMatrix.NONE);
+        assertThat(m.localbodyCount()).isEqualTo(1);
+    }
+
+    @Test
+    void growsPastInitialCapacity() {
+        List<ScenarioUnitRow> rows = new ArrayList<>();
+        for (long u = 0; u < 3000; u++) {
+            rows.add(row(u, 1000 + u % 300, (int) (u % 140), (int) (u % 14), "LDF", u));
+            rows.add(row(u, 1000 + u % 300, (int) (u % 140), (int) (u % 14), "UDF", 2 * u));
+        }
+        VoteMatrix m = VoteMatrix.build(2015, ElectionType.LOCALBODY, rows.stream());
+
+        assertThat(m.getUnitCount()).isEqualTo(3000);
+        assertThat(m.localbodyCount()).isEqualTo(300);
+        assertThat(m.acCount()).isEqualTo(140);
+        assertThat(m.districtCount()).isEqualTo(14);
+        int udf = m.allianceId("UDF");
+        assertThat(m.votes(2999, udf)).isEqualTo(5998L);
+        assertThat(m.localbodyId(m.unitLocalbody(2999))).isEqualTo(1000 + 2999 % 300);
+    }
+
+    @Test
+    void allianceNamesAreReadOnly() {
+        VoteMatrix m = VoteMatrix.build(2020, ElectionType.LOCALBODY, Stream.of(row(1, 1, 1, 1, "LDF", 1L)));
+
+        assertThatThrownBy(() -> m.allianceNames().set(0, "UDF"))
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThat(m.allianceName(0)).isEqualTo("LDF");
+    }
+}
@@ -0,0 +1,128 @@
+package com.keralavotes.election.service;
+
+import com.keralavotes.election.model.ImportProgress;
+import com.keralavotes.election.service.CsvImportService.Form20LoadResult;
+import com.keralavotes.election.service.CsvImportService.Form20TotalsLine;
+import com.keralavotes.election.service.CsvImportService.Form20VoteLine;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.jdbc.ReturningWork;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the COPY loader against PostgreSQL, inside a transaction that is rolled back.
+ * Skipped unless FORM20_TEST_DB_URL names a database with the application schema,
+ * e.g. {@code jdbc:postgresql://localhost:5432/keralavotes?user=keralavotes&password=keralavotes}.
+ */
+class Form20CopyLoaderTest {
+
+    private static final int AC = 9901;
+    private static final int LS = 9901;
+    private static final String LS_NAME = "Loader Test LS";
+
+    private Connection conn;
+    private Form20CopyLoader loader;
+
+    // polling station id per election year, for booth 7 of the test AC
+    private final Map<Integer, Long> booth = new HashMap<>();
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        String url = System.getenv("FORM20_TEST_DB_URL");
+        assumeTrue(url != null && !url.isBlank(), "FORM20_TEST_DB_URL not set");
+
+        conn = DriverManager.getConnection(url);
+        conn.setAutoCommit(false);
+        try (Statement st = conn.createStatement()) {
+            st.execute("insert into loksabha_constituency (ls_code, name) values (" + LS + ", '" + LS_NAME + "')");
+            st.execute("insert into assembly_constituency (ac_code, name) values (" + AC + ", 'Loader Test AC')");
+            for (int year : new int[]{2019, 2024}) {
+                // same booth, redrawn for each election
+                booth.put(year, id(st, "insert into polling_station (ac_code, ls_code, ps_number, ps_suffix, name, election_year) "
+                        + "values (" + AC + ", " + LS + ", 7, '', 'GLPS " + year + "', " + year + ") returning id"));
+                st.execute("insert into candidate (name, ls_code, election_year, election_type) "
+                        + "values ('Test Candidate', " + LS + ", " + year + ", 'LOKSABHA')");
+            }
+        }
+
+        Session session = mock(Session.class);
+        when(session.doReturningWork(any())).thenAnswer(inv -> inv.<ReturningWork<?>>getArgument(0).execute(conn));
+        EntityManager em = mock(EntityManager.class);
+        when(em.unwrap(Session.class)).thenReturn(session);
+        loader = new Form20CopyLoader(em);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        if (conn != null) {
+            conn.rollback();
+            conn.close();
+        }
+    }
+
+    private static long id(Statement st, String sql) throws SQLException {
+        try (ResultSet rs = st.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private Map<Long, Integer> rows(String sql) throws SQLException {
+        Map<Long, Integer> byPs = new HashMap<>();
+        try (Statement st = conn.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+            while (rs.next()) {
+                byPs.merge(rs.getLong(1), rs.getInt(2), Integer::sum);
+            }
+        }
+        return byPs;
+    }
+
+    @Test
+    void votesResolveToTheBoothOfTheirYear() throws SQLException {
+        Form20LoadResult result = loader.loadVotes(List.of(
+                new Form20VoteLine(AC, 7, "", LS_NAME.toLowerCase(), "test candidate", 2019, 310),
+                new Form20VoteLine(AC, 7, "", LS_NAME.toLowerCase(), "test candidate", 2024, 420)),
+                new ImportProgress());
+
+        assertThat(result.inserted()).isEqualTo(2);
+        assertThat(result.skippedMissingPs()).isZero();
+        assertThat(result.skippedDuplicate()).isZero();
+        assertThat(result.years()).containsExactlyInAnyOrder(2019, 2024);
+        assertThat(rows("select bv.ps_id, bv.votes from booth_votes bv join polling_station ps on ps.id = bv.ps_id "
+                + "where ps.ac_code = " + AC + " and bv.year = ps.election_year"))
+                .containsExactlyInAnyOrderEntriesOf(Map.of(booth.get(2019), 310, booth.get(2024), 420));
+    }
+
+    @Test
+    void totalsResolveToTheBoothOfTheirYearOnly() throws SQLException {
+        Form20LoadResult result = loader.loadTotals(List.of(
+                new Form20TotalsLine(AC, 7, "", 2024, 900, 3, 6),
+                new Form20TotalsLine(AC, 7, "", 2021, 800, 2, 4)),
+                new ImportProgress());
+
+        // 2021 has no booth list; it must not land on the 2019 or 2024 station
+        assertThat(result.inserted()).isEqualTo(1);
+        assertThat(result.skippedMissingPs()).isEqualTo(1);
+        assertThat(result.years()).containsExactly(2024);
+        assertThat(rows("select bt.ps_id, bt.total_valid from booth_totals bt join polling_station ps on ps.id = bt.ps_id "
+                + "where ps.ac_code = " + AC))
+                .containsExactlyInAnyOrderEntriesOf(Map.of(booth.get(2024), 900));
+    }
+}
@@ -0,0 +1,339 @@
+package com.keralavotes.election.service;
+
+import com.keralavotes.election.dto.ImportJobDto;
+import com.keralavotes.election.entity.ImportCheckpoint;
+import com.keralavotes.election.entity.ImportJob;
+import com.keralavotes.election.model.ImportProgress;
+import com.keralavotes.election.repository.ImportCheckpointRepository;
+import com.keralavotes.election.repository.ImportJobRepository;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ImportChunkRunnerTest {
+
+    /**
+     * Stands in for the database: imported row numbers and the file's checkpoint become
+     * visible only when the chunk's transaction commits.
+     */
+    private static final class Store implements PlatformTransactionManager {
+        final Set<Integer> rows = new LinkedHashSet<>();
+        final List<Integer> pendingRows = new ArrayList<>();
+        ImportCheckpoint checkpoint;
+        ImportCheckpoint pendingCheckpoint;
+        int commits;
+        int rollbacks;
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            rows.addAll(pendingRows);
+            if (pendingCheckpoint != null) checkpoint = pendingCheckpoint;
+            discard();
+            commits++;
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+            discard();
+            rollbacks++;
+        }
+
+        private void discard() {
+            pendingRows.clear();
+            pendingCheckpoint = null;
+        }
+    }
+
+    private record Line(int row, int ac) {}
+
+    private Store store;
+    private ImportChunkRunner runner;
+    private final List<Integer> mapped = new ArrayList<>();
+    private int failAtRow;
+    private int cancelAtRow;
+
+    @BeforeEach
+    void setUp() {
+        store = new Store();
+        runner = new ImportChunkRunner(store, 3);
+    }
+
+    /** Rows 1..n; every three rows share an AC. */
+    private static String csv(int n) {
+        StringBuilder sb = new StringBuilder("row,ac\n");
+        for (int i = 1; i <= n; i++) {
+            sb.append(i).append(',').append(100 + (i - 1) / 3).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static CSVParser parse(Reader in) throws IOException {
+        return CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).build().parse(in);
+    }
+
+    private Line map(CSVRecord rec) {
+        Line line = new Line(Integer.parseInt(rec.get("row")), Integer.parseInt(rec.get("ac")));
+        mapped.add(line.row());
+        return line;
+    }
+
+    /**
+     * Inserts rows not yet stored, like the Form 20 writers; fails once on {@link #failAtRow}
+     * and is cancelled on {@link #cancelAtRow}.
+     */
+    private int write(List<Line> chunk, ImportProgress progress) {
+        int inserted = 0;
+        for (Line line : chunk) {
+            if (line.row() == cancelAtRow) {
+                progress.requestCancel();
+            }
+            progress.checkCancelled();
+            if (line.row() == failAtRow) {
+                failAtRow = 0;
+                throw new IllegalStateException("connection reset at row " + line.row());
+            }
+            if (store.rows.contains(line.row()) || store.pendingRows.contains(line.row())) {
+                progress.skipped(1);
+            } else {
+                store.pendingRows.add(line.row());
+                progress.inserted(1);
+                inserted++;
+            }
+        }
+        return inserted;
+    }
+
+    private List<Integer> run(Reader in, ImportProgress progress) throws IOException {
+        try (CSVParser parser = parse(in)) {
+            return runner.run(parser, progress, this::map, Line::ac, chunk -> write(chunk, progress));
+        }
+    }
+
+    @Test
+    void resumesAfterMidFileFailure() throws IOException {
+        ImportProgress first = new ImportProgress();
+        first.setCheckpointer((lastRow, inserted, skipped) -> store.pendingCheckpoint =
+                ImportCheckpoint.builder().rowsCommitted(lastRow).rowsInserted(inserted).rowsSkipped(skipped).build());
+        failAtRow = 8;
+
+        assertThatThrownBy(() -> run(new StringReader(csv(10)), first))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("row 8");
+
+        // chunks 1-3 and 4-6 committed; 7-9 rolled back with its checkpoint
+        assertThat(store.rows).containsExactly(1, 2, 3, 4, 5, 6);
+        assertThat(store.commits).isEqualTo(2);
+        assertThat(store.rollbacks).isEqualTo(1);
+        assertThat(store.checkpoint.getRowsCommitted()).isEqualTo(6);
+        assertThat(first.getCommittedRows()).isEqualTo(6);
+        // row 7 was written and counted before row 8 failed; the rollback uncounts it
+        assertThat(first.getInserted()).isEqualTo(6);
+        assertThat(first.getSkipped()).isZero();
+
+        ImportProgress second = new ImportProgress();
+        ImportCheckpoint cp = store.checkpoint;
+        second.resume(cp.getRowsCommitted(), cp.getRowsInserted(), cp.getRowsSkipped());
+        mapped.clear();
+
+        List<Integer> chunks = run(new StringReader(csv(10)), second);
+
+        // committed rows are not mapped again and nothing is written twice
+        assertThat(mapped).containsExactly(7, 8, 9, 10);
+        assertThat(chunks).containsExactly(3, 1);
+        assertThat(store.rows).containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+        assertThat(second.getInserted()).isEqualTo(10);
+        assertThat(second.getSkipped()).isZero();
+        assertThat(second.getParsed()).isEqualTo(10);
+        assertThat(second.getCommittedRows()).isEqualTo(10);
+    }
+
+    @Test
+    void keepsRowsOfOneKeyInOneChunk() throws IOException {
+        runner = new ImportChunkRunner(store, 2);
+
+        List<Integer> chunks = run(new StringReader(csv(7)), new ImportProgress());
+
+        // a chunk only closes on an AC boundary, so 2 rows per chunk become 3
+        assertThat(chunks).containsExactly(3, 3, 1);
+    }
+
+    /* ---------------- re-upload through ImportJobService ---------------- */
+
+    private ImportJobService jobs;
+    private final Map<String, ImportJob> savedJobs = new HashMap<>();
+
+    private void startJobService() {
+        ImportJobRepository jobRepo = mock(ImportJobRepository.class);
+        when(jobRepo.save(any())).thenAnswer(inv -> {
+            ImportJob job = inv.getArgument(0);
+            savedJobs.put(job.getId(), job);
+            return job;
+        });
+        when(jobRepo.findById(anyString())).thenAnswer(inv -> Optional.ofNullable(savedJobs.get(inv.<String>getArgument(0))));
+
+        ImportCheckpointRepository checkpointRepo = mock(ImportCheckpointRepository.class);
+        when(checkpointRepo.findByTypeAndFileHash(any(), anyString())).thenAnswer(inv ->
+                Optional.ofNullable(store.checkpoint).filter(cp -> cp.getFileHash().equals(inv.getArgument(1))));
+        when(checkpointRepo.upsert(anyString(), anyString(), anyLong(), anyLong(), anyLong(), anyString(), any()))
+                .thenAnswer(inv -> {
+                    store.pendingCheckpoint = ImportCheckpoint.builder()
+                            .type(ImportJob.Type.valueOf(inv.getArgument(0)))
+                            .fileHash(inv.getArgument(1))
+                            .rowsCommitted(inv.getArgument(2))
+                            .rowsInserted(inv.getArgument(3))
+                            .rowsSkipped(inv.getArgument(4))
+                            .jobId(inv.getArgument(5))
+                            .updatedAt(inv.getArgument(6))
+                            .build();
+                    return 1;
+                });
+        when(checkpointRepo.markCompleted(any(), anyString(), any())).thenAnswer(inv -> {
+            store.checkpoint.setCompletedAt(inv.<Instant>getArgument(2));
+            return 1;
+        });
+
+        jobs = new ImportJobService(jobRepo, checkpointRepo, mock(DataVersionService.class),
+                mock(ResponseCacheService.class), JsonMapper.builder().build(), 1, 4);
+    }
+
+    @AfterEach
+    void stopJobService() {
+        if (jobs != null) jobs.shutdown();
+    }
+
+    private ImportJobDto upload(String body) throws InterruptedException {
+        MockMultipartFile file = new MockMultipartFile("file", "form20.csv", "text/csv",
+                body.getBytes(StandardCharsets.UTF_8));
+        String id = jobs.submit(ImportJob.Type.FORM20_VOTES, file, (path, progress) -> {
+            try (Reader in = Files.newBufferedReader(path)) {
+                return run(in, progress);
+            }
+        }).getJobId();
+        return await(id);
+    }
+
+    private ImportJobDto await(String id) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            ImportJobDto dto = jobs.status(id);
+            if (ImportJob.Status.valueOf(dto.getStatus()).isFinished()) return dto;
+            Thread.sleep(10);
+        }
+        throw new AssertionError("import job " + id + " did not finish");
+    }
+
+    @Test
+    void reuploadOfSameFileResumesFromItsCheckpoint() throws InterruptedException {
+        startJobService();
+        failAtRow = 8;
+
+        ImportJobDto failed = upload(csv(10));
+        assertThat(failed.getStatus()).isEqualTo("FAILED");
+        assertThat(failed.getRowsCommitted()).isEqualTo(6);
+        assertThat(failed.getRowsInserted()).isEqualTo(6);
+        assertThat(failed.getError()).contains("rows up to 6 are committed");
+        assertThat(failed.getFileHash()).isNotNull().isEqualTo(store.checkpoint.getFileHash());
+
+        mapped.clear();
+        ImportJobDto resumed = upload(csv(10));
+        assertThat(resumed.getStatus()).isEqualTo("DONE");
+        assertThat(resumed.getFileHash()).isEqualTo(failed.getFileHash());
+        assertThat(resumed.getResumedAfterRow()).isEqualTo(6);
+        assertThat(resumed.getRowsCommitted()).isEqualTo(10);
+        assertThat(resumed.getRowsInserted()).isEqualTo(10);
+        assertThat(mapped).containsExactly(7, 8, 9, 10);
+        assertThat(store.rows).containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+        assertThat(store.checkpoint.getCompletedAt()).isNotNull();
+
+        // a finished file starts over; its rows are then duplicates
+        mapped.clear();
+        ImportJobDto again = upload(csv(10));
+        assertThat(again.getStatus()).isEqualTo("DONE");
+        assertThat(again.getResumedAfterRow()).isNull();
+        assertThat(again.getRowsInserted()).isZero();
+        assertThat(again.getRowsSkipped()).isEqualTo(10);
+        assertThat(mapped).hasSize(10);
+        assertThat(store.rows).hasSize(10);
+    }
+
+    @Test
+    void cancelledJobCountsCommittedChunksOnly() throws InterruptedException {
+        startJobService();
+        cancelAtRow = 5;
+
+        ImportJobDto cancelled = upload(csv(10));
+
+        // row 4 was written and counted in the chunk the cancel rolled back
+        assertThat(cancelled.getStatus()).isEqualTo("CANCELLED");
+        assertThat(store.rows).containsExactly(1, 2, 3);
+        assertThat(cancelled.getRowsCommitted()).isEqualTo(3);
+        assertThat(cancelled.getRowsInserted()).isEqualTo(3);
+        assertThat(cancelled.getRowsSkipped()).isZero();
+    }
+
+    @Test
+    void failedSingleTransactionImportCountsNothing() throws InterruptedException {
+        startJobService();
+        String id = jobs.submit(ImportJob.Type.LOCALBODY, null, (path, progress) -> {
+            progress.inserted(40);
+            progress.skipped(2);
+            throw new IllegalStateException("mongo cursor lost");
+        }).getJobId();
+
+        ImportJobDto failed = await(id);
+        assertThat(failed.getStatus()).isEqualTo("FAILED");
+        assertThat(failed.getRowsInserted()).isZero();
+        assertThat(failed.getRowsSkipped()).isZero();
+    }
+
+    @Test
+    void differentFileDoesNotResume() throws InterruptedException {
+        startJobService();
+        failAtRow = 8;
+        upload(csv(10));
+
+        mapped.clear();
+        ImportJobDto other = upload(csv(10) + "11,103\n");
+
+        assertThat(other.getStatus()).isEqualTo("DONE");
+        assertThat(other.getResumedAfterRow()).isNull();
+        assertThat(mapped).hasSize(11);
+        assertThat(other.getRowsInserted()).isEqualTo(5);
+        assertThat(other.getRowsSkipped()).isEqualTo(6);
+    }
+}
@@ -0,0 +1,106 @@
+package com.keralavotes.election.service;
+
+import com.keralavotes.election.service.DataVersionService.Scope;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ResponseCacheServiceTest {
+
+    private static final List<Integer> YEARS = List.of(2020);
+
+    private DataVersionService versions;
+    private ResponseCacheService cache;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        versions = mock(DataVersionService.class);
+        when(versions.version(any(), any(), anyCollection())).thenReturn(1L);
+        cache = new ResponseCacheService(versions, JsonMapper.builder().build(), new CBORMapper(),
+                new SimpleMeterRegistry(), 1 << 20);
+    }
+
+    private String respond(Supplier<?> loader) {
+        ResponseEntity<byte[]> response = cache.respond("state", Scope.STATE, null, YEARS, List.of(),
+                loader, mock(WebRequest.class));
+        return new String(response.getBody(), StandardCharsets.UTF_8);
+    }
+
+    private Supplier<?> counting(Supplier<?> body) {
+        return () -> {
+            loads.incrementAndGet();
+            return body.get();
+        };
+    }
+
+    @Test
+    void servesCachedBodyUntilVersionMoves() {
+        when(versions.version(any(), any(), anyCollection())).thenReturn(1L, 1L, 2L);
+        Supplier<?> loader = counting(() -> Map.of("wards", loads.get()));
+
+        assertThat(respond(loader)).isEqualTo("{\"wards\":1}");
+        assertThat(respond(loader)).isEqualTo("{\"wards\":1}");
+        assertThat(respond(loader)).isEqualTo("{\"wards\":2}");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void concurrentMissesShareOneBuild() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<?> loader = counting(() -> {
+            loading.countDown();
+            try {
+                assertThat(release.await(10, TimeUnit.SECONDS)).isTrue();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return Map.of("wards", 22_000);
+        });
+
+        CompletableFuture<String> a = CompletableFuture.supplyAsync(() -> respond(loader));
+        assertThat(loading.await(10, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> b = CompletableFuture.supplyAsync(() -> respond(loader));
+        // b misses while a is still building
+        Thread.sleep(50);
+        release.countDown();
+
+        assertThat(a.get(10, TimeUnit.SECONDS)).isEqualTo("{\"wards\":22000}");
+        assertThat(b.get(10, TimeUnit.SECONDS)).isEqualTo("{\"wards\":22000}");
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void failedBuildIsNotCachedAndRetried() {
+        Supplier<?> failing = counting(() -> {
+            throw new IllegalStateException("rollup unavailable");
+        });
+
+        assertThatThrownBy(() -> respond(failing))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("rollup unavailable");
+        assertThat(respond(counting(() -> Map.of("wards", 1)))).isEqualTo("{\"wards\":1}");
+        assertThat(loads).hasValue(2);
+    }
+}
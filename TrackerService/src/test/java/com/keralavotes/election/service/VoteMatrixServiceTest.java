@@ -0,0 +1,111 @@
+package com.keralavotes.election.service;
+
+import com.keralavotes.election.model.ScenarioUnitRow;
+import com.keralavotes.election.model.VoteMatrix;
+import com.keralavotes.election.repository.BoothAllianceRollupRepository;
+import com.keralavotes.election.repository.WardAllianceRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class VoteMatrixServiceTest {
+
+    private record Row(Long unitId, String alliance, Long votes) implements ScenarioUnitRow {
+        public Long getUnitId() { return unitId; }
+        public Long getLocalbodyId() { return 1001L; }
+        public String getLocalbodyName() { return "LB"; }
+        public Integer getAcCode() { return 1; }
+        public String getAcName() { return "AC"; }
+        public Integer getDistrictCode() { return 1; }
+        public String getAlliance() { return alliance; }
+        public Long getVotes() { return votes; }
+    }
+
+    private static final ScenarioUnitRow ROW = new Row(1L, "LDF", 10L);
+
+    private DataVersionService versions;
+    private StreamingQueryService streaming;
+    private VoteMatrixService service;
+
+    @BeforeEach
+    void setUp() {
+        versions = mock(DataVersionService.class);
+        streaming = mock(StreamingQueryService.class);
+        service = new VoteMatrixService(mock(WardAllianceRollupRepository.class),
+                mock(BoothAllianceRollupRepository.class), versions, streaming);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Answer<VoteMatrix> buildFromRow() {
+        return inv -> ((Function<Stream<ScenarioUnitRow>, VoteMatrix>) inv.getArgument(2)).apply(Stream.of(ROW));
+    }
+
+    @Test
+    void reusesMatrixUntilVersionMoves() {
+        when(versions.version(any(), any(), anyCollection())).thenReturn(3L, 3L, 4L);
+        when(streaming.scan(anyString(), any(), any())).thenAnswer(buildFromRow());
+
+        VoteMatrix first = service.matrix(2020);
+        assertThat(service.matrix(2020)).isSameAs(first);
+        assertThat(service.matrix(2020)).isNotSameAs(first);
+        verify(streaming, times(2)).scan(eq("vote-matrix-ward"), any(), any());
+    }
+
+    @Test
+    void failedLoadIsEvictedAndRetried() {
+        when(versions.version(any(), any(), anyCollection())).thenReturn(1L);
+        when(streaming.scan(anyString(), any(), any()))
+                .thenThrow(new IllegalStateException("cursor closed"))
+                .thenAnswer(buildFromRow());
+
+        assertThatThrownBy(() -> service.matrix(2020))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("cursor closed");
+        assertThat(service.matrix(2020).getUnitCount()).isEqualTo(1);
+        verify(streaming, times(2)).scan(anyString(), any(), any());
+    }
+
+    @Test
+    void concurrentFirstRequestsShareOneLoad() throws Exception {
+        when(versions.version(any(), any(), anyCollection())).thenReturn(1L);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Answer<VoteMatrix> build = buildFromRow();
+        when(streaming.scan(anyString(), any(), any())).thenAnswer(inv -> {
+            loading.countDown();
+            assertThat(release.await(10, TimeUnit.SECONDS)).isTrue();
+            return build.answer(inv);
+        });
+
+        CompletableFuture<VoteMatrix> a = CompletableFuture.supplyAsync(() -> service.matrix(2020));
+        assertThat(loading.await(10, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<VoteMatrix> b = CompletableFuture.supplyAsync(() -> service.matrix(2020));
+        release.countDown();
+
+        assertThat(b.get(10, TimeUnit.SECONDS)).isSameAs(a.get(10, TimeUnit.SECONDS));
+        verify(streaming, times(1)).scan(anyString(), any(), any());
+    }
+
+    @Test
+    void rejectsUnknownYear() {
+        assertThatThrownBy(() -> service.matrix(1999)).isInstanceOf(ResponseStatusException.class);
+    }
+}
@@ -0,0 +1,102 @@
+package com.keralavotes.election.service;
+
+import com.keralavotes.election.model.PartyAllianceSnapshot;
+import com.keralavotes.election.model.VoteRollup;
+import com.keralavotes.election.model.VoteRow;
+import com.keralavotes.election.repository.LbWardResultRepository;
+import com.keralavotes.election.repository.LocalbodyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class VoteRollupServiceTest {
+
+    private LbWardResultRepository wardResults;
+    private LocalbodyRepository localbodies;
+    private StreamingQueryService streaming;
+    private VoteRollupService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        wardResults = mock(LbWardResultRepository.class);
+        localbodies = mock(LocalbodyRepository.class);
+        streaming = mock(StreamingQueryService.class);
+        PartyAllianceSnapshotService snapshots = mock(PartyAllianceSnapshotService.class);
+        DataVersionService versions = mock(DataVersionService.class);
+
+        when(snapshots.current()).thenReturn(PartyAllianceSnapshot.build(1, List.of(), List.of()));
+        when(versions.version(any(), any(), anyCollection())).thenReturn(1L);
+        when(localbodies.findDistinctTypes()).thenReturn(List.of("grama_panchayath", "municipality", "corporation"));
+        when(wardResults.streamVotes(anyInt(), any(), any(), any())).thenAnswer(inv -> Stream.empty());
+        when(streaming.scan(any(), any(), any())).thenAnswer(inv -> {
+            Stream<VoteRow> rows = inv.<Supplier<Stream<VoteRow>>>getArgument(1).get();
+            return inv.<Function<Stream<VoteRow>, VoteRollup>>getArgument(2).apply(rows);
+        });
+
+        service = new VoteRollupService(wardResults, localbodies, snapshots, versions, streaming);
+    }
+
+    @Test
+    void typeFilterIsNormalizedIntoOneKey() {
+        VoteRollup first = service.rollup(2020, List.of("Municipality", "grama_panchayath"));
+
+        assertThat(service.rollup(2020, List.of("grama_panchayath", "municipality", "MUNICIPALITY"))).isSameAs(first);
+        verify(streaming, times(1)).scan(eq("vote-rollup"), any(), any());
+    }
+
+    @Test
+    void unknownTypeIsRejectedWithoutScanning() {
+        assertThatThrownBy(() -> service.rollup(2020, List.of("municipality", "made_up_1")))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("made_up_1");
+        verify(streaming, never()).scan(any(), any(), any());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedRollupOnly() {
+        VoteRollup kept = service.rollup(2000, null);
+        for (int year = 2001; year < 2032; year++) {
+            service.rollup(year, null);
+        }
+        // 32 held; touching 2000 leaves 2001 as the least recently used
+        assertThat(service.rollup(2000, null)).isSameAs(kept);
+
+        service.rollup(2032, null);
+
+        assertThat(service.rollup(2000, null)).isSameAs(kept);
+        verify(streaming, times(33)).scan(eq("vote-rollup"), any(), any());
+        service.rollup(2001, null);
+        verify(streaming, times(34)).scan(eq("vote-rollup"), any(), any());
+    }
+
+    @Test
+    void singleAcReadsItsOwnWardsUntilStateRollupIsBuilt() {
+        service.acRollup(2020, 42, null);
+
+        verify(wardResults).streamVotes(eq(2020), eq(42), isNull(), isNull());
+        verify(streaming, never()).scan(eq("vote-rollup"), any(), any());
+
+        VoteRollup state = service.rollup(2020, null);
+        assertThat(service.acRollup(2020, 42, null)).isSameAs(state);
+        verify(streaming, times(1)).scan(eq("vote-rollup-ac"), any(), any());
+    }
+}
@@ -0,0 +1,142 @@
+package com.keralavotes.election.service;
+
+import com.keralavotes.election.dto.ElectionType;
+import com.keralavotes.election.dto.details.VoteTransferScenarioResponse;
+import com.keralavotes.election.dto.details.VoteTransferScenarioResponse.AllianceUnits;
+import com.keralavotes.election.dto.details.VoteTransferScenarioResponse.AllianceVotes;
+import com.keralavotes.election.model.ScenarioUnitRow;
+import com.keralavotes.election.model.VoteMatrix;
+import com.keralavotes.election.model.VoteTransferScenarioRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class VoteTransferScenarioServiceTest {
+
+    record Row(Long unitId, Integer districtCode, String alliance, Long votes) implements ScenarioUnitRow {
+        public Long getUnitId() { return unitId; }
+        public Long getLocalbodyId() { return 1001L; }
+        public String getLocalbodyName() { return "Kottayam"; }
+        public Integer getAcCode() { return 97; }
+        public String getAcName() { return "Kottayam AC"; }
+        public Integer getDistrictCode() { return districtCode; }
+        public String getAlliance() { return alliance; }
+        public Long getVotes() { return votes; }
+    }
+
+    private VoteTransferScenarioService service;
+
+    @BeforeEach
+    void setUp() {
+        // one localbody, one AC; ward 3 sits in a second district
+        VoteMatrix matrix = VoteMatrix.build(2020, ElectionType.LOCALBODY, Stream.of(
+                new Row(1L, 1, "LDF", 100L), new Row(1L, 1, "UDF", 90L),
+                new Row(2L, 1, "LDF", 100L), new Row(2L, 1, "UDF", 50L), new Row(2L, 1, "NDA", 40L),
+                new Row(3L, 2, "LDF", 50L), new Row(3L, 2, "UDF", 120L)));
+        VoteMatrixService matrices = mock(VoteMatrixService.class);
+        when(matrices.matrix(2020)).thenReturn(matrix);
+        service = new VoteTransferScenarioService(matrices, new SimpleMeterRegistry());
+    }
+
+    private static VoteTransferScenarioRequest request(String alliance, VoteTransferScenarioRequest.Transfer... transfers) {
+        VoteTransferScenarioRequest req = new VoteTransferScenarioRequest();
+        req.setYear(2020);
+        req.setAlliance(alliance);
+        req.setSwingPercent(10);
+        req.setTransfers(List.of(transfers));
+        return req;
+    }
+
+    private static VoteTransferScenarioRequest.Transfer transfer(String from, String to, double percent) {
+        VoteTransferScenarioRequest.Transfer t = new VoteTransferScenarioRequest.Transfer();
+        t.setFrom(from);
+        t.setTo(to);
+        t.setPercent(percent);
+        return t;
+    }
+
+    @Test
+    void transfersFlipWardsAndVerdicts() {
+        VoteTransferScenarioRequest req = request("UDF", transfer("LDF", "udf", 20));
+        // ward 3's district keeps its baseline
+        VoteTransferScenarioRequest.DistrictOverride keep = new VoteTransferScenarioRequest.DistrictOverride();
+        keep.setDistrictCode(2);
+        keep.setTransfers(List.of(transfer("UDF", "LDF", 0)));
+        req.setDistrictOverrides(List.of(keep));
+
+        VoteTransferScenarioResponse res = service.evaluate(req);
+
+        assertThat(res.getUnitType()).isEqualTo("WARD");
+        assertThat(res.getUnits()).isEqualTo(3);
+        // ward 1: LDF 80 / UDF 110
+        assertThat(res.getFlippedUnits()).isEqualTo(1);
+        assertThat(res.getUnitsWon()).containsExactly(
+                new AllianceUnits("LDF", 2, 1),
+                new AllianceUnits("UDF", 1, 2));
+
+        VoteTransferScenarioResponse.LocalbodyResult lb = res.getLocalbodies().get(0);
+        assertThat(lb.getLocalbodyId()).isEqualTo(1001L);
+        assertThat(lb.getTotalUnits()).isEqualTo(3);
+        assertThat(lb.getMajorityNeeded()).isEqualTo(2);
+        assertThat(lb.getWon()).isEqualTo(2);
+        assertThat(lb.getVerdict()).isEqualTo("MAJORITY");
+        // baseline: ward 3 won, ward 1 within 10%
+        assertThat(lb.getBaselineVerdict()).isEqualTo("POSSIBLE_WITH_SWING");
+
+        VoteTransferScenarioResponse.AcResult ac = res.getAcs().get(0);
+        assertThat(ac.getAcCode()).isEqualTo(97);
+        assertThat(ac.getVotes()).containsExactly(
+                new AllianceVotes("LDF", 250, 210),
+                new AllianceVotes("NDA", 40, 40),
+                new AllianceVotes("UDF", 260, 300));
+        assertThat(ac.getWinner()).isEqualTo("UDF");
+        assertThat(ac.getBaselineWinner()).isEqualTo("UDF");
+        assertThat(ac.getMargin()).isEqualTo(90);
+    }
+
+    @Test
+    void noTransfersReproducesBaseline() {
+        VoteTransferScenarioResponse res = service.evaluate(request("LDF"));
+
+        assertThat(res.getFlippedUnits()).isZero();
+        assertThat(res.getUnitsWon()).containsExactly(
+                new AllianceUnits("LDF", 2, 2),
+                new AllianceUnits("UDF", 1, 1));
+        assertThat(res.getLocalbodies().get(0).getVerdict())
+                .isEqualTo(res.getLocalbodies().get(0).getBaselineVerdict())
+                .isEqualTo("MAJORITY");
+    }
+
+    @Test
+    void skipsTransfersToAllianceThatDidNotContest() {
+        // NDA only contested ward 2
+        VoteTransferScenarioResponse res = service.evaluate(request("NDA", transfer("LDF", "NDA", 60)));
+
+        assertThat(res.getUnitsWon()).containsExactly(
+                new AllianceUnits("LDF", 2, 1),
+                new AllianceUnits("NDA", 0, 1),
+                new AllianceUnits("UDF", 1, 1));
+        assertThat(res.getAcs().get(0).getVotes()).contains(new AllianceVotes("LDF", 250, 190));
+    }
+
+    @Test
+    void rejectsUnknownAllianceAndOverdrawnTransfers() {
+        assertThatThrownBy(() -> service.evaluate(request("LDF", transfer("LDF", "XYZ", 10))))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        assertThatThrownBy(() -> service.evaluate(request("LDF",
+                transfer("LDF", "UDF", 70), transfer("LDF", "NDA", 40))))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getReason()).contains("exceed 100%"));
+    }
+}
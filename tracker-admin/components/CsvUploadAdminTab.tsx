@@ -8,6 +8,38 @@ export default function CsvUploadAdminTab({ backend }: { backend: string }) {
 
   const log = (msg: string) => setLogMessages((prev) => [...prev, msg]);
 
+  const sleep = (ms: number) => new Promise((r) => setTimeout(r, ms));
+
+  // uploads are queued as import jobs; poll until the job finishes
+  const waitForJob = async (jobId: string) => {
+    let lastLine = "";
+    let resumeLogged = false;
+    for (;;) {
+      await sleep(1000);
+      const res = await fetch(`/v1/admin/import/jobs/${jobId}`);
+      if (!res.ok) throw new Error(await res.text());
+      const job = await res.json();
+
+      // a re-upload of an unfinished file continues after its last committed row
+      if (job.resumedAfterRow != null && !resumeLogged) {
+        log(`↻ Resuming after row ${job.resumedAfterRow}`);
+        resumeLogged = true;
+      }
+
+      if (job.status === "DONE") return job;
+      if (job.status === "FAILED" || job.status === "CANCELLED") {
+        throw new Error(`${job.status}: ${job.error ?? ""}`);
+      }
+
+      const pct = job.progress != null ? ` ${Math.round(job.progress * 100)}%` : "";
+      const eta = job.etaMs != null ? `, ~${Math.ceil(job.etaMs / 1000)}s left` : "";
+      const committed = job.rowsCommitted != null ? ` committed=${job.rowsCommitted}` : "";
+      const line = `… ${job.status}${pct} parsed=${job.rowsParsed} inserted=${job.rowsInserted} skipped=${job.rowsSkipped}${committed}${eta}`;
+      if (line !== lastLine) log(line);
+      lastLine = line;
+    }
+  };
+
   const uploadFile = async (endpoint: string, file: File) => {
     const form = new FormData();
     form.append("file", file);
@@ -21,10 +53,12 @@ export default function CsvUploadAdminTab({ backend }: { backend: string }) {
         body: form,
       });
 
-      const text = await res.text();
-      if (!res.ok) throw new Error(text);
+      if (!res.ok) throw new Error(await res.text());
+      const queued = await res.json();
+      log(`Queued as job ${queued.jobId}`);
 
-      log(`✔ Success: ${text}`);
+      const job = await waitForJob(queued.jobId);
+      log(`✔ Success: ${typeof job.result === "string" ? job.result : JSON.stringify(job.result)}`);
     } catch (err: any) {
       log(`❌ Error: ${err.message}`);
     }